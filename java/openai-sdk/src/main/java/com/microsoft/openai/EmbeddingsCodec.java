@@ -0,0 +1,119 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.openai;
+
+import com.azure.ai.openai.models.EmbeddingsOptions;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Streaming codec of the embeddings requests and responses. Vectors are decoded straight into
+ * {@code float[]}, without the intermediate objects and boxed values of data binding.
+ */
+final class EmbeddingsCodec {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    // Dimensions of text-embedding-ada-002, the initial capacity of a vector
+    private static final int DefaultDimensions = 1536;
+
+    // Request buffer of each thread, the request is copied out of it
+    private static final ThreadLocal<ByteArrayBuilder> RequestBuffer =
+            ThreadLocal.withInitial(() -> new ByteArrayBuilder(8 * 1024));
+
+    private EmbeddingsCodec() {}
+
+    static byte[] writeRequest(EmbeddingsOptions options) throws IOException {
+        ByteArrayBuilder buffer = RequestBuffer.get();
+        buffer.reset();
+        try (JsonGenerator generator = JSON.createGenerator(buffer)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("input");
+            for (String input : options.getInput()) {
+                generator.writeString(input);
+            }
+            generator.writeEndArray();
+            if (options.getModel() != null) {
+                generator.writeStringField("model", options.getModel());
+            }
+            if (options.getUser() != null) {
+                generator.writeStringField("user", options.getUser());
+            }
+            generator.writeEndObject();
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Reads the vectors of an embeddings response.
+     *
+     * @param body The response body
+     * @return The vectors, in the order of the inputs
+     */
+    static List<float[]> readVectors(InputStream body) throws IOException {
+        List<float[]> vectors = new ArrayList<>();
+        try (JsonParser parser = JSON.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("An embeddings response must be an object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("data".equals(name) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        readItem(parser, vectors);
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        if (vectors.contains(null)) {
+            throw new IOException("The embeddings response misses an index");
+        }
+        return vectors;
+    }
+
+    private static void readItem(JsonParser parser, List<float[]> vectors) throws IOException {
+        float[] vector = null;
+        int index = vectors.size();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if ("embedding".equals(name) && value == JsonToken.START_ARRAY) {
+                vector = readFloats(parser);
+            } else if ("index".equals(name) && value == JsonToken.VALUE_NUMBER_INT) {
+                index = parser.getIntValue();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (vector == null || index < 0) {
+            throw new IOException("Invalid embedding item at index " + index);
+        }
+        while (vectors.size() <= index) {
+            vectors.add(null);
+        }
+        vectors.set(index, vector);
+    }
+
+    private static float[] readFloats(JsonParser parser) throws IOException {
+        float[] values = new float[DefaultDimensions];
+        int size = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = parser.getFloatValue();
+        }
+        return size == values.length ? values : Arrays.copyOf(values, size);
+    }
+}
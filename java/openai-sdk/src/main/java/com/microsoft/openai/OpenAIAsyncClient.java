@@ -5,14 +5,58 @@ package com.microsoft.openai; // Copyright (c) Microsoft Corporation. All rights
 
 import com.azure.ai.openai.models.*;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Arrays;
+import java.util.List;
+
 /** Interface for an OpenAI client */
 public interface OpenAIAsyncClient {
     Mono<Embeddings> getEmbeddings(String deploymentId, EmbeddingsOptions embeddingsOptions);
 
+    /**
+     * Gets the embedding vectors of the inputs. Clients that decode the response themselves read
+     * the vectors straight into {@code float[]}, without boxing each value.
+     *
+     * @param deploymentId Deployment or model id
+     * @param embeddingsOptions Options of the request
+     * @return The vectors, in the order of the inputs
+     */
+    default Mono<List<float[]>> getEmbeddingVectors(
+            String deploymentId, EmbeddingsOptions embeddingsOptions) {
+        return getEmbeddings(deploymentId, embeddingsOptions)
+                .map(
+                        embeddings -> {
+                            float[][] vectors = new float[embeddings.getData().size()][];
+                            for (EmbeddingItem item : embeddings.getData()) {
+                                List<Double> embedding = item.getEmbedding();
+                                float[] vector = new float[embedding.size()];
+                                for (int i = 0; i < vector.length; i++) {
+                                    vector[i] = embedding.get(i).floatValue();
+                                }
+                                vectors[item.getIndex()] = vector;
+                            }
+                            return Arrays.asList(vectors);
+                        });
+    }
+
     Mono<Completions> getCompletions(String deploymentId, CompletionsOptions completionsOptions);
 
+    /**
+     * Streams the completions as they are generated. Each element holds the text generated since
+     * the previous element, for each choice. Clients that cannot stream return the whole completion
+     * as a single element.
+     *
+     * @param deploymentId Deployment or model id
+     * @param completionsOptions Options of the request
+     * @return The completion deltas, in order
+     */
+    default Flux<Completions> getCompletionsStream(
+            String deploymentId, CompletionsOptions completionsOptions) {
+        return getCompletions(deploymentId, completionsOptions).flux();
+    }
+
     Mono<ChatCompletions> getChatCompletions(
             String deploymentId, ChatCompletionsOptions chatCompletionsOptions);
 }
@@ -7,6 +7,7 @@ import com.azure.core.exception.ClientAuthenticationException;
 import com.azure.core.exception.HttpResponseException;
 import com.azure.core.exception.ResourceModifiedException;
 import com.azure.core.exception.ResourceNotFoundException;
+import com.azure.core.http.HttpClient;
 import com.azure.core.http.HttpHeaderName;
 import com.azure.core.http.HttpPipeline;
 import com.azure.core.http.HttpPipelineBuilder;
@@ -20,8 +21,14 @@ import com.azure.core.util.*;
 import com.azure.core.util.serializer.JacksonAdapter;
 import com.azure.core.util.serializer.SerializerAdapter;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
 class OpenAIAsyncClientImpl implements OpenAIAsyncClient {
     private final OpenAIClientService service;
     private final String endpoint;
@@ -39,8 +46,13 @@ class OpenAIAsyncClientImpl implements OpenAIAsyncClient {
     private String apiKey;
 
     public OpenAIAsyncClientImpl(String endpoint, String apiKey) {
+        this(endpoint, apiKey, OpenAIHttpClientBuilder.getSharedDefault());
+    }
+
+    public OpenAIAsyncClientImpl(String endpoint, String apiKey, HttpClient httpClient) {
         this(
                 new HttpPipelineBuilder()
+                        .httpClient(httpClient)
                         .policies(new UserAgentPolicy(), new RetryPolicy(), new CookiePolicy())
                         .build(),
                 JacksonAdapter.createDefaultSerializerAdapter(),
@@ -76,6 +88,37 @@ class OpenAIAsyncClientImpl implements OpenAIAsyncClient {
                 .map(protocolMethodData -> protocolMethodData.toObject(Embeddings.class));
     }
 
+    @Override
+    public Mono<List<float[]>> getEmbeddingVectors(
+            String deploymentId, EmbeddingsOptions embeddingsOptions) {
+        final String accept = "application/json";
+        return Mono.fromCallable(
+                        () -> BinaryData.fromBytes(EmbeddingsCodec.writeRequest(embeddingsOptions)))
+                .flatMap(
+                        body ->
+                                FluxUtil.withContext(
+                                        context ->
+                                                service.getEmbeddings(
+                                                        this.getEndpoint(),
+                                                        accept,
+                                                        body,
+                                                        new RequestOptions()
+                                                                .addHeader(
+                                                                        HttpHeaderName
+                                                                                .AUTHORIZATION,
+                                                                        "Bearer " + this.apiKey),
+                                                        context)))
+                .flatMap(FluxUtil::toMono)
+                .map(
+                        protocolMethodData -> {
+                            try {
+                                return EmbeddingsCodec.readVectors(protocolMethodData.toStream());
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        });
+    }
+
     @Override
     public Mono<Completions> getCompletions(
             String deploymentId, CompletionsOptions completionsOptions) {
@@ -95,6 +138,26 @@ class OpenAIAsyncClientImpl implements OpenAIAsyncClient {
                 .map(protocolMethodData -> protocolMethodData.toObject(Completions.class));
     }
 
+    @Override
+    public Flux<Completions> getCompletionsStream(
+            String deploymentId, CompletionsOptions completionsOptions) {
+        final String accept = "text/event-stream";
+        completionsOptions.setStream(true);
+        return FluxUtil.fluxContext(
+                        context ->
+                                ServerSentEvents.data(
+                                        service.getCompletionsStream(
+                                                this.getEndpoint(),
+                                                accept,
+                                                BinaryData.fromObject(completionsOptions),
+                                                new RequestOptions()
+                                                        .addHeader(
+                                                                HttpHeaderName.AUTHORIZATION,
+                                                                "Bearer " + this.apiKey),
+                                                context)))
+                .map(data -> BinaryData.fromString(data).toObject(Completions.class));
+    }
+
     @Override
     public Mono<ChatCompletions> getChatCompletions(
             String deploymentId, ChatCompletionsOptions chatCompletionsOptions) {
@@ -160,6 +223,25 @@ class OpenAIAsyncClientImpl implements OpenAIAsyncClient {
                 RequestOptions requestOptions,
                 Context context);
 
+        @Post("/completions")
+        @ExpectedResponses({200})
+        @UnexpectedResponseExceptionType(
+                value = ClientAuthenticationException.class,
+                code = {401})
+        @UnexpectedResponseExceptionType(
+                value = ResourceNotFoundException.class,
+                code = {404})
+        @UnexpectedResponseExceptionType(
+                value = ResourceModifiedException.class,
+                code = {409})
+        @UnexpectedResponseExceptionType(HttpResponseException.class)
+        Flux<ByteBuffer> getCompletionsStream(
+                @HostParam("endpoint") String endpoint,
+                @HeaderParam("accept") String accept,
+                @BodyParam("application/json") BinaryData completionsOptions,
+                RequestOptions requestOptions,
+                Context context);
+
         @Post("/chat/completions")
         @ExpectedResponses({200})
         @UnexpectedResponseExceptionType(
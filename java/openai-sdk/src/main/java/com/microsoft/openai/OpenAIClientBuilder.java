@@ -3,10 +3,13 @@ package com.microsoft.openai; // Copyright (c) Microsoft Corporation. All rights
 // Licensed under the MIT License.
 // Code generated by Microsoft (R) AutoRest Code Generator.
 
+import com.azure.core.http.HttpClient;
+
 /** Builds an OpenAIClient for use with <a href="https://api.openai.com/v1">api.openai.com/v1</a> */
 public final class OpenAIClientBuilder {
     private String endpoint = "https://api.openai.com/v1";
     private String apiKey;
+    private HttpClient httpClient;
 
     public OpenAIClientBuilder setApiKey(String apiKey) {
         this.apiKey = apiKey;
@@ -18,7 +21,23 @@ public final class OpenAIClientBuilder {
         return this;
     }
 
+    /**
+     * Sets the HTTP client sending the requests. Clients built without one share {@link
+     * OpenAIHttpClientBuilder#getSharedDefault()}.
+     *
+     * @param httpClient The HTTP client, see {@link OpenAIHttpClientBuilder} to tune its connection
+     *     pool
+     * @return This builder
+     */
+    public OpenAIClientBuilder setHttpClient(HttpClient httpClient) {
+        this.httpClient = httpClient;
+        return this;
+    }
+
     public OpenAIAsyncClient build() {
-        return new OpenAIAsyncClientImpl(endpoint, apiKey);
+        return new OpenAIAsyncClientImpl(
+                endpoint,
+                apiKey,
+                httpClient != null ? httpClient : OpenAIHttpClientBuilder.getSharedDefault());
     }
 }
@@ -0,0 +1,134 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.openai;
+
+import com.azure.core.http.HttpClient;
+import com.azure.core.http.netty.NettyAsyncHttpClientBuilder;
+
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Builds an {@link HttpClient} with a tuned connection pool, to share between the OpenAI clients of
+ * an application so that they reuse warm connections.
+ *
+ * <p>Connections are pooled per remote address. The most recently used connection is reused first,
+ * so that a pool sized for peaks shrinks back to the connections actually in use once the idle ones
+ * are evicted.
+ *
+ * <pre>{@code
+ * HttpClient httpClient =
+ *         new OpenAIHttpClientBuilder().setMaxConnectionsPerRoute(200).build();
+ * OpenAIAsyncClient client =
+ *         new OpenAIClientBuilder().setApiKey(apiKey).setHttpClient(httpClient).build();
+ * }</pre>
+ */
+public final class OpenAIHttpClientBuilder {
+
+    private static volatile HttpClient sharedDefault;
+
+    private int maxConnectionsPerRoute = 100;
+    private int maxPendingAcquires = 1000;
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(45);
+    private Duration maxIdleTime = Duration.ofSeconds(60);
+    private Duration maxLifeTime = Duration.ofMinutes(10);
+    private Duration evictionInterval = Duration.ofSeconds(30);
+    private Duration connectTimeout = Duration.ofSeconds(10);
+    private Duration responseTimeout = Duration.ofSeconds(120);
+
+    /**
+     * Gets the client used by the {@link OpenAIClientBuilder}s without an explicit client, built
+     * with the default settings on first use.
+     *
+     * @return The shared client
+     */
+    public static HttpClient getSharedDefault() {
+        HttpClient client = sharedDefault;
+        if (client == null) {
+            synchronized (OpenAIHttpClientBuilder.class) {
+                client = sharedDefault;
+                if (client == null) {
+                    client = new OpenAIHttpClientBuilder().build();
+                    sharedDefault = client;
+                }
+            }
+        }
+        return client;
+    }
+
+    /**
+     * @param maxConnectionsPerRoute Maximum number of connections to an endpoint, 100 by default
+     * @return This builder
+     */
+    public OpenAIHttpClientBuilder setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+        return this;
+    }
+
+    /**
+     * @param maxPendingAcquires Maximum number of requests waiting for a connection to an endpoint,
+     *     1000 by default
+     * @param pendingAcquireTimeout Time a request waits for a connection, 45 seconds by default
+     * @return This builder
+     */
+    public OpenAIHttpClientBuilder setPendingAcquires(
+            int maxPendingAcquires, Duration pendingAcquireTimeout) {
+        this.maxPendingAcquires = maxPendingAcquires;
+        this.pendingAcquireTimeout = pendingAcquireTimeout;
+        return this;
+    }
+
+    /**
+     * @param maxIdleTime Time after which an idle connection is closed, 60 seconds by default
+     * @param maxLifeTime Time after which a connection is closed once idle, 10 minutes by default,
+     *     so that connections follow DNS changes of the endpoints
+     * @param evictionInterval Interval between two background evictions of the expired connections,
+     *     30 seconds by default
+     * @return This builder
+     */
+    public OpenAIHttpClientBuilder setEviction(
+            Duration maxIdleTime, Duration maxLifeTime, Duration evictionInterval) {
+        this.maxIdleTime = maxIdleTime;
+        this.maxLifeTime = maxLifeTime;
+        this.evictionInterval = evictionInterval;
+        return this;
+    }
+
+    /**
+     * @param connectTimeout Timeout of the connection to an endpoint, 10 seconds by default
+     * @return This builder
+     */
+    public OpenAIHttpClientBuilder setConnectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+        return this;
+    }
+
+    /**
+     * @param responseTimeout Time waited for the response once the request is sent, 120 seconds by
+     *     default as completions of long prompts are slow
+     * @return This builder
+     */
+    public OpenAIHttpClientBuilder setResponseTimeout(Duration responseTimeout) {
+        this.responseTimeout = responseTimeout;
+        return this;
+    }
+
+    public HttpClient build() {
+        ConnectionProvider connectionProvider =
+                ConnectionProvider.builder("openai")
+                        .maxConnections(maxConnectionsPerRoute)
+                        .pendingAcquireMaxCount(maxPendingAcquires)
+                        .pendingAcquireTimeout(pendingAcquireTimeout)
+                        .maxIdleTime(maxIdleTime)
+                        .maxLifeTime(maxLifeTime)
+                        .evictInBackground(evictionInterval)
+                        .lifo()
+                        .build();
+
+        return new NettyAsyncHttpClientBuilder()
+                .connectionProvider(connectionProvider)
+                .connectTimeout(connectTimeout)
+                .responseTimeout(responseTimeout)
+                .build();
+    }
+}
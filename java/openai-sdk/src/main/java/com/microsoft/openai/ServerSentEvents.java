@@ -0,0 +1,70 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.openai;
+
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/** Decodes the server-sent events streamed by the OpenAI API when {@code stream} is set. */
+final class ServerSentEvents {
+
+    private static final String DataField = "data:";
+    private static final String Done = "[DONE]";
+
+    private ServerSentEvents() {}
+
+    /**
+     * Extracts the data of the events of a response body.
+     *
+     * @param body Bytes of the response body, split at arbitrary positions
+     * @return The data of each event, up to the {@code [DONE]} event
+     */
+    static Flux<String> data(Flux<ByteBuffer> body) {
+        return Flux.defer(
+                        () -> {
+                            LineSplitter lines = new LineSplitter();
+                            return body.concatMapIterable(lines::split)
+                                    .concatWith(
+                                            Flux.defer(() -> Flux.fromIterable(lines.remainder())));
+                        })
+                .filter(line -> line.startsWith(DataField))
+                .map(line -> line.substring(DataField.length()).trim())
+                .takeWhile(data -> !data.equals(Done));
+    }
+
+    /** Splits bytes into UTF-8 lines, line feeds never occur within a multi-byte character. */
+    private static final class LineSplitter {
+        private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+
+        private List<String> split(ByteBuffer buffer) {
+            List<String> lines = new ArrayList<>();
+            while (buffer.hasRemaining()) {
+                byte b = buffer.get();
+                if (b == '\n') {
+                    lines.add(takeLine());
+                } else if (b != '\r') {
+                    line.write(b);
+                }
+            }
+            return lines;
+        }
+
+        private List<String> remainder() {
+            List<String> lines = new ArrayList<>();
+            if (line.size() > 0) {
+                lines.add(takeLine());
+            }
+            return lines;
+        }
+
+        private String takeLine() {
+            String value = new String(line.toByteArray(), StandardCharsets.UTF_8);
+            line.reset();
+            return value;
+        }
+    }
+}
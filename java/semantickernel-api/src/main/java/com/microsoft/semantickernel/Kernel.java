@@ -5,9 +5,12 @@ import com.microsoft.semantickernel.builders.BuildersSingleton;
 import com.microsoft.semantickernel.exceptions.SkillsNotFoundException;
 import com.microsoft.semantickernel.memory.SemanticTextMemory;
 import com.microsoft.semantickernel.orchestration.ContextVariables;
+import com.microsoft.semantickernel.orchestration.Deadlines;
 import com.microsoft.semantickernel.orchestration.SKContext;
 import com.microsoft.semantickernel.orchestration.SKFunction;
 import com.microsoft.semantickernel.semanticfunctions.SemanticFunctionConfig;
+import com.microsoft.semantickernel.skilldefinition.DefaultFunctionIndex;
+import com.microsoft.semantickernel.skilldefinition.FunctionIndex;
 import com.microsoft.semantickernel.skilldefinition.ReadOnlyFunctionCollection;
 import com.microsoft.semantickernel.skilldefinition.ReadOnlySkillCollection;
 import com.microsoft.semantickernel.templateengine.PromptTemplateEngine;
@@ -15,6 +18,7 @@ import com.microsoft.semantickernel.textcompletion.CompletionSKFunction;
 
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
 import java.util.Map;
 
 import javax.annotation.Nullable;
@@ -75,6 +79,23 @@ public interface Kernel {
      */
     Mono<SKContext<?>> runAsync(ContextVariables variables, SKFunction... pipeline);
 
+    /**
+     * Run a pipeline composed of synchronous and asynchronous functions, within a deadline. When
+     * the deadline passes the pipeline fails, and the requests it is waiting for are cancelled.
+     *
+     * @param variables variables to initialise the context with
+     * @param deadline deadline of the pipeline, {@code null} for none
+     * @param pipeline List of functions
+     * @return Result of the function composition
+     */
+    default Mono<SKContext<?>> runAsync(
+            ContextVariables variables, @Nullable Instant deadline, SKFunction... pipeline) {
+        if (deadline == null) {
+            return runAsync(variables, pipeline);
+        }
+        return Deadlines.apply(runAsync(variables, pipeline), deadline);
+    }
+
     /**
      * Import a set of skills
      *
@@ -110,6 +131,18 @@ public interface Kernel {
      */
     ReadOnlySkillCollection getSkills();
 
+    /**
+     * Kernels which do not maintain an index keep this default, returning a new index of the
+     * functions of {@link #getSkills()}. It does not see the functions registered afterwards, and
+     * does not remember which functions were saved to memory by the previous indexes.
+     *
+     * @return Index of all the functions registered on this kernel, keyed by their fully qualified
+     *     name
+     */
+    default FunctionIndex getFunctionIndex() {
+        return new DefaultFunctionIndex(getSkills());
+    }
+
     CompletionSKFunction.Builder getSemanticFunctionBuilder();
 
     /** Obtains the service with the given name and type */
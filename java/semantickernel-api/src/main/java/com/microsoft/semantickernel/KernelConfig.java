@@ -2,6 +2,7 @@
 package com.microsoft.semantickernel;
 
 import com.microsoft.semantickernel.ai.embeddings.EmbeddingGeneration;
+import com.microsoft.semantickernel.orchestration.FunctionFilter;
 import com.microsoft.semantickernel.orchestration.SKFunction;
 import com.microsoft.semantickernel.textcompletion.TextCompletion;
 
@@ -13,54 +14,125 @@ import javax.annotation.Nullable;
 public final class KernelConfig {
 
     private static final String DEFAULT_SERVICE_ID = "__SK_DEFAULT";
-    private final Map<String, Function<Kernel, TextCompletion>> textCompletionServices;
 
-    private final Map<String, Function<Kernel, EmbeddingGeneration<String, Double>>>
+    /** Lifetime of the services registered without one, an instance per kernel. */
+    public static final ServiceLifetime DEFAULT_SERVICE_LIFETIME = ServiceLifetime.SCOPED;
+
+    private final Map<String, ServiceRegistration<TextCompletion>> textCompletionServices;
+
+    private final Map<String, ServiceRegistration<EmbeddingGeneration<String, Double>>>
             textEmbeddingGenerationServices;
     private final ArrayList<SKFunction<?, ?>> skills;
+    private final List<FunctionFilter> functionFilters;
 
     public KernelConfig(
             Map<String, Function<Kernel, TextCompletion>> textCompletionServices,
             Map<String, Function<Kernel, EmbeddingGeneration<String, Double>>>
                     textEmbeddingGenerationServices,
             List<SKFunction<?, ?>> skills) {
-        this.textCompletionServices = new HashMap<>();
-        this.textCompletionServices.putAll(textCompletionServices);
-        this.textEmbeddingGenerationServices = new HashMap<>(textEmbeddingGenerationServices);
+        this.textCompletionServices = register(textCompletionServices);
+        this.textEmbeddingGenerationServices = register(textEmbeddingGenerationServices);
         this.skills = new ArrayList<>(skills);
+        this.functionFilters = Collections.emptyList();
+    }
+
+    private KernelConfig(Builder builder) {
+        this.textCompletionServices = new HashMap<>(builder.textCompletionServices);
+        this.textEmbeddingGenerationServices =
+                new HashMap<>(builder.textEmbeddingGenerationServices);
+        this.skills = new ArrayList<>(builder.skillBuilders);
+        this.functionFilters =
+                Collections.unmodifiableList(new ArrayList<>(builder.functionFilters));
+    }
+
+    /** Registers factories with the default lifetime, a factory under several ids is shared. */
+    private static <T> Map<String, ServiceRegistration<T>> register(
+            Map<String, Function<Kernel, T>> factories) {
+        Map<Function<Kernel, T>, ServiceRegistration<T>> registrations = new IdentityHashMap<>();
+        Map<String, ServiceRegistration<T>> services = new HashMap<>();
+        factories.forEach(
+                (serviceId, factory) ->
+                        services.put(
+                                serviceId,
+                                registrations.computeIfAbsent(
+                                        factory,
+                                        it ->
+                                                new ServiceRegistration<>(
+                                                        it, DEFAULT_SERVICE_LIFETIME))));
+        return services;
     }
 
     @Nullable
     public Function<Kernel, TextCompletion> getTextCompletionService(String serviceId) {
-        return textCompletionServices.get(serviceId);
+        ServiceRegistration<TextCompletion> registration = textCompletionServices.get(serviceId);
+        return registration != null ? registration.getFactory() : null;
     }
 
     public List<SKFunction<?, ?>> getSkills() {
         return Collections.unmodifiableList(skills);
     }
 
+    /**
+     * @return Filters of the function invocations, in the order they run
+     */
+    public List<FunctionFilter> getFunctionFilters() {
+        return functionFilters;
+    }
+
     public Function<Kernel, TextCompletion> getTextCompletionServiceOrDefault(
             @Nullable String serviceId) {
-        if (serviceId == null) {
-            serviceId = DEFAULT_SERVICE_ID;
-        }
+        return getTextCompletionRegistration(serviceId).getFactory();
+    }
 
-        if (!this.textCompletionServices.containsKey(serviceId)) {
+    /**
+     * Gets the registration of a text completion service.
+     *
+     * @param serviceId Id of the service, {@code null} for the default service
+     * @return The registration
+     * @throws KernelException if there is no such service
+     */
+    public ServiceRegistration<TextCompletion> getTextCompletionRegistration(
+            @Nullable String serviceId) {
+        return getRegistration(textCompletionServices, serviceId, "text completion");
+    }
+
+    /**
+     * Gets the registration of a text embedding generation service.
+     *
+     * @param serviceId Id of the service, {@code null} for the default service
+     * @return The registration
+     * @throws KernelException if there is no such service
+     */
+    public ServiceRegistration<EmbeddingGeneration<String, Double>>
+            getTextEmbeddingGenerationRegistration(@Nullable String serviceId) {
+        return getRegistration(
+                textEmbeddingGenerationServices, serviceId, "text embedding generation");
+    }
+
+    private static <T> ServiceRegistration<T> getRegistration(
+            Map<String, ServiceRegistration<T>> services, @Nullable String serviceId, String kind) {
+        ServiceRegistration<T> registration =
+                services.get(serviceId != null ? serviceId : DEFAULT_SERVICE_ID);
+        if (registration == null) {
             throw new KernelException(
                     KernelException.ErrorCodes.ServiceNotFound,
-                    "A text completion service id '" + serviceId + "' doesn't exist");
+                    serviceId != null
+                            ? "A " + kind + " service id '" + serviceId + "' doesn't exist"
+                            : "No default " + kind + " service is registered");
         }
 
-        return this.textCompletionServices.get(serviceId);
+        return registration;
     }
 
     public static class Builder {
-        private Map<String, Function<Kernel, TextCompletion>> textCompletionServices =
+        private Map<String, ServiceRegistration<TextCompletion>> textCompletionServices =
                 new HashMap<>();
 
         private List<SKFunction<?, ?>> skillBuilders = new ArrayList<>();
 
-        private Map<String, Function<Kernel, EmbeddingGeneration<String, Double>>>
+        private final List<FunctionFilter> functionFilters = new ArrayList<>();
+
+        private Map<String, ServiceRegistration<EmbeddingGeneration<String, Double>>>
                 textEmbeddingGenerationServices = new HashMap<>();
 
         public Builder addSkill(SKFunction<?, ?> functionDefinition) {
@@ -68,34 +140,77 @@ public final class KernelConfig {
             return this;
         }
 
-        // TODO, is there a need for this to be a factory?
+        /**
+         * Adds a filter of the function invocations, filters run in the order they are added.
+         *
+         * @param filter The filter
+         * @return This builder
+         */
+        public Builder addFunctionFilter(FunctionFilter filter) {
+            functionFilters.add(filter);
+            return this;
+        }
+
         public Builder addTextCompletionService(
                 String serviceId, Function<Kernel, TextCompletion> serviceFactory) {
-            if (serviceId == null || serviceId.isEmpty()) {
-                throw new IllegalArgumentException("Null or empty serviceId");
-            }
-
-            textCompletionServices.put(serviceId, serviceFactory);
+            return addTextCompletionService(serviceId, serviceFactory, DEFAULT_SERVICE_LIFETIME);
+        }
 
-            if (textCompletionServices.size() == 1) {
-                textCompletionServices.put(DEFAULT_SERVICE_ID, serviceFactory);
-            }
+        /**
+         * Adds a text completion service, the first one added is the default service.
+         *
+         * @param serviceId Id of the service
+         * @param serviceFactory Creates the instances of the service
+         * @param lifetime How long an instance is used
+         * @return This builder
+         */
+        public Builder addTextCompletionService(
+                String serviceId,
+                Function<Kernel, TextCompletion> serviceFactory,
+                ServiceLifetime lifetime) {
+            addService(textCompletionServices, serviceId, serviceFactory, lifetime);
             return this;
         }
 
         public Builder addTextEmbeddingsGenerationService(
                 String serviceId,
                 Function<Kernel, EmbeddingGeneration<String, Double>> serviceFactory) {
+            return addTextEmbeddingsGenerationService(
+                    serviceId, serviceFactory, DEFAULT_SERVICE_LIFETIME);
+        }
+
+        /**
+         * Adds a text embedding generation service, the first one added is the default service.
+         *
+         * @param serviceId Id of the service
+         * @param serviceFactory Creates the instances of the service
+         * @param lifetime How long an instance is used
+         * @return This builder
+         */
+        public Builder addTextEmbeddingsGenerationService(
+                String serviceId,
+                Function<Kernel, EmbeddingGeneration<String, Double>> serviceFactory,
+                ServiceLifetime lifetime) {
+            addService(textEmbeddingGenerationServices, serviceId, serviceFactory, lifetime);
+            return this;
+        }
+
+        private static <T> void addService(
+                Map<String, ServiceRegistration<T>> services,
+                String serviceId,
+                Function<Kernel, T> serviceFactory,
+                ServiceLifetime lifetime) {
             if (serviceId == null || serviceId.isEmpty()) {
                 throw new IllegalArgumentException("Null or empty serviceId");
             }
 
-            textEmbeddingGenerationServices.put(serviceId, serviceFactory);
+            ServiceRegistration<T> registration =
+                    new ServiceRegistration<>(serviceFactory, lifetime);
+            services.put(serviceId, registration);
 
-            if (textEmbeddingGenerationServices.size() == 1) {
-                textEmbeddingGenerationServices.put(DEFAULT_SERVICE_ID, serviceFactory);
+            if (services.size() == 1) {
+                services.put(DEFAULT_SERVICE_ID, registration);
             }
-            return this;
         }
 
         public Builder setDefaultTextCompletionService(String serviceId) {
@@ -112,10 +227,7 @@ public final class KernelConfig {
         }
 
         public KernelConfig build() {
-            return new KernelConfig(
-                    Collections.unmodifiableMap(textCompletionServices),
-                    textEmbeddingGenerationServices,
-                    skillBuilders);
+            return new KernelConfig(this);
         }
     }
 }
@@ -60,7 +60,9 @@ public class KernelException extends RuntimeException {
 
         SkillCollectionNotSet("Skill collection not set"),
 
-        FunctionInvokeError("Represents an error that occurs when invoking a function");
+        FunctionInvokeError("Represents an error that occurs when invoking a function"),
+
+        DeadlineExceeded("The deadline of the invocation has passed");
 
         private final String message;
 
@@ -0,0 +1,17 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel;
+
+/** How long an instance of a service registered in a {@link KernelConfig} is used. */
+public enum ServiceLifetime {
+    /**
+     * A single instance, shared by every kernel built from the configuration. It is created by the
+     * first kernel asking for it.
+     */
+    SINGLETON,
+
+    /** One instance per kernel, created the first time the kernel asks for it. */
+    SCOPED,
+
+    /** A new instance each time the service is asked for. */
+    TRANSIENT
+}
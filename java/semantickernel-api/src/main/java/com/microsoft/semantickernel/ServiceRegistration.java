@@ -0,0 +1,68 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel;
+
+import java.util.function.Function;
+
+import javax.annotation.Nullable;
+
+/**
+ * A service registered in a {@link KernelConfig}, the factory creating it and the lifetime of its
+ * instances.
+ *
+ * @param <T> Type of the service
+ */
+public final class ServiceRegistration<T> {
+
+    private final Function<Kernel, T> factory;
+    private final ServiceLifetime lifetime;
+    @Nullable private volatile T singleton;
+
+    public ServiceRegistration(Function<Kernel, T> factory, ServiceLifetime lifetime) {
+        this.factory = factory;
+        this.lifetime = lifetime;
+    }
+
+    public Function<Kernel, T> getFactory() {
+        return factory;
+    }
+
+    public ServiceLifetime getLifetime() {
+        return lifetime;
+    }
+
+    /**
+     * Creates a new instance of the service.
+     *
+     * @param kernel Kernel asking for the service
+     * @return The new instance
+     */
+    public T create(Kernel kernel) {
+        T service = factory.apply(kernel);
+        if (service == null) {
+            throw new KernelException(
+                    KernelException.ErrorCodes.InvalidServiceConfiguration,
+                    "The service factory returned null");
+        }
+        return service;
+    }
+
+    /**
+     * Gets the instance shared by every kernel, created on first use by the given kernel.
+     *
+     * @param kernel Kernel asking for the service
+     * @return The shared instance
+     */
+    public T getSingleton(Kernel kernel) {
+        T service = singleton;
+        if (service == null) {
+            synchronized (this) {
+                service = singleton;
+                if (service == null) {
+                    service = create(kernel);
+                    singleton = service;
+                }
+            }
+        }
+        return service;
+    }
+}
@@ -1,9 +1,12 @@
 // Copyright (c) Microsoft. All rights reserved.
 package com.microsoft.semantickernel.ai.embeddings;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
 
 /**
  * Represents a strongly typed vector of numeric data.
@@ -13,7 +16,7 @@ import java.util.List;
 public class Embedding<EmbeddingType extends Number> {
 
     public List<EmbeddingType> getVector() {
-        return Collections.unmodifiableList(vector);
+        return vector instanceof FloatArrayList ? vector : Collections.unmodifiableList(vector);
     }
 
     private final List<EmbeddingType> vector;
@@ -54,6 +57,77 @@ public class Embedding<EmbeddingType extends Number> {
      */
     public Embedding(List<EmbeddingType> vector) {
         //        Verify.NotNull(vector, nameof(vector));
-        this.vector = Collections.unmodifiableList(vector);
+        this.vector =
+                vector instanceof FloatArrayList ? vector : Collections.unmodifiableList(vector);
+    }
+
+    /**
+     * Size of the vector
+     *
+     * @return Number of values
+     */
+    public int size() {
+        return vector.size();
+    }
+
+    /**
+     * Reads a value without boxing it when the embedding is backed by an array, see {@link
+     * #of(float[])}.
+     *
+     * @param index Index of the value
+     * @return The value as a float
+     */
+    public float getFloat(int index) {
+        if (vector instanceof FloatArrayList) {
+            return ((FloatArrayList) vector).values[index];
+        }
+        return vector.get(index).floatValue();
+    }
+
+    /**
+     * Copies the values into a new array, without boxing them when the embedding is backed by an
+     * array.
+     *
+     * @return The values as floats
+     */
+    public float[] toFloatArray() {
+        if (vector instanceof FloatArrayList) {
+            return ((FloatArrayList) vector).values.clone();
+        }
+        float[] values = new float[vector.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = vector.get(i).floatValue();
+        }
+        return values;
+    }
+
+    /**
+     * Creates an embedding backed by an array. The values are boxed only when they are read through
+     * {@link #getVector()}, use {@link #getFloat(int)} or {@link #toFloatArray()} to avoid it.
+     *
+     * @param vector The values, not to be modified afterwards
+     * @return The embedding
+     */
+    public static Embedding<Float> of(float[] vector) {
+        return new Embedding<>(new FloatArrayList(vector));
+    }
+
+    /** Read-only list view of a {@code float[]}. */
+    private static final class FloatArrayList extends AbstractList<Float> implements RandomAccess {
+        private final float[] values;
+
+        private FloatArrayList(float[] values) {
+            this.values = Objects.requireNonNull(values);
+        }
+
+        @Override
+        public Float get(int index) {
+            return values[index];
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
     }
 }
@@ -0,0 +1,100 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.ai.tokenizers;
+
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Estimates token counts without a vocabulary.
+ *
+ * <p>The text is split the way BPE tokenizers pre-tokenize it, words, numbers and punctuation runs,
+ * and each piece is counted as one token per four bytes of UTF-8, at least one. Common words are
+ * single tokens in BPE vocabularies, so the estimate is usually above the exact count.
+ */
+public class ApproximateTokenizer implements Tokenizer {
+
+    /** Pre-tokenization pattern of the GPT-2 and GPT-3 tokenizers. */
+    public static final Pattern DefaultPattern =
+            Pattern.compile(
+                    "'s|'t|'re|'ve|'m|'ll|'d| ?\\p{L}+| ?\\p{N}+| ?[^\\s\\p{L}\\p{N}]+|\\s+");
+
+    private static final ApproximateTokenizer Instance = new ApproximateTokenizer(DefaultPattern);
+
+    private static final int BytesPerToken = 4;
+
+    private final Pattern pattern;
+
+    /**
+     * @param pattern Pattern matching the pieces the text is split into before counting
+     */
+    public ApproximateTokenizer(Pattern pattern) {
+        this.pattern = pattern;
+    }
+
+    /**
+     * @return A tokenizer splitting text like the GPT-2 and GPT-3 tokenizers
+     */
+    public static ApproximateTokenizer getInstance() {
+        return Instance;
+    }
+
+    @Override
+    public int countTokens(String text) {
+        int tokens = 0;
+        Matcher matcher = pattern.matcher(text);
+        while (matcher.find()) {
+            int bytes = utf8Length(text, matcher.start(), matcher.end());
+            tokens += Math.max(1, (bytes + BytesPerToken - 1) / BytesPerToken);
+        }
+        return tokens;
+    }
+
+    /** Spreads the tokens of each piece evenly over its characters. */
+    @Override
+    public int[] tokenEnds(String text) {
+        int[] ends = new int[16];
+        int size = 0;
+        Matcher matcher = pattern.matcher(text);
+        while (matcher.find()) {
+            int length = matcher.end() - matcher.start();
+            int bytes = utf8Length(text, matcher.start(), matcher.end());
+            int tokens = Math.max(1, (bytes + BytesPerToken - 1) / BytesPerToken);
+            for (int i = 1; i <= tokens; i++) {
+                if (size == ends.length) {
+                    ends = Arrays.copyOf(ends, size * 2);
+                }
+                int end = matcher.start() + (int) ((long) length * i / tokens);
+                // Not within a surrogate pair
+                if (end < text.length() && Character.isLowSurrogate(text.charAt(end))) {
+                    end++;
+                }
+                ends[size++] = end;
+            }
+        }
+        return Arrays.copyOf(ends, size);
+    }
+
+    @Override
+    public boolean isExact() {
+        return false;
+    }
+
+    private static int utf8Length(String text, int start, int end) {
+        int bytes = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                bytes += 1;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+}
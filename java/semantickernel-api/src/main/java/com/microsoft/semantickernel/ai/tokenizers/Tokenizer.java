@@ -0,0 +1,33 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.ai.tokenizers;
+
+import javax.annotation.Nullable;
+
+/** Counts the tokens of a text as seen by a model, for instance to check a prompt fits a model. */
+public interface Tokenizer {
+    /**
+     * Counts the tokens of a text.
+     *
+     * @param text The text
+     * @return Number of tokens of the text
+     */
+    int countTokens(String text);
+
+    /**
+     * Tokenizes a text once, mapping its tokens back to the text, so that it can be cut at a token
+     * boundary. A token ending within a character ends after it.
+     *
+     * @param text The text
+     * @return Offset in the text where each token ends, in order, or {@code null} when the tokens
+     *     cannot be mapped back to the text
+     */
+    @Nullable
+    default int[] tokenEnds(String text) {
+        return null;
+    }
+
+    /**
+     * @return Whether the counts are exact for the model, rather than estimates
+     */
+    boolean isExact();
+}
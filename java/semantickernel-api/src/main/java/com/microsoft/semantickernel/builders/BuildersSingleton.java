@@ -3,6 +3,7 @@ package com.microsoft.semantickernel.builders;
 
 import com.microsoft.semantickernel.Kernel;
 import com.microsoft.semantickernel.ai.embeddings.EmbeddingGeneration;
+import com.microsoft.semantickernel.chatcompletion.ChatCompletion;
 import com.microsoft.semantickernel.orchestration.ContextVariables;
 import com.microsoft.semantickernel.orchestration.SKContext;
 import com.microsoft.semantickernel.semanticfunctions.PromptTemplate;
@@ -25,6 +26,9 @@ public enum BuildersSingleton {
     private static final String FALLBACK_TEXT_COMPLETION_BUILDER_CLASS =
             "com.microsoft.semantickernel.connectors.ai.openai.textcompletion.OpenAITextCompletionBuilder";
 
+    private static final String FALLBACK_CHAT_COMPLETION_BUILDER_CLASS =
+            "com.microsoft.semantickernel.connectors.ai.openai.chatcompletion.OpenAIChatCompletionBuilder";
+
     private static final String FALLBACK_TEXT_EMBEDDING_GENERATION_BUILDER_CLASS =
             "com.microsoft.semantickernel.connectors.ai.openai.textembeddings.OpenAITextEmbeddingGenerationBuilder";
     private static final String FALLBACK_SKILL_COLLECTION_BUILDER_CLASS =
@@ -44,6 +48,7 @@ public enum BuildersSingleton {
     private final FunctionBuilders functionBuilders;
     private final Kernel.InternalBuilder kernelBuilder;
     private final TextCompletion.Builder textCompletionBuilder;
+    private final ChatCompletion.Builder chatCompletionBuilder;
     private final EmbeddingGeneration.Builder<String, Double> textEmbeddingGenerationBuilder;
     private final ReadOnlySkillCollection.Builder readOnlySkillCollection;
     private final PromptTemplate.Builder promptTemplate;
@@ -65,6 +70,10 @@ public enum BuildersSingleton {
                     ServiceLoadUtil.findServiceLoader(
                             TextCompletion.Builder.class, FALLBACK_TEXT_COMPLETION_BUILDER_CLASS);
 
+            chatCompletionBuilder =
+                    ServiceLoadUtil.findServiceLoader(
+                            ChatCompletion.Builder.class, FALLBACK_CHAT_COMPLETION_BUILDER_CLASS);
+
             textEmbeddingGenerationBuilder =
                     ServiceLoadUtil.findServiceLoader(
                             EmbeddingGeneration.Builder.class,
@@ -129,6 +138,10 @@ public enum BuildersSingleton {
         return textCompletionBuilder;
     }
 
+    public ChatCompletion.Builder getChatCompletionBuilder() {
+        return chatCompletionBuilder;
+    }
+
     public EmbeddingGeneration.Builder<String, Double> getTextEmbeddingGenerationBuilder() {
         return textEmbeddingGenerationBuilder;
     }
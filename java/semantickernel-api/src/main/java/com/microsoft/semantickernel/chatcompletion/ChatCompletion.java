@@ -0,0 +1,48 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.chatcompletion;
+
+import com.microsoft.openai.OpenAIAsyncClient;
+import com.microsoft.semantickernel.ai.tokenizers.ApproximateTokenizer;
+import com.microsoft.semantickernel.ai.tokenizers.Tokenizer;
+import com.microsoft.semantickernel.textcompletion.CompletionRequestSettings;
+
+import reactor.core.publisher.Mono;
+
+import javax.annotation.Nullable;
+
+/** Interface for chat completion services */
+public interface ChatCompletion {
+
+    /**
+     * Creates a new chat, counting tokens with the tokenizer of the model.
+     *
+     * @param instructions Optional system message setting the behavior of the assistant
+     * @return A new chat history
+     */
+    ChatHistory createNewChat(@Nullable String instructions);
+
+    /**
+     * Generates the next message of the assistant. If the chat history is over its token budget, or
+     * would not leave room for the reply in the context of the model, older messages are compacted
+     * first, see {@link ChatHistory#compactAsync(int)}. The reply is not added to the history.
+     *
+     * @param chat The chat history
+     * @param requestSettings Request settings for the completion API, the defaults if {@code null}
+     * @return The message generated by the remote model
+     */
+    Mono<String> generateMessageAsync(
+            ChatHistory chat, @Nullable CompletionRequestSettings requestSettings);
+
+    /**
+     * Gets the tokenizer of the model, to count the tokens of the messages.
+     *
+     * @return The tokenizer of the model, an estimate if the model is not known
+     */
+    default Tokenizer getTokenizer() {
+        return ApproximateTokenizer.getInstance();
+    }
+
+    interface Builder {
+        ChatCompletion build(OpenAIAsyncClient client, String modelId);
+    }
+}
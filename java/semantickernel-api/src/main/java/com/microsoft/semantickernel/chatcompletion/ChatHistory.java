@@ -0,0 +1,274 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.chatcompletion;
+
+import com.microsoft.semantickernel.ai.tokenizers.Tokenizer;
+import com.microsoft.semantickernel.orchestration.MapReduce;
+import com.microsoft.semantickernel.text.TextChunker;
+
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nullable;
+
+/**
+ * Messages of a chat, with their token counts.
+ *
+ * <p>Each message is counted once, when it is added, so that the size of the history is known
+ * without counting it again on every turn. When the history nears its budget, the oldest messages,
+ * after the initial system messages, are dropped or replaced by a summary, see {@link
+ * #compactAsync(int)}. Between compactions messages are only appended, so a prefix of the history
+ * can be cached, see {@link #getCompactions()}.
+ *
+ * <p>A chat history is not thread safe.
+ */
+public class ChatHistory {
+
+    /** Tokens added to each message by the chat format, in addition to its content. */
+    public static final int MessageOverheadTokens = 4;
+
+    /** Tokens priming the reply of the assistant. */
+    public static final int ReplyOverheadTokens = 3;
+
+    private static final String SummaryPrefix = "Summary of the earlier conversation:\n";
+
+    /** Role of the author of a message. */
+    public enum AuthorRole {
+        SYSTEM("system"),
+        USER("user"),
+        ASSISTANT("assistant");
+
+        private final String label;
+
+        AuthorRole(String label) {
+            this.label = label;
+        }
+
+        /**
+         * @return Name of the role, as used by the OpenAI API
+         */
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    /** A message of the chat. */
+    public static class Message {
+        private final AuthorRole role;
+        private final String content;
+        private final int tokens;
+        private final boolean summary;
+
+        private Message(AuthorRole role, String content, int tokens, boolean summary) {
+            this.role = role;
+            this.content = content;
+            this.tokens = tokens;
+            this.summary = summary;
+        }
+
+        public AuthorRole getRole() {
+            return role;
+        }
+
+        public String getContent() {
+            return content;
+        }
+
+        /**
+         * @return Number of tokens of the message, including the chat format overhead
+         */
+        public int getTokens() {
+            return tokens;
+        }
+    }
+
+    private final Tokenizer tokenizer;
+    private final List<Message> messages = new ArrayList<>();
+    private int tokenCount = ReplyOverheadTokens;
+    private int compactions = 0;
+    @Nullable private Integer maxTokens;
+    @Nullable private MapReduce summarizer;
+
+    /**
+     * @param tokenizer Tokenizer of the chat model
+     */
+    public ChatHistory(Tokenizer tokenizer) {
+        this.tokenizer = tokenizer;
+    }
+
+    /**
+     * Sets the token budget of the history, checked when a message is generated.
+     *
+     * @param maxTokens Maximum number of tokens of the history, {@code null} to only keep room for
+     *     the reply in the context of the model
+     * @return this history
+     */
+    public ChatHistory setMaxTokens(@Nullable Integer maxTokens) {
+        this.maxTokens = maxTokens;
+        return this;
+    }
+
+    /**
+     * Sets the function summarizing the messages removed by a compaction.
+     *
+     * @param summarizer Summarizer of the compacted messages, {@code null} to drop them
+     * @return this history
+     */
+    public ChatHistory setSummarizer(@Nullable MapReduce summarizer) {
+        this.summarizer = summarizer;
+        return this;
+    }
+
+    @Nullable
+    public Integer getMaxTokens() {
+        return maxTokens;
+    }
+
+    /**
+     * Adds a message to the history.
+     *
+     * @param role Role of the author of the message
+     * @param content Content of the message
+     * @return this history
+     */
+    public ChatHistory addMessage(AuthorRole role, String content) {
+        return add(role, content, false);
+    }
+
+    public ChatHistory addSystemMessage(String content) {
+        return addMessage(AuthorRole.SYSTEM, content);
+    }
+
+    public ChatHistory addUserMessage(String content) {
+        return addMessage(AuthorRole.USER, content);
+    }
+
+    public ChatHistory addAssistantMessage(String content) {
+        return addMessage(AuthorRole.ASSISTANT, content);
+    }
+
+    /**
+     * @return The messages, oldest first
+     */
+    public List<Message> getMessages() {
+        return Collections.unmodifiableList(messages);
+    }
+
+    /**
+     * @return Number of tokens of the history, including the chat format overhead
+     */
+    public int getTokenCount() {
+        return tokenCount;
+    }
+
+    /**
+     * @return Number of compactions of the history. While it does not change, messages are only
+     *     appended to the history.
+     */
+    public int getCompactions() {
+        return compactions;
+    }
+
+    /**
+     * Compacts the history if it is over a budget. The oldest messages, after the initial system
+     * messages, are removed until the history is under three quarters of the budget, so that it is
+     * not compacted again on the next turn. If a summarizer is set, the removed messages, and the
+     * previous summary, are replaced by a system message holding their summary, and a quarter of
+     * the budget is kept for it. The latest message is always kept.
+     *
+     * @param maxTokens The budget
+     * @return this history, once compacted
+     */
+    public Mono<ChatHistory> compactAsync(int maxTokens) {
+        if (tokenCount <= maxTokens) {
+            return Mono.just(this);
+        }
+
+        int first = 0;
+        while (first < messages.size()
+                && messages.get(first).role == AuthorRole.SYSTEM
+                && !messages.get(first).summary) {
+            first++;
+        }
+
+        int target = maxTokens / 4 * 3;
+        MapReduce summarize = summarizer;
+        // Room left for the summary
+        int reserve = summarize != null ? maxTokens / 4 : 0;
+        int end = first;
+        int removedTokens = 0;
+        while (end < messages.size() - 1 && tokenCount - removedTokens > target - reserve) {
+            removedTokens += messages.get(end).tokens;
+            end++;
+        }
+        if (end == first) {
+            return Mono.just(this);
+        }
+
+        List<Message> removed = new ArrayList<>(messages.subList(first, end));
+        if (summarize == null) {
+            remove(first, removed.size());
+            return Mono.just(this);
+        }
+
+        String transcript =
+                removed.stream()
+                        .map(
+                                message ->
+                                        message.summary
+                                                ? message.content
+                                                : message.role.getLabel() + ": " + message.content)
+                        .collect(Collectors.joining("\n"));
+        int from = first;
+        int summaryBudget = Math.max(0, target - (tokenCount - removedTokens));
+        return summarize
+                .invokeAsync(transcript)
+                .map(
+                        summary -> {
+                            remove(from, removed.size());
+                            String content =
+                                    TextChunker.truncate(
+                                            SummaryPrefix + summary,
+                                            Math.max(0, summaryBudget - MessageOverheadTokens),
+                                            tokenizer,
+                                            false);
+                            if (!content.isEmpty()) {
+                                Message message = newMessage(AuthorRole.SYSTEM, content, true);
+                                messages.add(from, message);
+                                tokenCount += message.tokens;
+                            }
+                            return this;
+                        });
+    }
+
+    private ChatHistory add(AuthorRole role, String content, boolean summary) {
+        Message message = newMessage(role, content, summary);
+        messages.add(message);
+        tokenCount += message.tokens;
+        return this;
+    }
+
+    private Message newMessage(AuthorRole role, String content, boolean summary) {
+        return new Message(
+                role, content, tokenizer.countTokens(content) + MessageOverheadTokens, summary);
+    }
+
+    private void remove(int from, int count) {
+        List<Message> range = messages.subList(from, from + count);
+        for (Message message : range) {
+            tokenCount -= message.tokens;
+        }
+        range.clear();
+        compactions++;
+        onCompacted();
+    }
+
+    /**
+     * Called when messages are removed by a compaction. Subclasses caching a prefix of the history
+     * drop it here.
+     */
+    protected void onCompacted() {}
+}
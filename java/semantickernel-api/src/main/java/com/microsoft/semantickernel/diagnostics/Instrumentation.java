@@ -0,0 +1,125 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.diagnostics;
+
+import javax.annotation.Nullable;
+
+/**
+ * Receives the timings and counts of the kernel hot paths, to forward them to a metrics or tracing
+ * library such as Micrometer or OpenTelemetry.
+ *
+ * <p>The instrumentation in use is the first one found by the {@link java.util.ServiceLoader}, or
+ * the one given to {@link Instrumentations#set(Instrumentation)}. Without one nothing is measured.
+ *
+ * <p>Timed operations are started within the operation they are part of, their parent, so that they
+ * can be reported as nested spans.
+ */
+public interface Instrumentation {
+
+    /** Rendering of a prompt template. */
+    String TEMPLATE_RENDER = "sk.template.render";
+
+    /** Invocation of a semantic or native function, tagged with {@link #FUNCTION_TAG}. */
+    String FUNCTION_INVOCATION = "sk.function.invocation";
+
+    /** Run of a pipeline of functions by a kernel. */
+    String PIPELINE_RUN = "sk.kernel.run";
+
+    /** Request to a model, tagged with {@link #MODEL_TAG} and {@link #OPERATION_TAG}. */
+    String MODEL_REQUEST = "sk.model.request";
+
+    /** Prompt tokens, as reported by the model, tagged with {@link #MODEL_TAG}. */
+    String PROMPT_TOKENS = "sk.model.tokens.prompt";
+
+    /** Completion tokens, as reported by the model, tagged with {@link #MODEL_TAG}. */
+    String COMPLETION_TOKENS = "sk.model.tokens.completion";
+
+    /** Number of texts of an embedding request, tagged with {@link #MODEL_TAG}. */
+    String EMBEDDING_BATCH_SIZE = "sk.embedding.batch.size";
+
+    /** Embeddings found in a cache. */
+    String EMBEDDING_CACHE_HITS = "sk.embedding.cache.hits";
+
+    /** Embeddings not found in a cache. */
+    String EMBEDDING_CACHE_MISSES = "sk.embedding.cache.misses";
+
+    /**
+     * Invocations of a native function not declared blocking that held a non-blocking thread, an
+     * event loop for instance, tagged with {@link #FUNCTION_TAG}.
+     */
+    String NON_BLOCKING_THREAD_BLOCKED = "sk.function.nonblocking.blocked";
+
+    /** Search of a memory collection, tagged with {@link #MODE_TAG}. */
+    String MEMORY_SEARCH = "sk.memory.search";
+
+    String FUNCTION_TAG = "function";
+    String MODEL_TAG = "model";
+    String OPERATION_TAG = "operation";
+    String MODE_TAG = "mode";
+
+    /** Instrumentation measuring nothing. */
+    Instrumentation NOOP =
+            new Instrumentation() {
+                @Override
+                public boolean isEnabled() {
+                    return false;
+                }
+
+                @Override
+                public Observation start(
+                        String name, @Nullable Observation parent, String... tags) {
+                    return error -> {};
+                }
+
+                @Override
+                public void increment(String name, long amount, String... tags) {}
+
+                @Override
+                public void record(String name, long value, String... tags) {}
+            };
+
+    /** An operation being timed, a span when tracing. */
+    interface Observation {
+        /**
+         * Ends the operation.
+         *
+         * @param error Error the operation failed with, {@code null} if it succeeded or was
+         *     cancelled
+         */
+        void stop(@Nullable Throwable error);
+    }
+
+    /**
+     * @return {@code false} if nothing is measured, the kernel then skips the measurements
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Starts timing an operation.
+     *
+     * @param name Name of the operation
+     * @param parent Operation this one is part of, {@code null} if none
+     * @param tags Names and values of the tags, alternately
+     * @return The operation, to stop once done
+     */
+    Observation start(String name, @Nullable Observation parent, String... tags);
+
+    /**
+     * Adds to a counter.
+     *
+     * @param name Name of the counter
+     * @param amount Amount to add
+     * @param tags Names and values of the tags, alternately
+     */
+    void increment(String name, long amount, String... tags);
+
+    /**
+     * Records a value of a distribution.
+     *
+     * @param name Name of the distribution
+     * @param value The value
+     * @param tags Names and values of the tags, alternately
+     */
+    void record(String name, long value, String... tags);
+}
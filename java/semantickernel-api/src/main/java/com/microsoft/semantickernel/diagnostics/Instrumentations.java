@@ -0,0 +1,88 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.diagnostics;
+
+import com.microsoft.semantickernel.diagnostics.Instrumentation.Observation;
+
+import reactor.core.publisher.Mono;
+
+import java.util.Iterator;
+import java.util.ServiceLoader;
+
+import javax.annotation.Nullable;
+
+/**
+ * Holds the {@link Instrumentation} in use and applies it to reactive operations. The current
+ * observation is carried in the Reactor context, so the operations started while it runs are its
+ * children.
+ */
+public final class Instrumentations {
+
+    private static volatile Instrumentation instrumentation = load();
+
+    private Instrumentations() {}
+
+    private static Instrumentation load() {
+        Iterator<Instrumentation> instrumentations =
+                ServiceLoader.load(Instrumentation.class).iterator();
+        return instrumentations.hasNext() ? instrumentations.next() : Instrumentation.NOOP;
+    }
+
+    public static Instrumentation get() {
+        return instrumentation;
+    }
+
+    /**
+     * Sets the instrumentation in use, it applies to the operations assembled afterwards.
+     *
+     * @param instrumentation The instrumentation, {@code null} to measure nothing
+     */
+    public static void set(@Nullable Instrumentation instrumentation) {
+        Instrumentations.instrumentation =
+                instrumentation != null ? instrumentation : Instrumentation.NOOP;
+    }
+
+    public static boolean isEnabled() {
+        return instrumentation.isEnabled();
+    }
+
+    /**
+     * Times an operation, from subscription to its result. When nothing is measured the operation
+     * is returned as is.
+     *
+     * @param name Name of the operation
+     * @param operation The operation
+     * @param tags Names and values of the tags, alternately
+     * @return The timed operation
+     */
+    public static <T> Mono<T> observe(String name, Mono<T> operation, String... tags) {
+        Instrumentation current = instrumentation;
+        if (!current.isEnabled()) {
+            return operation;
+        }
+
+        return Mono.deferContextual(
+                context -> {
+                    Observation parent = context.getOrDefault(Observation.class, null);
+                    Observation observation = current.start(name, parent, tags);
+                    return operation
+                            .doOnSuccess(ignored -> observation.stop(null))
+                            .doOnError(observation::stop)
+                            .doOnCancel(() -> observation.stop(null))
+                            .contextWrite(inner -> inner.put(Observation.class, observation));
+                });
+    }
+
+    public static void increment(String name, long amount, String... tags) {
+        Instrumentation current = instrumentation;
+        if (current.isEnabled()) {
+            current.increment(name, amount, tags);
+        }
+    }
+
+    public static void record(String name, long value, String... tags) {
+        Instrumentation current = instrumentation;
+        if (current.isEnabled()) {
+            current.record(name, value, tags);
+        }
+    }
+}
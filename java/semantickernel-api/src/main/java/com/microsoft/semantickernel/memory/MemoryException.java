@@ -76,7 +76,10 @@ public class MemoryException extends SKException {
         UNABLE_TO_DESERIALIZE_METADATA("Unable to deserialize metadata"),
 
         /** Attempted to access a memory collection that does not exist. */
-        ATTEMPTED_TO_ACCESS_NONEXISTENT_COLLECTION("Attempted to access non-existent collection");
+        ATTEMPTED_TO_ACCESS_NONEXISTENT_COLLECTION("Attempted to access non-existent collection"),
+
+        /** Attempted a keyword search of a collection the memory has no keyword index of. */
+        COLLECTION_NOT_INDEXED("Collection has no keyword index");
 
         /**
          * Gets the error message.
@@ -35,6 +35,18 @@ public class MemoryQueryResult {
         return relevance;
     }
 
+    /**
+     * Create a new instance of MemoryQueryResult from a memory record
+     *
+     * @param record The memory record
+     * @param relevance The similarity score associated with the result.
+     * @return A new instance of MemoryQueryResult.
+     */
+    public static MemoryQueryResult fromMemoryRecord(
+            @Nonnull MemoryRecord record, double relevance) {
+        return new MemoryQueryResult(record.getMetadata(), relevance);
+    }
+
     // function to clamp relevance to [0, 1]
     private static double clampRelevance(double relevance) {
         return !Double.isNaN(relevance) ? Math.max(0, Math.min(1, relevance)) : 0d;
@@ -0,0 +1,341 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.memory;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A filter expression over the {@link MemoryRecordMetadata} and timestamp of a {@link
+ * MemoryRecord}. Filters are passed to {@link MemoryStore#getNearestMatchesAsync(String,
+ * com.microsoft.semantickernel.ai.embeddings.Embedding, int, double, boolean, MemoryRecordFilter)}
+ * so that a store can restrict the records it scores before computing any similarity.
+ *
+ * <p>Stores that maintain indexes over the metadata should evaluate a filter through {@link
+ * #accept(Visitor)}; stores that do not can fall back to {@link #test(MemoryRecord)}.
+ *
+ * <p>Fields of {@link MemoryRecordMetadata#getAdditionalMetadata()} are addressable when the
+ * additional metadata is a flat JSON object, e.g. {@code {"author":"jane","lang":"en"}}.
+ */
+public abstract class MemoryRecordFilter {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private MemoryRecordFilter() {}
+
+    /**
+     * Matches records whose external source name equals the given value.
+     *
+     * @param externalSourceName Name of the external source, e.g. "GitHub"
+     * @return A filter
+     */
+    public static MemoryRecordFilter externalSourceName(@Nonnull String externalSourceName) {
+        return new ExternalSourceName(Objects.requireNonNull(externalSourceName));
+    }
+
+    /**
+     * Matches records whose {@link MemoryRecordMetadata#isReference()} flag equals the given value.
+     *
+     * @param isReference Expected value of the flag
+     * @return A filter
+     */
+    public static MemoryRecordFilter isReference(boolean isReference) {
+        return new IsReference(isReference);
+    }
+
+    /**
+     * Matches records whose additional metadata contains a top level field with the given value.
+     *
+     * @param field Name of the field in the additional metadata JSON object
+     * @param value Expected value of the field
+     * @return A filter
+     */
+    public static MemoryRecordFilter additionalMetadata(
+            @Nonnull String field, @Nonnull String value) {
+        return new AdditionalMetadata(Objects.requireNonNull(field), Objects.requireNonNull(value));
+    }
+
+    /**
+     * Matches records with a timestamp in the range {@code [from, to)}. Records without a timestamp
+     * never match.
+     *
+     * @param from Inclusive lower bound, or {@code null} for no lower bound
+     * @param to Exclusive upper bound, or {@code null} for no upper bound
+     * @return A filter
+     */
+    public static MemoryRecordFilter timestampBetween(
+            @Nullable ZonedDateTime from, @Nullable ZonedDateTime to) {
+        return new TimestampRange(
+                from != null ? from.toInstant().toEpochMilli() : Long.MIN_VALUE,
+                to != null ? to.toInstant().toEpochMilli() : Long.MAX_VALUE);
+    }
+
+    /**
+     * Matches records that match all the given filters.
+     *
+     * @param filters Filters to combine
+     * @return A filter
+     */
+    public static MemoryRecordFilter allOf(@Nonnull MemoryRecordFilter... filters) {
+        return new And(Arrays.asList(filters));
+    }
+
+    /**
+     * Matches records that match any of the given filters.
+     *
+     * @param filters Filters to combine
+     * @return A filter
+     */
+    public static MemoryRecordFilter anyOf(@Nonnull MemoryRecordFilter... filters) {
+        return new Or(Arrays.asList(filters));
+    }
+
+    /**
+     * Matches records that do not match the given filter.
+     *
+     * @param filter Filter to negate
+     * @return A filter
+     */
+    public static MemoryRecordFilter not(@Nonnull MemoryRecordFilter filter) {
+        return new Not(Objects.requireNonNull(filter));
+    }
+
+    /**
+     * Combines this filter with another one, both must match.
+     *
+     * @param other The other filter
+     * @return A filter
+     */
+    public MemoryRecordFilter and(@Nonnull MemoryRecordFilter other) {
+        return allOf(this, other);
+    }
+
+    /**
+     * Combines this filter with another one, either may match.
+     *
+     * @param other The other filter
+     * @return A filter
+     */
+    public MemoryRecordFilter or(@Nonnull MemoryRecordFilter other) {
+        return anyOf(this, other);
+    }
+
+    /**
+     * Evaluates the filter against a single record.
+     *
+     * @param record The record to test
+     * @return True if the record matches the filter
+     */
+    public abstract boolean test(@Nonnull MemoryRecord record);
+
+    /**
+     * Dispatches to the visitor method matching this filter.
+     *
+     * @param visitor The visitor
+     * @param <R> Result type of the visitor
+     * @return The visitor result
+     */
+    public abstract <R> R accept(@Nonnull Visitor<R> visitor);
+
+    /**
+     * Parses the additional metadata of a record into its top level fields. Values that are not
+     * JSON scalars are ignored.
+     *
+     * @param additionalMetadata Additional metadata of a record
+     * @return The fields of the metadata, empty if the metadata is not a JSON object
+     */
+    public static Map<String, String> parseAdditionalMetadata(@Nullable String additionalMetadata) {
+        if (additionalMetadata == null || !additionalMetadata.trim().startsWith("{")) {
+            return Collections.emptyMap();
+        }
+        try {
+            JsonNode node = MAPPER.readTree(additionalMetadata);
+            Map<String, String> fields = new HashMap<>();
+            Iterator<Map.Entry<String, JsonNode>> it = node.fields();
+            while (it.hasNext()) {
+                Map.Entry<String, JsonNode> field = it.next();
+                if (field.getValue().isValueNode() && !field.getValue().isNull()) {
+                    fields.put(field.getKey(), field.getValue().asText());
+                }
+            }
+            return fields;
+        } catch (JsonProcessingException e) {
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Visitor over the filter expression tree.
+     *
+     * @param <R> Result type
+     */
+    public interface Visitor<R> {
+        R visitExternalSourceName(String externalSourceName);
+
+        R visitIsReference(boolean isReference);
+
+        R visitAdditionalMetadata(String field, String value);
+
+        /**
+         * @param fromEpochMilli Inclusive lower bound
+         * @param toEpochMilli Exclusive upper bound
+         */
+        R visitTimestampRange(long fromEpochMilli, long toEpochMilli);
+
+        R visitAnd(List<MemoryRecordFilter> filters);
+
+        R visitOr(List<MemoryRecordFilter> filters);
+
+        R visitNot(MemoryRecordFilter filter);
+    }
+
+    private static final class ExternalSourceName extends MemoryRecordFilter {
+        private final String externalSourceName;
+
+        private ExternalSourceName(String externalSourceName) {
+            this.externalSourceName = externalSourceName;
+        }
+
+        @Override
+        public boolean test(MemoryRecord record) {
+            return externalSourceName.equals(record.getMetadata().getExternalSourceName());
+        }
+
+        @Override
+        public <R> R accept(Visitor<R> visitor) {
+            return visitor.visitExternalSourceName(externalSourceName);
+        }
+    }
+
+    private static final class IsReference extends MemoryRecordFilter {
+        private final boolean isReference;
+
+        private IsReference(boolean isReference) {
+            this.isReference = isReference;
+        }
+
+        @Override
+        public boolean test(MemoryRecord record) {
+            return record.getMetadata().isReference() == isReference;
+        }
+
+        @Override
+        public <R> R accept(Visitor<R> visitor) {
+            return visitor.visitIsReference(isReference);
+        }
+    }
+
+    private static final class AdditionalMetadata extends MemoryRecordFilter {
+        private final String field;
+        private final String value;
+
+        private AdditionalMetadata(String field, String value) {
+            this.field = field;
+            this.value = value;
+        }
+
+        @Override
+        public boolean test(MemoryRecord record) {
+            return value.equals(
+                    parseAdditionalMetadata(record.getMetadata().getAdditionalMetadata())
+                            .get(field));
+        }
+
+        @Override
+        public <R> R accept(Visitor<R> visitor) {
+            return visitor.visitAdditionalMetadata(field, value);
+        }
+    }
+
+    private static final class TimestampRange extends MemoryRecordFilter {
+        private final long from;
+        private final long to;
+
+        private TimestampRange(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean test(MemoryRecord record) {
+            ZonedDateTime timestamp = record.getTimestamp();
+            if (timestamp == null) {
+                return false;
+            }
+            long millis = timestamp.toInstant().toEpochMilli();
+            return millis >= from && millis < to;
+        }
+
+        @Override
+        public <R> R accept(Visitor<R> visitor) {
+            return visitor.visitTimestampRange(from, to);
+        }
+    }
+
+    private static final class And extends MemoryRecordFilter {
+        private final List<MemoryRecordFilter> filters;
+
+        private And(List<MemoryRecordFilter> filters) {
+            this.filters = Collections.unmodifiableList(new ArrayList<>(filters));
+        }
+
+        @Override
+        public boolean test(MemoryRecord record) {
+            return filters.stream().allMatch(filter -> filter.test(record));
+        }
+
+        @Override
+        public <R> R accept(Visitor<R> visitor) {
+            return visitor.visitAnd(filters);
+        }
+    }
+
+    private static final class Or extends MemoryRecordFilter {
+        private final List<MemoryRecordFilter> filters;
+
+        private Or(List<MemoryRecordFilter> filters) {
+            this.filters = Collections.unmodifiableList(new ArrayList<>(filters));
+        }
+
+        @Override
+        public boolean test(MemoryRecord record) {
+            return filters.stream().anyMatch(filter -> filter.test(record));
+        }
+
+        @Override
+        public <R> R accept(Visitor<R> visitor) {
+            return visitor.visitOr(filters);
+        }
+    }
+
+    private static final class Not extends MemoryRecordFilter {
+        private final MemoryRecordFilter filter;
+
+        private Not(MemoryRecordFilter filter) {
+            this.filter = filter;
+        }
+
+        @Override
+        public boolean test(MemoryRecord record) {
+            return !filter.test(record);
+        }
+
+        @Override
+        public <R> R accept(Visitor<R> visitor) {
+            return visitor.visitNot(filter);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.memory;
+
+/** How {@link SemanticTextMemory#searchAsync} matches a query against the stored memories. */
+public enum MemorySearchMode {
+    /** Embed the query and rank memories by vector similarity. */
+    VECTOR,
+
+    /**
+     * Rank memories with a keyword index over their text and description. The query is not
+     * embedded, so no call is made to the embedding service.
+     */
+    LEXICAL,
+
+    /** Run both searches and fuse the two rankings with reciprocal rank fusion. */
+    HYBRID
+}
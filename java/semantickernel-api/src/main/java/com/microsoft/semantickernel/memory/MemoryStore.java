@@ -7,8 +7,10 @@ import reactor.core.publisher.Mono;
 import reactor.util.function.Tuple2;
 
 import java.util.Collection;
+import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 /** An interface for storing and retrieving indexed {@link MemoryRecord} objects in a data store. */
 public interface MemoryStore {
@@ -130,6 +132,49 @@ public interface MemoryStore {
             double minRelevanceScore,
             boolean withEmbeddings);
 
+    /**
+     * Gets the nearest matches to the {@link Embedding} of type {@code Float} among the records
+     * that match the given filter. Records that do not match the filter are not scored. Does not
+     * guarantee that the collection exists.
+     *
+     * <p>Stores that cannot filter before scoring keep this default, which scores every record of
+     * the collection with the unfiltered search and filters the results.
+     *
+     * @param collectionName The name associated with a collection of embeddings.
+     * @param embedding The {@link Embedding} to compare the collection's embeddings with.
+     * @param limit The maximum number of similarity results to return.
+     * @param minRelevanceScore The minimum relevance threshold for returned results.
+     * @param withEmbeddings If true, the embeddings will be returned in the memory records.
+     * @param filter Restricts the records that are eligible, {@code null} to search all records.
+     * @return A collection of tuples where item1 is a {@link MemoryRecord} and item2 is its
+     *     similarity score as a {@code double}.
+     */
+    default Mono<Collection<Tuple2<MemoryRecord, Double>>> getNearestMatchesAsync(
+            @Nonnull String collectionName,
+            @Nonnull Embedding<Float> embedding,
+            int limit,
+            double minRelevanceScore,
+            boolean withEmbeddings,
+            @Nullable MemoryRecordFilter filter) {
+        if (filter == null) {
+            return getNearestMatchesAsync(
+                    collectionName, embedding, limit, minRelevanceScore, withEmbeddings);
+        }
+        // The records the filter drops would take the place of eligible ones within the limit
+        return getNearestMatchesAsync(
+                        collectionName,
+                        embedding,
+                        Integer.MAX_VALUE,
+                        minRelevanceScore,
+                        withEmbeddings)
+                .map(
+                        matches ->
+                                matches.stream()
+                                        .filter(match -> filter.test(match.getT1()))
+                                        .limit(limit)
+                                        .collect(Collectors.toList()));
+    }
+
     /**
      * Gets the nearest match to the {@link Embedding} of type {@code Float}. Does not guarantee
      * that the collection exists.
@@ -73,6 +73,17 @@ public final class NullMemory implements SemanticTextMemory {
         return Mono.just(Collections.emptyList());
     }
 
+    @Override
+    public Mono<List<MemoryQueryResult>> searchAsync(
+            @Nonnull String collection,
+            @Nonnull String query,
+            int limit,
+            double minRelevanceScore,
+            boolean withEmbeddings,
+            @Nonnull MemorySearchMode mode) {
+        return Mono.just(Collections.emptyList());
+    }
+
     @Override
     public Mono<List<String>> getCollectionsAsync() {
         return Mono.just(Collections.emptyList());
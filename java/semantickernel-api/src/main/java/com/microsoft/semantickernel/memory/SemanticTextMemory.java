@@ -1,6 +1,8 @@
 // Copyright (c) Microsoft. All rights reserved.
 package com.microsoft.semantickernel.memory;
 
+import com.microsoft.semantickernel.exceptions.NotSupportedException;
+
 import reactor.core.publisher.Mono;
 
 import java.util.List;
@@ -94,6 +96,33 @@ public interface SemanticTextMemory {
             double minRelevanceScore,
             boolean withEmbeddings);
 
+    /**
+     * Find some information in memory using the given search mode. Memories which only search by
+     * vector similarity keep this default, which fails for the other modes.
+     *
+     * @param collection Collection to search
+     * @param query What to search for
+     * @param limit How many results to return
+     * @param minRelevanceScore Minimum relevance score, from 0 to 1, where 1 means exact match.
+     * @param withEmbeddings Whether to return the embeddings of the memories found.
+     * @param mode Whether to match the query by vector similarity, by keywords, or by both
+     * @return Memories found
+     */
+    default Mono<List<MemoryQueryResult>> searchAsync(
+            @Nonnull String collection,
+            @Nonnull String query,
+            int limit,
+            double minRelevanceScore,
+            boolean withEmbeddings,
+            @Nonnull MemorySearchMode mode) {
+        if (mode != MemorySearchMode.VECTOR) {
+            return Mono.error(
+                    new NotSupportedException(
+                            getClass().getName() + " does not support the " + mode + " search"));
+        }
+        return searchAsync(collection, query, limit, minRelevanceScore, withEmbeddings);
+    }
+
     /**
      * Gets a group of all available collection names.
      *
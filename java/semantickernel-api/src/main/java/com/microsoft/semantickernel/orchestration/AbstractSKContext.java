@@ -2,29 +2,34 @@
 package com.microsoft.semantickernel.orchestration;
 // Copyright (c) Microsoft. All rights reserved.
 
-import com.microsoft.semantickernel.builders.SKBuilders;
 import com.microsoft.semantickernel.memory.SemanticTextMemory;
 import com.microsoft.semantickernel.skilldefinition.ReadOnlySkillCollection;
 
 import reactor.util.annotation.NonNull;
 import reactor.util.annotation.Nullable;
 
-import java.util.Collections;
+import java.time.Instant;
 
 import javax.annotation.CheckReturnValue;
 
 /// <summary>
 /// Semantic Kernel context.
 /// </summary>memory
+///
+/// <p>Copies of a context share its variables, memory and skills. The variables are forked on the
+/// first write to a context sharing them, so that functions only reading a context never clone it.
 public abstract class AbstractSKContext<T extends SKContext<T>> implements SKContext<T> {
     @Nullable private final ReadOnlySkillCollection skills;
-    private final WritableContextVariables variables;
+    private WritableContextVariables variables;
+    // View of the variables handed out, set while they are shared
+    @Nullable private SharedContextVariables shared;
     @Nullable private final SemanticTextMemory memory;
+    @Nullable private Instant deadline;
 
     @Nullable
     @Override
     public String getResult() {
-        return getVariables().asMap().get(ContextVariables.MAIN_KEY);
+        return variables.get(ContextVariables.MAIN_KEY);
     }
 
     /// <summary>
@@ -32,7 +37,19 @@ public abstract class AbstractSKContext<T extends SKContext<T>> implements SKCon
     /// </summary>
     @Override
     public ContextVariables getVariables() {
-        return SKBuilders.variables().build(Collections.unmodifiableMap(variables.asMap()));
+        if (shared == null) {
+            shared = new SharedContextVariables(variables);
+        }
+        return shared;
+    }
+
+    /** The variables of this context, forked first if they are shared. */
+    private WritableContextVariables writableVariables() {
+        if (shared != null) {
+            variables = variables.writableClone();
+            shared = null;
+        }
+        return variables;
     }
 
     AbstractSKContext(ContextVariables variables) {
@@ -52,33 +69,42 @@ public abstract class AbstractSKContext<T extends SKContext<T>> implements SKCon
             ContextVariables variables,
             @Nullable SemanticTextMemory memory,
             @Nullable ReadOnlySkillCollection skills) {
-        this.variables = InternalBuildersSingleton.variables().build(variables.asMap());
-
-        if (memory != null) {
-            this.memory = memory.copy();
+        if (variables instanceof SharedContextVariables) {
+            this.shared = (SharedContextVariables) variables;
+            this.variables = shared.getShared();
         } else {
-            this.memory = null;
+            this.variables = InternalBuildersSingleton.variables().build(variables.asMap());
         }
-
+        this.memory = memory;
         this.skills = skills;
     }
 
+    /**
+     * A lightweight fork of this context, sharing its variables until either context writes to
+     * them, its memory and its skills.
+     */
     @CheckReturnValue
     @Override
     public T copy() {
-        ReadOnlySkillCollection clonedSkill;
-        if (skills == null) {
-            clonedSkill = skills;
-        } else {
-            clonedSkill = skills.copy();
-        }
-        return build(variables.writableClone(), memory, clonedSkill);
+        return build(getVariables(), memory, skills).setDeadline(deadline);
+    }
+
+    @Nullable
+    @Override
+    public Instant getDeadline() {
+        return deadline;
+    }
+
+    @Override
+    public T setDeadline(@Nullable Instant deadline) {
+        this.deadline = deadline;
+        return getThis();
     }
 
     @Nullable
     @Override
     public SemanticTextMemory getSemanticMemory() {
-        return memory != null ? memory.copy() : null;
+        return memory;
     }
 
     @Nullable
@@ -89,13 +115,13 @@ public abstract class AbstractSKContext<T extends SKContext<T>> implements SKCon
 
     @Override
     public T setVariable(@NonNull String key, @NonNull String content) {
-        variables.setVariable(key, content);
+        writableVariables().setVariable(key, content);
         return getThis();
     }
 
     @Override
     public T appendToVariable(@NonNull String key, @NonNull String content) {
-        variables.appendToVariable(key, content);
+        writableVariables().appendToVariable(key, content);
         return getThis();
     }
 
@@ -108,13 +134,13 @@ public abstract class AbstractSKContext<T extends SKContext<T>> implements SKCon
     /// <returns>The current instance</returns>
     @Override
     public T update(@NonNull String content) {
-        variables.update(content);
+        writableVariables().update(content);
         return getThis();
     }
 
     @Override
     public T update(@NonNull ContextVariables newData) {
-        variables.update(newData, true);
+        writableVariables().update(newData, true);
         return getThis();
     }
 
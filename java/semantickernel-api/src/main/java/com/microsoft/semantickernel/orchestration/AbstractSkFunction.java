@@ -2,6 +2,8 @@
 package com.microsoft.semantickernel.orchestration;
 
 import com.microsoft.semantickernel.builders.SKBuilders;
+import com.microsoft.semantickernel.diagnostics.Instrumentation;
+import com.microsoft.semantickernel.diagnostics.Instrumentations;
 import com.microsoft.semantickernel.memory.NullMemory;
 import com.microsoft.semantickernel.memory.SemanticTextMemory;
 import com.microsoft.semantickernel.skilldefinition.KernelSkillsSupplier;
@@ -27,6 +29,8 @@ public abstract class AbstractSkFunction<
     private final String functionName;
     private final String description;
     @Nullable private KernelSkillsSupplier skillsSupplier;
+    // Filters of the kernel composed around invokeAsyncInternal, null without filters
+    @Nullable private FunctionFilter.Chain filterChain;
 
     public AbstractSkFunction(
             DelegateTypes delegateType,
@@ -54,6 +58,29 @@ public abstract class AbstractSkFunction<
         this.skillsSupplier = skillsSupplier;
     }
 
+    /**
+     * Composes the filters around the function, once rather than on each invocation.
+     *
+     * @param filters Filters of the kernel the function is registered on, in order
+     */
+    @SuppressWarnings("unchecked")
+    protected void setFunctionFilters(List<FunctionFilter> filters) {
+        if (filters.isEmpty()) {
+            this.filterChain = null;
+            return;
+        }
+
+        FunctionFilter.Chain chain =
+                (context, settings) ->
+                        invokeAsyncInternal((ContextType) context, (RequestConfiguration) settings);
+        for (int i = filters.size() - 1; i >= 0; i--) {
+            FunctionFilter filter = filters.get(i);
+            FunctionFilter.Chain next = chain;
+            chain = (context, settings) -> filter.invokeAsync(this, context, settings, next);
+        }
+        this.filterChain = chain;
+    }
+
     @Nullable
     public KernelSkillsSupplier getSkillsSupplier() {
         return skillsSupplier;
@@ -94,7 +121,29 @@ public abstract class AbstractSkFunction<
             context = context.copy();
         }
 
-        return this.invokeAsyncInternal(context, settings);
+        ContextType finalContext = context;
+        Mono<ContextType> invocation =
+                Deadlines.apply(
+                        Mono.defer(() -> invokeThroughFilters(finalContext, settings)),
+                        context.getDeadline());
+        if (!Instrumentations.isEnabled()) {
+            return invocation;
+        }
+        return Instrumentations.observe(
+                Instrumentation.FUNCTION_INVOCATION,
+                invocation,
+                Instrumentation.FUNCTION_TAG,
+                toFullyQualifiedName());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Mono<ContextType> invokeThroughFilters(
+            ContextType context, @Nullable RequestConfiguration settings) {
+        FunctionFilter.Chain chain = this.filterChain;
+        if (chain == null) {
+            return this.invokeAsyncInternal(context, settings);
+        }
+        return (Mono<ContextType>) chain.invokeAsync(context, settings);
     }
 
     protected abstract Mono<ContextType> invokeAsyncInternal(
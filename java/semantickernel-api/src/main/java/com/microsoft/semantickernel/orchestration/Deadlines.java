@@ -0,0 +1,109 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.orchestration;
+
+import com.microsoft.semantickernel.KernelException;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.Nullable;
+
+/**
+ * Applies the deadlines of invocations. A deadline is set on the {@link SKContext} of an
+ * invocation, and carried in the Reactor context while it runs, so that the functions, renderings
+ * and model requests it starts share the deadline even when they build contexts of their own.
+ *
+ * <p>When the deadline passes, the outstanding operations are cancelled, which disposes their HTTP
+ * exchanges, and the invocation fails with {@link KernelException.ErrorCodes#DeadlineExceeded}.
+ * Disposing the subscription of an invocation cancels it the same way, without a deadline.
+ */
+public final class Deadlines {
+
+    private Deadlines() {}
+
+    /**
+     * Bounds an operation by a deadline, and by the deadline of the invocation it runs in.
+     *
+     * @param operation The operation
+     * @param deadline The deadline, {@code null} for the deadline of the enclosing invocation only
+     * @return The operation, failing once the earliest deadline has passed
+     */
+    public static <T> Mono<T> apply(Mono<T> operation, @Nullable Instant deadline) {
+        return Mono.deferContextual(
+                context -> {
+                    Instant effective =
+                            earliest(deadline, context.getOrDefault(Deadlines.class, null));
+                    if (effective == null) {
+                        return operation;
+                    }
+
+                    Duration left = Duration.between(Instant.now(), effective);
+                    if (left.isNegative() || left.isZero()) {
+                        return Mono.error(exceeded(effective));
+                    }
+                    return operation
+                            .timeout(left, Mono.error(() -> exceeded(effective)))
+                            .contextWrite(inner -> inner.put(Deadlines.class, effective));
+                });
+    }
+
+    /**
+     * Bounds a stream by a deadline, and by the deadline of the invocation it runs in. The whole
+     * stream must complete before the deadline, not each of its elements.
+     *
+     * @param operation The stream
+     * @param deadline The deadline, {@code null} for the deadline of the enclosing invocation only
+     * @return The stream, cancelled and failing once the earliest deadline has passed
+     */
+    public static <T> Flux<T> apply(Flux<T> operation, @Nullable Instant deadline) {
+        return Flux.deferContextual(
+                context -> {
+                    Instant effective =
+                            earliest(deadline, context.getOrDefault(Deadlines.class, null));
+                    if (effective == null) {
+                        return operation;
+                    }
+
+                    Duration left = Duration.between(Instant.now(), effective);
+                    if (left.isNegative() || left.isZero()) {
+                        return Flux.error(exceeded(effective));
+                    }
+                    // takeUntilOther only cancels the stream when the timer emits, not when it
+                    // fails, so the error is raised once the stream is cancelled
+                    AtomicBoolean expired = new AtomicBoolean();
+                    return operation
+                            .takeUntilOther(Mono.delay(left).doOnNext(ignored -> expired.set(true)))
+                            .concatWith(
+                                    Mono.defer(
+                                            () ->
+                                                    expired.get()
+                                                            ? Mono.error(exceeded(effective))
+                                                            : Mono.empty()))
+                            .contextWrite(inner -> inner.put(Deadlines.class, effective));
+                });
+    }
+
+    /**
+     * @return The earliest of the deadlines, {@code null} if neither is set
+     */
+    @Nullable
+    public static Instant earliest(@Nullable Instant first, @Nullable Instant second) {
+        if (first == null) {
+            return second;
+        }
+        if (second == null) {
+            return first;
+        }
+        return first.isBefore(second) ? first : second;
+    }
+
+    private static KernelException exceeded(Instant deadline) {
+        return new KernelException(
+                KernelException.ErrorCodes.DeadlineExceeded,
+                "The deadline " + deadline + " has passed");
+    }
+}
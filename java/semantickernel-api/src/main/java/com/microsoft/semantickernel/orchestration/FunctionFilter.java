@@ -0,0 +1,45 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.orchestration;
+
+import reactor.core.publisher.Mono;
+
+import javax.annotation.Nullable;
+
+/**
+ * Intercepts the invocations of the functions registered on a kernel, to time them, cache their
+ * results or reject them. Filters are added to the {@link
+ * com.microsoft.semantickernel.KernelConfig}, and run in the order they were added, each deciding
+ * whether to invoke the rest of the chain.
+ *
+ * <pre>{@code
+ * FunctionFilter timing =
+ *         (function, context, settings, next) -> {
+ *             long start = System.nanoTime();
+ *             return next.invokeAsync(context, settings)
+ *                     .doOnSuccess(
+ *                             result -> record(function.toFullyQualifiedName(), System.nanoTime() - start));
+ *         };
+ * }</pre>
+ */
+@FunctionalInterface
+public interface FunctionFilter {
+
+    /** The rest of a filter chain, ending with the function. */
+    @FunctionalInterface
+    interface Chain {
+        Mono<? extends SKContext<?>> invokeAsync(SKContext<?> context, @Nullable Object settings);
+    }
+
+    /**
+     * Intercepts an invocation.
+     *
+     * @param function The function invoked
+     * @param context Context of the invocation, owned by this invocation
+     * @param settings Request settings of the invocation, {@code null} for the defaults of the
+     *     function
+     * @param next The rest of the chain, not invoked to short-circuit the function
+     * @return The context resulting from the invocation, the given context or one updated from it
+     */
+    Mono<? extends SKContext<?>> invokeAsync(
+            SKFunction<?, ?> function, SKContext<?> context, @Nullable Object settings, Chain next);
+}
@@ -0,0 +1,260 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.orchestration;
+
+import com.microsoft.semantickernel.ai.tokenizers.ApproximateTokenizer;
+import com.microsoft.semantickernel.ai.tokenizers.Tokenizer;
+import com.microsoft.semantickernel.builders.SKBuilders;
+import com.microsoft.semantickernel.memory.NullMemory;
+import com.microsoft.semantickernel.memory.SemanticTextMemory;
+import com.microsoft.semantickernel.skilldefinition.ReadOnlySkillCollection;
+import com.microsoft.semantickernel.text.TextChunker;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * Runs a function over an input too large for a single request.
+ *
+ * <p>The input is split into chunks of at most {@code maxChunkTokens} tokens, see {@link
+ * TextChunker}, the map function is invoked on the chunks concurrently, and the results are joined
+ * in chunk order. If a reduce function is set, it is then invoked on the joined results, which are
+ * themselves split and reduced while they do not fit in a chunk. An input that fits in a chunk is
+ * passed to the map function as is.
+ *
+ * <p>The other variables, the memory and the skills are passed unchanged to every invocation.
+ */
+public class MapReduce {
+
+    /** Default maximum number of chunks processed concurrently. */
+    public static final int DefaultMaxConcurrency = 4;
+
+    /** Default separator of the results of the chunks. */
+    public static final String DefaultSeparator = "\n\n";
+
+    private final SKFunction<?, ?> mapFunction;
+    @Nullable private final SKFunction<?, ?> reduceFunction;
+    private final Tokenizer tokenizer;
+    private final int maxChunkTokens;
+    private final int maxConcurrency;
+    private final String separator;
+
+    private MapReduce(
+            SKFunction<?, ?> mapFunction,
+            @Nullable SKFunction<?, ?> reduceFunction,
+            Tokenizer tokenizer,
+            int maxChunkTokens,
+            int maxConcurrency,
+            String separator) {
+        this.mapFunction = mapFunction;
+        this.reduceFunction = reduceFunction;
+        this.tokenizer = tokenizer;
+        this.maxChunkTokens = maxChunkTokens;
+        this.maxConcurrency = maxConcurrency;
+        this.separator = separator;
+    }
+
+    /**
+     * Runs the functions over a text.
+     *
+     * @param input The text
+     * @return The combined result
+     */
+    public Mono<String> invokeAsync(String input) {
+        return invokeAsync(SKBuilders.variables().build(input), null, null);
+    }
+
+    /**
+     * Runs the functions over the input of a context.
+     *
+     * @param context Context providing the input, the other variables, the memory and the skills
+     * @return A copy of the context holding the combined result
+     */
+    public <T extends SKContext<T>> Mono<T> invokeAsync(T context) {
+        return invokeAsync(context.getVariables(), context.getSemanticMemory(), context.getSkills())
+                .map(result -> context.copy().update(result));
+    }
+
+    /**
+     * Runs the functions over the input variable.
+     *
+     * @param variables The input, and the other variables passed to the functions
+     * @param memory Memory passed to the functions
+     * @param skills Skills passed to the functions
+     * @return The combined result
+     */
+    public Mono<String> invokeAsync(
+            ContextVariables variables,
+            @Nullable SemanticTextMemory memory,
+            @Nullable ReadOnlySkillCollection skills) {
+        return Mono.defer(
+                () -> {
+                    String input = variables.get(ContextVariables.MAIN_KEY);
+                    List<String> chunks =
+                            TextChunker.split(
+                                    input != null ? input : "", maxChunkTokens, tokenizer);
+                    if (chunks.size() <= 1) {
+                        return invokeAsync(mapFunction, variables, memory, skills);
+                    }
+                    return mapAsync(mapFunction, chunks, variables, memory, skills)
+                            .flatMap(
+                                    combined ->
+                                            reduceAsync(
+                                                    combined,
+                                                    chunks.size(),
+                                                    variables,
+                                                    memory,
+                                                    skills));
+                });
+    }
+
+    private Mono<String> reduceAsync(
+            String combined,
+            int previousChunks,
+            ContextVariables variables,
+            @Nullable SemanticTextMemory memory,
+            @Nullable ReadOnlySkillCollection skills) {
+        SKFunction<?, ?> reduce = reduceFunction;
+        if (reduce == null) {
+            return Mono.just(combined);
+        }
+
+        List<String> chunks = TextChunker.split(combined, maxChunkTokens, tokenizer);
+        if (chunks.size() <= 1) {
+            return invokeAsync(reduce, withInput(variables, combined), memory, skills);
+        }
+        return mapAsync(reduce, chunks, variables, memory, skills)
+                .flatMap(
+                        reduced ->
+                                // Stop if the results are not getting shorter
+                                chunks.size() < previousChunks
+                                        ? reduceAsync(
+                                                reduced, chunks.size(), variables, memory, skills)
+                                        : Mono.just(reduced));
+    }
+
+    private Mono<String> mapAsync(
+            SKFunction<?, ?> function,
+            List<String> chunks,
+            ContextVariables variables,
+            @Nullable SemanticTextMemory memory,
+            @Nullable ReadOnlySkillCollection skills) {
+        return Flux.fromIterable(chunks)
+                .flatMapSequential(
+                        chunk -> invokeAsync(function, withInput(variables, chunk), memory, skills),
+                        maxConcurrency)
+                .collectList()
+                .map(results -> String.join(separator, results));
+    }
+
+    private static Mono<String> invokeAsync(
+            SKFunction<?, ?> function,
+            ContextVariables variables,
+            @Nullable SemanticTextMemory memory,
+            @Nullable ReadOnlySkillCollection skills) {
+        return function.invokeWithCustomInputAsync(
+                        variables,
+                        memory != null ? memory : NullMemory.getInstance(),
+                        skills != null ? skills : SKBuilders.skillCollection().build())
+                .map(
+                        result -> {
+                            String output = result.getResult();
+                            return output != null ? output : "";
+                        })
+                .defaultIfEmpty("");
+    }
+
+    private static ContextVariables withInput(ContextVariables variables, String input) {
+        Map<String, String> values = new HashMap<>(variables.asMap());
+        values.put(ContextVariables.MAIN_KEY, input);
+        return SKBuilders.variables().build(values);
+    }
+
+    /** Builder of {@link MapReduce}. */
+    public static class Builder {
+        @Nullable private SKFunction<?, ?> mapFunction;
+        @Nullable private SKFunction<?, ?> reduceFunction;
+        private Tokenizer tokenizer = ApproximateTokenizer.getInstance();
+        private int maxChunkTokens = 2000;
+        private int maxConcurrency = DefaultMaxConcurrency;
+        private String separator = DefaultSeparator;
+
+        /**
+         * @param mapFunction Function invoked on each chunk of the input, required
+         * @return this builder
+         */
+        public Builder setMapFunction(SKFunction<?, ?> mapFunction) {
+            this.mapFunction = mapFunction;
+            return this;
+        }
+
+        /**
+         * @param reduceFunction Function combining the joined results of the chunks, if {@code
+         *     null} the joined results are returned
+         * @return this builder
+         */
+        public Builder setReduceFunction(@Nullable SKFunction<?, ?> reduceFunction) {
+            this.reduceFunction = reduceFunction;
+            return this;
+        }
+
+        /**
+         * @param tokenizer Tokenizer of the model of the functions, estimates by default
+         * @return this builder
+         */
+        public Builder setTokenizer(Tokenizer tokenizer) {
+            this.tokenizer = tokenizer;
+            return this;
+        }
+
+        /**
+         * @param maxChunkTokens Maximum number of tokens of a chunk, 2000 by default. Leave room
+         *     for the rest of the prompt and for the completion.
+         * @return this builder
+         */
+        public Builder setMaxChunkTokens(int maxChunkTokens) {
+            this.maxChunkTokens = maxChunkTokens;
+            return this;
+        }
+
+        /**
+         * @param maxConcurrency Maximum number of chunks processed concurrently
+         * @return this builder
+         */
+        public Builder setMaxConcurrency(int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+            return this;
+        }
+
+        /**
+         * @param separator Separator of the results of the chunks
+         * @return this builder
+         */
+        public Builder setSeparator(String separator) {
+            this.separator = separator;
+            return this;
+        }
+
+        public MapReduce build() {
+            if (mapFunction == null) {
+                throw new IllegalStateException("A map function is required");
+            }
+            if (maxChunkTokens < 1 || maxConcurrency < 1) {
+                throw new IllegalStateException(
+                        "The maximum chunk tokens and concurrency must be at least 1");
+            }
+            return new MapReduce(
+                    mapFunction,
+                    reduceFunction,
+                    tokenizer,
+                    maxChunkTokens,
+                    maxConcurrency,
+                    separator);
+        }
+    }
+}
@@ -8,6 +8,8 @@ import com.microsoft.semantickernel.skilldefinition.ReadOnlySkillCollection;
 import reactor.util.annotation.NonNull;
 import reactor.util.annotation.Nullable;
 
+import java.time.Instant;
+
 import javax.annotation.CheckReturnValue;
 
 /** Semantic Kernel context. */
@@ -28,9 +30,9 @@ public interface SKContext<Type extends SKContext<Type>> {
     String getResult();
 
     /**
-     * Return a copy of all variables within the context
+     * Return the variables within the context, as they are when called
      *
-     * @return a clone of the variables
+     * @return a read-only snapshot of the variables, later writes to the context do not change it
      */
     ContextVariables getVariables();
 
@@ -83,8 +85,41 @@ public interface SKContext<Type extends SKContext<Type>> {
     @CheckReturnValue
     Type update(@NonNull ContextVariables newData);
 
+    /**
+     * Forks this context, writes to the copy do not change this context and the other way round.
+     * The copy shares the variables of this context until either is written to, so copying a
+     * context that is only read costs no clone.
+     *
+     * @return A copy of this context
+     */
     Type copy();
 
+    /**
+     * Gets the deadline of the invocations of this context, copies of the context share it.
+     *
+     * @return The deadline, {@code null} if there is none
+     * @see Deadlines
+     */
+    @Nullable
+    default Instant getDeadline() {
+        return null;
+    }
+
+    /**
+     * Sets the deadline of the invocations of this context. Once it has passed the invocations are
+     * cancelled, with the model requests they are waiting for.
+     *
+     * <p>Contexts that do not carry a deadline ignore it, their invocations are still bounded by
+     * the deadline of the invocation they run in, see {@link Deadlines}.
+     *
+     * @param deadline The deadline, {@code null} for none
+     * @return Context for fluent calls
+     */
+    @SuppressWarnings("unchecked")
+    default Type setDeadline(@Nullable Instant deadline) {
+        return (Type) this;
+    }
+
     interface Builder {
         SKContext build(ReadOnlySkillCollection skills);
     }
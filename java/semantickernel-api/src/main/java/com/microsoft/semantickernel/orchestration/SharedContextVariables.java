@@ -0,0 +1,39 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.orchestration;
+
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * A read-only view of the variables of a context, shared with the contexts built from it. The
+ * variables behind the view never change, a context writing to shared variables first forks them.
+ */
+final class SharedContextVariables implements ContextVariables {
+
+    private final WritableContextVariables variables;
+
+    SharedContextVariables(WritableContextVariables variables) {
+        this.variables = variables;
+    }
+
+    WritableContextVariables getShared() {
+        return variables;
+    }
+
+    @Override
+    public Map<String, String> asMap() {
+        return variables.asMap();
+    }
+
+    @Override
+    public WritableContextVariables writableClone() {
+        return variables.writableClone();
+    }
+
+    @Nullable
+    @Override
+    public String get(String key) {
+        return variables.get(key);
+    }
+}
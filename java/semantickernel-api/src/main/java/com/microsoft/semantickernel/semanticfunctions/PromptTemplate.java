@@ -2,6 +2,7 @@
 package com.microsoft.semantickernel.semanticfunctions; // Copyright (c) Microsoft. All rights
 // reserved.
 
+import com.microsoft.semantickernel.exceptions.NotSupportedException;
 import com.microsoft.semantickernel.orchestration.SKContext;
 import com.microsoft.semantickernel.skilldefinition.ParameterView;
 import com.microsoft.semantickernel.templateengine.PromptTemplateEngine;
@@ -10,6 +11,8 @@ import reactor.core.publisher.Mono;
 
 import java.util.List;
 
+import javax.annotation.Nullable;
+
 /** Interface for prompt template */
 public interface PromptTemplate {
     /**
@@ -30,5 +33,24 @@ public interface PromptTemplate {
 
     interface Builder {
         PromptTemplate build(String promptTemplate, PromptTemplateConfig config);
+
+        /**
+         * Builds a template whose variables are fitted to token budgets before rendering. Builders
+         * that do not support budgets only accept a {@code null} policy.
+         *
+         * @param promptTemplate Prompt template
+         * @param config Prompt template configuration
+         * @param tokenBudgetPolicy Budgets of the variables
+         * @return The template
+         */
+        default PromptTemplate build(
+                String promptTemplate,
+                PromptTemplateConfig config,
+                @Nullable TokenBudgetPolicy tokenBudgetPolicy) {
+            if (tokenBudgetPolicy != null) {
+                throw new NotSupportedException("This builder does not support token budgets");
+            }
+            return build(promptTemplate, config);
+        }
     }
 }
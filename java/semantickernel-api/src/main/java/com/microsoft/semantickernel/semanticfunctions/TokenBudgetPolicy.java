@@ -0,0 +1,193 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.semanticfunctions;
+
+import com.microsoft.semantickernel.ai.tokenizers.ApproximateTokenizer;
+import com.microsoft.semantickernel.ai.tokenizers.Tokenizer;
+import com.microsoft.semantickernel.builders.SKBuilders;
+import com.microsoft.semantickernel.orchestration.ContextVariables;
+import com.microsoft.semantickernel.orchestration.MapReduce;
+import com.microsoft.semantickernel.orchestration.SKFunction;
+import com.microsoft.semantickernel.text.TextChunker;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuples;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * Token budgets of the variables of a prompt template.
+ *
+ * <p>Before the template is rendered, the value of each variable with a budget is counted, and a
+ * value over its budget is truncated or summarized. The variables of the context are left
+ * unchanged, only the rendered prompt sees the shortened values.
+ */
+public class TokenBudgetPolicy {
+
+    /** What to do with a value over its budget. */
+    public enum Overflow {
+        /** Keep the start of the value. */
+        TRUNCATE_END,
+
+        /** Keep the end of the value, for instance the latest messages of a history. */
+        TRUNCATE_START,
+
+        /**
+         * Replace the value by its summary, truncated if still over budget. Without a summarizer,
+         * the value is truncated.
+         */
+        SUMMARIZE
+    }
+
+    private static final class Budget {
+        private final int maxTokens;
+        private final Overflow overflow;
+
+        private Budget(int maxTokens, Overflow overflow) {
+            this.maxTokens = maxTokens;
+            this.overflow = overflow;
+        }
+    }
+
+    private final Tokenizer tokenizer;
+    private final Map<String, Budget> budgets;
+    @Nullable private final MapReduce summarizer;
+
+    private TokenBudgetPolicy(
+            Tokenizer tokenizer, Map<String, Budget> budgets, @Nullable MapReduce summarizer) {
+        this.tokenizer = tokenizer;
+        this.budgets = Collections.unmodifiableMap(new HashMap<>(budgets));
+        this.summarizer = summarizer;
+    }
+
+    /**
+     * Fits the variables to their budgets.
+     *
+     * @param variables The variables
+     * @return The variables, with the values over budget shortened. The same instance if every
+     *     value fits.
+     */
+    public Mono<ContextVariables> applyAsync(ContextVariables variables) {
+        return Flux.fromIterable(budgets.entrySet())
+                .filter(
+                        budget -> {
+                            String value = variables.get(budget.getKey());
+                            return value != null
+                                    && tokenizer.countTokens(value) > budget.getValue().maxTokens;
+                        })
+                .flatMap(
+                        budget -> {
+                            String value = variables.get(budget.getKey());
+                            return fitAsync(value != null ? value : "", budget.getValue())
+                                    .map(fitted -> Tuples.of(budget.getKey(), fitted));
+                        })
+                .collectList()
+                .map(
+                        fitted -> {
+                            if (fitted.isEmpty()) {
+                                return variables;
+                            }
+                            Map<String, String> values = new HashMap<>(variables.asMap());
+                            fitted.forEach(value -> values.put(value.getT1(), value.getT2()));
+                            return SKBuilders.variables().build(values);
+                        });
+    }
+
+    private Mono<String> fitAsync(String value, Budget budget) {
+        MapReduce summarize = summarizer;
+        if (budget.overflow == Overflow.SUMMARIZE && summarize != null) {
+            return summarize
+                    .invokeAsync(value)
+                    .map(
+                            summary ->
+                                    TextChunker.truncate(
+                                            summary, budget.maxTokens, tokenizer, false));
+        }
+        return Mono.just(
+                TextChunker.truncate(
+                        value,
+                        budget.maxTokens,
+                        tokenizer,
+                        budget.overflow == Overflow.TRUNCATE_START));
+    }
+
+    /** Builder of {@link TokenBudgetPolicy}. */
+    public static class Builder {
+        private final Map<String, Budget> budgets = new HashMap<>();
+        private Tokenizer tokenizer = ApproximateTokenizer.getInstance();
+        @Nullable private MapReduce summarizer;
+        @Nullable private SKFunction<?, ?> summarizeFunction;
+        private int maxSummarizedTokens;
+
+        /**
+         * @param tokenizer Tokenizer of the model of the function, estimates by default
+         * @return this builder
+         */
+        public Builder setTokenizer(Tokenizer tokenizer) {
+            this.tokenizer = tokenizer;
+            return this;
+        }
+
+        /**
+         * Sets the budget of a variable.
+         *
+         * @param variable Name of the variable, without the {@code $} prefix
+         * @param maxTokens Maximum number of tokens of the value
+         * @param overflow What to do with a value over the budget
+         * @return this builder
+         */
+        public Builder setBudget(String variable, int maxTokens, Overflow overflow) {
+            if (maxTokens < 0) {
+                throw new IllegalArgumentException("A budget cannot be negative");
+            }
+            budgets.put(variable, new Budget(maxTokens, overflow));
+            return this;
+        }
+
+        /**
+         * @param summarizer Summarizes the values over a {@link Overflow#SUMMARIZE} budget. Values
+         *     larger than the summarizer model accepts are summarized chunk by chunk.
+         * @return this builder
+         */
+        public Builder setSummarizer(@Nullable MapReduce summarizer) {
+            this.summarizer = summarizer;
+            this.summarizeFunction = null;
+            return this;
+        }
+
+        /**
+         * Summarizes the values over a {@link Overflow#SUMMARIZE} budget with a function. Values
+         * over {@code maxChunkTokens} are split into chunks counted with the tokenizer of the
+         * policy, the chunks are summarized, and their joined summaries are summarized again until
+         * they fit in a chunk.
+         *
+         * @param summarizeFunction Function summarizing its input
+         * @param maxChunkTokens Maximum number of tokens passed to the function at once
+         * @return this builder
+         */
+        public Builder setSummarizer(SKFunction<?, ?> summarizeFunction, int maxChunkTokens) {
+            this.summarizeFunction = summarizeFunction;
+            this.maxSummarizedTokens = maxChunkTokens;
+            this.summarizer = null;
+            return this;
+        }
+
+        public TokenBudgetPolicy build() {
+            MapReduce summarize = summarizer;
+            if (summarizeFunction != null) {
+                summarize =
+                        new MapReduce.Builder()
+                                .setMapFunction(summarizeFunction)
+                                .setReduceFunction(summarizeFunction)
+                                .setTokenizer(tokenizer)
+                                .setMaxChunkTokens(maxSummarizedTokens)
+                                .build();
+            }
+            return new TokenBudgetPolicy(tokenizer, budgets, summarize);
+        }
+    }
+}
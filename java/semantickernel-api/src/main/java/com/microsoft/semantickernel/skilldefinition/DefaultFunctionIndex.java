@@ -0,0 +1,93 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.skilldefinition;
+
+import com.microsoft.semantickernel.orchestration.SKFunction;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/** Thread safe {@link FunctionIndex} backed by a hash map. */
+public class DefaultFunctionIndex implements FunctionIndex {
+
+    private static class Entry {
+        private final SKFunction<?, ?> function;
+
+        // Embedding string last saved, by memory collection
+        private final Map<String, String> remembered = new ConcurrentHashMap<>();
+
+        private Entry(SKFunction<?, ?> function) {
+            this.function = function;
+        }
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public DefaultFunctionIndex() {}
+
+    /**
+     * Creates an index of all the functions in a skill collection.
+     *
+     * @param skills The skill collection
+     */
+    public DefaultFunctionIndex(@Nullable ReadOnlySkillCollection skills) {
+        if (skills != null) {
+            skills.getAllFunctions().getAll().forEach(this::add);
+        }
+    }
+
+    private static String key(String fullyQualifiedName) {
+        return fullyQualifiedName.toLowerCase(Locale.ROOT);
+    }
+
+    @Nullable
+    @Override
+    public SKFunction<?, ?> getFunction(@Nonnull String fullyQualifiedName) {
+        Entry entry = entries.get(key(fullyQualifiedName));
+        return entry != null ? entry.function : null;
+    }
+
+    @Override
+    public List<SKFunction<?, ?>> getFunctions() {
+        List<SKFunction<?, ?>> functions = new ArrayList<>(entries.size());
+        entries.values().forEach(entry -> functions.add(entry.function));
+        return Collections.unmodifiableList(functions);
+    }
+
+    @Override
+    public void add(@Nonnull SKFunction<?, ?> function) {
+        entries.put(key(function.toFullyQualifiedName()), new Entry(function));
+    }
+
+    @Override
+    public void remove(@Nonnull String fullyQualifiedName) {
+        entries.remove(key(fullyQualifiedName));
+    }
+
+    @Override
+    public boolean isRemembered(@Nonnull String collection, @Nonnull SKFunction<?, ?> function) {
+        Entry entry = entries.get(key(function.toFullyQualifiedName()));
+        return entry != null
+                && entry.function == function
+                && function.toEmbeddingString().equals(entry.remembered.get(collection));
+    }
+
+    @Override
+    public void markRemembered(@Nonnull String collection, @Nonnull SKFunction<?, ?> function) {
+        Entry entry = entries.get(key(function.toFullyQualifiedName()));
+        if (entry != null && entry.function == function) {
+            entry.remembered.put(collection, function.toEmbeddingString());
+        }
+    }
+
+    @Override
+    public void clearRemembered() {
+        entries.values().forEach(entry -> entry.remembered.clear());
+    }
+}
@@ -0,0 +1,74 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.skilldefinition;
+
+import com.microsoft.semantickernel.orchestration.SKFunction;
+
+import java.util.List;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Kernel level index of the registered functions, keyed by {@link
+ * SKFunction#toFullyQualifiedName()}.
+ *
+ * <p>The index is updated incrementally as functions are registered on, or removed from, the
+ * kernel. It also tracks which functions have already been saved to a memory collection, along with
+ * the embedding string that was saved, so that consumers such as planners only embed the functions
+ * that are new or whose description changed.
+ */
+public interface FunctionIndex {
+
+    /**
+     * Gets a function by its fully qualified name, case insensitive.
+     *
+     * @param fullyQualifiedName Name of the function, as returned by {@link
+     *     SKFunction#toFullyQualifiedName()}
+     * @return The function, or {@code null} if there is no such function
+     */
+    @Nullable
+    SKFunction<?, ?> getFunction(@Nonnull String fullyQualifiedName);
+
+    /**
+     * Gets all the indexed functions.
+     *
+     * @return An unmodifiable snapshot of the functions
+     */
+    List<SKFunction<?, ?>> getFunctions();
+
+    /**
+     * Adds a function to the index, replacing any function with the same fully qualified name.
+     *
+     * @param function The function
+     */
+    void add(@Nonnull SKFunction<?, ?> function);
+
+    /**
+     * Removes a function from the index.
+     *
+     * @param fullyQualifiedName Name of the function
+     */
+    void remove(@Nonnull String fullyQualifiedName);
+
+    /**
+     * Checks whether the current embedding string of the function has been saved to a memory
+     * collection.
+     *
+     * @param collection Name of the memory collection
+     * @param function The function
+     * @return {@code true} if the function does not need to be saved again
+     */
+    boolean isRemembered(@Nonnull String collection, @Nonnull SKFunction<?, ?> function);
+
+    /**
+     * Records that the current embedding string of the function has been saved to a memory
+     * collection.
+     *
+     * @param collection Name of the memory collection
+     * @param function The function
+     */
+    void markRemembered(@Nonnull String collection, @Nonnull SKFunction<?, ?> function);
+
+    /** Forgets which functions have been saved to memory, e.g. when the memory is replaced. */
+    void clearRemembered();
+}
@@ -13,4 +13,18 @@ public @interface DefineSKFunction {
     String description();
 
     String name();
+
+    /**
+     * Marks the function as a pure function of its parameters, that returns the same result for the
+     * same values without side effects. Its results are then memoized, keyed on the values of its
+     * parameters. A deterministic function cannot take the context as a parameter.
+     */
+    boolean deterministic() default false;
+
+    /**
+     * Marks the function as blocking the calling thread, on I/O for instance. It is then invoked on
+     * a scheduler meant for blocking work, virtual threads when the JDK has them, so that it never
+     * holds an event loop.
+     */
+    boolean blocking() default false;
 }
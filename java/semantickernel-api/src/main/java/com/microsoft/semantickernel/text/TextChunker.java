@@ -0,0 +1,182 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.text;
+
+import com.microsoft.semantickernel.ai.tokenizers.Tokenizer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Splits and truncates text to token budgets.
+ *
+ * <p>Text is split at the coarsest boundary that fits, paragraphs, then lines, then sentences, then
+ * words, and as a last resort within words. Joining the chunks gives back the original text.
+ */
+public class TextChunker {
+
+    private static final String[] Separators = {"\n\n", "\n", ". ", " "};
+
+    private TextChunker() {}
+
+    /**
+     * Splits a text into chunks of at most {@code maxTokens} tokens. Chunks are packed with as many
+     * consecutive paragraphs, lines, sentences or words as fit, the token counts of these pieces
+     * are summed.
+     *
+     * @param text The text
+     * @param maxTokens Maximum number of tokens of a chunk
+     * @param tokenizer Tokenizer of the model the chunks are sent to
+     * @return The chunks, in order
+     */
+    public static List<String> split(String text, int maxTokens, Tokenizer tokenizer) {
+        if (maxTokens < 1) {
+            throw new IllegalArgumentException("The maximum number of tokens must be at least 1");
+        }
+        if (text.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> chunks = new ArrayList<>();
+        split(text, tokenizer.countTokens(text), 0, maxTokens, tokenizer, chunks);
+        return chunks;
+    }
+
+    /**
+     * Truncates a text to at most {@code maxTokens} tokens. The text is tokenized once and cut at a
+     * token boundary, when the tokenizer maps its tokens back to the text, see {@link
+     * Tokenizer#tokenEnds(String)}.
+     *
+     * @param text The text
+     * @param maxTokens Maximum number of tokens kept
+     * @param tokenizer Tokenizer of the model the text is sent to
+     * @param keepEnd Whether the end of the text is kept rather than its start
+     * @return The longest start, or end, of the text that fits
+     */
+    public static String truncate(
+            String text, int maxTokens, Tokenizer tokenizer, boolean keepEnd) {
+        int[] ends = tokenizer.tokenEnds(text);
+        if (ends != null) {
+            return cut(text, ends, maxTokens, tokenizer, keepEnd);
+        }
+        if (tokenizer.countTokens(text) <= maxTokens) {
+            return text;
+        }
+        // Longest prefix, or suffix, that fits
+        int low = 0;
+        int high = text.length();
+        while (low < high) {
+            int length = (low + high + 1) >>> 1;
+            if (tokenizer.countTokens(part(text, length, keepEnd)) <= maxTokens) {
+                low = length;
+            } else {
+                high = length - 1;
+            }
+        }
+        return part(text, low, keepEnd);
+    }
+
+    private static String cut(
+            String text, int[] ends, int maxTokens, Tokenizer tokenizer, boolean keepEnd) {
+        if (ends.length <= maxTokens) {
+            return text;
+        }
+        int kept = Math.max(0, maxTokens);
+        while (true) {
+            String part;
+            if (keepEnd) {
+                part = text.substring(kept == 0 ? text.length() : ends[ends.length - kept - 1]);
+            } else {
+                part = text.substring(0, kept == 0 ? 0 : ends[kept - 1]);
+            }
+            // Tokens merging across the cut may tokenize differently, drop one more if so
+            if (kept == 0 || tokenizer.countTokens(part) <= maxTokens) {
+                return part;
+            }
+            kept--;
+        }
+    }
+
+    private static void split(
+            String text,
+            int tokens,
+            int level,
+            int maxTokens,
+            Tokenizer tokenizer,
+            List<String> chunks) {
+        if (tokens <= maxTokens) {
+            chunks.add(text);
+            return;
+        }
+        if (level == Separators.length) {
+            String rest = text;
+            while (!rest.isEmpty()) {
+                String chunk = truncate(rest, maxTokens, tokenizer, false);
+                if (chunk.isEmpty()) {
+                    // A single character over the budget
+                    chunk = part(rest, 1, false);
+                }
+                chunks.add(chunk);
+                rest = rest.substring(chunk.length());
+            }
+            return;
+        }
+
+        StringBuilder chunk = new StringBuilder();
+        int chunkTokens = 0;
+        for (String piece : splitAfter(text, Separators[level])) {
+            int pieceTokens = tokenizer.countTokens(piece);
+            if (chunkTokens + pieceTokens <= maxTokens) {
+                chunk.append(piece);
+                chunkTokens += pieceTokens;
+                continue;
+            }
+            if (chunk.length() > 0) {
+                chunks.add(chunk.toString());
+                chunk.setLength(0);
+                chunkTokens = 0;
+            }
+            if (pieceTokens > maxTokens) {
+                split(piece, pieceTokens, level + 1, maxTokens, tokenizer, chunks);
+            } else {
+                chunk.append(piece);
+                chunkTokens = pieceTokens;
+            }
+        }
+        if (chunk.length() > 0) {
+            chunks.add(chunk.toString());
+        }
+    }
+
+    /** Splits a text after each separator, keeping the separators. */
+    private static List<String> splitAfter(String text, String separator) {
+        List<String> pieces = new ArrayList<>();
+        int start = 0;
+        int index;
+        while ((index = text.indexOf(separator, start)) >= 0) {
+            pieces.add(text.substring(start, index + separator.length()));
+            start = index + separator.length();
+        }
+        if (start < text.length()) {
+            pieces.add(text.substring(start));
+        }
+        return pieces;
+    }
+
+    /** Prefix or suffix of a text, not splitting surrogate pairs. */
+    private static String part(String text, int length, boolean fromEnd) {
+        if (fromEnd) {
+            int start = text.length() - length;
+            if (start > 0
+                    && start < text.length()
+                    && Character.isLowSurrogate(text.charAt(start))) {
+                start++;
+            }
+            return text.substring(start);
+        }
+        int end = length;
+        if (end > 0 && end < text.length() && Character.isLowSurrogate(text.charAt(end))) {
+            end = end == 1 ? 2 : end - 1;
+        }
+        return text.substring(0, end);
+    }
+}
@@ -2,15 +2,76 @@
 package com.microsoft.semantickernel.textcompletion;
 
 import com.microsoft.semantickernel.builders.BuildersSingleton;
+import com.microsoft.semantickernel.memory.NullMemory;
+import com.microsoft.semantickernel.orchestration.ContextVariables;
+import com.microsoft.semantickernel.orchestration.SKContext;
 import com.microsoft.semantickernel.orchestration.SKFunction;
 import com.microsoft.semantickernel.semanticfunctions.PromptTemplateConfig;
 import com.microsoft.semantickernel.semanticfunctions.SemanticFunctionConfig;
 
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
 import javax.annotation.Nullable;
 
 public interface CompletionSKFunction
         extends SKFunction<CompletionRequestSettings, CompletionSKContext> {
 
+    /**
+     * Invokes the function, streaming the completion as it is generated rather than waiting for the
+     * whole completion. Functions which cannot stream keep this default, emitting the whole
+     * completion as a single chunk.
+     *
+     * @param context Request context
+     * @param settings Configuration of the request, or {@code null} for the function defaults
+     * @return Chunks of the completion, in order
+     */
+    default Flux<String> invokeStreamAsync(
+            CompletionSKContext context, @Nullable CompletionRequestSettings settings) {
+        return invokeAsync(context, settings)
+                .flatMapMany(result -> Mono.justOrEmpty(result.getResult()));
+    }
+
+    /**
+     * Invokes the function on each of the inputs, in batches of 20 prompts and up to 4 requests in
+     * flight, see {@link #invokeBatchAsync(Flux, CompletionRequestSettings, int, int)}.
+     *
+     * @param inputs Variables of each invocation
+     * @return The context of each invocation, in the order of the inputs
+     */
+    default Flux<CompletionSKContext> invokeBatchAsync(Flux<ContextVariables> inputs) {
+        return invokeBatchAsync(inputs, null, 20, 4);
+    }
+
+    /**
+     * Invokes the function on each of the inputs. Each input is invoked as by {@link
+     * #invokeAsync(SKContext, Object)}, through the function filters of the kernel and within the
+     * deadlines. Functions that can batch render the prompts concurrently and pack them into
+     * batches, each completed in a single request to the text completion service, see {@link
+     * TextCompletion#completeBatchAsync}. This default sends a request per input.
+     *
+     * @param inputs Variables of each invocation
+     * @param settings Configuration of the requests, or {@code null} for the function defaults
+     * @param batchSize Maximum number of prompts per request
+     * @param maxConcurrency Maximum number of requests in flight, so that a large input stays
+     *     within the rate limits of the service
+     * @return The context of each invocation, in the order of the inputs
+     */
+    default Flux<CompletionSKContext> invokeBatchAsync(
+            Flux<ContextVariables> inputs,
+            @Nullable CompletionRequestSettings settings,
+            int batchSize,
+            int maxConcurrency) {
+        if (batchSize < 1 || maxConcurrency < 1) {
+            throw new IllegalArgumentException("The batch size and concurrency must be positive");
+        }
+        return inputs.flatMapSequential(
+                variables ->
+                        invokeAsync(
+                                buildContext(variables, NullMemory.getInstance(), null), settings),
+                maxConcurrency);
+    }
+
     static CompletionSKFunction.Builder builder() {
         return BuildersSingleton.INST.getFunctionBuilders().completionBuilders(null);
     }
@@ -3,7 +3,10 @@ package com.microsoft.semantickernel.textcompletion; // Copyright (c) Microsoft.
 // reserved.
 
 import com.microsoft.openai.OpenAIAsyncClient;
+import com.microsoft.semantickernel.ai.tokenizers.ApproximateTokenizer;
+import com.microsoft.semantickernel.ai.tokenizers.Tokenizer;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
@@ -21,6 +24,48 @@ public interface TextCompletion {
      */
     Mono<List<String>> completeAsync(String text, CompletionRequestSettings requestSettings);
 
+    /**
+     * Creates a completion for each prompt. Services able to complete several prompts in one
+     * request send them together, the others send a request per prompt.
+     *
+     * @param texts The prompts to complete.
+     * @param requestSettings Request settings for the completion API
+     * @return Text generated by the remote model for each prompt, in the order of the prompts
+     */
+    default Mono<List<List<String>>> completeBatchAsync(
+            List<String> texts, CompletionRequestSettings requestSettings) {
+        return Flux.fromIterable(texts)
+                .flatMapSequential(text -> completeAsync(text, requestSettings))
+                .collectList();
+    }
+
+    /**
+     * Streams the completion of the prompt as it is generated. Services that cannot stream return
+     * the whole completion as a single chunk.
+     *
+     * @param text The prompt to complete.
+     * @param requestSettings Request settings for the completion API
+     * @return Chunks of the text generated by the remote model, in order
+     */
+    default Flux<String> completeStreamAsync(
+            String text, CompletionRequestSettings requestSettings) {
+        return completeAsync(text, requestSettings)
+                .flatMapMany(
+                        completions ->
+                                completions.isEmpty()
+                                        ? Flux.empty()
+                                        : Flux.just(completions.get(0)));
+    }
+
+    /**
+     * Gets the tokenizer of the model, to check prompts fit the model or to budget requests.
+     *
+     * @return The tokenizer of the model, an estimate if the model is not known
+     */
+    default Tokenizer getTokenizer() {
+        return ApproximateTokenizer.getInstance();
+    }
+
     interface Builder {
         TextCompletion build(OpenAIAsyncClient client, String modelId);
     }
@@ -2,7 +2,15 @@
 package com.microsoft.semantickernel.connectors.ai.openai.azuresdk; // Copyright (c) Microsoft. All
 // rights reserved.
 
+import com.azure.ai.openai.models.CompletionsUsage;
 import com.microsoft.openai.OpenAIAsyncClient;
+import com.microsoft.semantickernel.diagnostics.Instrumentation;
+import com.microsoft.semantickernel.diagnostics.Instrumentations;
+import com.microsoft.semantickernel.orchestration.Deadlines;
+
+import reactor.core.publisher.Mono;
+
+import javax.annotation.Nullable;
 
 public abstract class ClientBase {
     private final String modelId;
@@ -20,4 +28,32 @@ public abstract class ClientBase {
     protected OpenAIAsyncClient getClient() {
         return client;
     }
+
+    /** Times a request to the model, and bounds it by the deadline of the invocation. */
+    protected <T> Mono<T> observeRequest(String operation, Mono<T> request) {
+        return Instrumentations.observe(
+                Instrumentation.MODEL_REQUEST,
+                Deadlines.apply(request, null),
+                Instrumentation.MODEL_TAG,
+                modelId,
+                Instrumentation.OPERATION_TAG,
+                operation);
+    }
+
+    /** Counts the tokens the model reports. */
+    protected void recordUsage(@Nullable CompletionsUsage usage) {
+        if (usage == null) {
+            return;
+        }
+        Instrumentations.increment(
+                Instrumentation.PROMPT_TOKENS,
+                usage.getPromptTokens(),
+                Instrumentation.MODEL_TAG,
+                modelId);
+        Instrumentations.increment(
+                Instrumentation.COMPLETION_TOKENS,
+                usage.getCompletionTokens(),
+                Instrumentation.MODEL_TAG,
+                modelId);
+    }
 }
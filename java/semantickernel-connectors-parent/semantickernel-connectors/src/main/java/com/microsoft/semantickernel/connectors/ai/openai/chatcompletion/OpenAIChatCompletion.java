@@ -0,0 +1,175 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.connectors.ai.openai.chatcompletion;
+
+import com.azure.ai.openai.models.ChatChoice;
+import com.azure.ai.openai.models.ChatCompletions;
+import com.azure.ai.openai.models.ChatCompletionsOptions;
+import com.azure.ai.openai.models.ChatMessage;
+import com.azure.ai.openai.models.ChatRole;
+import com.microsoft.openai.OpenAIAsyncClient;
+import com.microsoft.semantickernel.ai.AIException;
+import com.microsoft.semantickernel.ai.tokenizers.Tokenizer;
+import com.microsoft.semantickernel.chatcompletion.ChatCompletion;
+import com.microsoft.semantickernel.chatcompletion.ChatHistory;
+import com.microsoft.semantickernel.connectors.ai.openai.azuresdk.ClientBase;
+import com.microsoft.semantickernel.connectors.ai.openai.tokenizers.OpenAIModels;
+import com.microsoft.semantickernel.textcompletion.CompletionRequestSettings;
+
+import reactor.core.publisher.Mono;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+import javax.annotation.Nullable;
+
+/** OpenAI chat completion service. */
+public class OpenAIChatCompletion extends ClientBase implements ChatCompletion {
+    private final Tokenizer tokenizer;
+    @Nullable private final Integer contextLength;
+
+    public OpenAIChatCompletion(OpenAIAsyncClient client, String modelId) {
+        super(client, modelId);
+        this.tokenizer = OpenAIModels.getTokenizer(modelId);
+        this.contextLength = OpenAIModels.getContextLength(modelId);
+    }
+
+    @Override
+    public ChatHistory createNewChat(@Nullable String instructions) {
+        ChatHistory chat = new OpenAIChatHistory(tokenizer);
+        if (instructions != null && !instructions.isEmpty()) {
+            chat.addSystemMessage(instructions);
+        }
+        return chat;
+    }
+
+    @Override
+    public Mono<String> generateMessageAsync(
+            ChatHistory chat, @Nullable CompletionRequestSettings requestSettings) {
+        CompletionRequestSettings settings =
+                requestSettings != null ? requestSettings : new CompletionRequestSettings();
+        if (settings.getMaxTokens() < 1) {
+            return Mono.error(
+                    new AIException(
+                            AIException.ErrorCodes.InvalidRequest, "Max tokens must be >0"));
+        }
+
+        return chat.compactAsync(budgetOf(chat, settings))
+                .flatMap(
+                        compacted ->
+                                observeRequest(
+                                        "chat",
+                                        getClient()
+                                                .getChatCompletions(
+                                                        getModelId(),
+                                                        toChatCompletionsOptions(
+                                                                compacted, settings))))
+                .doOnNext(completions -> recordUsage(completions.getUsage()))
+                .flatMapIterable(ChatCompletions::getChoices)
+                .filter(choice -> choice.getIndex() == 0)
+                .next()
+                .mapNotNull(ChatChoice::getMessage)
+                .mapNotNull(ChatMessage::getContent);
+    }
+
+    @Override
+    public Tokenizer getTokenizer() {
+        return tokenizer;
+    }
+
+    /** Tokens the history may use, leaving room for the reply in the context of the model. */
+    private int budgetOf(ChatHistory chat, CompletionRequestSettings settings) {
+        Integer maxTokens = chat.getMaxTokens();
+        int budget = maxTokens != null ? maxTokens : Integer.MAX_VALUE;
+        if (contextLength != null) {
+            budget = Math.min(budget, contextLength - settings.getMaxTokens());
+        }
+        return Math.max(0, budget);
+    }
+
+    private ChatCompletionsOptions toChatCompletionsOptions(
+            ChatHistory chat, CompletionRequestSettings settings) {
+        ChatCompletionsOptions options =
+                new ChatCompletionsOptions(messagesOf(chat))
+                        .setMaxTokens(settings.getMaxTokens())
+                        .setTemperature(settings.getTemperature())
+                        .setTopP(settings.getTopP())
+                        .setFrequencyPenalty(settings.getFrequencyPenalty())
+                        .setPresencePenalty(settings.getPresencePenalty())
+                        .setModel(getModelId())
+                        .setUser(null);
+        if (!settings.getStopSequences().isEmpty()) {
+            options.setStop(settings.getStopSequences());
+        }
+        return options;
+    }
+
+    private static List<ChatMessage> messagesOf(ChatHistory chat) {
+        if (chat instanceof OpenAIChatHistory) {
+            return ((OpenAIChatHistory) chat).getRequestMessages();
+        }
+        return toRequestMessages(chat.getMessages(), 0, new ArrayList<>());
+    }
+
+    private static List<ChatMessage> toRequestMessages(
+            List<ChatHistory.Message> messages, int from, List<ChatMessage> requestMessages) {
+        for (int i = from; i < messages.size(); i++) {
+            ChatHistory.Message message = messages.get(i);
+            requestMessages.add(
+                    new ChatMessage(ChatRole.fromString(message.getRole().getLabel()))
+                            .setContent(message.getContent()));
+        }
+        return requestMessages;
+    }
+
+    /**
+     * Chat history keeping the request messages of the previous turn. Messages are only appended
+     * between compactions, so each turn only converts the messages added since the previous one.
+     */
+    static class OpenAIChatHistory extends ChatHistory {
+        private List<ChatMessage> requestMessages = new ArrayList<>();
+
+        OpenAIChatHistory(Tokenizer tokenizer) {
+            super(tokenizer);
+        }
+
+        @Override
+        protected void onCompacted() {
+            // Earlier requests may still read the old list
+            requestMessages = new ArrayList<>();
+        }
+
+        List<ChatMessage> getRequestMessages() {
+            toRequestMessages(getMessages(), requestMessages.size(), requestMessages);
+            return new Prefix(requestMessages, requestMessages.size());
+        }
+    }
+
+    /**
+     * Read-only view of the first messages of a list. Later turns only append to the list, so the
+     * view keeps the messages of its request without copying them.
+     */
+    private static final class Prefix extends AbstractList<ChatMessage> implements RandomAccess {
+        private final List<ChatMessage> messages;
+        private final int size;
+
+        private Prefix(List<ChatMessage> messages, int size) {
+            this.messages = messages;
+            this.size = size;
+        }
+
+        @Override
+        public ChatMessage get(int index) {
+            if (index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return messages.get(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.connectors.ai.openai.chatcompletion;
+
+import com.microsoft.openai.OpenAIAsyncClient;
+import com.microsoft.semantickernel.chatcompletion.ChatCompletion;
+
+public class OpenAIChatCompletionBuilder implements ChatCompletion.Builder {
+    @Override
+    public ChatCompletion build(OpenAIAsyncClient client, String modelId) {
+        return new OpenAIChatCompletion(client, modelId);
+    }
+}
@@ -6,21 +6,31 @@ import com.azure.ai.openai.models.Completions;
 import com.azure.ai.openai.models.CompletionsOptions;
 import com.microsoft.openai.OpenAIAsyncClient;
 import com.microsoft.semantickernel.ai.AIException;
+import com.microsoft.semantickernel.ai.tokenizers.Tokenizer;
 import com.microsoft.semantickernel.connectors.ai.openai.azuresdk.ClientBase;
+import com.microsoft.semantickernel.connectors.ai.openai.tokenizers.OpenAIModels;
+import com.microsoft.semantickernel.orchestration.Deadlines;
 import com.microsoft.semantickernel.textcompletion.CompletionRequestSettings;
 import com.microsoft.semantickernel.textcompletion.TextCompletion;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import javax.annotation.Nullable;
+
 /// <summary>
 /// OpenAI text completion service.
 /// TODO: forward ETW logging to ILogger, see
 // https://learn.microsoft.com/en-us/dotnet/azure/sdk/logging
 /// </summary>
 public class OpenAITextCompletion extends ClientBase implements TextCompletion {
+    private final Tokenizer tokenizer;
+    @Nullable private final Integer contextLength;
+
     /// <summary>
     /// Create an instance of the OpenAI text completion connector
     /// </summary>
@@ -31,6 +41,8 @@ public class OpenAITextCompletion extends ClientBase implements TextCompletion {
     /// <param name="log">Application logger</param>
     public OpenAITextCompletion(OpenAIAsyncClient client, String modelId) {
         super(client, modelId);
+        this.tokenizer = OpenAIModels.getTokenizer(modelId);
+        this.contextLength = OpenAIModels.getContextLength(modelId);
     }
 
     @Override
@@ -39,28 +51,134 @@ public class OpenAITextCompletion extends ClientBase implements TextCompletion {
         return this.internalCompleteTextAsync(text, requestSettings);
     }
 
+    /**
+     * Sends the prompts in a single request, the API answers a choice per prompt whose index is the
+     * index of the prompt.
+     */
+    @Override
+    public Mono<List<List<String>>> completeBatchAsync(
+            List<String> texts, CompletionRequestSettings requestSettings) {
+        if (texts.isEmpty()) {
+            return Mono.just(Collections.emptyList());
+        }
+        return Mono.defer(
+                        () ->
+                                observeRequest(
+                                        "completion",
+                                        getClient()
+                                                .getCompletions(
+                                                        getModelId(),
+                                                        toCompletionsOptions(
+                                                                texts, requestSettings))))
+                .doOnNext(completions -> recordUsage(completions.getUsage()))
+                .map(
+                        completions -> {
+                            List<List<String>> results = new ArrayList<>(texts.size());
+                            for (int i = 0; i < texts.size(); i++) {
+                                results.add(new ArrayList<>(1));
+                            }
+                            for (Choice choice : completions.getChoices()) {
+                                if (choice.getText() != null
+                                        && choice.getIndex() < results.size()) {
+                                    results.get(choice.getIndex()).add(choice.getText());
+                                }
+                            }
+                            return results;
+                        });
+    }
+
+    @Override
+    public Flux<String> completeStreamAsync(
+            String text, CompletionRequestSettings requestSettings) {
+        // Only the first choice is streamed
+        return Deadlines.apply(
+                        Flux.defer(
+                                () ->
+                                        getClient()
+                                                .getCompletionsStream(
+                                                        getModelId(),
+                                                        toCompletionsOptions(
+                                                                text, requestSettings))),
+                        null)
+                .flatMapIterable(Completions::getChoices)
+                .filter(choice -> choice.getIndex() == 0)
+                .mapNotNull(Choice::getText);
+    }
+
+    @Override
+    public Tokenizer getTokenizer() {
+        return tokenizer;
+    }
+
     protected Mono<List<String>> internalCompleteTextAsync(
             String text, CompletionRequestSettings requestSettings) {
         // TODO
 
+        return Mono.defer(
+                        () ->
+                                observeRequest(
+                                        "completion",
+                                        getClient()
+                                                .getCompletions(
+                                                        getModelId(),
+                                                        toCompletionsOptions(
+                                                                text, requestSettings))))
+                .doOnNext(completions -> recordUsage(completions.getUsage()))
+                .flatMapIterable(Completions::getChoices)
+                .mapNotNull(Choice::getText)
+                .collectList();
+    }
+
+    private CompletionsOptions toCompletionsOptions(
+            String text, CompletionRequestSettings requestSettings) {
+        return toCompletionsOptions(Collections.singletonList(text), requestSettings);
+    }
+
+    /** Throws for prompts that do not fit, so callers build the options on subscription. */
+    private CompletionsOptions toCompletionsOptions(
+            List<String> texts, CompletionRequestSettings requestSettings) {
         if (requestSettings.getMaxTokens() < 1) {
             throw new AIException(AIException.ErrorCodes.InvalidRequest, "Max tokens must be >0");
         }
 
-        CompletionsOptions completionsOptions =
-                new CompletionsOptions(Collections.singletonList(text))
-                        .setMaxTokens(requestSettings.getMaxTokens())
-                        .setTemperature(requestSettings.getTemperature())
-                        .setTopP(requestSettings.getTopP())
-                        .setFrequencyPenalty(requestSettings.getFrequencyPenalty())
-                        .setPresencePenalty(requestSettings.getPresencePenalty())
-                        .setModel(getModelId())
-                        .setUser(null);
-
-        return getClient()
-                .getCompletions(getModelId(), completionsOptions)
-                .flatMapIterable(Completions::getChoices)
-                .mapNotNull(Choice::getText)
-                .collectList();
+        // The maximum applies to the completion of each prompt, the longest prompt bounds it
+        int maxTokens = requestSettings.getMaxTokens();
+        for (String text : texts) {
+            maxTokens = Math.min(maxTokens, maxTokensFor(text, requestSettings.getMaxTokens()));
+        }
+
+        return new CompletionsOptions(texts)
+                .setMaxTokens(maxTokens)
+                .setTemperature(requestSettings.getTemperature())
+                .setTopP(requestSettings.getTopP())
+                .setFrequencyPenalty(requestSettings.getFrequencyPenalty())
+                .setPresencePenalty(requestSettings.getPresencePenalty())
+                .setModel(getModelId())
+                .setUser(null);
+    }
+
+    /**
+     * Checks the prompt fits the context of the model, and lowers the maximum number of tokens of
+     * the completion to the space left by the prompt, rather than letting the service reject the
+     * request. Estimated counts only lower the maximum, the service decides if the prompt fits.
+     */
+    private int maxTokensFor(String text, int maxTokens) {
+        if (contextLength == null) {
+            return maxTokens;
+        }
+
+        int promptTokens = tokenizer.countTokens(text);
+        int available = contextLength - promptTokens;
+        if (available < 1) {
+            if (tokenizer.isExact()) {
+                throw new AIException(
+                        AIException.ErrorCodes.InvalidRequest,
+                        String.format(
+                                "The prompt has %d tokens, the context length of model %s is %d",
+                                promptTokens, getModelId(), contextLength));
+            }
+            return maxTokens;
+        }
+        return Math.min(maxTokens, available);
     }
 }
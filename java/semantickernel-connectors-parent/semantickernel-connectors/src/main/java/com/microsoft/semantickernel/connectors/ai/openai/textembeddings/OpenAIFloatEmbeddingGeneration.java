@@ -0,0 +1,40 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.connectors.ai.openai.textembeddings;
+
+import com.azure.ai.openai.models.EmbeddingsOptions;
+import com.microsoft.openai.OpenAIAsyncClient;
+import com.microsoft.semantickernel.ai.embeddings.Embedding;
+import com.microsoft.semantickernel.ai.embeddings.EmbeddingGeneration;
+import com.microsoft.semantickernel.connectors.ai.openai.azuresdk.ClientBase;
+import com.microsoft.semantickernel.diagnostics.Instrumentation;
+import com.microsoft.semantickernel.diagnostics.Instrumentations;
+
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Text embedding generation with single precision vectors, the values are decoded into {@code
+ * float[]} and are not boxed until they are read.
+ */
+public class OpenAIFloatEmbeddingGeneration extends ClientBase
+        implements EmbeddingGeneration<String, Float> {
+
+    public OpenAIFloatEmbeddingGeneration(OpenAIAsyncClient client, String modelId) {
+        super(client, modelId);
+    }
+
+    @Override
+    public Mono<List<Embedding<Float>>> generateEmbeddingsAsync(List<String> data) {
+        EmbeddingsOptions options = new EmbeddingsOptions(data).setModel(getModelId());
+
+        Instrumentations.record(
+                Instrumentation.EMBEDDING_BATCH_SIZE,
+                data.size(),
+                Instrumentation.MODEL_TAG,
+                getModelId());
+        return observeRequest("embeddings", getClient().getEmbeddingVectors(getModelId(), options))
+                .map(vectors -> vectors.stream().map(Embedding::of).collect(Collectors.toList()));
+    }
+}
@@ -8,6 +8,8 @@ import com.microsoft.openai.OpenAIAsyncClient;
 import com.microsoft.semantickernel.ai.embeddings.Embedding;
 import com.microsoft.semantickernel.ai.embeddings.EmbeddingGeneration;
 import com.microsoft.semantickernel.connectors.ai.openai.azuresdk.ClientBase;
+import com.microsoft.semantickernel.diagnostics.Instrumentation;
+import com.microsoft.semantickernel.diagnostics.Instrumentations;
 
 import reactor.core.publisher.Mono;
 
@@ -28,8 +30,12 @@ public class OpenAITextEmbeddingGeneration extends ClientBase
     protected Mono<List<Embedding<Double>>> internalGenerateTextEmbeddingsAsync(List<String> data) {
         EmbeddingsOptions options = new EmbeddingsOptions(data).setModel(getModelId());
 
-        return getClient()
-                .getEmbeddings(getModelId(), options)
+        Instrumentations.record(
+                Instrumentation.EMBEDDING_BATCH_SIZE,
+                data.size(),
+                Instrumentation.MODEL_TAG,
+                getModelId());
+        return observeRequest("embeddings", getClient().getEmbeddings(getModelId(), options))
                 .flatMapIterable(Embeddings::getData)
                 .mapNotNull(EmbeddingItem::getEmbedding)
                 .mapNotNull(Embedding::new)
@@ -0,0 +1,360 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.connectors.ai.openai.tokenizers;
+
+import com.microsoft.semantickernel.ai.tokenizers.Tokenizer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Byte-level BPE tokenizer, as used by the OpenAI models.
+ *
+ * <p>The vocabulary is read from a rank file in the tiktoken format, one base64 encoded token and
+ * its rank per line. Tokens are kept in a single byte array indexed by an open addressing table, so
+ * that pieces of text are looked up without creating keys. A tokenizer is immutable and thread
+ * safe, load it once per vocabulary.
+ */
+public class BpeTokenizer implements Tokenizer {
+
+    private static final int NoRank = Integer.MAX_VALUE;
+
+    private final RankTable ranks;
+    private final Pattern pattern;
+
+    private BpeTokenizer(RankTable ranks, Pattern pattern) {
+        this.ranks = ranks;
+        this.pattern = pattern;
+    }
+
+    /**
+     * Loads a tokenizer from a tiktoken rank file.
+     *
+     * @param rankFile Content of the rank file, not closed
+     * @param pattern Pattern matching the pieces the text is split into before merging
+     * @return The tokenizer
+     * @throws IOException If the file cannot be read or is not a byte-level vocabulary
+     */
+    public static BpeTokenizer load(InputStream rankFile, Pattern pattern) throws IOException {
+        List<byte[]> tokens = new ArrayList<>();
+        List<Integer> tokenRanks = new ArrayList<>();
+
+        BufferedReader reader =
+                new BufferedReader(new InputStreamReader(rankFile, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            int separator = line.indexOf(' ');
+            if (separator < 0) {
+                throw new IOException("Invalid rank file line: " + line);
+            }
+            try {
+                tokens.add(Base64.getDecoder().decode(line.substring(0, separator)));
+                tokenRanks.add(Integer.parseInt(line.substring(separator + 1).trim()));
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Invalid rank file line: " + line, e);
+            }
+        }
+
+        RankTable table = new RankTable(tokens, tokenRanks);
+        byte[] singleByte = new byte[1];
+        for (int b = 0; b < 256; b++) {
+            singleByte[0] = (byte) b;
+            if (table.get(singleByte, 0, 1) == NoRank) {
+                throw new IOException(
+                        String.format("The vocabulary has no token for byte 0x%02x", b));
+            }
+        }
+        return new BpeTokenizer(table, pattern);
+    }
+
+    /**
+     * Encodes a text into tokens.
+     *
+     * @param text The text
+     * @return The ranks of the tokens of the text
+     */
+    public int[] encode(String text) {
+        IntBuffer tokens = new IntBuffer(Math.max(16, text.length() / 3));
+        encode(text, (rank, pieceStart, byteEnd) -> tokens.add(rank));
+        return tokens.toArray();
+    }
+
+    @Override
+    public int countTokens(String text) {
+        int[] count = {0};
+        encode(text, (rank, pieceStart, byteEnd) -> count[0]++);
+        return count[0];
+    }
+
+    @Override
+    public int[] tokenEnds(String text) {
+        IntBuffer ends = new IntBuffer(Math.max(16, text.length() / 3));
+        encode(text, (rank, pieceStart, byteEnd) -> ends.add(offsetOf(text, pieceStart, byteEnd)));
+        return ends.toArray();
+    }
+
+    @Override
+    public boolean isExact() {
+        return true;
+    }
+
+    private void encode(String text, TokenSink tokens) {
+        CharsetEncoder encoder =
+                StandardCharsets.UTF_8
+                        .newEncoder()
+                        .onMalformedInput(CodingErrorAction.REPLACE)
+                        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        ByteBuffer bytes = ByteBuffer.allocate(64);
+        int[] starts = new int[bytes.capacity() + 1];
+        int[] pairRanks = new int[bytes.capacity()];
+
+        Matcher matcher = pattern.matcher(text);
+        while (matcher.find()) {
+            bytes = toUtf8(text, matcher.start(), matcher.end(), encoder, bytes);
+            int length = bytes.position();
+            if (length == 0) {
+                continue;
+            }
+
+            int whole = ranks.get(bytes.array(), 0, length);
+            if (whole != NoRank) {
+                tokens.accept(whole, matcher.start(), length);
+                continue;
+            }
+
+            if (starts.length < length + 1) {
+                starts = new int[bytes.capacity() + 1];
+                pairRanks = new int[bytes.capacity()];
+            }
+            merge(bytes.array(), length, starts, pairRanks, matcher.start(), tokens);
+        }
+    }
+
+    /**
+     * Merges the bytes of a piece, lowest rank pair first, and emits the resulting tokens. Parts
+     * are delimited by {@code starts}, {@code pairRanks[i]} is the rank of parts i and i + 1
+     * merged.
+     */
+    private void merge(
+            byte[] piece,
+            int length,
+            int[] starts,
+            int[] pairRanks,
+            int pieceStart,
+            TokenSink tokens) {
+        int parts = length;
+        for (int i = 0; i <= length; i++) {
+            starts[i] = i;
+        }
+        for (int i = 0; i < parts - 1; i++) {
+            pairRanks[i] = pairRank(piece, starts, parts, i);
+        }
+
+        while (parts > 1) {
+            int best = -1;
+            int bestRank = NoRank;
+            for (int i = 0; i < parts - 1; i++) {
+                if (pairRanks[i] < bestRank) {
+                    bestRank = pairRanks[i];
+                    best = i;
+                }
+            }
+            if (best < 0) {
+                break;
+            }
+
+            // Remove the start of part best + 1
+            System.arraycopy(starts, best + 2, starts, best + 1, parts - best - 1);
+            System.arraycopy(pairRanks, best + 1, pairRanks, best, parts - best - 2);
+            parts--;
+
+            if (best < parts - 1) {
+                pairRanks[best] = pairRank(piece, starts, parts, best);
+            }
+            if (best > 0) {
+                pairRanks[best - 1] = pairRank(piece, starts, parts, best - 1);
+            }
+        }
+
+        for (int i = 0; i < parts; i++) {
+            tokens.accept(
+                    ranks.get(piece, starts[i], starts[i + 1] - starts[i]),
+                    pieceStart,
+                    starts[i + 1]);
+        }
+    }
+
+    private int pairRank(byte[] piece, int[] starts, int parts, int i) {
+        if (i + 1 >= parts) {
+            return NoRank;
+        }
+        return ranks.get(piece, starts[i], starts[i + 2] - starts[i]);
+    }
+
+    /** Encodes a range of the text into the buffer, growing it if needed. */
+    private static ByteBuffer toUtf8(
+            String text, int start, int end, CharsetEncoder encoder, ByteBuffer bytes) {
+        CharBuffer chars = CharBuffer.wrap(text, start, end);
+        encoder.reset();
+        ((Buffer) bytes).clear();
+        while (encoder.encode(chars, bytes, true).isOverflow()) {
+            bytes = grow(bytes);
+        }
+        while (encoder.flush(bytes).isOverflow()) {
+            bytes = grow(bytes);
+        }
+        return bytes;
+    }
+
+    private static ByteBuffer grow(ByteBuffer bytes) {
+        ByteBuffer larger = ByteBuffer.allocate(bytes.capacity() * 2);
+        ((Buffer) bytes).flip();
+        larger.put(bytes);
+        return larger;
+    }
+
+    /** Offset in the text after the character holding the given byte of a piece. */
+    private static int offsetOf(String text, int pieceStart, int byteEnd) {
+        int offset = pieceStart;
+        int bytes = 0;
+        while (bytes < byteEnd && offset < text.length()) {
+            char c = text.charAt(offset);
+            if (c < 0x80) {
+                bytes += 1;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c)
+                    && offset + 1 < text.length()
+                    && Character.isLowSurrogate(text.charAt(offset + 1))) {
+                bytes += 4;
+                offset++;
+            } else {
+                bytes += 3;
+            }
+            offset++;
+        }
+        return offset;
+    }
+
+    /** Receives the tokens of a text, with where they end. */
+    private interface TokenSink {
+        /**
+         * @param rank Rank of the token
+         * @param pieceStart Offset in the text of the piece holding the token
+         * @param byteEnd Offset in the UTF-8 bytes of the piece where the token ends
+         */
+        void accept(int rank, int pieceStart, int byteEnd);
+    }
+
+    private static final class IntBuffer {
+        private int[] values;
+        private int size = 0;
+
+        private IntBuffer(int capacity) {
+            this.values = new int[capacity];
+        }
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    /** Open addressing table from byte sequences to ranks. */
+    private static final class RankTable {
+        private final byte[] pool;
+        private final int[] offsets;
+        private final int[] lengths;
+        private final int[] ranks;
+        private final int mask;
+
+        private RankTable(List<byte[]> tokens, List<Integer> tokenRanks) {
+            int capacity = Integer.highestOneBit(Math.max(2, tokens.size() * 2) - 1) << 1;
+            this.offsets = new int[capacity];
+            this.lengths = new int[capacity];
+            this.ranks = new int[capacity];
+            this.mask = capacity - 1;
+
+            int poolSize = 0;
+            for (byte[] token : tokens) {
+                poolSize += token.length;
+            }
+            this.pool = new byte[poolSize];
+
+            int offset = 0;
+            for (int i = 0; i < tokens.size(); i++) {
+                byte[] token = tokens.get(i);
+                if (token.length == 0) {
+                    continue;
+                }
+                System.arraycopy(token, 0, pool, offset, token.length);
+                int slot = find(pool, offset, token.length);
+                offsets[slot] = offset;
+                lengths[slot] = token.length;
+                ranks[slot] = tokenRanks.get(i);
+                offset += token.length;
+            }
+        }
+
+        /** Rank of a byte sequence, {@link #NoRank} if it is not a token. */
+        private int get(byte[] bytes, int offset, int length) {
+            int slot = find(bytes, offset, length);
+            return lengths[slot] == 0 ? NoRank : ranks[slot];
+        }
+
+        /** Slot holding the byte sequence, or the empty slot where it would be inserted. */
+        private int find(byte[] bytes, int offset, int length) {
+            int slot = hash(bytes, offset, length) & mask;
+            while (lengths[slot] != 0 && !matches(slot, bytes, offset, length)) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private boolean matches(int slot, byte[] bytes, int offset, int length) {
+            if (lengths[slot] != length) {
+                return false;
+            }
+            int start = offsets[slot];
+            for (int i = 0; i < length; i++) {
+                if (pool[start + i] != bytes[offset + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static int hash(byte[] bytes, int offset, int length) {
+            // FNV-1a
+            int hash = 0x811c9dc5;
+            for (int i = offset; i < offset + length; i++) {
+                hash ^= bytes[i];
+                hash *= 0x01000193;
+            }
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.connectors.ai.openai.tokenizers;
+
+import com.microsoft.semantickernel.ai.tokenizers.ApproximateTokenizer;
+import com.microsoft.semantickernel.ai.tokenizers.Tokenizer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.regex.Pattern;
+
+import javax.annotation.Nullable;
+
+/**
+ * Vocabularies of the OpenAI models.
+ *
+ * <p>The rank file of an encoding, for instance {@code cl100k_base.tiktoken}, is looked up in the
+ * directory set by the {@value #RankFileDirectoryProperty} system property, then on the classpath
+ * next to this class. It is loaded once, on first use. When no rank file is found, token counts are
+ * estimated.
+ */
+public enum OpenAIEncoding {
+    /** Encoding of the GPT-3 models. */
+    R50K_BASE("r50k_base", ApproximateTokenizer.DefaultPattern),
+
+    /** Encoding of the Codex models and of text-davinci-002 and text-davinci-003. */
+    P50K_BASE("p50k_base", ApproximateTokenizer.DefaultPattern),
+
+    /** Encoding of the GPT-3.5 and GPT-4 chat models and of the embedding models. */
+    CL100K_BASE(
+            "cl100k_base",
+            Pattern.compile(
+                    "(?i:'s|'t|'re|'ve|'m|'ll|'d)|[^\\r\\n\\p{L}\\p{N}]?\\p{L}+|\\p{N}{1,3}|"
+                            + " ?[^\\s\\p{L}\\p{N}]+[\\r\\n]*|\\s*[\\r\\n]+|\\s+(?!\\S)|\\s+"));
+
+    /** System property setting a directory holding rank files. */
+    public static final String RankFileDirectoryProperty = "semantickernel.tokenizers.dir";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OpenAIEncoding.class);
+
+    private final String encodingName;
+    private final Pattern pattern;
+    @Nullable private volatile Tokenizer tokenizer;
+
+    OpenAIEncoding(String encodingName, Pattern pattern) {
+        this.encodingName = encodingName;
+        this.pattern = pattern;
+    }
+
+    /**
+     * @return Name of the encoding, as used by tiktoken
+     */
+    public String getEncodingName() {
+        return encodingName;
+    }
+
+    /**
+     * Gets the tokenizer of the encoding, a {@link BpeTokenizer} if the rank file is available.
+     *
+     * @return The tokenizer
+     */
+    public Tokenizer getTokenizer() {
+        Tokenizer result = tokenizer;
+        if (result == null) {
+            synchronized (this) {
+                result = tokenizer;
+                if (result == null) {
+                    result = load();
+                    tokenizer = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private Tokenizer load() {
+        String fileName = encodingName + ".tiktoken";
+        try (InputStream rankFile = openRankFile(fileName)) {
+            if (rankFile != null) {
+                return BpeTokenizer.load(rankFile, pattern);
+            }
+            LOGGER.debug("No rank file {}, token counts are estimated", fileName);
+        } catch (IOException e) {
+            LOGGER.warn("Failed to load rank file {}, token counts are estimated", fileName, e);
+        }
+        return new ApproximateTokenizer(pattern);
+    }
+
+    @Nullable
+    private static InputStream openRankFile(String fileName) throws IOException {
+        String directory = System.getProperty(RankFileDirectoryProperty);
+        if (directory != null) {
+            File file = new File(directory, fileName);
+            if (file.isFile()) {
+                return new FileInputStream(file);
+            }
+        }
+        return OpenAIEncoding.class.getResourceAsStream(fileName);
+    }
+}
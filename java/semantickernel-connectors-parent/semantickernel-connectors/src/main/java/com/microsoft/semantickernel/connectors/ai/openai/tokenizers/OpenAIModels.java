@@ -0,0 +1,90 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.connectors.ai.openai.tokenizers;
+
+import com.microsoft.semantickernel.ai.tokenizers.ApproximateTokenizer;
+import com.microsoft.semantickernel.ai.tokenizers.Tokenizer;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import javax.annotation.Nullable;
+
+/**
+ * Context lengths and encodings of the OpenAI models. Models are matched by the prefix of their id,
+ * so that versioned ids such as {@code gpt-4-0613} are recognized. Azure deployment names are not
+ * model ids and are not recognized.
+ */
+public class OpenAIModels {
+
+    private static final class Model {
+        private final String prefix;
+        private final int contextLength;
+        private final OpenAIEncoding encoding;
+
+        private Model(String prefix, int contextLength, OpenAIEncoding encoding) {
+            this.prefix = prefix;
+            this.contextLength = contextLength;
+            this.encoding = encoding;
+        }
+    }
+
+    // Longest prefixes first
+    private static final List<Model> Models =
+            Arrays.asList(
+                    new Model("gpt-4-32k", 32768, OpenAIEncoding.CL100K_BASE),
+                    new Model("gpt-4", 8192, OpenAIEncoding.CL100K_BASE),
+                    new Model("gpt-35-turbo-16k", 16384, OpenAIEncoding.CL100K_BASE),
+                    new Model("gpt-3.5-turbo-16k", 16384, OpenAIEncoding.CL100K_BASE),
+                    new Model("gpt-35-turbo", 4096, OpenAIEncoding.CL100K_BASE),
+                    new Model("gpt-3.5-turbo", 4096, OpenAIEncoding.CL100K_BASE),
+                    new Model("text-embedding-ada-002", 8191, OpenAIEncoding.CL100K_BASE),
+                    new Model("text-davinci-003", 4097, OpenAIEncoding.P50K_BASE),
+                    new Model("text-davinci-002", 4097, OpenAIEncoding.P50K_BASE),
+                    new Model("code-davinci-002", 8001, OpenAIEncoding.P50K_BASE),
+                    new Model("code-cushman-001", 2048, OpenAIEncoding.P50K_BASE),
+                    new Model("text-davinci-001", 2049, OpenAIEncoding.R50K_BASE),
+                    new Model("text-curie-001", 2049, OpenAIEncoding.R50K_BASE),
+                    new Model("text-babbage-001", 2049, OpenAIEncoding.R50K_BASE),
+                    new Model("text-ada-001", 2049, OpenAIEncoding.R50K_BASE),
+                    new Model("davinci", 2049, OpenAIEncoding.R50K_BASE),
+                    new Model("curie", 2049, OpenAIEncoding.R50K_BASE),
+                    new Model("babbage", 2049, OpenAIEncoding.R50K_BASE),
+                    new Model("ada", 2049, OpenAIEncoding.R50K_BASE));
+
+    private OpenAIModels() {}
+
+    /**
+     * Gets the context length of a model, the maximum number of prompt and completion tokens.
+     *
+     * @param modelId Id of the model
+     * @return The context length, {@code null} if the model is not known
+     */
+    @Nullable
+    public static Integer getContextLength(String modelId) {
+        Model model = find(modelId);
+        return model != null ? model.contextLength : null;
+    }
+
+    /**
+     * Gets the tokenizer of a model.
+     *
+     * @param modelId Id of the model
+     * @return The tokenizer of the model, an estimate if the model or its rank file is not known
+     */
+    public static Tokenizer getTokenizer(String modelId) {
+        Model model = find(modelId);
+        return model != null ? model.encoding.getTokenizer() : ApproximateTokenizer.getInstance();
+    }
+
+    @Nullable
+    private static Model find(String modelId) {
+        String id = modelId.toLowerCase(Locale.ROOT);
+        for (Model model : Models) {
+            if (id.startsWith(model.prefix)) {
+                return model;
+            }
+        }
+        return null;
+    }
+}
@@ -26,7 +26,10 @@ import java.util.Locale;
 /// </example>
 public class TextSkill {
 
-    @DefineSKFunction(description = "Change all string chars to uppercase.", name = "Uppercase")
+    @DefineSKFunction(
+            description = "Change all string chars to uppercase.",
+            name = "Uppercase",
+            deterministic = true)
     public Mono<String> uppercase(
             @SKFunctionParameters(
                             description = "Text to uppercase",
@@ -37,7 +40,10 @@ public class TextSkill {
         return Mono.just(text.toUpperCase(Locale.ROOT));
     }
 
-    @DefineSKFunction(description = "Remove spaces to the left of a string.", name = "LStrip")
+    @DefineSKFunction(
+            description = "Remove spaces to the left of a string.",
+            name = "LStrip",
+            deterministic = true)
     public Mono<String> lStrip(
             @SKFunctionParameters(
                             description = "Text to edit",
@@ -48,7 +54,10 @@ public class TextSkill {
         return Mono.just(text.replaceAll("^ +", ""));
     }
 
-    @DefineSKFunction(description = "Remove spaces to the right of a string.", name = "RStrip")
+    @DefineSKFunction(
+            description = "Remove spaces to the right of a string.",
+            name = "RStrip",
+            deterministic = true)
     public Mono<String> rStrip(
             @SKFunctionParameters(
                             description = "Text to edit",
@@ -1,15 +1,20 @@
 // Copyright (c) Microsoft. All rights reserved.
 package com.microsoft.semantickernel;
 
+import com.microsoft.semantickernel.ai.embeddings.EmbeddingGeneration;
 import com.microsoft.semantickernel.builders.FunctionBuilders;
 import com.microsoft.semantickernel.builders.SKBuilders;
 import com.microsoft.semantickernel.coreskills.SkillImporter;
+import com.microsoft.semantickernel.diagnostics.Instrumentation;
+import com.microsoft.semantickernel.diagnostics.Instrumentations;
 import com.microsoft.semantickernel.exceptions.NotSupportedException;
 import com.microsoft.semantickernel.exceptions.SkillsNotFoundException;
 import com.microsoft.semantickernel.memory.SemanticTextMemory;
 import com.microsoft.semantickernel.orchestration.*;
 import com.microsoft.semantickernel.semanticfunctions.SemanticFunctionConfig;
+import com.microsoft.semantickernel.skilldefinition.DefaultFunctionIndex;
 import com.microsoft.semantickernel.skilldefinition.DefaultSkillCollection;
+import com.microsoft.semantickernel.skilldefinition.FunctionIndex;
 import com.microsoft.semantickernel.skilldefinition.FunctionNotFound;
 import com.microsoft.semantickernel.skilldefinition.ReadOnlyFunctionCollection;
 import com.microsoft.semantickernel.skilldefinition.ReadOnlySkillCollection;
@@ -19,9 +24,10 @@ import com.microsoft.semantickernel.textcompletion.TextCompletion;
 
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -30,8 +36,11 @@ public class KernelDefault implements Kernel {
 
     private final KernelConfig kernelConfig;
     private DefaultSkillCollection defaultSkillCollection;
+    private final DefaultFunctionIndex functionIndex;
     private final PromptTemplateEngine promptTemplateEngine;
     @Nullable private SemanticTextMemory memory; // TODO: make this final
+    // Instances of the scoped services of this kernel
+    private final Map<ServiceRegistration<?>, Object> scopedServices = new ConcurrentHashMap<>();
 
     public KernelDefault(
             KernelConfig kernelConfig,
@@ -44,6 +53,7 @@ public class KernelDefault implements Kernel {
         this.kernelConfig = kernelConfig;
         this.promptTemplateEngine = promptTemplateEngine;
         this.defaultSkillCollection = new DefaultSkillCollection(skillCollection);
+        this.functionIndex = new DefaultFunctionIndex(skillCollection);
 
         if (kernelConfig.getSkills() != null) {
             kernelConfig.getSkills().forEach(this::registerSemanticFunction);
@@ -52,21 +62,50 @@ public class KernelDefault implements Kernel {
 
     @Override
     public <T> T getService(@Nullable String serviceId, Class<T> clazz) throws KernelException {
+        ServiceRegistration<?> registration;
         if (TextCompletion.class.isAssignableFrom(clazz)) {
-            Function<Kernel, TextCompletion> factory =
-                    kernelConfig.getTextCompletionServiceOrDefault(serviceId);
-            if (factory == null) {
-                throw new KernelException(
-                        KernelException.ErrorCodes.ServiceNotFound,
-                        "No text completion service available");
-            }
-
-            return (T) factory.apply(this);
+            registration = kernelConfig.getTextCompletionRegistration(serviceId);
+        } else if (EmbeddingGeneration.class.isAssignableFrom(clazz)) {
+            registration = kernelConfig.getTextEmbeddingGenerationRegistration(serviceId);
         } else {
             // TODO correct exception
             throw new NotSupportedException(
                     "The kernel service collection doesn't support the type " + clazz.getName());
         }
+
+        Object service = resolve(registration);
+        if (!clazz.isInstance(service)) {
+            throw new KernelException(
+                    KernelException.ErrorCodes.InvalidServiceConfiguration,
+                    (serviceId != null ? "The service '" + serviceId + "'" : "The default service")
+                            + " is a "
+                            + service.getClass().getName()
+                            + ", not a "
+                            + clazz.getName());
+        }
+        return clazz.cast(service);
+    }
+
+    private Object resolve(ServiceRegistration<?> registration) {
+        switch (registration.getLifetime()) {
+            case TRANSIENT:
+                return registration.create(this);
+            case SINGLETON:
+                return registration.getSingleton(this);
+            default:
+                Object service = scopedServices.get(registration);
+                if (service == null) {
+                    // A factory may ask for other services, the lock is reentrant
+                    synchronized (scopedServices) {
+                        service = scopedServices.get(registration);
+                        if (service == null) {
+                            service = registration.create(this);
+                            scopedServices.put(registration, service);
+                        }
+                    }
+                }
+                return service;
+        }
     }
 
     @Override
@@ -85,6 +124,7 @@ public class KernelDefault implements Kernel {
         }
         ((RegistrableSkFunction) func).registerOnKernel(this);
         defaultSkillCollection = defaultSkillCollection.addSemanticFunction(func);
+        functionIndex.add(func);
         return func;
     }
 
@@ -152,6 +192,15 @@ public class KernelDefault implements Kernel {
                                 DefaultSkillCollection::merge);
 
         this.defaultSkillCollection = this.defaultSkillCollection.merge(newSkills);
+        functions
+                .getAll()
+                .forEach(
+                        function -> {
+                            if (function instanceof RegistrableSkFunction) {
+                                ((RegistrableSkFunction) function).registerOnKernel(this);
+                            }
+                            functionIndex.add(function);
+                        });
 
         return functions;
     }
@@ -161,6 +210,11 @@ public class KernelDefault implements Kernel {
         return defaultSkillCollection;
     }
 
+    @Override
+    public FunctionIndex getFunctionIndex() {
+        return functionIndex;
+    }
+
     @Override
     public CompletionSKFunction.Builder getSemanticFunctionBuilder() {
         return FunctionBuilders.getCompletionBuilder(this);
@@ -236,6 +290,8 @@ public class KernelDefault implements Kernel {
     @Override
     public void registerMemory(@Nonnull SemanticTextMemory memory) {
         this.memory = memory != null ? memory.copy() : null;
+        // Functions saved to the previous memory have to be saved again
+        functionIndex.clearRemembered();
     }
 
     /// <inheritdoc/>
@@ -261,8 +317,15 @@ public class KernelDefault implements Kernel {
 
     @Override
     public Mono<SKContext<?>> runAsync(ContextVariables variables, SKFunction... pipeline) {
-        DefaultSemanticSKContext context =
-                new DefaultSemanticSKContext(variables, this.memory, this.defaultSkillCollection);
+        return runAsync(variables, null, pipeline);
+    }
+
+    @Override
+    public Mono<SKContext<?>> runAsync(
+            ContextVariables variables, @Nullable Instant deadline, SKFunction... pipeline) {
+        SemanticSKContext context =
+                new DefaultSemanticSKContext(variables, this.memory, this.defaultSkillCollection)
+                        .setDeadline(deadline);
 
         Mono<SKContext<?>> pipelineBuilder = Mono.just(context);
 
@@ -270,10 +333,18 @@ public class KernelDefault implements Kernel {
             pipelineBuilder =
                     pipelineBuilder.flatMap(
                             newContext -> {
-                                return f.invokeAsync(newContext, null);
+                                // Semantic functions take a context of their own type
+                                SKContext<?> functionContext =
+                                        f.buildContext(
+                                                        newContext.getVariables(),
+                                                        newContext.getSemanticMemory(),
+                                                        newContext.getSkills())
+                                                .setDeadline(newContext.getDeadline());
+                                return f.invokeAsync(functionContext, null);
                             });
         }
 
-        return pipelineBuilder;
+        return Instrumentations.observe(
+                Instrumentation.PIPELINE_RUN, Deadlines.apply(pipelineBuilder, deadline));
     }
 }
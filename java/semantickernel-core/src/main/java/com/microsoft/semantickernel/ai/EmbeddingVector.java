@@ -24,16 +24,23 @@ public class EmbeddingVector<TEmbedding extends Number>
 
     private final List<TEmbedding> vector;
 
+    // Unboxed once, the vector operations read these
+    private final double[] values;
+
     public EmbeddingVector(List<TEmbedding> vector) {
         this.vector = Collections.unmodifiableList(vector);
+        this.values = new double[vector.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = vector.get(i).doubleValue();
+        }
     }
 
     public EmbeddingVector(TEmbedding[] vector) {
-        this.vector = Collections.unmodifiableList(Arrays.asList(vector));
+        this(Arrays.asList(vector));
     }
 
     public EmbeddingVector() {
-        this.vector = Collections.unmodifiableList(new ArrayList<>());
+        this(new ArrayList<>());
     }
 
     /**
@@ -49,6 +56,16 @@ public class EmbeddingVector<TEmbedding extends Number>
         return Collections.unmodifiableList(this.vector);
     }
 
+    /**
+     * Value of the vector, without boxing
+     *
+     * @param index Index of the value
+     * @return The value as a double
+     */
+    public double getDouble(int index) {
+        return this.values[index];
+    }
+
     /**
      * Calculates the dot product of this vector with another.
      *
@@ -62,8 +79,8 @@ public class EmbeddingVector<TEmbedding extends Number>
         }
 
         double result = 0;
-        for (int i = 0; i < this.size(); ++i) {
-            result += this.vector.get(i).doubleValue() * other.getVector().get(i).doubleValue();
+        for (int i = 0; i < this.values.length; ++i) {
+            result += this.values[i] * other.values[i];
         }
 
         return result;
@@ -91,9 +108,14 @@ public class EmbeddingVector<TEmbedding extends Number>
             throw new IllegalArgumentException("Vectors lengths must be equal");
         }
 
-        double dotProduct = this.dot(other);
-        double normX = this.dot(this);
-        double normY = other.dot(other);
+        double dotProduct = 0;
+        double normX = 0;
+        double normY = 0;
+        for (int i = 0; i < this.values.length; ++i) {
+            dotProduct += this.values[i] * other.values[i];
+            normX += this.values[i] * this.values[i];
+            normY += other.values[i] * other.values[i];
+        }
 
         if (normX == 0 || normY == 0) {
             throw new IllegalArgumentException("Vectors cannot have zero norm");
@@ -105,8 +127,9 @@ public class EmbeddingVector<TEmbedding extends Number>
     @Override
     public EmbeddingVector<TEmbedding> multiply(double multiplier) {
         List<Double> result =
-                this.getVector().stream()
-                        .map(x -> x.doubleValue() * multiplier)
+                Arrays.stream(this.values)
+                        .map(x -> x * multiplier)
+                        .boxed()
                         .collect(Collectors.toList());
 
         return (EmbeddingVector<TEmbedding>) new EmbeddingVector<>(result);
@@ -119,8 +142,9 @@ public class EmbeddingVector<TEmbedding extends Number>
         }
 
         List<Double> result =
-                this.getVector().stream()
-                        .map(x -> x.doubleValue() / divisor)
+                Arrays.stream(this.values)
+                        .map(x -> x / divisor)
+                        .boxed()
                         .collect(Collectors.toList());
 
         return (EmbeddingVector<TEmbedding>) new EmbeddingVector<>(result);
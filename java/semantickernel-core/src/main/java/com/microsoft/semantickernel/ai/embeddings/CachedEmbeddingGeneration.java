@@ -0,0 +1,356 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.ai.embeddings;
+
+import com.microsoft.semantickernel.ai.AIException;
+import com.microsoft.semantickernel.diagnostics.Instrumentation;
+import com.microsoft.semantickernel.diagnostics.Instrumentations;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * An {@link EmbeddingGeneration} decorator that caches embeddings by model id, type of the values
+ * and a hash of the text.
+ *
+ * <p>Lookups go through two tiers: a bounded least recently used tier held off the Java heap, and
+ * an optional persistent tier in a local directory that survives restarts. Batches are split into
+ * hits and misses, and only the misses are sent to the underlying service, in a single request. The
+ * files of the persistent tier are read and written on the bounded elastic scheduler. Entries that
+ * cannot be decoded, such as truncated files, are evicted and treated as misses.
+ *
+ * <pre>{@code
+ * EmbeddingGeneration<String, Double> embeddings =
+ *         new CachedEmbeddingGeneration.Builder<Double>()
+ *                 .setModelId("text-embedding-ada-002")
+ *                 .setEmbeddingType(Double.class)
+ *                 .setCacheDirectory(Paths.get(".sk-cache"))
+ *                 .build(new OpenAITextEmbeddingGeneration(client, "text-embedding-ada-002"));
+ * }</pre>
+ *
+ * @param <TEmbedding> Type of the embedding values
+ */
+public class CachedEmbeddingGeneration<TEmbedding extends Number>
+        implements EmbeddingGeneration<String, TEmbedding> {
+
+    private static final byte FLOAT = 'F';
+    private static final byte DOUBLE = 'D';
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /** Digests are not thread safe, and costly to look up, so each thread keeps its own. */
+    private static final ThreadLocal<MessageDigest> SHA_256 =
+            ThreadLocal.withInitial(
+                    () -> {
+                        try {
+                            return MessageDigest.getInstance("SHA-256");
+                        } catch (NoSuchAlgorithmException e) {
+                            // SHA-256 is required on every Java platform
+                            throw new IllegalStateException(e);
+                        }
+                    });
+
+    private final EmbeddingGeneration<String, TEmbedding> delegate;
+    private final String modelId;
+    private final byte type;
+    private final OffHeapEmbeddingCache memoryTier;
+    @Nullable private final FileEmbeddingCache persistentTier;
+
+    private CachedEmbeddingGeneration(
+            EmbeddingGeneration<String, TEmbedding> delegate,
+            String modelId,
+            byte type,
+            long maxMemoryBytes,
+            @Nullable Path cacheDirectory) {
+        this.delegate = delegate;
+        this.modelId = modelId;
+        this.type = type;
+        this.memoryTier = new OffHeapEmbeddingCache(maxMemoryBytes);
+        this.persistentTier =
+                cacheDirectory != null ? new FileEmbeddingCache(cacheDirectory) : null;
+    }
+
+    @Override
+    public Mono<List<Embedding<TEmbedding>>> generateEmbeddingsAsync(List<String> data) {
+        return Mono.defer(
+                () -> {
+                    List<String> keys = new ArrayList<>(data.size());
+                    Map<String, Embedding<TEmbedding>> found = new LinkedHashMap<>();
+                    // Texts to send upstream, by key, so duplicates in a batch are embedded once
+                    Map<String, String> misses = new LinkedHashMap<>();
+
+                    for (String text : data) {
+                        String key = key(text);
+                        keys.add(key);
+                        if (found.containsKey(key) || misses.containsKey(key)) {
+                            continue;
+                        }
+                        Embedding<TEmbedding> cached = decode(memoryTier.get(key));
+                        if (cached != null) {
+                            found.put(key, cached);
+                        } else {
+                            memoryTier.remove(key);
+                            misses.put(key, text);
+                        }
+                    }
+
+                    return lookupPersistentTier(misses, found)
+                            .flatMap(
+                                    ignored -> {
+                                        Instrumentations.increment(
+                                                Instrumentation.EMBEDDING_CACHE_HITS, found.size());
+                                        Instrumentations.increment(
+                                                Instrumentation.EMBEDDING_CACHE_MISSES,
+                                                misses.size());
+
+                                        if (misses.isEmpty()) {
+                                            return Mono.just(assemble(keys, found));
+                                        }
+                                        return generateMissesAsync(misses, found)
+                                                .then(
+                                                        Mono.fromSupplier(
+                                                                () -> assemble(keys, found)));
+                                    });
+                });
+    }
+
+    /**
+     * Moves the misses found in the persistent tier to the found embeddings. The files are read on
+     * a thread allowed to block.
+     */
+    private Mono<Boolean> lookupPersistentTier(
+            Map<String, String> misses, Map<String, Embedding<TEmbedding>> found) {
+        FileEmbeddingCache persistentTier = this.persistentTier;
+        if (persistentTier == null || misses.isEmpty()) {
+            return Mono.just(true);
+        }
+        return Mono.fromCallable(
+                        () -> {
+                            Iterator<String> keys = misses.keySet().iterator();
+                            while (keys.hasNext()) {
+                                String key = keys.next();
+                                ByteBuffer encoded = persistentTier.get(key);
+                                Embedding<TEmbedding> cached = decode(encoded);
+                                if (cached != null) {
+                                    memoryTier.put(key, encoded);
+                                    found.put(key, cached);
+                                    keys.remove();
+                                } else if (encoded != null) {
+                                    persistentTier.remove(key);
+                                }
+                            }
+                            return true;
+                        })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /** Embeds the misses in a single request and stores them in both tiers. */
+    private Mono<Void> generateMissesAsync(
+            Map<String, String> misses, Map<String, Embedding<TEmbedding>> found) {
+        List<String> missKeys = new ArrayList<>(misses.keySet());
+        return delegate.generateEmbeddingsAsync(new ArrayList<>(misses.values()))
+                .flatMap(
+                        embeddings -> {
+                            if (embeddings.size() != missKeys.size()) {
+                                throw new AIException(
+                                        AIException.ErrorCodes.InvalidResponseContent,
+                                        String.format(
+                                                "Expected %d embeddings, received %d",
+                                                missKeys.size(), embeddings.size()));
+                            }
+                            Map<String, ByteBuffer> encoded = new LinkedHashMap<>();
+                            for (int i = 0; i < missKeys.size(); i++) {
+                                ByteBuffer buffer = encode(embeddings.get(i));
+                                memoryTier.put(missKeys.get(i), buffer);
+                                encoded.put(missKeys.get(i), buffer);
+                                found.put(missKeys.get(i), embeddings.get(i));
+                            }
+                            return storePersistentTier(encoded);
+                        });
+    }
+
+    /** Writes the entries to the persistent tier, on a thread allowed to block. */
+    private Mono<Void> storePersistentTier(Map<String, ByteBuffer> encoded) {
+        FileEmbeddingCache persistentTier = this.persistentTier;
+        if (persistentTier == null) {
+            return Mono.empty();
+        }
+        return Mono.<Void>fromRunnable(() -> encoded.forEach(persistentTier::put))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private List<Embedding<TEmbedding>> assemble(
+            List<String> keys, Map<String, Embedding<TEmbedding>> found) {
+        List<Embedding<TEmbedding>> result = new ArrayList<>(keys.size());
+        keys.forEach(key -> result.add(found.get(key)));
+        return result;
+    }
+
+    /** Cache key, SHA-256 of the model id, the type of the values and the text, hex encoded. */
+    private String key(String text) {
+        MessageDigest digest = SHA_256.get();
+        digest.update(modelId.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(type);
+        digest.update(text.getBytes(StandardCharsets.UTF_8));
+        byte[] hash = digest.digest();
+        char[] hex = new char[hash.length * 2];
+        for (int i = 0; i < hash.length; i++) {
+            hex[2 * i] = HEX_DIGITS[(hash[i] >> 4) & 0xf];
+            hex[2 * i + 1] = HEX_DIGITS[hash[i] & 0xf];
+        }
+        return new String(hex);
+    }
+
+    /** Encodes the values as a type tag, a length and the raw values. */
+    private ByteBuffer encode(Embedding<? extends Number> embedding) {
+        List<? extends Number> vector = embedding.getVector();
+        ByteBuffer buffer =
+                ByteBuffer.allocate(
+                        1 + Integer.BYTES + vector.size() * (type == FLOAT ? Float.BYTES : 8));
+        buffer.put(type);
+        buffer.putInt(vector.size());
+        for (int i = 0; i < vector.size(); i++) {
+            if (type == FLOAT) {
+                buffer.putFloat(embedding.getFloat(i));
+            } else {
+                buffer.putDouble(vector.get(i).doubleValue());
+            }
+        }
+        ((Buffer) buffer).flip();
+        return buffer;
+    }
+
+    /**
+     * Decodes an entry, or returns null when there is none or it is not an entry of this type, such
+     * as a truncated file.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private Embedding<TEmbedding> decode(@Nullable ByteBuffer encoded) {
+        if (encoded == null || encoded.remaining() < 1 + Integer.BYTES) {
+            return null;
+        }
+        ByteBuffer buffer = encoded.duplicate();
+        int width = type == FLOAT ? Float.BYTES : Double.BYTES;
+        if (buffer.get() != type) {
+            return null;
+        }
+        int size = buffer.getInt();
+        if (size < 0 || buffer.remaining() != (long) size * width) {
+            return null;
+        }
+        List<Number> vector = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            if (type == FLOAT) {
+                vector.add(buffer.getFloat());
+            } else {
+                vector.add(buffer.getDouble());
+            }
+        }
+        return new Embedding<>((List<TEmbedding>) vector);
+    }
+
+    /**
+     * Builder for {@link CachedEmbeddingGeneration}.
+     *
+     * @param <TEmbedding> Type of the embedding values
+     */
+    public static class Builder<TEmbedding extends Number> {
+        @Nullable private String modelId;
+        @Nullable private Class<TEmbedding> embeddingType;
+        private long maxMemoryBytes = 64L * 1024 * 1024;
+        @Nullable private Path cacheDirectory;
+
+        /**
+         * Sets the id of the model producing the embeddings, part of the cache key so that
+         * embeddings of different models never collide.
+         *
+         * @param modelId Model id
+         * @return This builder
+         */
+        public Builder<TEmbedding> setModelId(@Nonnull String modelId) {
+            this.modelId = modelId;
+            return this;
+        }
+
+        /**
+         * Sets the type of the embedding values, {@code Float.class} or {@code Double.class}, part
+         * of the cache key and of the encoding of the entries.
+         *
+         * @param embeddingType Type of the embedding values
+         * @return This builder
+         */
+        public Builder<TEmbedding> setEmbeddingType(@Nonnull Class<TEmbedding> embeddingType) {
+            this.embeddingType = embeddingType;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of bytes held by the off-heap tier, 64 MiB by default.
+         *
+         * @param maxMemoryBytes Maximum size of the off-heap tier
+         * @return This builder
+         */
+        public Builder<TEmbedding> setMaxMemoryBytes(long maxMemoryBytes) {
+            this.maxMemoryBytes = maxMemoryBytes;
+            return this;
+        }
+
+        /**
+         * Enables the persistent tier, stored in the given directory.
+         *
+         * @param cacheDirectory Directory of the persistent tier
+         * @return This builder
+         */
+        public Builder<TEmbedding> setCacheDirectory(@Nullable Path cacheDirectory) {
+            this.cacheDirectory = cacheDirectory;
+            return this;
+        }
+
+        /**
+         * Builds the cache in front of the given service.
+         *
+         * @param delegate Service computing the embeddings on cache misses
+         * @return The caching embedding generation
+         */
+        public CachedEmbeddingGeneration<TEmbedding> build(
+                @Nonnull EmbeddingGeneration<String, TEmbedding> delegate) {
+            if (modelId == null) {
+                throw new AIException(
+                        AIException.ErrorCodes.InvalidConfiguration,
+                        "A model id is required to cache embeddings");
+            }
+            byte type;
+            if (Float.class.equals(embeddingType)) {
+                type = FLOAT;
+            } else if (Double.class.equals(embeddingType)) {
+                type = DOUBLE;
+            } else {
+                throw new AIException(
+                        AIException.ErrorCodes.InvalidConfiguration,
+                        "Only Float and Double embeddings can be cached");
+            }
+            return new CachedEmbeddingGeneration<>(
+                    Objects.requireNonNull(delegate),
+                    modelId,
+                    type,
+                    maxMemoryBytes,
+                    cacheDirectory);
+        }
+    }
+}
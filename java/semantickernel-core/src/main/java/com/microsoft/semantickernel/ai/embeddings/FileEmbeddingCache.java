@@ -0,0 +1,74 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.ai.embeddings;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import javax.annotation.Nullable;
+
+/**
+ * Persistent cache of encoded embeddings, one file per entry in a local directory. Entries are
+ * written to a temporary file and moved into place, so concurrent readers never see a partial
+ * entry. Failures are logged and treated as cache misses.
+ */
+final class FileEmbeddingCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileEmbeddingCache.class);
+    private static final String EXTENSION = ".emb";
+
+    private final Path directory;
+
+    FileEmbeddingCache(Path directory) {
+        this.directory = directory;
+    }
+
+    @Nullable
+    ByteBuffer get(String key) {
+        try {
+            return ByteBuffer.wrap(Files.readAllBytes(directory.resolve(key + EXTENSION)));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            LOGGER.warn("Failed to read cached embedding {}", key, e);
+            return null;
+        }
+    }
+
+    void put(String key, ByteBuffer encoded) {
+        byte[] bytes = new byte[encoded.remaining()];
+        encoded.duplicate().get(bytes);
+        try {
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, key, ".tmp");
+            Files.write(temp, bytes);
+            Path target = directory.resolve(key + EXTENSION);
+            try {
+                Files.move(
+                        temp,
+                        target,
+                        StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Failed to persist cached embedding {}", key, e);
+        }
+    }
+
+    void remove(String key) {
+        try {
+            Files.deleteIfExists(directory.resolve(key + EXTENSION));
+        } catch (IOException e) {
+            LOGGER.warn("Failed to evict cached embedding {}", key, e);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.ai.embeddings;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * Least recently used cache of encoded embeddings held in direct byte buffers, outside of the Java
+ * heap. The cache is bounded by the total number of bytes of the buffers it holds.
+ */
+final class OffHeapEmbeddingCache {
+
+    private final long maxBytes;
+    private final LinkedHashMap<String, ByteBuffer> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long usedBytes = 0;
+
+    OffHeapEmbeddingCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    @Nullable
+    synchronized ByteBuffer get(String key) {
+        ByteBuffer buffer = entries.get(key);
+        return buffer != null ? buffer.asReadOnlyBuffer() : null;
+    }
+
+    synchronized void put(String key, ByteBuffer encoded) {
+        if (encoded.remaining() > maxBytes) {
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(encoded.remaining());
+        buffer.put(encoded.duplicate());
+        ((Buffer) buffer).flip();
+
+        ByteBuffer previous = entries.put(key, buffer);
+        if (previous != null) {
+            usedBytes -= previous.capacity();
+        }
+        usedBytes += buffer.capacity();
+
+        Iterator<Map.Entry<String, ByteBuffer>> eldest = entries.entrySet().iterator();
+        while (usedBytes > maxBytes && eldest.hasNext()) {
+            usedBytes -= eldest.next().getValue().capacity();
+            eldest.remove();
+        }
+    }
+
+    synchronized void remove(String key) {
+        ByteBuffer previous = entries.remove(key);
+        if (previous != null) {
+            usedBytes -= previous.capacity();
+        }
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized long usedBytes() {
+        return usedBytes;
+    }
+}
@@ -0,0 +1,86 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.ai.loadbalancing;
+
+/** Health and latency of an endpoint of a {@link LoadBalancer}, at the time it was taken. */
+public class EndpointStats {
+
+    /** State of the circuit breaker of an endpoint. */
+    public enum CircuitState {
+        /** Requests are sent to the endpoint. */
+        CLOSED,
+
+        /**
+         * The endpoint failed repeatedly, no request is sent to it until the circuit half opens.
+         */
+        OPEN,
+
+        /** A single probe request is in flight, its outcome closes or opens the circuit again. */
+        HALF_OPEN
+    }
+
+    private final String name;
+    private final CircuitState circuitState;
+    private final int outstandingRequests;
+    private final double latencyMillis;
+    private final long successes;
+    private final long failures;
+
+    EndpointStats(
+            String name,
+            CircuitState circuitState,
+            int outstandingRequests,
+            double latencyMillis,
+            long successes,
+            long failures) {
+        this.name = name;
+        this.circuitState = circuitState;
+        this.outstandingRequests = outstandingRequests;
+        this.latencyMillis = latencyMillis;
+        this.successes = successes;
+        this.failures = failures;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public CircuitState getCircuitState() {
+        return circuitState;
+    }
+
+    /**
+     * @return Number of requests in flight
+     */
+    public int getOutstandingRequests() {
+        return outstandingRequests;
+    }
+
+    /**
+     * @return Exponentially weighted moving average of the latency of successful requests, to their
+     *     first result when streaming, 0 before the first success
+     */
+    public double getLatencyMillis() {
+        return latencyMillis;
+    }
+
+    /**
+     * @return Number of successful requests
+     */
+    public long getSuccesses() {
+        return successes;
+    }
+
+    /**
+     * @return Number of requests that failed with a throttling, server or transport error
+     */
+    public long getFailures() {
+        return failures;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "%s: %s, %d outstanding, %.1f ms, %d succeeded, %d failed",
+                name, circuitState, outstandingRequests, latencyMillis, successes, failures);
+    }
+}
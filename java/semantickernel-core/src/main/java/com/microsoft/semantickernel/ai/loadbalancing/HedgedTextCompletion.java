@@ -0,0 +1,288 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.ai.loadbalancing;
+
+import com.microsoft.semantickernel.ai.AIException;
+import com.microsoft.semantickernel.ai.tokenizers.Tokenizer;
+import com.microsoft.semantickernel.textcompletion.CompletionRequestSettings;
+import com.microsoft.semantickernel.textcompletion.TextCompletion;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A {@link TextCompletion} hedging slow completions. When a completion has not returned within a
+ * percentile of the recent latencies, the same request is sent to another deployment, the first
+ * response wins and the other request is cancelled.
+ *
+ * <p>Each deployment accepts a number of hedged requests proportional to the requests it received
+ * first hand, so that hedging adds a bounded share of load, see {@link Builder#setBudget(double,
+ * int)}. Requests are never hedged to their own deployment, so a single deployment is never hedged.
+ * Streamed completions are not hedged.
+ *
+ * <p>Latencies are timed from the start of the first hand request. When the hedged request wins,
+ * the time it took is recorded as a lower bound of the latency of the cancelled one.
+ *
+ * <pre>{@code
+ * TextCompletion textCompletion =
+ *         new HedgedTextCompletion.Builder()
+ *                 .addDeployment("eastus", new OpenAITextCompletion(eastUs, "text-davinci-003"))
+ *                 .addDeployment("westeurope", new OpenAITextCompletion(westEu, "text-davinci-003"))
+ *                 .setPercentile(0.95)
+ *                 .build();
+ * }</pre>
+ */
+public class HedgedTextCompletion implements TextCompletion {
+
+    private static final class Deployment {
+        private final TextCompletion service;
+        // Hedged requests the deployment still accepts
+        private double credits;
+
+        private Deployment(TextCompletion service, double credits) {
+            this.service = service;
+            this.credits = credits;
+        }
+    }
+
+    private final List<Deployment> deployments;
+    private final double percentile;
+    private final long initialDelayNanos;
+    private final int minSamples;
+    private final double budgetRatio;
+    private final int budgetBurst;
+    // Latencies of the latest successful requests, a ring
+    private final long[] latencies;
+    private int samples = 0;
+    private int nextSample = 0;
+    private int next = 0;
+    private final AtomicLong hedges = new AtomicLong();
+
+    private HedgedTextCompletion(
+            Map<String, TextCompletion> services,
+            double percentile,
+            Duration initialDelay,
+            int window,
+            double budgetRatio,
+            int budgetBurst) {
+        this.deployments = new ArrayList<>();
+        services.values().forEach(service -> deployments.add(new Deployment(service, budgetBurst)));
+        this.percentile = percentile;
+        this.initialDelayNanos = initialDelay.toNanos();
+        this.latencies = new long[window];
+        this.minSamples = Math.min(window, 20);
+        this.budgetRatio = budgetRatio;
+        this.budgetBurst = budgetBurst;
+    }
+
+    @Override
+    public Mono<List<String>> completeAsync(
+            String text, CompletionRequestSettings requestSettings) {
+        return Mono.defer(
+                () -> {
+                    Deployment primary = nextPrimary();
+                    long start = System.nanoTime();
+                    if (deployments.size() == 1) {
+                        return primary.service
+                                .completeAsync(text, requestSettings)
+                                .doOnSuccess(result -> record(System.nanoTime() - start));
+                    }
+                    Duration delay = Duration.ofNanos(hedgeDelayNanos());
+                    // Requests in flight, a failed request only fails the completion when the
+                    // other one is not in flight
+                    AtomicInteger live = new AtomicInteger(1);
+
+                    Mono<List<String>> first = send(primary, text, requestSettings, live);
+                    Mono<List<String>> hedge =
+                            Mono.delay(delay)
+                                    .flatMap(
+                                            ignored -> {
+                                                Deployment target = acquireHedge(primary);
+                                                if (target == null) {
+                                                    return Mono.never();
+                                                }
+                                                hedges.incrementAndGet();
+                                                live.incrementAndGet();
+                                                return send(target, text, requestSettings, live);
+                                            });
+                    return Mono.firstWithSignal(first, hedge)
+                            .doOnSuccess(result -> record(System.nanoTime() - start));
+                });
+    }
+
+    @Override
+    public Flux<String> completeStreamAsync(
+            String text, CompletionRequestSettings requestSettings) {
+        return Flux.defer(() -> nextPrimary().service.completeStreamAsync(text, requestSettings));
+    }
+
+    @Override
+    public Tokenizer getTokenizer() {
+        return deployments.get(0).service.getTokenizer();
+    }
+
+    /**
+     * @return Number of hedged requests sent
+     */
+    public long getHedgedRequests() {
+        return hedges.get();
+    }
+
+    /**
+     * @return Delay before a request is hedged, the percentile of the recent latencies
+     */
+    public Duration getHedgeDelay() {
+        return Duration.ofNanos(hedgeDelayNanos());
+    }
+
+    private Mono<List<String>> send(
+            Deployment deployment,
+            String text,
+            CompletionRequestSettings requestSettings,
+            AtomicInteger live) {
+        return Mono.defer(
+                () ->
+                        deployment
+                                .service
+                                .completeAsync(text, requestSettings)
+                                .onErrorResume(
+                                        error ->
+                                                live.decrementAndGet() > 0
+                                                        ? Mono.never()
+                                                        : Mono.error(error)));
+    }
+
+    private synchronized Deployment nextPrimary() {
+        Deployment primary = deployments.get(next);
+        next = (next + 1) % deployments.size();
+        primary.credits = Math.min(budgetBurst, primary.credits + budgetRatio);
+        return primary;
+    }
+
+    /** The next deployment after the primary with hedging budget left, never the primary. */
+    @Nullable
+    private synchronized Deployment acquireHedge(Deployment primary) {
+        int index = deployments.indexOf(primary);
+        for (int i = 1; i < deployments.size(); i++) {
+            Deployment deployment = deployments.get((index + i) % deployments.size());
+            if (deployment.credits >= 1) {
+                deployment.credits--;
+                return deployment;
+            }
+        }
+        return null;
+    }
+
+    private synchronized void record(long latency) {
+        latencies[nextSample] = latency;
+        nextSample = (nextSample + 1) % latencies.length;
+        samples = Math.min(samples + 1, latencies.length);
+    }
+
+    private synchronized long hedgeDelayNanos() {
+        if (samples < minSamples) {
+            return initialDelayNanos;
+        }
+        long[] sorted = Arrays.copyOf(latencies, samples);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    /** Builder of {@link HedgedTextCompletion}. */
+    public static class Builder {
+        private final Map<String, TextCompletion> services = new LinkedHashMap<>();
+        private double percentile = 0.95;
+        private Duration initialDelay = Duration.ofSeconds(2);
+        private int window = 256;
+        private double budgetRatio = 0.1;
+        private int budgetBurst = 10;
+
+        /**
+         * Adds a deployment. Requests are sent first hand to the deployments in turn, and hedged to
+         * the next deployment.
+         *
+         * @param name Name of the deployment
+         * @param service Service of the deployment, same model as the others
+         * @return This builder
+         */
+        public Builder addDeployment(@Nonnull String name, @Nonnull TextCompletion service) {
+            services.put(name, service);
+            return this;
+        }
+
+        /**
+         * @param percentile Percentile of the recent latencies after which a request is hedged,
+         *     0.95 by default
+         * @return This builder
+         */
+        public Builder setPercentile(double percentile) {
+            this.percentile = percentile;
+            return this;
+        }
+
+        /**
+         * @param initialDelay Delay after which a request is hedged until enough latencies are
+         *     known, 2 seconds by default
+         * @return This builder
+         */
+        public Builder setInitialDelay(@Nonnull Duration initialDelay) {
+            this.initialDelay = initialDelay;
+            return this;
+        }
+
+        /**
+         * @param window Number of recent latencies the percentile is computed on, 256 by default
+         * @return This builder
+         */
+        public Builder setWindow(int window) {
+            this.window = window;
+            return this;
+        }
+
+        /**
+         * Sets the hedging budget of each deployment. A deployment accepts {@code ratio} hedged
+         * requests per request it receives first hand, and at most {@code burst} in a row.
+         *
+         * @param ratio Hedged requests per first hand request, 0.1 by default
+         * @param burst Hedged requests accepted in a row, 10 by default
+         * @return This builder
+         */
+        public Builder setBudget(double ratio, int burst) {
+            this.budgetRatio = ratio;
+            this.budgetBurst = burst;
+            return this;
+        }
+
+        public HedgedTextCompletion build() {
+            if (services.isEmpty()) {
+                throw new AIException(
+                        AIException.ErrorCodes.InvalidConfiguration,
+                        "Hedging requires at least one deployment");
+            }
+            if (!(percentile > 0 && percentile <= 1)) {
+                throw new AIException(
+                        AIException.ErrorCodes.InvalidConfiguration,
+                        "The percentile must be in (0, 1]");
+            }
+            if (window < 1 || budgetRatio < 0 || budgetBurst < 0) {
+                throw new AIException(
+                        AIException.ErrorCodes.InvalidConfiguration,
+                        "The window must be positive and the budget not negative");
+            }
+            return new HedgedTextCompletion(
+                    services, percentile, initialDelay, window, budgetRatio, budgetBurst);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.ai.loadbalancing;
+
+import com.microsoft.semantickernel.ai.embeddings.Embedding;
+import com.microsoft.semantickernel.ai.embeddings.EmbeddingGeneration;
+
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * An {@link EmbeddingGeneration} spreading requests across the services of a {@link LoadBalancer}.
+ *
+ * @param <TValue> Type of the embedded values
+ * @param <TEmbedding> Type of the embedding values
+ */
+public class LoadBalancedEmbeddingGeneration<TValue, TEmbedding extends Number>
+        implements EmbeddingGeneration<TValue, TEmbedding> {
+
+    private final LoadBalancer<EmbeddingGeneration<TValue, TEmbedding>> balancer;
+
+    /**
+     * @param balancer Balancer of equivalent embedding generation services, same model
+     */
+    public LoadBalancedEmbeddingGeneration(
+            LoadBalancer<EmbeddingGeneration<TValue, TEmbedding>> balancer) {
+        this.balancer = balancer;
+    }
+
+    @Override
+    public Mono<List<Embedding<TEmbedding>>> generateEmbeddingsAsync(List<TValue> data) {
+        return balancer.execute(service -> service.generateEmbeddingsAsync(data));
+    }
+
+    /**
+     * @return Health and latency of each endpoint
+     */
+    public List<EndpointStats> getStats() {
+        return balancer.getStats();
+    }
+}
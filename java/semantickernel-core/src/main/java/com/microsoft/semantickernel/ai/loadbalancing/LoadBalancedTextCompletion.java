@@ -0,0 +1,57 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.ai.loadbalancing;
+
+import com.microsoft.semantickernel.ai.tokenizers.Tokenizer;
+import com.microsoft.semantickernel.textcompletion.CompletionRequestSettings;
+import com.microsoft.semantickernel.textcompletion.TextCompletion;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * A {@link TextCompletion} spreading completions across the services of a {@link LoadBalancer},
+ * registered in the kernel as any other text completion service.
+ */
+public class LoadBalancedTextCompletion implements TextCompletion {
+
+    private final LoadBalancer<TextCompletion> balancer;
+
+    /**
+     * @param balancer Balancer of equivalent text completion services, same model
+     */
+    public LoadBalancedTextCompletion(LoadBalancer<TextCompletion> balancer) {
+        this.balancer = balancer;
+    }
+
+    @Override
+    public Mono<List<String>> completeAsync(
+            String text, CompletionRequestSettings requestSettings) {
+        return balancer.execute(service -> service.completeAsync(text, requestSettings));
+    }
+
+    @Override
+    public Mono<List<List<String>>> completeBatchAsync(
+            List<String> texts, CompletionRequestSettings requestSettings) {
+        return balancer.execute(service -> service.completeBatchAsync(texts, requestSettings));
+    }
+
+    @Override
+    public Flux<String> completeStreamAsync(
+            String text, CompletionRequestSettings requestSettings) {
+        return balancer.executeMany(service -> service.completeStreamAsync(text, requestSettings));
+    }
+
+    @Override
+    public Tokenizer getTokenizer() {
+        return balancer.getServices().get(0).getTokenizer();
+    }
+
+    /**
+     * @return Health and latency of each endpoint
+     */
+    public List<EndpointStats> getStats() {
+        return balancer.getStats();
+    }
+}
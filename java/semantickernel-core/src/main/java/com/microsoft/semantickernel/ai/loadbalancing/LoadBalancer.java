@@ -0,0 +1,411 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.ai.loadbalancing;
+
+import com.azure.core.exception.HttpResponseException;
+import com.azure.core.http.HttpResponse;
+import com.microsoft.semantickernel.ai.AIException;
+import com.microsoft.semantickernel.ai.loadbalancing.EndpointStats.CircuitState;
+
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Spreads requests across equivalent services, for instance deployments of the same model in
+ * several regions with separate quotas.
+ *
+ * <p>Each request goes to the available endpoint with the fewest requests in flight, or with the
+ * lowest expected latency, see {@link Selection}. A request failing with a throttling (429), server
+ * (5xx) or transport error is sent again to another endpoint, other errors are returned as is.
+ * After consecutive failures the circuit of an endpoint opens and it receives no request until a
+ * probe request succeeds.
+ *
+ * <pre>{@code
+ * LoadBalancer<TextCompletion> balancer =
+ *         new LoadBalancer.Builder<TextCompletion>()
+ *                 .addEndpoint("eastus", new OpenAITextCompletion(eastUs, "text-davinci-003"))
+ *                 .addEndpoint("westeurope", new OpenAITextCompletion(westEu, "text-davinci-003"))
+ *                 .build();
+ * TextCompletion textCompletion = new LoadBalancedTextCompletion(balancer);
+ * }</pre>
+ *
+ * @param <S> Type of the services
+ */
+public class LoadBalancer<S> {
+
+    /** How the endpoint of a request is selected. */
+    public enum Selection {
+        /** The endpoint with the fewest requests in flight, ties go to the fastest. */
+        LEAST_OUTSTANDING,
+
+        /**
+         * The endpoint with the lowest latency average weighted by its requests in flight.
+         * Endpoints without a successful request yet are tried first.
+         */
+        EWMA_LATENCY
+    }
+
+    private enum Outcome {
+        SUCCESS,
+        FAILURE,
+        // Neither, for instance an invalid request or a cancellation
+        NONE
+    }
+
+    private static final class Endpoint<S> {
+        private final String name;
+        private final S service;
+        private CircuitState circuitState = CircuitState.CLOSED;
+        private long openUntilNanos;
+        private int outstanding;
+        private int consecutiveFailures;
+        // Nanoseconds, NaN before the first success
+        private double latency = Double.NaN;
+        private long successes;
+        private long failures;
+
+        private Endpoint(String name, S service) {
+            this.name = name;
+            this.service = service;
+        }
+    }
+
+    private final List<Endpoint<S>> endpoints;
+    private final Selection selection;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final double latencyWeight;
+    // First endpoint considered, rotated to break ties
+    private int next = 0;
+
+    private LoadBalancer(
+            Map<String, S> services,
+            Selection selection,
+            int failureThreshold,
+            Duration openDuration,
+            double latencyWeight) {
+        this.endpoints =
+                services.entrySet().stream()
+                        .map(service -> new Endpoint<>(service.getKey(), service.getValue()))
+                        .collect(Collectors.toList());
+        this.selection = selection;
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.latencyWeight = latencyWeight;
+    }
+
+    /**
+     * Sends a request to an endpoint, and to the next one while it fails with a throttling, server
+     * or transport error.
+     *
+     * @param request Sends the request to the service of an endpoint
+     * @return The result of the first endpoint that succeeds
+     * @param <T> Type of the result
+     */
+    public <T> Mono<T> execute(Function<S, Mono<T>> request) {
+        return executeMany(service -> request.apply(service).flux()).singleOrEmpty();
+    }
+
+    /**
+     * Streams the results of a request from an endpoint. The request is sent to the next endpoint
+     * only while no result has been received, once streaming a failure is returned as is.
+     *
+     * @param request Sends the request to the service of an endpoint
+     * @return The results of the first endpoint that succeeds
+     * @param <T> Type of the results
+     */
+    public <T> Flux<T> executeMany(Function<S, Flux<T>> request) {
+        return Flux.defer(() -> attempt(request, new HashSet<>(), null));
+    }
+
+    /**
+     * @return The services, in the order they were added
+     */
+    public List<S> getServices() {
+        return endpoints.stream().map(endpoint -> endpoint.service).collect(Collectors.toList());
+    }
+
+    /**
+     * @return Health and latency of each endpoint, in the order they were added
+     */
+    public synchronized List<EndpointStats> getStats() {
+        long now = System.nanoTime();
+        List<EndpointStats> stats = new ArrayList<>(endpoints.size());
+        for (Endpoint<S> endpoint : endpoints) {
+            CircuitState state = endpoint.circuitState;
+            if (state == CircuitState.OPEN && now - endpoint.openUntilNanos >= 0) {
+                // Ready to probe
+                state = CircuitState.HALF_OPEN;
+            }
+            stats.add(
+                    new EndpointStats(
+                            endpoint.name,
+                            state,
+                            endpoint.outstanding,
+                            Double.isNaN(endpoint.latency) ? 0 : endpoint.latency / 1_000_000,
+                            endpoint.successes,
+                            endpoint.failures));
+        }
+        return Collections.unmodifiableList(stats);
+    }
+
+    private <T> Flux<T> attempt(
+            Function<S, Flux<T>> request,
+            Set<Endpoint<S>> tried,
+            @Nullable Throwable previousError) {
+        Endpoint<S> endpoint = select(tried);
+        if (endpoint == null) {
+            return Flux.error(
+                    previousError != null
+                            ? previousError
+                            : new AIException(
+                                    AIException.ErrorCodes.ServiceError,
+                                    "No endpoint is available, every circuit is open"));
+        }
+        tried.add(endpoint);
+
+        long start = System.nanoTime();
+        AtomicBoolean emitted = new AtomicBoolean();
+        AtomicBoolean finished = new AtomicBoolean();
+        Function<Outcome, Runnable> finish =
+                outcome ->
+                        () -> {
+                            if (finished.compareAndSet(false, true)) {
+                                finish(endpoint, outcome, start);
+                            }
+                        };
+
+        return Flux.defer(() -> request.apply(endpoint.service))
+                .doOnNext(
+                        result -> {
+                            if (emitted.compareAndSet(false, true)) {
+                                // The endpoint answered, the rest of the stream is not retried
+                                finish.apply(Outcome.SUCCESS).run();
+                            }
+                        })
+                .doOnComplete(finish.apply(Outcome.SUCCESS))
+                .doOnError(
+                        error ->
+                                finish.apply(isRetryable(error) ? Outcome.FAILURE : Outcome.NONE)
+                                        .run())
+                .doOnCancel(finish.apply(Outcome.NONE))
+                .onErrorResume(
+                        error -> !emitted.get() && isRetryable(error),
+                        error -> attempt(request, tried, error));
+    }
+
+    @Nullable
+    private synchronized Endpoint<S> select(Set<Endpoint<S>> tried) {
+        long now = System.nanoTime();
+        Endpoint<S> best = null;
+        double bestScore = Double.MAX_VALUE;
+        for (int i = 0; i < endpoints.size(); i++) {
+            Endpoint<S> endpoint = endpoints.get((next + i) % endpoints.size());
+            if (tried.contains(endpoint) || !isAvailable(endpoint, now)) {
+                continue;
+            }
+            double score = score(endpoint);
+            if (best == null || score < bestScore) {
+                best = endpoint;
+                bestScore = score;
+            }
+        }
+        if (best == null) {
+            return null;
+        }
+
+        next = (next + 1) % endpoints.size();
+        if (best.circuitState == CircuitState.OPEN) {
+            // The probe
+            best.circuitState = CircuitState.HALF_OPEN;
+        }
+        best.outstanding++;
+        return best;
+    }
+
+    private boolean isAvailable(Endpoint<S> endpoint, long now) {
+        switch (endpoint.circuitState) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                return now - endpoint.openUntilNanos >= 0;
+            default:
+                // A probe is in flight
+                return false;
+        }
+    }
+
+    private double score(Endpoint<S> endpoint) {
+        double latency = Double.isNaN(endpoint.latency) ? 0 : endpoint.latency;
+        if (selection == Selection.EWMA_LATENCY) {
+            return latency * (endpoint.outstanding + 1);
+        }
+        // Outstanding requests first, latency breaks ties
+        return endpoint.outstanding + latency / (latency + 1_000_000_000);
+    }
+
+    private synchronized void finish(Endpoint<S> endpoint, Outcome outcome, long start) {
+        endpoint.outstanding--;
+        switch (outcome) {
+            case SUCCESS:
+                long latency = System.nanoTime() - start;
+                endpoint.latency =
+                        Double.isNaN(endpoint.latency)
+                                ? latency
+                                : latencyWeight * latency + (1 - latencyWeight) * endpoint.latency;
+                endpoint.successes++;
+                endpoint.consecutiveFailures = 0;
+                endpoint.circuitState = CircuitState.CLOSED;
+                break;
+            case FAILURE:
+                endpoint.failures++;
+                endpoint.consecutiveFailures++;
+                if (endpoint.circuitState == CircuitState.HALF_OPEN
+                        || endpoint.consecutiveFailures >= failureThreshold) {
+                    endpoint.circuitState = CircuitState.OPEN;
+                    endpoint.openUntilNanos = System.nanoTime() + openNanos;
+                }
+                break;
+            default:
+                if (endpoint.circuitState == CircuitState.HALF_OPEN) {
+                    // The probe told nothing, let another request probe
+                    endpoint.circuitState = CircuitState.OPEN;
+                }
+        }
+    }
+
+    /**
+     * @return Whether the error is a throttling, server or transport error, another endpoint may
+     *     succeed
+     */
+    static boolean isRetryable(Throwable error) {
+        Throwable cause = Exceptions.unwrap(error);
+        while (cause != null) {
+            if (cause instanceof HttpResponseException) {
+                HttpResponse response = ((HttpResponseException) cause).getResponse();
+                if (response != null) {
+                    int status = response.getStatusCode();
+                    return status == 429 || status >= 500;
+                }
+            }
+            if (cause instanceof AIException) {
+                switch (((AIException) cause).getErrorCode()) {
+                    case Throttling:
+                    case ServiceError:
+                    case RequestTimeout:
+                    case NoResponse:
+                        return true;
+                    default:
+                        return false;
+                }
+            }
+            if (cause instanceof IOException || cause instanceof TimeoutException) {
+                return true;
+            }
+            cause = cause.getCause() != cause ? cause.getCause() : null;
+        }
+        return false;
+    }
+
+    /**
+     * Builder of {@link LoadBalancer}.
+     *
+     * @param <S> Type of the services
+     */
+    public static class Builder<S> {
+        private final Map<String, S> services = new LinkedHashMap<>();
+        private Selection selection = Selection.LEAST_OUTSTANDING;
+        private int failureThreshold = 5;
+        private Duration openDuration = Duration.ofSeconds(30);
+        private double latencyWeight = 0.3;
+
+        /**
+         * Adds an endpoint.
+         *
+         * @param name Name of the endpoint, in the stats
+         * @param service Service of the endpoint
+         * @return This builder
+         */
+        public Builder<S> addEndpoint(@Nonnull String name, @Nonnull S service) {
+            services.put(name, service);
+            return this;
+        }
+
+        /**
+         * @param selection How endpoints are selected, {@link Selection#LEAST_OUTSTANDING} by
+         *     default
+         * @return This builder
+         */
+        public Builder<S> setSelection(@Nonnull Selection selection) {
+            this.selection = selection;
+            return this;
+        }
+
+        /**
+         * @param failureThreshold Consecutive failures opening the circuit of an endpoint, 5 by
+         *     default
+         * @return This builder
+         */
+        public Builder<S> setFailureThreshold(int failureThreshold) {
+            this.failureThreshold = failureThreshold;
+            return this;
+        }
+
+        /**
+         * @param openDuration Time an open circuit receives no request before it is probed, 30
+         *     seconds by default
+         * @return This builder
+         */
+        public Builder<S> setOpenDuration(@Nonnull Duration openDuration) {
+            this.openDuration = openDuration;
+            return this;
+        }
+
+        /**
+         * @param latencyWeight Weight of the latest sample in the latency average, between 0 and 1,
+         *     0.3 by default
+         * @return This builder
+         */
+        public Builder<S> setLatencyWeight(double latencyWeight) {
+            this.latencyWeight = latencyWeight;
+            return this;
+        }
+
+        public LoadBalancer<S> build() {
+            if (services.isEmpty()) {
+                throw new AIException(
+                        AIException.ErrorCodes.InvalidConfiguration,
+                        "A load balancer requires at least one endpoint");
+            }
+            if (failureThreshold < 1) {
+                throw new AIException(
+                        AIException.ErrorCodes.InvalidConfiguration,
+                        "The failure threshold must be at least 1");
+            }
+            if (!(latencyWeight > 0 && latencyWeight <= 1)) {
+                throw new AIException(
+                        AIException.ErrorCodes.InvalidConfiguration,
+                        "The latency weight must be in (0, 1]");
+            }
+            return new LoadBalancer<>(
+                    services, selection, failureThreshold, openDuration, latencyWeight);
+        }
+    }
+}
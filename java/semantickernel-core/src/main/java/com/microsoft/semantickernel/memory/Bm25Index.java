@@ -0,0 +1,141 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.memory;
+
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+
+/**
+ * In-process BM25 inverted index over the text of the memories in one collection.
+ *
+ * <p>Documents are tokenized into lower case runs of letters and digits, so product codes such as
+ * "SKU-1234" are matched by their parts. All methods are synchronized.
+ */
+final class Bm25Index {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final class Document {
+        private final MemoryRecordMetadata metadata;
+        private final Map<String, Integer> termFrequencies;
+        private final int length;
+
+        private Document(
+                MemoryRecordMetadata metadata, Map<String, Integer> termFrequencies, int length) {
+            this.metadata = metadata;
+            this.termFrequencies = termFrequencies;
+            this.length = length;
+        }
+    }
+
+    private final Map<String, Document> documents = new HashMap<>();
+    private final Map<String, Map<String, Integer>> postings = new HashMap<>();
+    private long totalLength = 0;
+
+    /**
+     * Adds or replaces a document.
+     *
+     * @param key Key of the memory record
+     * @param metadata Metadata returned when the document matches
+     * @param text Text to index
+     */
+    synchronized void put(
+            @Nonnull String key, @Nonnull MemoryRecordMetadata metadata, @Nonnull String text) {
+        remove(key);
+
+        List<String> tokens = tokenize(text);
+        Map<String, Integer> termFrequencies = new HashMap<>();
+        tokens.forEach(token -> termFrequencies.merge(token, 1, Integer::sum));
+        termFrequencies.forEach(
+                (term, tf) -> postings.computeIfAbsent(term, k -> new HashMap<>()).put(key, tf));
+
+        documents.put(key, new Document(metadata, termFrequencies, tokens.size()));
+        totalLength += tokens.size();
+    }
+
+    synchronized void remove(@Nonnull String key) {
+        Document document = documents.remove(key);
+        if (document == null) {
+            return;
+        }
+        totalLength -= document.length;
+        document.termFrequencies
+                .keySet()
+                .forEach(
+                        term -> {
+                            Map<String, Integer> posting = postings.get(term);
+                            if (posting != null) {
+                                posting.remove(key);
+                                if (posting.isEmpty()) {
+                                    postings.remove(term);
+                                }
+                            }
+                        });
+    }
+
+    /**
+     * Ranks the documents against the query. The relevance of a document is its BM25 score divided
+     * by the score no document can reach, that of a document holding every term of the query
+     * infinitely often, so that it does not depend on the other matches.
+     *
+     * @return Up to {@code limit} matching documents with their relevance, from 0 to 1, best first
+     */
+    synchronized List<Tuple2<MemoryRecordMetadata, Double>> search(
+            @Nonnull String query, int limit) {
+        if (limit <= 0 || documents.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        double averageLength = (double) totalLength / documents.size();
+        Map<String, Double> scores = new HashMap<>();
+        double maxScore = 0;
+        for (String term : new HashSet<>(tokenize(query))) {
+            Map<String, Integer> posting = postings.get(term);
+            int frequency = posting == null ? 0 : posting.size();
+            double idf = Math.log(1 + (documents.size() - frequency + 0.5) / (frequency + 0.5));
+            maxScore += idf * (K1 + 1);
+            if (posting == null) {
+                continue;
+            }
+            posting.forEach(
+                    (key, tf) -> {
+                        double norm = K1 * (1 - B + B * documents.get(key).length / averageLength);
+                        scores.merge(key, idf * tf * (K1 + 1) / (tf + norm), Double::sum);
+                    });
+        }
+
+        double max = maxScore;
+        List<Tuple2<MemoryRecordMetadata, Double>> results = new ArrayList<>(scores.size());
+        scores.forEach(
+                (key, score) -> results.add(Tuples.of(documents.get(key).metadata, score / max)));
+        results.sort(
+                Comparator.comparing((Tuple2<MemoryRecordMetadata, Double> t) -> t.getT2())
+                        .reversed());
+        return results.size() > limit ? new ArrayList<>(results.subList(0, limit)) : results;
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean isTokenChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (isTokenChar && start < 0) {
+                start = i;
+            } else if (!isTokenChar && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
@@ -1,36 +1,70 @@
 // Copyright (c) Microsoft. All rights reserved.
 package com.microsoft.semantickernel.memory;
 
+import com.microsoft.semantickernel.ai.embeddings.Embedding;
 import com.microsoft.semantickernel.ai.embeddings.EmbeddingGeneration;
+import com.microsoft.semantickernel.diagnostics.Instrumentation;
+import com.microsoft.semantickernel.diagnostics.Instrumentations;
 import com.microsoft.semantickernel.exceptions.NotSupportedException;
 
 import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
-/// <summary>
-/// Implementation of <see cref="ISemanticTextMemory"/>./>.
-/// </summary>
+/**
+ * Implementation of {@link SemanticTextMemory}.
+ *
+ * <p>Alongside the vectors held by the {@link MemoryStore}, this memory maintains an in-process
+ * BM25 keyword index over the text and description of every memory saved through it, used by the
+ * {@link MemorySearchMode#LEXICAL} and {@link MemorySearchMode#HYBRID} search modes. The keyword
+ * index is shared by all copies of this memory.
+ *
+ * <p>A store cannot list the records of a collection, so the keyword index of a collection can only
+ * be built by the memory creating the collection. Keyword searches of a collection which existed
+ * before fail with {@link MemoryException.ErrorCodes#COLLECTION_NOT_INDEXED}. Records written to
+ * the store without going through this memory or its copies are not found by keyword.
+ */
 public class DefaultSemanticTextMemory implements SemanticTextMemory {
 
+    /** Rank constant of reciprocal rank fusion, dampens the weight of the top ranks. */
+    private static final int RRF_K = 60;
+
     @Nonnull private final EmbeddingGeneration<String, Float> _embeddingGenerator;
     @Nonnull private /*final*/ MemoryStore _storage;
+    @Nonnull private final Map<String, Bm25Index> _lexicalIndexes;
 
     public DefaultSemanticTextMemory(
             @Nonnull MemoryStore storage,
             @Nonnull EmbeddingGeneration<String, Float> embeddingGenerator) {
+        this(storage, embeddingGenerator, new ConcurrentHashMap<>());
+    }
+
+    private DefaultSemanticTextMemory(
+            @Nonnull MemoryStore storage,
+            @Nonnull EmbeddingGeneration<String, Float> embeddingGenerator,
+            @Nonnull Map<String, Bm25Index> lexicalIndexes) {
         this._embeddingGenerator = embeddingGenerator;
         // TODO: this assignment raises EI_EXPOSE_REP2 in spotbugs (filtered out for now)
         this._storage = storage;
+        this._lexicalIndexes = lexicalIndexes;
     }
 
     @Override
     public SemanticTextMemory copy() {
         // TODO: this is a shallow copy. Should it be a deep copy?
-        return new DefaultSemanticTextMemory(this._storage, this._embeddingGenerator);
+        return new DefaultSemanticTextMemory(
+                this._storage, this._embeddingGenerator, this._lexicalIndexes);
     }
 
     @Override
@@ -40,36 +74,38 @@ public class DefaultSemanticTextMemory implements SemanticTextMemory {
             @Nonnull String id,
             @Nullable String description,
             @Nullable String additionalMetadata) {
-        return Mono.error(new NotSupportedException("Pending implementation"));
-        //        var embedding = await this._embeddingGenerator.GenerateEmbeddingAsync(text,
-        // cancellationToken: cancel);
-        //        MemoryRecord data = MemoryRecord.LocalRecord(
-        //                id: id, text: text, description: description, additionalMetadata:
-        // additionalMetadata, embedding: embedding);
-        //
-        //        if (!(await this._storage.DoesCollectionExistAsync(collection, cancel)))
-        //        {
-        //            await this._storage.CreateCollectionAsync(collection, cancel);
-        //        }
-        //
-        //        return await this._storage.UpsertAsync(collection, record: data, cancel: cancel);
+        return generateEmbeddingAsync(text)
+                .map(
+                        embedding ->
+                                MemoryRecord.localRecord(
+                                        id,
+                                        text,
+                                        description,
+                                        embedding,
+                                        additionalMetadata,
+                                        null,
+                                        null))
+                .flatMap(record -> upsertAsync(collection, record, text));
     }
 
     @Override
     public Mono<MemoryQueryResult> getAsync(String collection, String key, boolean withEmbedding) {
-        return Mono.error(new NotSupportedException("Pending implementation"));
-        //        MemoryRecord? record = await this._storage.GetAsync(collection, key,
-        // withEmbedding, cancel);
-        //
-        //        if (record == null) { return null; }
-        //
-        //        return MemoryQueryResult.FromMemoryRecord(record, 1);
+        return this._storage
+                .getAsync(collection, key, withEmbedding)
+                .map(record -> MemoryQueryResult.fromMemoryRecord(record, 1));
     }
 
     @Override
     public Mono<Void> removeAsync(@Nonnull String collection, @Nonnull String key) {
-        return Mono.error(new NotSupportedException("Pending implementation"));
-        //        await this._storage.RemoveAsync(collection, key, cancel);
+        return this._storage
+                .removeAsync(collection, key)
+                .doOnSuccess(
+                        ignored -> {
+                            Bm25Index index = this._lexicalIndexes.get(collection);
+                            if (index != null) {
+                                index.remove(key);
+                            }
+                        });
     }
 
     @Override
@@ -79,29 +115,61 @@ public class DefaultSemanticTextMemory implements SemanticTextMemory {
             int limit,
             double minRelevanceScore,
             boolean withEmbeddings) {
-        return Mono.error(new NotSupportedException("Pending implementation"));
-        //        Embedding<float> queryEmbedding = await
-        // this._embeddingGenerator.GenerateEmbeddingAsync(query, cancellationToken: cancel);
-        //
-        //        IAsyncEnumerable<(MemoryRecord, double)> results =
-        // this._storage.GetNearestMatchesAsync(
-        //                collectionName: collection,
-        //                embedding: queryEmbedding,
-        //                limit: limit,
-        //                minRelevanceScore: minRelevanceScore,
-        //                withEmbeddings: withEmbeddings,
-        //                cancel: cancel);
-        //
-        //        await foreach ((MemoryRecord, double) result in results.WithCancellation(cancel))
-        //        {
-        //            yield return MemoryQueryResult.FromMemoryRecord(result.Item1, result.Item2);
-        //        }
+        return searchAsync(
+                collection,
+                query,
+                limit,
+                minRelevanceScore,
+                withEmbeddings,
+                MemorySearchMode.VECTOR);
+    }
 
+    @Override
+    public Mono<List<MemoryQueryResult>> searchAsync(
+            @Nonnull String collection,
+            @Nonnull String query,
+            int limit,
+            double minRelevanceScore,
+            boolean withEmbeddings,
+            @Nonnull MemorySearchMode mode) {
+        return Instrumentations.observe(
+                Instrumentation.MEMORY_SEARCH,
+                search(collection, query, limit, minRelevanceScore, withEmbeddings, mode),
+                Instrumentation.MODE_TAG,
+                mode.name());
+    }
+
+    private Mono<List<MemoryQueryResult>> search(
+            String collection,
+            String query,
+            int limit,
+            double minRelevanceScore,
+            boolean withEmbeddings,
+            MemorySearchMode mode) {
+        switch (mode) {
+            case LEXICAL:
+                return lexicalSearchAsync(collection, query, limit, minRelevanceScore);
+            case HYBRID:
+                // A memory is a candidate when it passes the threshold in either search
+                return Mono.zip(
+                                vectorSearchAsync(
+                                        collection,
+                                        query,
+                                        limit,
+                                        minRelevanceScore,
+                                        withEmbeddings),
+                                lexicalSearchAsync(collection, query, limit, minRelevanceScore))
+                        .map(results -> fuse(results.getT1(), results.getT2(), limit));
+            case VECTOR:
+            default:
+                return vectorSearchAsync(
+                        collection, query, limit, minRelevanceScore, withEmbeddings);
+        }
     }
 
     @Override
     public Mono<List<String>> getCollectionsAsync() {
-        return Mono.error(new NotSupportedException("Pending implementation"));
+        return this._storage.getCollectionsAsync().map(ArrayList::new);
     }
 
     @Override
@@ -112,24 +180,135 @@ public class DefaultSemanticTextMemory implements SemanticTextMemory {
             @Nonnull String externalSourceName,
             @Nullable String description,
             @Nullable String additionalMetadata) {
-
-        return Mono.error(new NotSupportedException("Pending implementation"));
-        //        var embedding = await this._embeddingGenerator.GenerateEmbeddingAsync(text,
-        // cancellationToken: cancel);
-        //        var data = MemoryRecord.ReferenceRecord(externalId: externalId, sourceName:
-        // externalSourceName, description: description,
-        //            additionalMetadata: additionalMetadata, embedding: embedding);
-        //
-        //        if (!(await this._storage.DoesCollectionExistAsync(collection, cancel)))
-        //        {
-        //            await this._storage.CreateCollectionAsync(collection, cancel);
-        //        }
-        //
-        //        return await this._storage.UpsertAsync(collection, record: data, cancel: cancel);
+        return generateEmbeddingAsync(text)
+                .map(
+                        embedding ->
+                                MemoryRecord.referenceRecord(
+                                        externalId,
+                                        externalSourceName,
+                                        description,
+                                        embedding,
+                                        additionalMetadata,
+                                        null,
+                                        null))
+                .flatMap(record -> upsertAsync(collection, record, text));
     }
 
     @Override
     public SemanticTextMemory merge(MemoryQueryResult b) {
         throw new NotSupportedException("Pending implementation");
     }
+
+    private Mono<Embedding<Float>> generateEmbeddingAsync(String text) {
+        return this._embeddingGenerator
+                .generateEmbeddingsAsync(Collections.singletonList(text))
+                .map(embeddings -> embeddings.get(0));
+    }
+
+    private Mono<String> upsertAsync(String collection, MemoryRecord record, String text) {
+        return this._storage
+                .doesCollectionExistAsync(collection)
+                .flatMap(
+                        exists ->
+                                exists
+                                        ? Mono.<Void>empty()
+                                        : this._storage
+                                                .createCollectionAsync(collection)
+                                                .doOnSuccess(
+                                                        ignored ->
+                                                                this._lexicalIndexes.putIfAbsent(
+                                                                        collection,
+                                                                        new Bm25Index())))
+                .then(Mono.defer(() -> this._storage.upsertAsync(collection, record)))
+                .doOnNext(
+                        key -> {
+                            Bm25Index index = this._lexicalIndexes.get(collection);
+                            if (index != null) {
+                                index.put(
+                                        key,
+                                        record.getMetadata(),
+                                        text + "\n" + record.getMetadata().getDescription());
+                            }
+                        });
+    }
+
+    private Mono<List<MemoryQueryResult>> vectorSearchAsync(
+            String collection,
+            String query,
+            int limit,
+            double minRelevanceScore,
+            boolean withEmbeddings) {
+        return generateEmbeddingAsync(query)
+                .flatMap(
+                        embedding ->
+                                this._storage.getNearestMatchesAsync(
+                                        collection,
+                                        embedding,
+                                        limit,
+                                        minRelevanceScore,
+                                        withEmbeddings))
+                .map(
+                        matches ->
+                                matches.stream()
+                                        .map(
+                                                match ->
+                                                        MemoryQueryResult.fromMemoryRecord(
+                                                                match.getT1(), match.getT2()))
+                                        .collect(Collectors.toList()));
+    }
+
+    /** Keyword search, see {@link Bm25Index#search} for the relevance of the matches. */
+    private Mono<List<MemoryQueryResult>> lexicalSearchAsync(
+            String collection, String query, int limit, double minRelevanceScore) {
+        Bm25Index index = this._lexicalIndexes.get(collection);
+        if (index == null) {
+            return this._storage
+                    .doesCollectionExistAsync(collection)
+                    .flatMap(
+                            exists ->
+                                    exists
+                                            ? Mono.error(
+                                                    new MemoryException(
+                                                            MemoryException.ErrorCodes
+                                                                    .COLLECTION_NOT_INDEXED,
+                                                            collection))
+                                            : Mono.just(Collections.emptyList()));
+        }
+        return Mono.fromCallable(
+                () ->
+                        index.search(query, limit).stream()
+                                .filter(match -> match.getT2() >= minRelevanceScore)
+                                .map(match -> new MemoryQueryResult(match.getT1(), match.getT2()))
+                                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Reciprocal rank fusion of the vector and keyword rankings. The fused score is scaled so that
+     * a memory ranked first by both searches has a relevance of 1. It depends on ranks only, the
+     * relevance threshold is applied to each ranking beforehand.
+     */
+    private static List<MemoryQueryResult> fuse(
+            List<MemoryQueryResult> vectorResults,
+            List<MemoryQueryResult> lexicalResults,
+            int limit) {
+        Map<String, MemoryRecordMetadata> metadata = new LinkedHashMap<>();
+        Map<String, Double> scores = new LinkedHashMap<>();
+        for (List<MemoryQueryResult> ranking : Arrays.asList(vectorResults, lexicalResults)) {
+            for (int rank = 0; rank < ranking.size(); rank++) {
+                MemoryRecordMetadata m = ranking.get(rank).getMetadata();
+                metadata.putIfAbsent(m.getId(), m);
+                scores.merge(m.getId(), 1.0 / (RRF_K + rank + 1), Double::sum);
+            }
+        }
+
+        double maxScore = 2.0 / (RRF_K + 1);
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<String, Double>comparingByValue(Comparator.reverseOrder()))
+                .limit(limit)
+                .map(
+                        entry ->
+                                new MemoryQueryResult(
+                                        metadata.get(entry.getKey()), entry.getValue() / maxScore))
+                .collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,272 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.memory;
+
+import com.microsoft.semantickernel.ai.embeddings.Embedding;
+
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Inverted indexes over the records of a single memory collection.
+ *
+ * <p>Every record is assigned a dense ordinal, and each indexed metadata value maps to the set of
+ * ordinals holding it. A {@link MemoryRecordFilter} is resolved into a {@link BitSet} of eligible
+ * ordinals before any similarity is computed, so only matching records are scored. Vectors are kept
+ * as primitive arrays together with their norm to avoid unboxing during scoring.
+ *
+ * <p>All methods are synchronized, the index is shared by all readers and writers of a collection.
+ */
+final class MemoryRecordIndex {
+
+    private final Map<String, Integer> ordinals = new HashMap<>();
+    private final List<MemoryRecord> records = new ArrayList<>();
+    private final List<float[]> vectors = new ArrayList<>();
+    private final List<Double> norms = new ArrayList<>();
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+
+    private final BitSet live = new BitSet();
+    private final BitSet references = new BitSet();
+    private final Map<String, BitSet> byExternalSourceName = new HashMap<>();
+    private final Map<String, Map<String, BitSet>> byAdditionalMetadata = new HashMap<>();
+    private final TreeMap<Long, BitSet> byTimestamp = new TreeMap<>();
+
+    synchronized void put(@Nonnull String key, @Nonnull MemoryRecord record) {
+        remove(key);
+
+        int ordinal;
+        if (freeOrdinals.isEmpty()) {
+            ordinal = records.size();
+            records.add(record);
+            vectors.add(null);
+            norms.add(0.0);
+        } else {
+            ordinal = freeOrdinals.pop();
+            records.set(ordinal, record);
+        }
+        ordinals.put(key, ordinal);
+
+        float[] vector = record.getEmbedding().toFloatArray();
+        vectors.set(ordinal, vector);
+        norms.set(ordinal, norm(vector));
+
+        live.set(ordinal);
+        MemoryRecordMetadata metadata = record.getMetadata();
+        if (metadata.isReference()) {
+            references.set(ordinal);
+        }
+        byExternalSourceName
+                .computeIfAbsent(metadata.getExternalSourceName(), k -> new BitSet())
+                .set(ordinal);
+        MemoryRecordFilter.parseAdditionalMetadata(metadata.getAdditionalMetadata())
+                .forEach(
+                        (field, value) ->
+                                byAdditionalMetadata
+                                        .computeIfAbsent(field, k -> new HashMap<>())
+                                        .computeIfAbsent(value, k -> new BitSet())
+                                        .set(ordinal));
+        ZonedDateTime timestamp = record.getTimestamp();
+        if (timestamp != null) {
+            byTimestamp
+                    .computeIfAbsent(timestamp.toInstant().toEpochMilli(), k -> new BitSet())
+                    .set(ordinal);
+        }
+    }
+
+    synchronized void remove(@Nonnull String key) {
+        Integer ordinal = ordinals.remove(key);
+        if (ordinal == null) {
+            return;
+        }
+        MemoryRecord record = records.get(ordinal);
+        MemoryRecordMetadata metadata = record.getMetadata();
+
+        live.clear(ordinal);
+        references.clear(ordinal);
+        clear(byExternalSourceName, metadata.getExternalSourceName(), ordinal);
+        MemoryRecordFilter.parseAdditionalMetadata(metadata.getAdditionalMetadata())
+                .forEach(
+                        (field, value) -> {
+                            Map<String, BitSet> values = byAdditionalMetadata.get(field);
+                            if (values != null) {
+                                clear(values, value, ordinal);
+                                if (values.isEmpty()) {
+                                    byAdditionalMetadata.remove(field);
+                                }
+                            }
+                        });
+        ZonedDateTime timestamp = record.getTimestamp();
+        if (timestamp != null) {
+            clear(byTimestamp, timestamp.toInstant().toEpochMilli(), ordinal);
+        }
+
+        records.set(ordinal, null);
+        vectors.set(ordinal, null);
+        freeOrdinals.push(ordinal);
+    }
+
+    /**
+     * Resolves a filter into the set of eligible ordinals.
+     *
+     * @param filter The filter, or {@code null} for all records
+     * @return A new bit set that the caller may modify
+     */
+    synchronized BitSet select(@Nullable MemoryRecordFilter filter) {
+        if (filter == null) {
+            return (BitSet) live.clone();
+        }
+        BitSet selected = filter.accept(new BitSetVisitor());
+        selected.and(live);
+        return selected;
+    }
+
+    /**
+     * Scores the records that match the filter against the given embedding.
+     *
+     * @return Up to {@code limit} records ordered by descending cosine similarity
+     */
+    synchronized List<Tuple2<MemoryRecord, Double>> nearest(
+            @Nonnull Embedding<Float> embedding,
+            int limit,
+            double minRelevanceScore,
+            @Nullable MemoryRecordFilter filter) {
+        float[] query = embedding.toFloatArray();
+        double queryNorm = norm(query);
+        if (limit <= 0 || queryNorm == 0) {
+            return Collections.emptyList();
+        }
+
+        BitSet eligible = select(filter);
+        // The limit may be far larger than the number of records, e.g. when it is unbounded
+        int capacity = Math.min(limit, eligible.cardinality()) + 1;
+        PriorityQueue<Tuple2<MemoryRecord, Double>> top =
+                new PriorityQueue<>(capacity, Comparator.comparing(Tuple2::getT2));
+        for (int i = eligible.nextSetBit(0); i >= 0; i = eligible.nextSetBit(i + 1)) {
+            float[] vector = vectors.get(i);
+            double norm = norms.get(i);
+            if (norm == 0) {
+                continue;
+            }
+            if (vector.length != query.length) {
+                throw new IllegalArgumentException("Vectors lengths must be equal");
+            }
+            double dot = 0;
+            for (int j = 0; j < query.length; j++) {
+                dot += (double) query[j] * vector[j];
+            }
+            double similarity = dot / (queryNorm * norm);
+            if (similarity >= minRelevanceScore) {
+                top.add(Tuples.of(records.get(i), similarity));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        }
+
+        List<Tuple2<MemoryRecord, Double>> result = new ArrayList<>(top);
+        result.sort(Comparator.comparing((Tuple2<MemoryRecord, Double> t) -> t.getT2()).reversed());
+        return result;
+    }
+
+    private static <K> void clear(Map<K, BitSet> index, K key, int ordinal) {
+        BitSet bits = index.get(key);
+        if (bits != null) {
+            bits.clear(ordinal);
+            if (bits.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static double norm(float[] vector) {
+        double sum = 0;
+        for (float v : vector) {
+            sum += (double) v * v;
+        }
+        return Math.sqrt(sum);
+    }
+
+    /** Evaluates a filter expression against the inverted indexes, must be called under lock. */
+    private class BitSetVisitor implements MemoryRecordFilter.Visitor<BitSet> {
+
+        @Override
+        public BitSet visitExternalSourceName(String externalSourceName) {
+            return copyOf(byExternalSourceName.get(externalSourceName));
+        }
+
+        @Override
+        public BitSet visitIsReference(boolean isReference) {
+            BitSet result = (BitSet) references.clone();
+            if (!isReference) {
+                result.flip(0, live.length());
+                result.and(live);
+            }
+            return result;
+        }
+
+        @Override
+        public BitSet visitAdditionalMetadata(String field, String value) {
+            Map<String, BitSet> values = byAdditionalMetadata.get(field);
+            return copyOf(values != null ? values.get(value) : null);
+        }
+
+        @Override
+        public BitSet visitTimestampRange(long fromEpochMilli, long toEpochMilli) {
+            BitSet result = new BitSet();
+            if (fromEpochMilli < toEpochMilli) {
+                byTimestamp
+                        .subMap(fromEpochMilli, true, toEpochMilli, false)
+                        .values()
+                        .forEach(result::or);
+            }
+            return result;
+        }
+
+        @Override
+        public BitSet visitAnd(List<MemoryRecordFilter> filters) {
+            BitSet result = (BitSet) live.clone();
+            for (MemoryRecordFilter filter : filters) {
+                if (result.isEmpty()) {
+                    break;
+                }
+                result.and(filter.accept(this));
+            }
+            return result;
+        }
+
+        @Override
+        public BitSet visitOr(List<MemoryRecordFilter> filters) {
+            BitSet result = new BitSet();
+            for (MemoryRecordFilter filter : filters) {
+                result.or(filter.accept(this));
+            }
+            return result;
+        }
+
+        @Override
+        public BitSet visitNot(MemoryRecordFilter filter) {
+            BitSet result = (BitSet) live.clone();
+            result.andNot(filter.accept(this));
+            return result;
+        }
+
+        private BitSet copyOf(@Nullable BitSet bits) {
+            return bits != null ? (BitSet) bits.clone() : new BitSet();
+        }
+    }
+}
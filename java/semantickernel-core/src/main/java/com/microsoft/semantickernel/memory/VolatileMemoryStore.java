@@ -2,24 +2,28 @@
 package com.microsoft.semantickernel.memory;
 
 import com.microsoft.semantickernel.ai.embeddings.Embedding;
-import com.microsoft.semantickernel.exceptions.NotSupportedException;
 
 import reactor.core.publisher.Mono;
 import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
 
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 /** A simple volatile memory embeddings store. */
 public class VolatileMemoryStore implements MemoryStore {
 
     private final Map<String, Map<String, MemoryRecord>> _store = new ConcurrentHashMap<>();
+    private final Map<String, MemoryRecordIndex> _indexes = new ConcurrentHashMap<>();
 
     /** Constructs a new {@link VolatileMemoryStore} object. */
     public VolatileMemoryStore() {}
@@ -31,6 +35,7 @@ public class VolatileMemoryStore implements MemoryStore {
                     MemoryException.ErrorCodes.FAILED_TO_CREATE_COLLECTION,
                     String.format("Could not create collection %s", collectionName));
         }
+        this._indexes.putIfAbsent(collectionName, new MemoryRecordIndex());
         this._store.putIfAbsent(collectionName, new ConcurrentHashMap<>());
         return Mono.empty();
     }
@@ -53,6 +58,7 @@ public class VolatileMemoryStore implements MemoryStore {
                     String.format("Could not delete collection %s", collectionName));
         }
         this._store.remove(collectionName);
+        this._indexes.remove(collectionName);
         return Mono.empty();
     }
 
@@ -69,6 +75,7 @@ public class VolatileMemoryStore implements MemoryStore {
         //     If the record already exists, it will be updated.
         //     If the record does not exist, it will be created.
         collection.put(key, record);
+        getIndex(collectionName).put(key, record);
         return Mono.just(key);
     }
 
@@ -76,6 +83,7 @@ public class VolatileMemoryStore implements MemoryStore {
     public Mono<Collection<String>> upsertBatchAsync(
             @Nonnull String collectionName, @Nonnull Collection<MemoryRecord> records) {
         Map<String, MemoryRecord> collection = getCollection(collectionName);
+        MemoryRecordIndex index = getIndex(collectionName);
         Set<String> keys = new HashSet<>();
         records.forEach(
                 record -> {
@@ -86,6 +94,7 @@ public class VolatileMemoryStore implements MemoryStore {
                     //     If the record already exists, it will be updated.
                     //     If the record does not exist, it will be created.
                     collection.put(key, record);
+                    index.put(key, record);
                     keys.add(key);
                 });
         return Mono.just(keys);
@@ -141,6 +150,7 @@ public class VolatileMemoryStore implements MemoryStore {
     public Mono<Void> removeAsync(@Nonnull String collectionName, @Nonnull String key) {
         Map<String, MemoryRecord> collection = getCollection(collectionName);
         collection.remove(key);
+        getIndex(collectionName).remove(key);
         return Mono.empty();
     }
 
@@ -148,7 +158,12 @@ public class VolatileMemoryStore implements MemoryStore {
     public Mono<Void> removeBatchAsync(
             @Nonnull String collectionName, @Nonnull Collection<String> keys) {
         Map<String, MemoryRecord> collection = getCollection(collectionName);
-        keys.forEach(key -> collection.remove(key));
+        MemoryRecordIndex index = getIndex(collectionName);
+        keys.forEach(
+                key -> {
+                    collection.remove(key);
+                    index.remove(key);
+                });
         return Mono.empty();
     }
 
@@ -159,59 +174,41 @@ public class VolatileMemoryStore implements MemoryStore {
             int limit,
             double minRelevanceScore,
             boolean withEmbeddings) {
+        return getNearestMatchesAsync(
+                collectionName, embedding, limit, minRelevanceScore, withEmbeddings, null);
+    }
+
+    @Override
+    public Mono<Collection<Tuple2<MemoryRecord, Double>>> getNearestMatchesAsync(
+            @Nonnull String collectionName,
+            @Nonnull Embedding<Float> embedding,
+            int limit,
+            double minRelevanceScore,
+            boolean withEmbeddings,
+            @Nullable MemoryRecordFilter filter) {
+        if (limit <= 0) {
+            return Mono.just(Collections.emptyList());
+        }
 
-        return Mono.error(new NotSupportedException("Pending implementation"));
-        //        if (limit <= 0) {
-        //            return Mono.just(Collections.emptyList());
-        //        }
-        //
-        //        Map<String,MemoryRecord> collection = getCollection(collectionName);
-        //        Collection<MemoryRecord> embeddingCollection = collection.values();
-        //        if (embeddingCollection == null || embeddingCollection.isEmpty()) {
-        //            return Mono.just(Collections.emptyList());
-        //        }
-        //
-        //        List<Tuple2<MemoryRecord, Double>> nearestMatches = new ArrayList<>();
-        //        embeddingCollection.forEach(record -> {
-        //            if (record != null) {
-        //                double similarity = embedding.cosineSimilarity(record.getEmbedding());
-        //                if (similarity >= minRelevanceScore) {
-        //                    if (withEmbeddings) {
-        //                        nearestMatches.add(new Tuple2<>(record, similarity));
-        //                    } else {
-        //                        nearestMatches.add(new
-        // Tuple2<>(MemoryRecord.fromMetadata(record.getMetadata(), null,
-        // record.getMetadata().getId(), record.getTimestamp()), similarity));
-        //                    }
-        //                }
-        //            }
-        //        });
-        //
-        //
-        //        EmbeddingReadOnlySpan<Float> embeddingSpan = new(embedding.AsReadOnlySpan());
-        //
-        //        TopNCollection<MemoryRecord> embeddings = new(limit);
-        //
-        //        foreach (var record in embeddingCollection)
-        //        {
-        //            if (record != null)
-        //            {
-        //                double similarity = embedding
-        //                    .AsReadOnlySpan()
-        //                    .CosineSimilarity(record.Embedding.AsReadOnlySpan());
-        //                if (similarity >= minRelevanceScore)
-        //                {
-        //                    var entry = withEmbeddings ? record :
-        // MemoryRecord.FromMetadata(record.Metadata, Embedding<Float>.Empty, record.Key,
-        // record.Timestamp);
-        //                    embeddings.Add(new(entry, similarity));
-        //                }
-        //            }
-        //        }
-        //
-        //        embeddings.SortByScore();
-        //
-        //        return embeddings.Select(x => (x.Value, x.Score.Value)).ToAsyncEnumerable();
+        // Records that do not match the filter are excluded by the index before scoring
+        List<Tuple2<MemoryRecord, Double>> nearestMatches =
+                getIndex(collectionName).nearest(embedding, limit, minRelevanceScore, filter);
+
+        if (withEmbeddings) {
+            return Mono.just(nearestMatches);
+        }
+        return Mono.just(
+                nearestMatches.stream()
+                        .map(
+                                match ->
+                                        Tuples.of(
+                                                MemoryRecord.fromMetadata(
+                                                        match.getT1().getMetadata(),
+                                                        null,
+                                                        match.getT1().getMetadata().getId(),
+                                                        match.getT1().getTimestamp()),
+                                                match.getT2()))
+                        .collect(Collectors.toList()));
     }
 
     @Override
@@ -220,15 +217,15 @@ public class VolatileMemoryStore implements MemoryStore {
             @Nonnull Embedding<Float> embedding,
             double minRelevanceScore,
             boolean withEmbedding) {
-        return Mono.error(new NotSupportedException("Pending implementation"));
-        //        return await this.GetNearestMatchesAsync(
-        //            collectionName: collectionName,
-        //            embedding: embedding,
-        //            limit: 1,
-        //            minRelevanceScore: minRelevanceScore,
-        //            withEmbeddings: withEmbedding,
-        //            cancellationToken:
-        // cancellationToken).FirstOrDefaultAsync(cancellationToken).ConfigureAwait(false);
+        return getNearestMatchesAsync(
+                        collectionName, embedding, 1, minRelevanceScore, withEmbedding, null)
+                .flatMap(matches -> Mono.justOrEmpty(matches.stream().findFirst()));
+    }
+
+    private MemoryRecordIndex getIndex(@Nonnull String collectionName) {
+        // Validates that the collection exists
+        getCollection(collectionName);
+        return this._indexes.computeIfAbsent(collectionName, k -> new MemoryRecordIndex());
     }
 
     protected Map<String, MemoryRecord> getCollection(@Nonnull String collectionName) {
@@ -0,0 +1,87 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.orchestration;
+
+import com.microsoft.semantickernel.diagnostics.Instrumentation;
+import com.microsoft.semantickernel.diagnostics.Instrumentations;
+import com.microsoft.semantickernel.skilldefinition.annotations.DefineSKFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.lang.reflect.Method;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scheduling of the native functions declared blocking, and detection of those that block without
+ * being declared so.
+ */
+final class BlockingFunctions {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BlockingFunctions.class);
+
+    // Time a function may hold a non-blocking thread before it is reported as blocking
+    private static final long BlockingThresholdNanos = TimeUnit.MILLISECONDS.toNanos(20);
+
+    // Functions already reported, each is logged once
+    private static final Set<Method> Reported = ConcurrentHashMap.newKeySet();
+
+    private BlockingFunctions() {}
+
+    /** Scheduler of the blocking functions, created on first use. */
+    private static final class SchedulerHolder {
+        private static final Scheduler SCHEDULER = create();
+
+        private static Scheduler create() {
+            try {
+                // JDK 21+, looked up at runtime as the code targets Java 8
+                ExecutorService executor =
+                        (ExecutorService)
+                                Executors.class
+                                        .getMethod("newVirtualThreadPerTaskExecutor")
+                                        .invoke(null);
+                return Schedulers.fromExecutorService(executor, "sk-blocking-functions");
+            } catch (ReflectiveOperationException e) {
+                return Schedulers.boundedElastic();
+            }
+        }
+    }
+
+    /**
+     * @return The scheduler the blocking functions are invoked on, virtual threads when the JDK has
+     *     them, the bounded elastic scheduler otherwise
+     */
+    static Scheduler scheduler() {
+        return SchedulerHolder.SCHEDULER;
+    }
+
+    /**
+     * Reports a function that held a non-blocking thread for longer than the threshold.
+     *
+     * @param method The method of the function
+     * @param elapsedNanos How long the method ran
+     */
+    static void check(Method method, long elapsedNanos) {
+        if (elapsedNanos < BlockingThresholdNanos) {
+            return;
+        }
+
+        String name = method.getAnnotation(DefineSKFunction.class).name();
+        Instrumentations.increment(
+                Instrumentation.NON_BLOCKING_THREAD_BLOCKED, 1, Instrumentation.FUNCTION_TAG, name);
+        if (Reported.add(method)) {
+            LOGGER.warn(
+                    "The native function {} held the non-blocking thread {} for {} ms, declare it"
+                            + " blocking",
+                    name,
+                    Thread.currentThread().getName(),
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        }
+    }
+}
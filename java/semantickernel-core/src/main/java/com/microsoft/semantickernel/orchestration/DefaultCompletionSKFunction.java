@@ -2,6 +2,8 @@
 package com.microsoft.semantickernel.orchestration; // Copyright (c) Microsoft. All rights reserved.
 
 import com.microsoft.semantickernel.Kernel;
+import com.microsoft.semantickernel.ai.AIException;
+import com.microsoft.semantickernel.memory.NullMemory;
 import com.microsoft.semantickernel.memory.SemanticTextMemory;
 import com.microsoft.semantickernel.semanticfunctions.DefaultPromptTemplate;
 import com.microsoft.semantickernel.semanticfunctions.PromptTemplate;
@@ -10,13 +12,26 @@ import com.microsoft.semantickernel.semanticfunctions.SemanticFunctionConfig;
 import com.microsoft.semantickernel.skilldefinition.KernelSkillsSupplier;
 import com.microsoft.semantickernel.skilldefinition.ParameterView;
 import com.microsoft.semantickernel.skilldefinition.ReadOnlySkillCollection;
+import com.microsoft.semantickernel.templateengine.PromptTemplateEngine;
 import com.microsoft.semantickernel.textcompletion.CompletionRequestSettings;
 import com.microsoft.semantickernel.textcompletion.CompletionSKContext;
 import com.microsoft.semantickernel.textcompletion.CompletionSKFunction;
 import com.microsoft.semantickernel.textcompletion.TextCompletion;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.context.ContextView;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -31,11 +46,17 @@ import javax.annotation.Nullable;
 public class DefaultCompletionSKFunction
         extends DefaultSemanticSKFunction<CompletionRequestSettings, CompletionSKContext>
         implements CompletionSKFunction {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DefaultCompletionSKFunction.class);
+
+    // Longest a prompt of a batch call waits for the batch to fill
+    private static final Duration MaxBatchWait = Duration.ofMillis(100);
+
     private final SemanticFunctionConfig functionConfig;
     private SKSemanticAsyncTask<CompletionSKContext> function;
     private final CompletionRequestSettings requestSettings;
 
     @Nullable private DefaultTextCompletionSupplier aiService;
+    @Nullable private PromptTemplateEngine promptTemplateEngine;
 
     public DefaultCompletionSKFunction(
             DelegateTypes delegateTypes,
@@ -120,17 +141,256 @@ public class DefaultCompletionSKFunction
             settings = this.requestSettings;
         }
 
-        if (this.aiService.get() == null) {
+        TextCompletion client = this.aiService != null ? this.aiService.get() : null;
+        if (client == null) {
             throw new IllegalStateException("Failed to initialise aiService");
         }
 
         CompletionRequestSettings finalSettings = settings;
 
-        return function.run(this.aiService.get(), finalSettings, context)
-                .map(
-                        result -> {
-                            return context.update(result.getVariables());
-                        });
+        return Mono.deferContextual(
+                reactorContext -> {
+                    Batcher batcher = reactorContext.getOrDefault(Batcher.class, null);
+                    // Settings changed by a filter cannot share the request of the batch
+                    if (batcher != null
+                            && batcher.function == this
+                            && batcher.settings == finalSettings
+                            && promptTemplateEngine != null) {
+                        return functionConfig
+                                .getTemplate()
+                                .renderAsync(context, promptTemplateEngine)
+                                .flatMap(batcher::completeAsync)
+                                .map(context::update)
+                                .doOnError(this::logFailure);
+                    }
+                    return function.run(client, finalSettings, context)
+                            .map(
+                                    result -> {
+                                        return context.update(result.getVariables());
+                                    });
+                });
+    }
+
+    @Override
+    public Flux<String> invokeStreamAsync(
+            CompletionSKContext context, @Nullable CompletionRequestSettings settings) {
+        if (promptTemplateEngine == null || aiService == null) {
+            throw new FunctionNotRegisteredException(this.getName());
+        }
+
+        TextCompletion client = this.aiService.get();
+        if (client == null) {
+            throw new IllegalStateException("Failed to initialise aiService");
+        }
+
+        CompletionRequestSettings finalSettings = settings != null ? settings : requestSettings;
+
+        return Deadlines.apply(
+                functionConfig
+                        .getTemplate()
+                        .renderAsync(context.copy(), promptTemplateEngine)
+                        .flatMapMany(prompt -> client.completeStreamAsync(prompt, finalSettings)),
+                context.getDeadline());
+    }
+
+    /**
+     * Invokes the function on each of the inputs. Each input is an invocation of its own, run
+     * through the function filters of the kernel, instrumented and bounded by the deadlines like
+     * {@link #invokeAsync(SKContext, Object)}; only the completion requests are shared. A batch is
+     * sent once it is full, once every invocation in flight is waiting for it and no more input can
+     * arrive before one of them ends, or once its first prompt has waited for 100ms.
+     */
+    @Override
+    public Flux<CompletionSKContext> invokeBatchAsync(
+            Flux<ContextVariables> inputs,
+            @Nullable CompletionRequestSettings settings,
+            int batchSize,
+            int maxConcurrency) {
+        if (promptTemplateEngine == null || aiService == null) {
+            throw new FunctionNotRegisteredException(this.getName());
+        }
+        if (batchSize < 1 || maxConcurrency < 1) {
+            throw new IllegalArgumentException("The batch size and concurrency must be positive");
+        }
+        assertSkillSupplierRegistered();
+
+        TextCompletion client = this.aiService.get();
+        if (client == null) {
+            throw new IllegalStateException("Failed to initialise aiService");
+        }
+
+        CompletionRequestSettings finalSettings = settings != null ? settings : requestSettings;
+        ReadOnlySkillCollection skills = getSkillsSupplier().get();
+
+        // The contexts of the batch are new, only the deadline of the enclosing invocation applies
+        return Deadlines.apply(
+                Flux.deferContextual(
+                        reactorContext -> {
+                            Batcher batcher = new Batcher(this, client, finalSettings, batchSize);
+                            Disposable requests = batcher.start(maxConcurrency, reactorContext);
+                            return inputs.map(
+                                            variables ->
+                                                    buildContext(
+                                                            variables,
+                                                            NullMemory.getInstance(),
+                                                            skills))
+                                    .doOnRequest(batcher::requested)
+                                    .doOnNext(context -> batcher.received())
+                                    .doOnComplete(batcher::completed)
+                                    .flatMapSequential(
+                                            context -> batcher.invokeAsync(context),
+                                            batchSize * maxConcurrency)
+                                    .doFinally(signal -> requests.dispose());
+                        }),
+                null);
+    }
+
+    /**
+     * Collects the prompts of the invocations of a batch call as they are rendered, and completes
+     * them in batches. Invocations find it in their Reactor context.
+     */
+    private static final class Batcher {
+        private final DefaultCompletionSKFunction function;
+        private final TextCompletion client;
+        private final CompletionRequestSettings settings;
+        private final int batchSize;
+        private final Sinks.Many<List<Tuple2<String, Sinks.One<String>>>> batches =
+                Sinks.many().unicast().onBackpressureBuffer();
+
+        // Guarded by this
+        private List<Tuple2<String, Sinks.One<String>>> pending = new ArrayList<>();
+        private Disposable linger = Disposables.disposed();
+        private int active = 0;
+        private long demand = 0;
+        private boolean completed = false;
+
+        private Batcher(
+                DefaultCompletionSKFunction function,
+                TextCompletion client,
+                CompletionRequestSettings settings,
+                int batchSize) {
+            this.function = function;
+            this.client = client;
+            this.settings = settings;
+            this.batchSize = batchSize;
+        }
+
+        private Disposable start(int maxConcurrency, ContextView reactorContext) {
+            Disposable requests =
+                    batches.asFlux()
+                            .flatMap(this::complete, maxConcurrency)
+                            // The requests keep the deadline of the batch call
+                            .contextWrite(inner -> inner.putAll(reactorContext))
+                            .subscribe();
+            return () -> {
+                requests.dispose();
+                synchronized (this) {
+                    linger.dispose();
+                }
+            };
+        }
+
+        /** Invokes the function on a context of the batch, through its filters. */
+        private Mono<CompletionSKContext> invokeAsync(CompletionSKContext context) {
+            return Mono.defer(
+                            () -> {
+                                synchronized (this) {
+                                    active++;
+                                }
+                                return function.invokeAsync(context, settings)
+                                        .contextWrite(inner -> inner.put(Batcher.class, this));
+                            })
+                    .doFinally(
+                            signal -> {
+                                synchronized (this) {
+                                    active--;
+                                    // An invocation a filter answered may leave the others waiting
+                                    flushIfWaiting();
+                                }
+                            });
+        }
+
+        private synchronized void requested(long n) {
+            demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+        }
+
+        private synchronized void received() {
+            if (demand != Long.MAX_VALUE) {
+                demand--;
+            }
+        }
+
+        private synchronized void completed() {
+            completed = true;
+            flushIfWaiting();
+        }
+
+        private Mono<String> completeAsync(String prompt) {
+            Sinks.One<String> completion = Sinks.one();
+            synchronized (this) {
+                pending.add(Tuples.of(prompt, completion));
+                if (pending.size() >= batchSize) {
+                    flush();
+                } else {
+                    if (pending.size() == 1) {
+                        List<Tuple2<String, Sinks.One<String>>> batch = pending;
+                        linger = Mono.delay(MaxBatchWait).subscribe(ignored -> lingered(batch));
+                    }
+                    flushIfWaiting();
+                }
+            }
+            return completion.asMono();
+        }
+
+        private void flushIfWaiting() {
+            // Until then, an input the inputs still owe could fill the batch
+            if (!pending.isEmpty() && pending.size() >= active && (completed || demand == 0)) {
+                flush();
+            }
+        }
+
+        private synchronized void lingered(List<Tuple2<String, Sinks.One<String>>> batch) {
+            // The batch may have been sent since
+            if (pending == batch) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            List<Tuple2<String, Sinks.One<String>>> batch = pending;
+            pending = new ArrayList<>();
+            linger.dispose();
+            batches.tryEmitNext(batch);
+        }
+
+        /** Completes the prompts of a batch in one request, and hands each its completion. */
+        private Mono<Void> complete(List<Tuple2<String, Sinks.One<String>>> batch) {
+            List<String> texts = new ArrayList<>(batch.size());
+            batch.forEach(it -> texts.add(it.getT1()));
+
+            return client.completeBatchAsync(texts, settings)
+                    .doOnNext(
+                            completions -> {
+                                for (int i = 0; i < batch.size(); i++) {
+                                    Sinks.One<String> completion = batch.get(i).getT2();
+                                    if (i >= completions.size() || completions.get(i).isEmpty()) {
+                                        completion.tryEmitError(
+                                                new AIException(
+                                                        AIException.ErrorCodes
+                                                                .InvalidResponseContent,
+                                                        "No completion for prompt "
+                                                                + i
+                                                                + " of the batch of "
+                                                                + function.toFullyQualifiedName()));
+                                    } else {
+                                        completion.tryEmitValue(completions.get(i).get(0));
+                                    }
+                                }
+                            })
+                    .doOnError(error -> batch.forEach(it -> it.getT2().tryEmitError(error)))
+                    .onErrorResume(error -> Mono.empty())
+                    .then();
+        }
     }
 
     @Override
@@ -154,22 +414,21 @@ public class DefaultCompletionSKFunction
                                     completion -> {
                                         return context.update(completion.get(0));
                                     })
-                            .doOnError(
-                                    ex -> {
-                                        System.err.println(ex.getMessage());
-                                        ex.printStackTrace();
-                                        // TODO
-                                        /*
-                                        log ?.LogWarning(ex,
-                                            "Something went wrong while rendering the semantic function or while executing the text completion. Function: {0}.{1}. Error: {2}",
-                                            skillName, functionName, ex.Message);
-                                        context.Fail(ex.Message, ex);
-                                         */
-                                    });
+                            .doOnError(this::logFailure);
                 };
 
         this.setSkillsSupplier(kernel::getSkills);
+        this.setFunctionFilters(kernel.getConfig().getFunctionFilters());
         this.aiService = () -> kernel.getService(null, TextCompletion.class);
+        this.promptTemplateEngine = kernel.getPromptTemplateEngine();
+    }
+
+    private void logFailure(Throwable ex) {
+        LOGGER.warn(
+                "Something went wrong while rendering the semantic function or while executing the"
+                        + " text completion. Function: {}",
+                toFullyQualifiedName(),
+                ex);
     }
 
     @Override
@@ -0,0 +1,63 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.orchestration;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * Least recently used cache of the results of a deterministic native function, keyed on the values
+ * of its parameters. The cache is bounded by the total number of characters of the keys and results
+ * it holds.
+ */
+final class MemoizedResults {
+
+    private final long maxChars;
+    private final LinkedHashMap<List<String>, String> entries =
+            new LinkedHashMap<>(16, 0.75f, true);
+    private long usedChars = 0;
+
+    MemoizedResults(long maxChars) {
+        this.maxChars = maxChars;
+    }
+
+    @Nullable
+    synchronized String get(List<String> arguments) {
+        return entries.get(arguments);
+    }
+
+    synchronized void put(List<String> arguments, String result) {
+        long chars = charsOf(arguments, result);
+        if (chars > maxChars) {
+            return;
+        }
+
+        String previous = entries.put(arguments, result);
+        if (previous != null) {
+            usedChars -= charsOf(arguments, previous);
+        }
+        usedChars += chars;
+
+        Iterator<Map.Entry<List<String>, String>> eldest = entries.entrySet().iterator();
+        while (usedChars > maxChars && eldest.hasNext()) {
+            Map.Entry<List<String>, String> entry = eldest.next();
+            usedChars -= charsOf(entry.getKey(), entry.getValue());
+            eldest.remove();
+        }
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private static long charsOf(List<String> arguments, String result) {
+        long chars = result.length();
+        for (String argument : arguments) {
+            chars += argument.length();
+        }
+        return chars;
+    }
+}
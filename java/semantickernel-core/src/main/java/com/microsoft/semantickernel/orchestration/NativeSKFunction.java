@@ -2,6 +2,7 @@
 package com.microsoft.semantickernel.orchestration; // Copyright (c) Microsoft. All rights reserved.
 
 import com.microsoft.semantickernel.Kernel;
+import com.microsoft.semantickernel.KernelException;
 import com.microsoft.semantickernel.memory.SemanticTextMemory;
 import com.microsoft.semantickernel.skilldefinition.KernelSkillsSupplier;
 import com.microsoft.semantickernel.skilldefinition.ParameterView;
@@ -10,9 +11,11 @@ import com.microsoft.semantickernel.skilldefinition.annotations.DefineSKFunction
 import com.microsoft.semantickernel.skilldefinition.annotations.SKFunctionParameters;
 
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -28,6 +31,9 @@ import javax.annotation.Nullable;
 /// </summary>
 public class NativeSKFunction extends AbstractSkFunction<Void, SemanticSKContext> {
 
+    // Characters of the parameters and results memoized for each deterministic function
+    private static final long MemoizedChars = 1024 * 1024;
+
     private final SKNativeTask<SemanticSKContext> function;
 
     public NativeSKFunction(
@@ -55,7 +61,7 @@ public class NativeSKFunction extends AbstractSkFunction<Void, SemanticSKContext
 
     @Override
     public void registerOnKernel(Kernel kernel) {
-        // No actions needed
+        setFunctionFilters(kernel.getConfig().getFunctionFilters());
     }
 
     /*
@@ -455,6 +461,17 @@ public class NativeSKFunction extends AbstractSkFunction<Void, SemanticSKContext
         String name = methodSignature.getAnnotation(DefineSKFunction.class).name();
         String description = methodSignature.getAnnotation(DefineSKFunction.class).description();
 
+        for (Parameter parameter : methodSignature.getParameters()) {
+            SKFunctionParameters annotation = parameter.getAnnotation(SKFunctionParameters.class);
+            if (annotation != null) {
+                parameters.add(
+                        new ParameterView(
+                                annotation.name(),
+                                annotation.description(),
+                                annotation.defaultValue()));
+            }
+        }
+
         /*
             TODO SUPPORT FUNCTION INPUT!!!:
 
@@ -503,60 +520,106 @@ public class NativeSKFunction extends AbstractSkFunction<Void, SemanticSKContext
     }
 
     private static SKNativeTask<SemanticSKContext> getFunction(Method method, Object instance) {
+        SKNativeTask<SemanticSKContext> function = invoker(method, instance);
+        if (!method.getAnnotation(DefineSKFunction.class).deterministic()) {
+            return function;
+        }
+
+        for (Parameter parameter : method.getParameters()) {
+            if (!parameter.isAnnotationPresent(SKFunctionParameters.class)) {
+                throw new KernelException(
+                        KernelException.ErrorCodes.InvalidFunctionDescription,
+                        "The deterministic function "
+                                + method.getName()
+                                + " may only take annotated parameters");
+            }
+        }
+
+        MemoizedResults results = new MemoizedResults(MemoizedChars);
         return (contextInput) -> {
-            SemanticSKContext context = contextInput.copy();
-
-            List<Object> args =
-                    Arrays.stream(method.getParameters())
-                            .map(
-                                    parameter -> {
-                                        if (SemanticSKContext.class.isAssignableFrom(
-                                                parameter.getType())) {
-                                            return context; // .copy();
-                                        } else if (parameter.isAnnotationPresent(
-                                                SKFunctionParameters.class)) {
-                                            SKFunctionParameters annotation =
-                                                    parameter.getAnnotation(
-                                                            SKFunctionParameters.class);
-                                            String arg =
-                                                    context.getVariables().get(annotation.name());
-                                            if (arg == null) {
-                                                arg = annotation.defaultValue();
-                                            }
-                                            return arg;
-                                        } else {
-                                            throw new RuntimeException(
-                                                    "Unknown arg " + parameter.getName());
-                                        }
-                                    })
-                            .collect(Collectors.toList());
-
-            Mono mono;
-            if (method.getReturnType().isAssignableFrom(Mono.class)) {
-                try {
-                    mono = (Mono) method.invoke(instance, args.toArray());
-                } catch (IllegalAccessException | InvocationTargetException e) {
-                    throw new RuntimeException(e);
-                }
-            } else {
-                try {
-                    mono = Mono.just(method.invoke(instance, args.toArray()));
-                } catch (IllegalAccessException | InvocationTargetException e) {
-                    throw new RuntimeException(e);
-                }
+            List<String> arguments = new ArrayList<>(method.getParameterCount());
+            for (Parameter parameter : method.getParameters()) {
+                arguments.add((String) bindArgument(parameter, contextInput));
             }
 
-            return mono.map(
-                    it -> {
-                        if (it instanceof SKContext) {
-                            return it;
-                        } else {
-                            return context.update((String) it);
-                        }
-                    });
+            String result = results.get(arguments);
+            if (result != null) {
+                return Mono.just(contextInput.copy().update(result));
+            }
+            return function.run(contextInput)
+                    .doOnNext(context -> results.put(arguments, context.getResult()));
         };
     }
 
+    private static Object bindArgument(Parameter parameter, SemanticSKContext context) {
+        if (SemanticSKContext.class.isAssignableFrom(parameter.getType())) {
+            return context; // .copy();
+        } else if (parameter.isAnnotationPresent(SKFunctionParameters.class)) {
+            SKFunctionParameters annotation = parameter.getAnnotation(SKFunctionParameters.class);
+            String arg = context.getVariables().get(annotation.name());
+            if (arg == null) {
+                arg = annotation.defaultValue();
+            }
+            return arg;
+        } else {
+            throw new RuntimeException("Unknown arg " + parameter.getName());
+        }
+    }
+
+    private static SKNativeTask<SemanticSKContext> invoker(Method method, Object instance) {
+        DefineSKFunction definition = method.getAnnotation(DefineSKFunction.class);
+        if (definition.blocking()) {
+            return (contextInput) ->
+                    Mono.defer(() -> invoke(method, instance, contextInput, false))
+                            .subscribeOn(BlockingFunctions.scheduler());
+        }
+        return (contextInput) -> invoke(method, instance, contextInput, true);
+    }
+
+    private static Mono<SemanticSKContext> invoke(
+            Method method,
+            Object instance,
+            SemanticSKContext contextInput,
+            boolean detectBlocking) {
+        SemanticSKContext context = contextInput.copy();
+
+        List<Object> args =
+                Arrays.stream(method.getParameters())
+                        .map(parameter -> bindArgument(parameter, context))
+                        .collect(Collectors.toList());
+
+        // A function not declared blocking should not hold a non-blocking thread
+        boolean onNonBlockingThread = detectBlocking && Schedulers.isInNonBlockingThread();
+        long start = onNonBlockingThread ? System.nanoTime() : 0;
+
+        Object result;
+        try {
+            result = method.invoke(instance, args.toArray());
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new RuntimeException(e);
+        }
+
+        if (onNonBlockingThread) {
+            BlockingFunctions.check(method, System.nanoTime() - start);
+        }
+
+        Mono mono;
+        if (method.getReturnType().isAssignableFrom(Mono.class)) {
+            mono = (Mono) result;
+        } else {
+            mono = Mono.just(result);
+        }
+
+        return mono.map(
+                it -> {
+                    if (it instanceof SKContext) {
+                        return it;
+                    } else {
+                        return context.update((String) it);
+                    }
+                });
+    }
+
     // Inspect a method and returns the corresponding delegate and related info
     private static AbstractSkFunction.DelegateTypes getDelegateType(Method method) {
         // TODO ALL TYPES
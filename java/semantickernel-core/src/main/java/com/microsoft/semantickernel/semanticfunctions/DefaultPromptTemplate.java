@@ -2,6 +2,7 @@
 package com.microsoft.semantickernel.semanticfunctions; // Copyright (c) Microsoft. All rights
 // reserved.
 
+import com.microsoft.semantickernel.orchestration.ContextVariables;
 import com.microsoft.semantickernel.orchestration.SKContext;
 import com.microsoft.semantickernel.skilldefinition.ParameterView;
 import com.microsoft.semantickernel.templateengine.PromptTemplateEngine;
@@ -11,16 +12,33 @@ import reactor.core.publisher.Mono;
 import java.util.ArrayList;
 import java.util.List;
 
+import javax.annotation.Nullable;
+
 /// <summary>
 /// Prompt template.
 /// </summary>
 public class DefaultPromptTemplate implements PromptTemplate {
     private final String promptTemplate;
     private final PromptTemplateConfig config;
+    @Nullable private final TokenBudgetPolicy tokenBudgetPolicy;
 
     public DefaultPromptTemplate(String promptTemplate, PromptTemplateConfig config) {
+        this(promptTemplate, config, null);
+    }
+
+    /**
+     * @param promptTemplate Prompt template
+     * @param config Prompt template configuration
+     * @param tokenBudgetPolicy Budgets of the variables, values over budget are shortened before
+     *     the template is rendered
+     */
+    public DefaultPromptTemplate(
+            String promptTemplate,
+            PromptTemplateConfig config,
+            @Nullable TokenBudgetPolicy tokenBudgetPolicy) {
         this.promptTemplate = promptTemplate;
         this.config = config;
+        this.tokenBudgetPolicy = tokenBudgetPolicy;
     }
 
     @Override
@@ -31,7 +49,20 @@ public class DefaultPromptTemplate implements PromptTemplate {
     @Override
     public Mono<String> renderAsync(
             SKContext executionContext, PromptTemplateEngine promptTemplateEngine) {
-        return promptTemplateEngine.renderAsync(this.promptTemplate, executionContext);
+        if (tokenBudgetPolicy == null) {
+            return promptTemplateEngine.renderAsync(this.promptTemplate, executionContext);
+        }
+
+        ContextVariables variables = executionContext.getVariables();
+        return tokenBudgetPolicy
+                .applyAsync(variables)
+                .flatMap(
+                        fitted ->
+                                promptTemplateEngine.renderAsync(
+                                        this.promptTemplate,
+                                        fitted == variables
+                                                ? executionContext
+                                                : executionContext.copy().update(fitted)));
     }
 
     /*
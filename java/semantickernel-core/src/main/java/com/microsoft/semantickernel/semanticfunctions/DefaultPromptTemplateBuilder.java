@@ -1,10 +1,20 @@
 // Copyright (c) Microsoft. All rights reserved.
 package com.microsoft.semantickernel.semanticfunctions;
 
+import javax.annotation.Nullable;
+
 public class DefaultPromptTemplateBuilder implements PromptTemplate.Builder {
 
     @Override
     public PromptTemplate build(String promptTemplate, PromptTemplateConfig config) {
         return new DefaultPromptTemplate(promptTemplate, config);
     }
+
+    @Override
+    public PromptTemplate build(
+            String promptTemplate,
+            PromptTemplateConfig config,
+            @Nullable TokenBudgetPolicy tokenBudgetPolicy) {
+        return new DefaultPromptTemplate(promptTemplate, config, tokenBudgetPolicy);
+    }
 }
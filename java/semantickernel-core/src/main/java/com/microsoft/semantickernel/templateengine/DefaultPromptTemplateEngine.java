@@ -2,6 +2,9 @@
 package com.microsoft.semantickernel.templateengine; // Copyright (c) Microsoft. All rights
 // reserved.
 
+import com.microsoft.semantickernel.diagnostics.Instrumentation;
+import com.microsoft.semantickernel.diagnostics.Instrumentations;
+import com.microsoft.semantickernel.orchestration.Deadlines;
 import com.microsoft.semantickernel.orchestration.SKContext;
 import com.microsoft.semantickernel.templateengine.blocks.Block;
 import com.microsoft.semantickernel.templateengine.blocks.CodeBlock;
@@ -67,6 +70,12 @@ public class DefaultPromptTemplateEngine implements PromptTemplateEngine {
 
     /// <inheritdoc/>
     public Mono<String> renderAsync(List<Block> blocks, SKContext context) {
+        return Instrumentations.observe(
+                Instrumentation.TEMPLATE_RENDER,
+                Deadlines.apply(render(blocks, context), context.getDeadline()));
+    }
+
+    private static Mono<String> render(List<Block> blocks, SKContext context) {
         return Flux.fromIterable(blocks)
                 .flatMap(
                         block -> {
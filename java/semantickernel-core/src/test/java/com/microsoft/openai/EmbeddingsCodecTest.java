@@ -0,0 +1,70 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.openai;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.azure.ai.openai.models.EmbeddingsOptions;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+class EmbeddingsCodecTest {
+
+    private static List<float[]> read(String json) throws IOException {
+        return EmbeddingsCodec.readVectors(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void theRequestIsWritten() throws IOException {
+        EmbeddingsOptions options =
+                new EmbeddingsOptions(Arrays.asList("a \"quoted\" text", "ünïcode"))
+                        .setModel("text-embedding-ada-002");
+
+        JsonNode request = new ObjectMapper().readTree(EmbeddingsCodec.writeRequest(options));
+
+        assertEquals("a \"quoted\" text", request.get("input").get(0).asText());
+        assertEquals("ünïcode", request.get("input").get(1).asText());
+        assertEquals("text-embedding-ada-002", request.get("model").asText());
+        assertFalse(request.has("user"));
+    }
+
+    @Test
+    void theVectorsAreReadInTheOrderOfTheInputs() throws IOException {
+        List<float[]> vectors =
+                read(
+                        "{\"object\":\"list\",\"data\":["
+                            + "{\"object\":\"embedding\",\"embedding\":[0.5,-1.25e-3],\"index\":1},"
+                            + "{\"object\":\"embedding\",\"index\":0,\"embedding\":[1,2,3]}],"
+                            + "\"model\":\"ada\",\"usage\":{\"prompt_tokens\":2,\"total_tokens\":2}}");
+
+        assertEquals(2, vectors.size());
+        assertArrayEquals(new float[] {1, 2, 3}, vectors.get(0));
+        assertArrayEquals(new float[] {0.5f, -1.25e-3f}, vectors.get(1));
+    }
+
+    @Test
+    void vectorsLargerThanTheInitialCapacityAreRead() throws IOException {
+        StringBuilder embedding = new StringBuilder();
+        for (int i = 0; i < 4000; i++) {
+            embedding.append(i == 0 ? "" : ",").append(i);
+        }
+
+        float[] vector = read("{\"data\":[{\"embedding\":[" + embedding + "]}]}").get(0);
+
+        assertEquals(4000, vector.length);
+        assertEquals(3999f, vector[3999]);
+    }
+
+    @Test
+    void aMissingIndexIsRejected() {
+        assertThrows(IOException.class, () -> read("{\"data\":[{\"embedding\":[1],\"index\":1}]}"));
+    }
+}
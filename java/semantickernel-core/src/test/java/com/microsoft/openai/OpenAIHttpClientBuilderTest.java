@@ -0,0 +1,143 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.openai;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.azure.ai.openai.models.Completions;
+import com.azure.ai.openai.models.CompletionsOptions;
+import com.azure.core.http.HttpClient;
+import com.azure.core.http.HttpMethod;
+import com.azure.core.http.HttpRequest;
+import com.microsoft.semantickernel.loadtest.MockOpenAIServer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class OpenAIHttpClientBuilderTest {
+
+    private static final Duration LATENCY = Duration.ofMillis(300);
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger maxActive = new AtomicInteger();
+    private DisposableServer server;
+
+    /** Answers after a delay, recording how many requests it handles at the same time. */
+    @BeforeEach
+    void startServer() {
+        server =
+                HttpServer.create()
+                        .host("127.0.0.1")
+                        .port(0)
+                        .handle(
+                                (request, response) ->
+                                        Mono.defer(
+                                                        () -> {
+                                                            maxActive.accumulateAndGet(
+                                                                    active.incrementAndGet(),
+                                                                    Math::max);
+                                                            return Mono.delay(LATENCY);
+                                                        })
+                                                .then(response.sendString(Mono.just("ok")).then())
+                                                .doFinally(signal -> active.decrementAndGet()))
+                        .bindNow();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.disposeNow();
+    }
+
+    /** Sends the requests at once, returning the number of those that succeeded. */
+    private long send(HttpClient httpClient, int requests) {
+        HttpRequest request =
+                new HttpRequest(HttpMethod.GET, "http://127.0.0.1:" + server.port() + "/");
+        List<Boolean> succeeded =
+                Flux.range(0, requests)
+                        .flatMap(
+                                i ->
+                                        httpClient
+                                                .send(request)
+                                                .flatMap(response -> response.getBodyAsString())
+                                                .map(body -> body.equals("ok"))
+                                                .onErrorReturn(false))
+                        .collectList()
+                        .block(Duration.ofSeconds(10));
+        assertNotNull(succeeded);
+        return succeeded.stream().filter(ok -> ok).count();
+    }
+
+    @Test
+    void requestsBeyondThePoolWaitForAConnection() {
+        HttpClient httpClient = new OpenAIHttpClientBuilder().setMaxConnectionsPerRoute(2).build();
+
+        assertEquals(6, send(httpClient, 6));
+        assertEquals(2, maxActive.get());
+    }
+
+    @Test
+    void requestsWaitingTooLongOrBeyondThePendingLimitFail() {
+        // The first request holds the only connection, the second one times out waiting for it
+        // and the third one is rejected
+        HttpClient httpClient =
+                new OpenAIHttpClientBuilder()
+                        .setMaxConnectionsPerRoute(1)
+                        .setPendingAcquires(1, Duration.ofMillis(50))
+                        .build();
+
+        assertEquals(1, send(httpClient, 3));
+    }
+
+    @Test
+    void slowResponsesTimeOut() {
+        HttpClient httpClient =
+                new OpenAIHttpClientBuilder().setResponseTimeout(LATENCY.dividedBy(3)).build();
+
+        assertEquals(0, send(httpClient, 1));
+        assertEquals(
+                1,
+                send(
+                        new OpenAIHttpClientBuilder()
+                                .setResponseTimeout(LATENCY.multipliedBy(3))
+                                .build(),
+                        1));
+    }
+
+    @Test
+    void theClientOfTheBuilderIsUsed() {
+        AtomicInteger sent = new AtomicInteger();
+        HttpClient pooled = new OpenAIHttpClientBuilder().build();
+        HttpClient counting =
+                request -> {
+                    sent.incrementAndGet();
+                    return pooled.send(request);
+                };
+
+        try (MockOpenAIServer openAI = new MockOpenAIServer.Builder().build()) {
+            Completions completions =
+                    new OpenAIClientBuilder()
+                            .setEndpoint(openAI.getEndpoint())
+                            .setApiKey("key")
+                            .setHttpClient(counting)
+                            .build()
+                            .getCompletions(
+                                    "a-model",
+                                    new CompletionsOptions(Collections.singletonList("prompt")))
+                            .block(Duration.ofSeconds(10));
+
+            assertNotNull(completions);
+            assertEquals(1, sent.get());
+            assertEquals(1, openAI.getCompletionRequests());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.openai;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Flux;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+class ServerSentEventsTest {
+
+    /** Splits the body in buffers of the given size, regardless of lines and characters. */
+    private static Flux<ByteBuffer> body(String text, int bufferSize) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        List<ByteBuffer> buffers = new ArrayList<>();
+        for (int i = 0; i < bytes.length; i += bufferSize) {
+            buffers.add(ByteBuffer.wrap(bytes, i, Math.min(bufferSize, bytes.length - i)));
+        }
+        return Flux.fromIterable(buffers);
+    }
+
+    private static List<String> data(String text, int bufferSize) {
+        return ServerSentEvents.data(body(text, bufferSize)).collectList().block();
+    }
+
+    @Test
+    void eventsAreDecodedWhereverTheBodyIsSplit() {
+        String text =
+                ": keep-alive\r\n"
+                        + "data: {\"text\":\"café\"}\r\n\r\n"
+                        + "event: completion\n"
+                        + "data:{\"text\":\"☃\"}\n\n"
+                        + "data: [DONE]\n\n";
+
+        for (int bufferSize = 1; bufferSize <= text.length(); bufferSize++) {
+            assertEquals(
+                    Arrays.asList("{\"text\":\"café\"}", "{\"text\":\"☃\"}"),
+                    data(text, bufferSize),
+                    "buffers of " + bufferSize + " bytes");
+        }
+    }
+
+    @Test
+    void eventsAfterDoneAreIgnored() {
+        assertEquals(
+                Collections.singletonList("1"), data("data: 1\n\ndata: [DONE]\n\ndata: 2\n\n", 4));
+    }
+
+    @Test
+    void theLastLineOfATruncatedStreamIsKept() {
+        // The caller fails to decode the truncated event, rather than silently losing it
+        assertEquals(Arrays.asList("1", "{\"text\":"), data("data: 1\n\ndata: {\"text\":", 3));
+    }
+
+    @Test
+    void errorsOfTheBodyArePropagated() {
+        Flux<ByteBuffer> failing =
+                body("data: 1\n\n", 4).concatWith(Flux.error(new IllegalStateException("reset")));
+
+        List<String> received = new ArrayList<>();
+        assertThrows(
+                IllegalStateException.class,
+                () -> ServerSentEvents.data(failing).doOnNext(received::add).blockLast());
+        assertEquals(Collections.singletonList("1"), received);
+    }
+}
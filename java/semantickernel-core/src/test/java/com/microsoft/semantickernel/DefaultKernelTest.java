@@ -5,12 +5,23 @@ import com.azure.ai.openai.models.Choice;
 import com.azure.ai.openai.models.Completions;
 import com.azure.ai.openai.models.CompletionsOptions;
 import com.microsoft.openai.AzureOpenAIClient;
+import com.microsoft.semantickernel.ai.embeddings.EmbeddingGeneration;
+import com.microsoft.semantickernel.ai.tokenizers.WordTokenizer;
 import com.microsoft.semantickernel.builders.SKBuilders;
 import com.microsoft.semantickernel.connectors.ai.openai.textcompletion.OpenAITextCompletion;
+import com.microsoft.semantickernel.coreskills.TextSkill;
 import com.microsoft.semantickernel.extensions.KernelExtensions;
+import com.microsoft.semantickernel.memory.NullMemory;
 import com.microsoft.semantickernel.orchestration.ContextVariables;
+import com.microsoft.semantickernel.orchestration.MapReduce;
 import com.microsoft.semantickernel.orchestration.SKContext;
+import com.microsoft.semantickernel.orchestration.SKFunction;
 import com.microsoft.semantickernel.semanticfunctions.PromptTemplateConfig;
+import com.microsoft.semantickernel.semanticfunctions.SemanticFunctionConfig;
+import com.microsoft.semantickernel.semanticfunctions.TokenBudgetPolicy;
+import com.microsoft.semantickernel.skilldefinition.FunctionIndex;
+import com.microsoft.semantickernel.syntaxexamples.skills.StaticTextSkill;
+import com.microsoft.semantickernel.textcompletion.CompletionRequestSettings;
 import com.microsoft.semantickernel.textcompletion.CompletionSKContext;
 import com.microsoft.semantickernel.textcompletion.CompletionSKFunction;
 import com.microsoft.semantickernel.textcompletion.TextCompletion;
@@ -19,14 +30,20 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.util.function.Tuple2;
 import reactor.util.function.Tuples;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class DefaultKernelTest {
 
@@ -214,6 +231,369 @@ public class DefaultKernelTest {
         assertTheResultEquals(result, expectedResponse);
     }
 
+    @Test
+    void invokeStreamAsyncReturnsTheCompletionOfNonStreamingServices() {
+        com.azure.ai.openai.OpenAIAsyncClient openAIAsyncClient =
+                mockCompletionOpenAIAsyncClient("block", "foo");
+        Kernel kernel = buildKernel("a-model", openAIAsyncClient);
+
+        CompletionSKFunction summarize =
+                kernel.getSemanticFunctionBuilder()
+                        .createFunction(
+                                "{{$input}}\nSummarize the content above.",
+                                "summarize",
+                                null,
+                                null,
+                                new PromptTemplateConfig.CompletionConfig(
+                                        0.2, 0.5, 0, 0, 2000, new ArrayList<>()));
+
+        CompletionSKContext context =
+                summarize.buildContext(SKBuilders.variables().build("A block of text"), null, null);
+        List<String> chunks = summarize.invokeStreamAsync(context, null).collectList().block();
+
+        Assertions.assertEquals(Collections.singletonList("foo"), chunks);
+        assertCompletionsWasCalledWithModelAndText(
+                openAIAsyncClient, "a-model", "A block of text\nSummarize the content above.");
+    }
+
+    @Test
+    void maxTokensAreLoweredToTheContextLeftByThePrompt() {
+        com.azure.ai.openai.OpenAIAsyncClient openAIAsyncClient =
+                mockCompletionOpenAIAsyncClient("block", "foo");
+        Kernel kernel = buildKernel("text-davinci-003", openAIAsyncClient);
+
+        CompletionSKFunction summarize =
+                kernel.getSemanticFunctionBuilder()
+                        .createFunction(
+                                "{{$input}}\nSummarize the content above.",
+                                "summarize",
+                                null,
+                                null,
+                                new PromptTemplateConfig.CompletionConfig(
+                                        0.2, 0.5, 0, 0, 5000, new ArrayList<>()));
+
+        summarize.invokeAsync("A block of text").block();
+
+        int promptTokens =
+                kernel.getService(null, TextCompletion.class)
+                        .getTokenizer()
+                        .countTokens("A block of text\nSummarize the content above.");
+        Mockito.verify(openAIAsyncClient, Mockito.times(1))
+                .getCompletions(
+                        Mockito.matches("text-davinci-003"),
+                        Mockito.<CompletionsOptions>argThat(
+                                options -> options.getMaxTokens() == 4097 - promptTokens));
+    }
+
+    @Test
+    void variablesOverTheirBudgetAreTruncatedBeforeRendering() {
+        com.azure.ai.openai.OpenAIAsyncClient openAIAsyncClient =
+                mockCompletionOpenAIAsyncClient("one", "foo");
+        Kernel kernel = buildKernel("a-model", openAIAsyncClient);
+
+        PromptTemplateConfig config =
+                new PromptTemplateConfig(
+                        "summarize",
+                        "completion",
+                        new PromptTemplateConfig.CompletionConfig(
+                                0.2, 0.5, 0, 0, 2000, new ArrayList<>()));
+        TokenBudgetPolicy policy =
+                new TokenBudgetPolicy.Builder()
+                        .setTokenizer(WordTokenizer.getInstance())
+                        .setBudget("input", 2, TokenBudgetPolicy.Overflow.TRUNCATE_END)
+                        .build();
+        CompletionSKFunction summarize =
+                kernel.getSemanticFunctionBuilder()
+                        .createFunction(
+                                "summarize",
+                                new SemanticFunctionConfig(
+                                        config,
+                                        SKBuilders.promptTemplate()
+                                                .build("{{$input}}", config, policy)));
+
+        CompletionSKContext result = summarize.invokeAsync("one two three four").block();
+
+        Assertions.assertNotNull(result);
+        Assertions.assertEquals("foo", result.getResult());
+        assertCompletionsWasCalledWithModelAndText(openAIAsyncClient, "a-model", "one two ");
+    }
+
+    @Test
+    void variablesOverTheirBudgetAreSummarizedChunkByChunk() {
+        Kernel kernel = buildKernel("a-model", mockCompletionOpenAIAsyncClient("x", "y"));
+        SKFunction<?, ?> uppercase =
+                kernel.importSkill(new StaticTextSkill(), "StaticTextSkill")
+                        .getFunction("Uppercase", SKFunction.class);
+
+        TokenBudgetPolicy policy =
+                new TokenBudgetPolicy.Builder()
+                        .setTokenizer(WordTokenizer.getInstance())
+                        .setBudget("input", 3, TokenBudgetPolicy.Overflow.SUMMARIZE)
+                        .setSummarizer(uppercase, 2)
+                        .build();
+
+        ContextVariables variables = SKBuilders.variables().build("a b c d e");
+        ContextVariables fitted = policy.applyAsync(variables).block();
+
+        Assertions.assertNotNull(fitted);
+        // The chunks of the reduce pass end with the separator of the map pass
+        Assertions.assertEquals("A B \n\n\n\nC ", fitted.get(ContextVariables.MAIN_KEY));
+        Assertions.assertEquals("a b c d e", variables.get(ContextVariables.MAIN_KEY));
+    }
+
+    @Test
+    void mapReduceInvokesTheFunctionOnEachChunk() {
+        Kernel kernel = buildKernel("a-model", mockCompletionOpenAIAsyncClient("x", "y"));
+        SKFunction<?, ?> appendDay =
+                kernel.importSkill(new StaticTextSkill(), "StaticTextSkill")
+                        .getFunction("appendDay", SKFunction.class);
+
+        MapReduce mapReduce =
+                new MapReduce.Builder()
+                        .setMapFunction(appendDay)
+                        .setTokenizer(WordTokenizer.getInstance())
+                        .setMaxChunkTokens(2)
+                        .setMaxConcurrency(2)
+                        .setSeparator("|")
+                        .build();
+
+        Map<String, String> variables = new HashMap<>();
+        variables.put("input", "a b c d e");
+        variables.put("day", "!");
+        String result =
+                mapReduce.invokeAsync(SKBuilders.variables().build(variables), null, null).block();
+
+        Assertions.assertEquals("a b !|c d !|e!", result);
+    }
+
+    @Test
+    void functionIndexTracksRegisteredFunctions() {
+        Kernel kernel = buildKernel("a-model", mockCompletionOpenAIAsyncClient("x", "y"));
+
+        kernel.importSkill(new StaticTextSkill(), "StaticTextSkill");
+        CompletionSKFunction summarize =
+                kernel.getSemanticFunctionBuilder()
+                        .createFunction(
+                                "{{$input}}",
+                                "summarize",
+                                "WriterSkill",
+                                null,
+                                new PromptTemplateConfig.CompletionConfig(
+                                        0.2, 0.5, 0, 0, 2000, new ArrayList<>()));
+
+        FunctionIndex index = kernel.getFunctionIndex();
+        Assertions.assertNotNull(index.getFunction("StaticTextSkill.Uppercase"));
+        Assertions.assertSame(summarize, index.getFunction("writerskill.summarize"));
+        Assertions.assertNull(index.getFunction("WriterSkill.missing"));
+
+        Assertions.assertFalse(index.isRemembered("collection", summarize));
+        index.markRemembered("collection", summarize);
+        Assertions.assertTrue(index.isRemembered("collection", summarize));
+
+        kernel.registerMemory(NullMemory.getInstance());
+        Assertions.assertFalse(index.isRemembered("collection", summarize));
+    }
+
+    @Test
+    void kernelsWithoutAnIndexIndexTheirSkills() {
+        Kernel kernel = buildKernel("a-model", mockCompletionOpenAIAsyncClient("x", "y"));
+        kernel.importSkill(new StaticTextSkill(), "StaticTextSkill");
+        Kernel withoutIndex = Mockito.mock(Kernel.class, Mockito.CALLS_REAL_METHODS);
+        Mockito.doReturn(kernel.getSkills()).when(withoutIndex).getSkills();
+
+        FunctionIndex index = withoutIndex.getFunctionIndex();
+        Assertions.assertNotNull(index.getFunction("StaticTextSkill.Uppercase"));
+        Assertions.assertNull(index.getFunction("StaticTextSkill.missing"));
+    }
+
+    @Test
+    void servicesAreCreatedOncePerLifetime() {
+        com.microsoft.openai.OpenAIAsyncClient client =
+                new AzureOpenAIClient(mockCompletionOpenAIAsyncClient("x", "y"));
+        AtomicInteger scoped = new AtomicInteger();
+        AtomicInteger singleton = new AtomicInteger();
+        AtomicInteger transients = new AtomicInteger();
+        KernelConfig kernelConfig =
+                SKBuilders.kernelConfig()
+                        .addTextCompletionService(
+                                "scoped",
+                                kernel -> {
+                                    scoped.incrementAndGet();
+                                    return new OpenAITextCompletion(client, "a-model");
+                                })
+                        .addTextCompletionService(
+                                "transient",
+                                kernel -> {
+                                    transients.incrementAndGet();
+                                    return new OpenAITextCompletion(client, "a-model");
+                                },
+                                ServiceLifetime.TRANSIENT)
+                        .addTextEmbeddingsGenerationService(
+                                "singleton",
+                                kernel -> {
+                                    singleton.incrementAndGet();
+                                    return data -> Mono.just(Collections.emptyList());
+                                },
+                                ServiceLifetime.SINGLETON)
+                        .build();
+        Kernel first = SKBuilders.kernel().setKernelConfig(kernelConfig).build();
+        Kernel second = SKBuilders.kernel().setKernelConfig(kernelConfig).build();
+
+        for (Kernel kernel : Arrays.asList(first, second)) {
+            for (int i = 0; i < 3; i++) {
+                kernel.getService(null, TextCompletion.class);
+                kernel.getService("transient", TextCompletion.class);
+                kernel.getService(null, EmbeddingGeneration.class);
+            }
+        }
+
+        Assertions.assertEquals(2, scoped.get());
+        Assertions.assertEquals(6, transients.get());
+        Assertions.assertEquals(1, singleton.get());
+        Assertions.assertSame(
+                first.getService(null, TextCompletion.class),
+                first.getService("scoped", TextCompletion.class));
+    }
+
+    @Test
+    void missingDefaultServicesAreReportedAsSuch() {
+        Kernel kernel =
+                SKBuilders.kernel().setKernelConfig(SKBuilders.kernelConfig().build()).build();
+
+        KernelException error =
+                Assertions.assertThrows(
+                        KernelException.class, () -> kernel.getService(null, TextCompletion.class));
+
+        Assertions.assertEquals(KernelException.ErrorCodes.ServiceNotFound, error.getErrorCode());
+        Assertions.assertTrue(
+                error.getMessage().endsWith("No default text completion service is registered"));
+    }
+
+    @Test
+    void functionFiltersRunInOrderAndCanShortCircuit() {
+        List<String> calls = Collections.synchronizedList(new ArrayList<>());
+        KernelConfig kernelConfig =
+                SKBuilders.kernelConfig()
+                        .addFunctionFilter(
+                                (function, context, settings, next) -> {
+                                    calls.add("first " + function.getName());
+                                    return next.invokeAsync(context, settings);
+                                })
+                        .addFunctionFilter(
+                                (function, context, settings, next) -> {
+                                    calls.add("second " + function.getName());
+                                    if (context.getResult().equals("cached")) {
+                                        return Mono.just(context.update("from the cache"));
+                                    }
+                                    return next.invokeAsync(context, settings);
+                                })
+                        .build();
+        Kernel kernel = SKBuilders.kernel().setKernelConfig(kernelConfig).build();
+        SKFunction<?, ?> uppercase =
+                kernel.importSkill(new TextSkill(), "text").getFunction("Uppercase");
+
+        SKContext<?> invoked = kernel.runAsync("invoked", uppercase).block();
+        SKContext<?> cached = kernel.runAsync("cached", uppercase).block();
+
+        Assertions.assertEquals("INVOKED", invoked.getResult());
+        Assertions.assertEquals("from the cache", cached.getResult());
+        Assertions.assertEquals(
+                Arrays.asList(
+                        "first Uppercase",
+                        "second Uppercase",
+                        "first Uppercase",
+                        "second Uppercase"),
+                calls);
+    }
+
+    @Test
+    void batchInvocationsRunThroughTheFunctionFilters() {
+        List<String> calls = Collections.synchronizedList(new ArrayList<>());
+        List<List<String>> batches = Collections.synchronizedList(new ArrayList<>());
+        TextCompletion textCompletion =
+                new TextCompletion() {
+                    @Override
+                    public Mono<List<String>> completeAsync(
+                            String text, CompletionRequestSettings requestSettings) {
+                        return Mono.just(Collections.singletonList(text.toUpperCase(Locale.ROOT)));
+                    }
+
+                    @Override
+                    public Mono<List<List<String>>> completeBatchAsync(
+                            List<String> texts, CompletionRequestSettings requestSettings) {
+                        batches.add(texts);
+                        return TextCompletion.super.completeBatchAsync(texts, requestSettings);
+                    }
+                };
+        KernelConfig kernelConfig =
+                SKBuilders.kernelConfig()
+                        .addTextCompletionService("a-model", kernel -> textCompletion)
+                        .addFunctionFilter(
+                                (function, context, settings, next) -> {
+                                    calls.add(context.getResult());
+                                    if (context.getResult().equals("cached")) {
+                                        return Mono.just(context.update("from the cache"));
+                                    }
+                                    return next.invokeAsync(context, settings);
+                                })
+                        .build();
+        Kernel kernel = SKBuilders.kernel().setKernelConfig(kernelConfig).build();
+        CompletionSKFunction echo =
+                kernel.getSemanticFunctionBuilder()
+                        .createFunction("{{$input}}", "echo", null, null);
+        List<String> inputs = Arrays.asList("a", "cached", "b", "c", "d");
+
+        List<String> results =
+                echo.invokeBatchAsync(
+                                Flux.fromIterable(inputs)
+                                        .map(input -> SKBuilders.variables().build(input)),
+                                null,
+                                2,
+                                1)
+                        .map(SKContext::getResult)
+                        .collectList()
+                        .block();
+
+        Assertions.assertEquals(Arrays.asList("A", "from the cache", "B", "C", "D"), results);
+        Assertions.assertEquals(inputs, calls);
+        // The answered invocation is left out of the batches
+        List<String> prompts = new ArrayList<>();
+        batches.forEach(
+                batch -> {
+                    Assertions.assertTrue(batch.size() <= 2);
+                    prompts.addAll(batch);
+                });
+        Assertions.assertEquals(Arrays.asList("a", "b", "c", "d"), prompts);
+    }
+
+    @Test
+    void partialBatchesAreSentAfterTheMaximumWait() {
+        TextCompletion textCompletion =
+                (text, requestSettings) ->
+                        Mono.just(Collections.singletonList(text.toUpperCase(Locale.ROOT)));
+        KernelConfig kernelConfig =
+                SKBuilders.kernelConfig()
+                        .addTextCompletionService("a-model", kernel -> textCompletion)
+                        .build();
+        Kernel kernel = SKBuilders.kernel().setKernelConfig(kernelConfig).build();
+        CompletionSKFunction echo =
+                kernel.getSemanticFunctionBuilder()
+                        .createFunction("{{$input}}", "echo", null, null);
+
+        // The inputs owe more rows, but none arrive to fill the batch
+        String result =
+                echo.invokeBatchAsync(
+                                Flux.concat(
+                                        Mono.just(SKBuilders.variables().build("a")), Flux.never()),
+                                null,
+                                5,
+                                1)
+                        .map(SKContext::getResult)
+                        .blockFirst(Duration.ofSeconds(5));
+
+        Assertions.assertEquals("A", result);
+    }
+
     private void assertTheResultEquals(SKContext result, String expected) {
         Assertions.assertEquals(expected, result.getResult());
     }
@@ -0,0 +1,45 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.ai;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.microsoft.semantickernel.ai.embeddings.Embedding;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+class EmbeddingVectorTest {
+
+    @Test
+    void arrayBackedEmbeddingsAreReadWithoutCopies() {
+        float[] values = {1f, 2f, 3f};
+        Embedding<Float> embedding = Embedding.of(values);
+
+        assertEquals(3, embedding.size());
+        assertEquals(2f, embedding.getFloat(1));
+        assertArrayEquals(values, embedding.toFloatArray());
+        assertNotSame(values, embedding.toFloatArray());
+        assertEquals(Arrays.asList(1f, 2f, 3f), embedding.getVector());
+        assertThrows(UnsupportedOperationException.class, () -> embedding.getVector().set(0, 0f));
+
+        Embedding<Float> boxed = new Embedding<>(Arrays.asList(1f, 2f, 3f));
+        assertEquals(2f, boxed.getFloat(1));
+        assertArrayEquals(values, boxed.toFloatArray());
+    }
+
+    @Test
+    void vectorOperationsUseTheValues() {
+        EmbeddingVector<Float> x = new EmbeddingVector<>(Arrays.asList(3f, 4f));
+        EmbeddingVector<Float> y = new EmbeddingVector<>(new Float[] {4f, 3f});
+
+        assertEquals(24.0, x.dot(y), 1e-9);
+        assertEquals(5.0, x.euclideanLength(), 1e-9);
+        assertEquals(0.96, x.cosineSimilarity(y), 1e-9);
+        assertEquals(0.6, x.normalize().getDouble(0), 1e-9);
+        assertEquals(Arrays.asList(6.0, 8.0), x.multiply(2).getVector());
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> x.cosineSimilarity(new EmbeddingVector<>(Arrays.asList(0f, 0f))));
+    }
+}
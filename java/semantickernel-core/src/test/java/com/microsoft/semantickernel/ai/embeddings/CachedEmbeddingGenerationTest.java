@@ -0,0 +1,172 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.ai.embeddings;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+class CachedEmbeddingGenerationTest {
+
+    /** Records every batch sent upstream, embeds a text as its length. */
+    private static class RecordingEmbeddingGeneration
+            implements EmbeddingGeneration<String, Double> {
+        private final List<List<String>> requests = new ArrayList<>();
+
+        @Override
+        public Mono<List<Embedding<Double>>> generateEmbeddingsAsync(List<String> data) {
+            requests.add(new ArrayList<>(data));
+            return Mono.just(
+                    data.stream()
+                            .map(
+                                    text ->
+                                            new Embedding<>(
+                                                    Arrays.asList((double) text.length(), 1.0)))
+                            .collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void onlyMissesAreSentUpstream() {
+        RecordingEmbeddingGeneration upstream = new RecordingEmbeddingGeneration();
+        CachedEmbeddingGeneration<Double> cache =
+                new CachedEmbeddingGeneration.Builder<Double>()
+                        .setModelId("model")
+                        .setEmbeddingType(Double.class)
+                        .build(upstream);
+
+        cache.generateEmbeddingsAsync(Arrays.asList("a", "bb")).block();
+        List<Embedding<Double>> embeddings =
+                cache.generateEmbeddingsAsync(Arrays.asList("bb", "ccc", "a", "ccc")).block();
+
+        assertEquals(2, upstream.requests.size());
+        assertEquals(Collections.singletonList("ccc"), upstream.requests.get(1));
+        assertNotNull(embeddings);
+        assertEquals(
+                Arrays.asList(2.0, 3.0, 1.0, 3.0),
+                embeddings.stream()
+                        .map(embedding -> embedding.getVector().get(0))
+                        .collect(Collectors.toList()));
+    }
+
+    @Test
+    void persistentTierSurvivesNewInstances(@TempDir Path directory) {
+        RecordingEmbeddingGeneration upstream = new RecordingEmbeddingGeneration();
+        new CachedEmbeddingGeneration.Builder<Double>()
+                .setModelId("model")
+                .setEmbeddingType(Double.class)
+                .setCacheDirectory(directory)
+                .build(upstream)
+                .generateEmbeddingsAsync(Collections.singletonList("hello"))
+                .block();
+
+        List<Embedding<Double>> embeddings =
+                new CachedEmbeddingGeneration.Builder<Double>()
+                        .setModelId("model")
+                        .setEmbeddingType(Double.class)
+                        .setCacheDirectory(directory)
+                        .build(upstream)
+                        .generateEmbeddingsAsync(Collections.singletonList("hello"))
+                        .block();
+        new CachedEmbeddingGeneration.Builder<Double>()
+                .setModelId("other-model")
+                .setEmbeddingType(Double.class)
+                .setCacheDirectory(directory)
+                .build(upstream)
+                .generateEmbeddingsAsync(Collections.singletonList("hello"))
+                .block();
+
+        assertEquals(2, upstream.requests.size());
+        assertNotNull(embeddings);
+        assertEquals(Arrays.asList(5.0, 1.0), embeddings.get(0).getVector());
+    }
+
+    @Test
+    void floatEmbeddingsComeBackAsFloats(@TempDir Path directory) {
+        List<List<String>> requests = new ArrayList<>();
+        EmbeddingGeneration<String, Float> upstream =
+                data -> {
+                    requests.add(data);
+                    return Mono.just(
+                            data.stream()
+                                    .map(text -> new Embedding<>(Arrays.asList(0.5f, 2f)))
+                                    .collect(Collectors.toList()));
+                };
+        CachedEmbeddingGeneration.Builder<Float> builder =
+                new CachedEmbeddingGeneration.Builder<Float>()
+                        .setModelId("model")
+                        .setEmbeddingType(Float.class)
+                        .setCacheDirectory(directory);
+        CachedEmbeddingGeneration<Float> cache = builder.build(upstream);
+
+        cache.generateEmbeddingsAsync(Collections.singletonList("hello")).block();
+        List<Embedding<Float>> fromMemory =
+                cache.generateEmbeddingsAsync(Collections.singletonList("hello")).block();
+        List<Embedding<Float>> fromFiles =
+                builder.build(upstream)
+                        .generateEmbeddingsAsync(Collections.singletonList("hello"))
+                        .block();
+
+        assertEquals(1, requests.size());
+        assertNotNull(fromMemory);
+        assertNotNull(fromFiles);
+        Float first = fromMemory.get(0).getVector().get(0);
+        assertEquals(0.5f, first);
+        assertEquals(Arrays.asList(0.5f, 2f), fromFiles.get(0).getVector());
+    }
+
+    @Test
+    void truncatedEntriesAreEvictedAndEmbeddedAgain(@TempDir Path directory) throws IOException {
+        RecordingEmbeddingGeneration upstream = new RecordingEmbeddingGeneration();
+        CachedEmbeddingGeneration.Builder<Double> builder =
+                new CachedEmbeddingGeneration.Builder<Double>()
+                        .setModelId("model")
+                        .setEmbeddingType(Double.class)
+                        .setCacheDirectory(directory);
+        builder.build(upstream).generateEmbeddingsAsync(Collections.singletonList("hello")).block();
+
+        List<Path> files;
+        try (Stream<Path> listed = Files.list(directory)) {
+            files = listed.collect(Collectors.toList());
+        }
+        assertEquals(1, files.size());
+        byte[] bytes = Files.readAllBytes(files.get(0));
+        Files.write(files.get(0), Arrays.copyOf(bytes, bytes.length - 3));
+
+        List<Embedding<Double>> embeddings =
+                builder.build(upstream)
+                        .generateEmbeddingsAsync(Collections.singletonList("hello"))
+                        .block();
+
+        assertEquals(2, upstream.requests.size());
+        assertNotNull(embeddings);
+        assertEquals(Arrays.asList(5.0, 1.0), embeddings.get(0).getVector());
+        assertArrayEquals(bytes, Files.readAllBytes(files.get(0)));
+    }
+
+    @Test
+    void memoryTierIsBoundedBySize() {
+        OffHeapEmbeddingCache cache = new OffHeapEmbeddingCache(100);
+        for (int i = 0; i < 10; i++) {
+            cache.put("key" + i, ByteBuffer.allocate(30));
+        }
+
+        assertEquals(3, cache.size());
+        assertEquals(90, cache.usedBytes());
+        assertNull(cache.get("key0"));
+        assertNotNull(cache.get("key9"));
+    }
+}
@@ -0,0 +1,133 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.ai.loadbalancing;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.microsoft.semantickernel.ai.AIException;
+import com.microsoft.semantickernel.textcompletion.CompletionRequestSettings;
+import com.microsoft.semantickernel.textcompletion.TextCompletion;
+
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class HedgedTextCompletionTest {
+
+    private static TextCompletion answering(
+            String answer, Duration latency, AtomicBoolean cancelled) {
+        return (text, requestSettings) ->
+                Mono.delay(latency)
+                        .map(ignored -> Collections.singletonList(answer))
+                        .doOnCancel(() -> cancelled.set(true));
+    }
+
+    private static List<String> complete(TextCompletion textCompletion) {
+        return textCompletion
+                .completeAsync("prompt", new CompletionRequestSettings())
+                .block(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void aSlowRequestIsHedgedAndCancelled() {
+        AtomicBoolean slowCancelled = new AtomicBoolean();
+        HedgedTextCompletion textCompletion =
+                new HedgedTextCompletion.Builder()
+                        .addDeployment(
+                                "slow", answering("slow", Duration.ofMinutes(1), slowCancelled))
+                        .addDeployment(
+                                "fast",
+                                answering("fast", Duration.ofMillis(10), new AtomicBoolean()))
+                        .setInitialDelay(Duration.ofMillis(50))
+                        .build();
+
+        assertEquals(Collections.singletonList("fast"), complete(textCompletion));
+
+        assertEquals(1, textCompletion.getHedgedRequests());
+        assertTrue(slowCancelled.get());
+    }
+
+    @Test
+    void hedgingStopsWhenTheBudgetIsSpent() {
+        HedgedTextCompletion textCompletion =
+                new HedgedTextCompletion.Builder()
+                        .addDeployment(
+                                "slow",
+                                answering("slow", Duration.ofMillis(200), new AtomicBoolean()))
+                        .addDeployment(
+                                "other",
+                                answering("other", Duration.ofMinutes(1), new AtomicBoolean()))
+                        .setInitialDelay(Duration.ofMillis(10))
+                        .setBudget(0, 0)
+                        .build();
+
+        assertEquals(Collections.singletonList("slow"), complete(textCompletion));
+        assertEquals(0, textCompletion.getHedgedRequests());
+    }
+
+    @Test
+    void aSingleDeploymentIsNeverHedged() {
+        AtomicInteger requests = new AtomicInteger();
+        TextCompletion counting =
+                (text, requestSettings) -> {
+                    requests.incrementAndGet();
+                    return Mono.delay(Duration.ofMillis(100))
+                            .map(ignored -> Collections.singletonList("only"));
+                };
+        HedgedTextCompletion textCompletion =
+                new HedgedTextCompletion.Builder()
+                        .addDeployment("only", counting)
+                        .setInitialDelay(Duration.ofMillis(10))
+                        .build();
+
+        assertEquals(Collections.singletonList("only"), complete(textCompletion));
+        assertEquals(1, requests.get());
+        assertEquals(0, textCompletion.getHedgedRequests());
+    }
+
+    @Test
+    void cancelledRequestsRaiseTheHedgeDelay() {
+        HedgedTextCompletion textCompletion =
+                new HedgedTextCompletion.Builder()
+                        .addDeployment(
+                                "slow",
+                                answering("slow", Duration.ofMinutes(1), new AtomicBoolean()))
+                        .addDeployment(
+                                "fast",
+                                answering("fast", Duration.ofMillis(10), new AtomicBoolean()))
+                        .setInitialDelay(Duration.ofMillis(50))
+                        .setWindow(1)
+                        .build();
+
+        assertEquals(Collections.singletonList("fast"), complete(textCompletion));
+
+        // Timed from the slow request, not from the hedged one
+        assertTrue(textCompletion.getHedgeDelay().compareTo(Duration.ofMillis(50)) >= 0);
+    }
+
+    @Test
+    void theOtherRequestIsAwaitedWhenOneFails() {
+        TextCompletion failing =
+                (text, requestSettings) ->
+                        Mono.delay(Duration.ofMillis(100))
+                                .then(
+                                        Mono.error(
+                                                new AIException(
+                                                        AIException.ErrorCodes.ServiceError)));
+        HedgedTextCompletion textCompletion =
+                new HedgedTextCompletion.Builder()
+                        .addDeployment("failing", failing)
+                        .addDeployment(
+                                "slow",
+                                answering("slow", Duration.ofMillis(300), new AtomicBoolean()))
+                        .setInitialDelay(Duration.ofMillis(10))
+                        .build();
+
+        assertEquals(Collections.singletonList("slow"), complete(textCompletion));
+    }
+}
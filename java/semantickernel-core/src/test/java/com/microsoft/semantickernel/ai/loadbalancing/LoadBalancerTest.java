@@ -0,0 +1,158 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.ai.loadbalancing;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.microsoft.semantickernel.ai.AIException;
+import com.microsoft.semantickernel.ai.embeddings.Embedding;
+import com.microsoft.semantickernel.ai.embeddings.EmbeddingGeneration;
+import com.microsoft.semantickernel.ai.loadbalancing.EndpointStats.CircuitState;
+import com.microsoft.semantickernel.textcompletion.CompletionRequestSettings;
+import com.microsoft.semantickernel.textcompletion.TextCompletion;
+
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class LoadBalancerTest {
+
+    /** Answers with its name, or fails with the given error. */
+    private static class FakeTextCompletion implements TextCompletion {
+        private final String name;
+        private final AtomicInteger requests = new AtomicInteger();
+        private volatile AIException.ErrorCodes error;
+
+        private FakeTextCompletion(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Mono<List<String>> completeAsync(
+                String text, CompletionRequestSettings requestSettings) {
+            requests.incrementAndGet();
+            if (error != null) {
+                return Mono.error(new AIException(error, name));
+            }
+            return Mono.just(Collections.singletonList(name));
+        }
+    }
+
+    private static String complete(TextCompletion textCompletion) {
+        List<String> completions =
+                textCompletion.completeAsync("prompt", new CompletionRequestSettings()).block();
+        assertNotNull(completions);
+        return completions.get(0);
+    }
+
+    @Test
+    void throttledRequestsFailOverAndOpenTheCircuit() {
+        FakeTextCompletion east = new FakeTextCompletion("east");
+        FakeTextCompletion west = new FakeTextCompletion("west");
+        east.error = AIException.ErrorCodes.Throttling;
+        LoadBalancedTextCompletion textCompletion =
+                new LoadBalancedTextCompletion(
+                        new LoadBalancer.Builder<TextCompletion>()
+                                .addEndpoint("east", east)
+                                .addEndpoint("west", west)
+                                .setFailureThreshold(2)
+                                .setOpenDuration(Duration.ofHours(1))
+                                .build());
+
+        for (int i = 0; i < 6; i++) {
+            assertEquals("west", complete(textCompletion));
+        }
+
+        // East is not tried once its circuit is open
+        assertEquals(2, east.requests.get());
+        assertEquals(6, west.requests.get());
+        List<EndpointStats> stats = textCompletion.getStats();
+        assertEquals(CircuitState.OPEN, stats.get(0).getCircuitState());
+        assertEquals(2, stats.get(0).getFailures());
+        assertEquals(CircuitState.CLOSED, stats.get(1).getCircuitState());
+        assertEquals(6, stats.get(1).getSuccesses());
+        assertEquals(0, stats.get(1).getOutstandingRequests());
+    }
+
+    @Test
+    void aSuccessfulProbeClosesTheCircuit() {
+        FakeTextCompletion east = new FakeTextCompletion("east");
+        east.error = AIException.ErrorCodes.ServiceError;
+        LoadBalancedTextCompletion textCompletion =
+                new LoadBalancedTextCompletion(
+                        new LoadBalancer.Builder<TextCompletion>()
+                                .addEndpoint("east", east)
+                                .setFailureThreshold(1)
+                                .setOpenDuration(Duration.ZERO)
+                                .build());
+
+        AIException error = assertThrows(AIException.class, () -> complete(textCompletion));
+        assertEquals(AIException.ErrorCodes.ServiceError, error.getErrorCode());
+
+        east.error = null;
+        assertEquals("east", complete(textCompletion));
+        assertEquals(CircuitState.CLOSED, textCompletion.getStats().get(0).getCircuitState());
+    }
+
+    @Test
+    void invalidRequestsAreNotRetried() {
+        FakeTextCompletion east = new FakeTextCompletion("east");
+        FakeTextCompletion west = new FakeTextCompletion("west");
+        east.error = AIException.ErrorCodes.InvalidRequest;
+        west.error = AIException.ErrorCodes.InvalidRequest;
+        LoadBalancedTextCompletion textCompletion =
+                new LoadBalancedTextCompletion(
+                        new LoadBalancer.Builder<TextCompletion>()
+                                .addEndpoint("east", east)
+                                .addEndpoint("west", west)
+                                .setFailureThreshold(1)
+                                .build());
+
+        assertThrows(AIException.class, () -> complete(textCompletion));
+
+        assertEquals(1, east.requests.get() + west.requests.get());
+        textCompletion
+                .getStats()
+                .forEach(stats -> assertEquals(CircuitState.CLOSED, stats.getCircuitState()));
+    }
+
+    @Test
+    void requestsGoToTheLeastBusyEndpoint() {
+        Sinks.One<List<Embedding<Double>>> pending = Sinks.one();
+        AtomicInteger busyRequests = new AtomicInteger();
+        AtomicInteger idleRequests = new AtomicInteger();
+        EmbeddingGeneration<String, Double> busy =
+                data -> {
+                    busyRequests.incrementAndGet();
+                    return pending.asMono();
+                };
+        EmbeddingGeneration<String, Double> idle =
+                data -> {
+                    idleRequests.incrementAndGet();
+                    return Mono.just(Collections.emptyList());
+                };
+        LoadBalancedEmbeddingGeneration<String, Double> embeddings =
+                new LoadBalancedEmbeddingGeneration<>(
+                        new LoadBalancer.Builder<EmbeddingGeneration<String, Double>>()
+                                .addEndpoint("busy", busy)
+                                .addEndpoint("idle", idle)
+                                .build());
+
+        // Held in flight by the busy endpoint
+        embeddings.generateEmbeddingsAsync(Collections.singletonList("a")).subscribe();
+        for (int i = 0; i < 3; i++) {
+            embeddings.generateEmbeddingsAsync(Collections.singletonList("b")).block();
+        }
+
+        assertEquals(1, busyRequests.get());
+        assertEquals(3, idleRequests.get());
+        assertEquals(1, embeddings.getStats().get(0).getOutstandingRequests());
+        pending.tryEmitValue(Collections.emptyList());
+        assertEquals(0, embeddings.getStats().get(0).getOutstandingRequests());
+    }
+}
@@ -0,0 +1,25 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.ai.tokenizers;
+
+/** Counts words as tokens, so that tests can tell the token counts of their texts at a glance. */
+public class WordTokenizer implements Tokenizer {
+
+    private static final WordTokenizer INSTANCE = new WordTokenizer();
+
+    public static WordTokenizer getInstance() {
+        return INSTANCE;
+    }
+
+    private WordTokenizer() {}
+
+    @Override
+    public int countTokens(String text) {
+        String trimmed = text.trim();
+        return trimmed.isEmpty() ? 0 : trimmed.split("\\s+").length;
+    }
+
+    @Override
+    public boolean isExact() {
+        return true;
+    }
+}
@@ -0,0 +1,174 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.connectors.ai.openai.chatcompletion;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.azure.ai.openai.models.ChatChoice;
+import com.azure.ai.openai.models.ChatCompletions;
+import com.azure.ai.openai.models.ChatCompletionsOptions;
+import com.azure.ai.openai.models.ChatMessage;
+import com.azure.ai.openai.models.ChatRole;
+import com.microsoft.openai.AzureOpenAIClient;
+import com.microsoft.semantickernel.DefaultKernelTest;
+import com.microsoft.semantickernel.Kernel;
+import com.microsoft.semantickernel.ai.AIException;
+import com.microsoft.semantickernel.ai.tokenizers.WordTokenizer;
+import com.microsoft.semantickernel.chatcompletion.ChatCompletion;
+import com.microsoft.semantickernel.chatcompletion.ChatHistory;
+import com.microsoft.semantickernel.orchestration.MapReduce;
+import com.microsoft.semantickernel.orchestration.SKFunction;
+import com.microsoft.semantickernel.syntaxexamples.skills.StaticTextSkill;
+import com.microsoft.semantickernel.textcompletion.CompletionRequestSettings;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+class OpenAIChatCompletionTest {
+
+    @Test
+    void compactionDropsTheOldestMessagesAfterTheInstructions() {
+        ChatHistory chat =
+                new ChatHistory(WordTokenizer.getInstance())
+                        .addSystemMessage("be brief")
+                        .addUserMessage("a b c d")
+                        .addAssistantMessage("e f g h")
+                        .addUserMessage("i j");
+        assertEquals(31, chat.getTokenCount());
+
+        chat.compactAsync(24).block();
+
+        assertEquals(
+                Arrays.asList("be brief", "i j"),
+                chat.getMessages().stream()
+                        .map(ChatHistory.Message::getContent)
+                        .collect(Collectors.toList()));
+        assertEquals(15, chat.getTokenCount());
+        assertEquals(1, chat.getCompactions());
+
+        // Under budget, nothing to do
+        chat.compactAsync(24).block();
+        assertEquals(1, chat.getCompactions());
+    }
+
+    @Test
+    void compactionSummarizesTheRemovedMessages() {
+        Kernel kernel =
+                DefaultKernelTest.buildKernel(
+                        "a-model", Mockito.mock(com.azure.ai.openai.OpenAIAsyncClient.class));
+        SKFunction<?, ?> uppercase =
+                kernel.importSkill(new StaticTextSkill(), "StaticTextSkill")
+                        .getFunction("Uppercase", SKFunction.class);
+
+        ChatHistory chat =
+                new ChatHistory(WordTokenizer.getInstance())
+                        .setSummarizer(
+                                new MapReduce.Builder()
+                                        .setMapFunction(uppercase)
+                                        .setTokenizer(WordTokenizer.getInstance())
+                                        .build())
+                        .addSystemMessage("be brief")
+                        .addUserMessage("a b c d e f")
+                        .addAssistantMessage("g h i j k l")
+                        .addUserMessage("m");
+
+        chat.compactAsync(32).block();
+
+        List<ChatHistory.Message> messages = chat.getMessages();
+        assertEquals(3, messages.size());
+        assertEquals("be brief", messages.get(0).getContent());
+        assertEquals(ChatHistory.AuthorRole.SYSTEM, messages.get(1).getRole());
+        assertTrue(
+                messages.get(1)
+                        .getContent()
+                        .startsWith("Summary of the earlier conversation:\nUSER:"));
+        assertEquals("m", messages.get(2).getContent());
+        assertTrue(chat.getTokenCount() <= 24);
+    }
+
+    @Test
+    void eachTurnSendsTheWholeHistory() {
+        com.azure.ai.openai.OpenAIAsyncClient openAIAsyncClient =
+                Mockito.mock(com.azure.ai.openai.OpenAIAsyncClient.class);
+        ChatMessage reply = Mockito.mock(ChatMessage.class);
+        Mockito.when(reply.getContent()).thenReturn("hello");
+        ChatChoice choice = Mockito.mock(ChatChoice.class);
+        Mockito.when(choice.getMessage()).thenReturn(reply);
+        ChatCompletions completions = Mockito.mock(ChatCompletions.class);
+        Mockito.when(completions.getChoices()).thenReturn(Collections.singletonList(choice));
+        Mockito.when(
+                        openAIAsyncClient.getChatCompletions(
+                                Mockito.any(String.class),
+                                Mockito.any(ChatCompletionsOptions.class)))
+                .thenReturn(Mono.just(completions));
+
+        ChatCompletion chatCompletion =
+                new OpenAIChatCompletion(new AzureOpenAIClient(openAIAsyncClient), "gpt-4");
+        ChatHistory chat = chatCompletion.createNewChat("be brief");
+
+        chat.addUserMessage("hi");
+        String message = chatCompletion.generateMessageAsync(chat, null).block();
+        assertEquals("hello", message);
+        chat.addAssistantMessage(message);
+        chat.addUserMessage("bye");
+        chatCompletion.generateMessageAsync(chat, null).block();
+
+        ArgumentCaptor<ChatCompletionsOptions> options =
+                ArgumentCaptor.forClass(ChatCompletionsOptions.class);
+        Mockito.verify(openAIAsyncClient, Mockito.times(2))
+                .getChatCompletions(Mockito.matches("gpt-4"), options.capture());
+
+        List<ChatMessage> first = options.getAllValues().get(0).getMessages();
+        assertEquals(2, first.size());
+        List<ChatMessage> second = options.getAllValues().get(1).getMessages();
+        assertEquals(
+                Arrays.asList(ChatRole.SYSTEM, ChatRole.USER, ChatRole.ASSISTANT, ChatRole.USER),
+                second.stream().map(ChatMessage::getRole).collect(Collectors.toList()));
+        assertEquals(
+                Arrays.asList("be brief", "hi", "hello", "bye"),
+                second.stream().map(ChatMessage::getContent).collect(Collectors.toList()));
+        // The messages of the first turn are not converted again
+        assertSame(first.get(0), second.get(0));
+        assertSame(first.get(1), second.get(1));
+
+        // A compaction converts the remaining messages again
+        chat.compactAsync(0).block();
+        chatCompletion.generateMessageAsync(chat, null).block();
+        Mockito.verify(openAIAsyncClient, Mockito.times(3))
+                .getChatCompletions(Mockito.matches("gpt-4"), options.capture());
+        List<ChatMessage> third = options.getValue().getMessages();
+        assertEquals(
+                Arrays.asList("be brief", "bye"),
+                third.stream().map(ChatMessage::getContent).collect(Collectors.toList()));
+        assertNotSame(second.get(0), third.get(0));
+        // The earlier requests keep their messages
+        assertEquals(4, second.size());
+        assertThrows(UnsupportedOperationException.class, () -> second.add(reply));
+    }
+
+    @Test
+    void invalidMaxTokensAreSignalledOnSubscription() {
+        com.azure.ai.openai.OpenAIAsyncClient openAIAsyncClient =
+                Mockito.mock(com.azure.ai.openai.OpenAIAsyncClient.class);
+        ChatCompletion chatCompletion =
+                new OpenAIChatCompletion(new AzureOpenAIClient(openAIAsyncClient), "gpt-4");
+        ChatHistory chat = chatCompletion.createNewChat("be brief");
+        chat.addUserMessage("hi");
+
+        Mono<String> message =
+                chatCompletion.generateMessageAsync(
+                        chat, new CompletionRequestSettings(0, 0, 0, 0, 0, new ArrayList<>()));
+
+        AIException error = assertThrows(AIException.class, message::block);
+        assertEquals(AIException.ErrorCodes.InvalidRequest, error.getErrorCode());
+        Mockito.verifyNoInteractions(openAIAsyncClient);
+    }
+}
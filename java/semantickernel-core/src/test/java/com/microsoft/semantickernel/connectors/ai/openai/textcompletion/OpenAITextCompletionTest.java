@@ -0,0 +1,47 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.connectors.ai.openai.textcompletion;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.microsoft.openai.AzureOpenAIClient;
+import com.microsoft.semantickernel.ai.AIException;
+import com.microsoft.semantickernel.textcompletion.CompletionRequestSettings;
+import com.microsoft.semantickernel.textcompletion.TextCompletion;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+class OpenAITextCompletionTest {
+
+    @Test
+    void invalidRequestsAreSignalledOnSubscription() {
+        com.azure.ai.openai.OpenAIAsyncClient openAIAsyncClient =
+                Mockito.mock(com.azure.ai.openai.OpenAIAsyncClient.class);
+        TextCompletion textCompletion =
+                new OpenAITextCompletion(
+                        new AzureOpenAIClient(openAIAsyncClient), "text-davinci-003");
+        String prompt = "hello";
+        CompletionRequestSettings settings =
+                new CompletionRequestSettings(0, 0, 0, 0, 0, new ArrayList<>());
+
+        // Assembling the requests does not throw
+        Mono<List<String>> completion = textCompletion.completeAsync(prompt, settings);
+        Mono<List<List<String>>> batch =
+                textCompletion.completeBatchAsync(Arrays.asList("hi", prompt), settings);
+        Flux<String> stream = textCompletion.completeStreamAsync(prompt, settings);
+
+        for (Runnable subscribe :
+                Arrays.<Runnable>asList(completion::block, batch::block, stream::blockLast)) {
+            AIException error = assertThrows(AIException.class, subscribe::run);
+            assertEquals(AIException.ErrorCodes.InvalidRequest, error.getErrorCode());
+        }
+        Mockito.verifyNoInteractions(openAIAsyncClient);
+    }
+}
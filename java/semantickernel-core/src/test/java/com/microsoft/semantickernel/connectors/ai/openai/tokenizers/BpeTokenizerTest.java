@@ -0,0 +1,73 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.connectors.ai.openai.tokenizers;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.microsoft.semantickernel.ai.tokenizers.ApproximateTokenizer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+class BpeTokenizerTest {
+
+    /** Single bytes ranked by value, followed by the given merges. */
+    private static InputStream rankFile(boolean allBytes, String... merges) {
+        StringBuilder ranks = new StringBuilder();
+        for (int b = 0; b < 256; b++) {
+            if (allBytes || b != 'z') {
+                ranks.append(Base64.getEncoder().encodeToString(new byte[] {(byte) b}))
+                        .append(' ')
+                        .append(b)
+                        .append('\n');
+            }
+        }
+        for (int i = 0; i < merges.length; i++) {
+            ranks.append(
+                            Base64.getEncoder()
+                                    .encodeToString(merges[i].getBytes(StandardCharsets.UTF_8)))
+                    .append(' ')
+                    .append(256 + i)
+                    .append('\n');
+        }
+        return new ByteArrayInputStream(ranks.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void mergesLowestRankedPairsFirst() throws IOException {
+        BpeTokenizer tokenizer =
+                BpeTokenizer.load(
+                        rankFile(true, "he", "ll", "llo", " w", "or", " wor"),
+                        ApproximateTokenizer.DefaultPattern);
+
+        // hello: he, ll, then llo
+        assertArrayEquals(new int[] {256, 258}, tokenizer.encode("hello"));
+        // " world" is a single piece: " w", or, then " wor"
+        assertArrayEquals(new int[] {256, 258, 261, 'l', 'd'}, tokenizer.encode("hello world"));
+        assertEquals(5, tokenizer.countTokens("hello world"));
+        assertArrayEquals(new int[] {2, 5, 9, 10, 11}, tokenizer.tokenEnds("hello world"));
+        assertTrue(tokenizer.isExact());
+    }
+
+    @Test
+    void encodesTextAsUtf8() throws IOException {
+        BpeTokenizer tokenizer =
+                BpeTokenizer.load(rankFile(true, "é"), ApproximateTokenizer.DefaultPattern);
+
+        assertArrayEquals(new int[] {256}, tokenizer.encode("é"));
+        assertEquals(4, tokenizer.countTokens("😀"));
+        // Tokens ending within a character end after it
+        assertArrayEquals(new int[] {1, 3, 3, 3, 3}, tokenizer.tokenEnds("é😀"));
+    }
+
+    @Test
+    void rejectsVocabulariesMissingBytes() {
+        assertThrows(
+                IOException.class,
+                () -> BpeTokenizer.load(rankFile(false), ApproximateTokenizer.DefaultPattern));
+    }
+}
@@ -0,0 +1,122 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.diagnostics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.microsoft.semantickernel.DefaultKernelTest;
+import com.microsoft.semantickernel.Kernel;
+import com.microsoft.semantickernel.builders.SKBuilders;
+import com.microsoft.semantickernel.coreskills.TextSkill;
+import com.microsoft.semantickernel.semanticfunctions.PromptTemplateConfig;
+import com.microsoft.semantickernel.skilldefinition.ReadOnlyFunctionCollection;
+import com.microsoft.semantickernel.textcompletion.CompletionSKFunction;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuples;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nullable;
+
+class InstrumentationsTest {
+
+    /** Records the parent of each operation, and the tags of the function invocations. */
+    private static class RecordingInstrumentation implements Instrumentation {
+        private final Map<String, String> parents = new ConcurrentHashMap<>();
+        private final List<String> functions = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public Observation start(String name, @Nullable Observation parent, String... tags) {
+            parents.put(name, parent != null ? parent.toString() : "");
+            if (name.equals(FUNCTION_INVOCATION)) {
+                functions.add(tags[1]);
+            }
+            return new Observation() {
+                @Override
+                public void stop(@Nullable Throwable error) {}
+
+                @Override
+                public String toString() {
+                    return name;
+                }
+            };
+        }
+
+        @Override
+        public void increment(String name, long amount, String... tags) {}
+
+        @Override
+        public void record(String name, long value, String... tags) {}
+    }
+
+    @AfterEach
+    void reset() {
+        Instrumentations.set(null);
+    }
+
+    @Test
+    void functionsAreNestedInThePipeline() {
+        RecordingInstrumentation instrumentation = new RecordingInstrumentation();
+        Instrumentations.set(instrumentation);
+
+        Kernel kernel =
+                SKBuilders.kernel().setKernelConfig(SKBuilders.kernelConfig().build()).build();
+        ReadOnlyFunctionCollection text = kernel.importSkill(new TextSkill(), "text");
+
+        kernel.runAsync(" trimmed ", text.getFunction("LStrip"), text.getFunction("RStrip"))
+                .block();
+
+        assertEquals("", instrumentation.parents.get(Instrumentation.PIPELINE_RUN));
+        assertEquals(
+                Instrumentation.PIPELINE_RUN,
+                instrumentation.parents.get(Instrumentation.FUNCTION_INVOCATION));
+        assertEquals(Arrays.asList("text.LStrip", "text.RStrip"), instrumentation.functions);
+    }
+
+    @Test
+    void renderingAndRequestsAreNestedInTheFunction() {
+        RecordingInstrumentation instrumentation = new RecordingInstrumentation();
+        Instrumentations.set(instrumentation);
+
+        Kernel kernel =
+                DefaultKernelTest.buildKernel(
+                        "a-model",
+                        DefaultKernelTest.mockCompletionOpenAIAsyncClient(
+                                Collections.singletonList(Tuples.of("Say", "hello"))));
+        CompletionSKFunction function =
+                kernel.getSemanticFunctionBuilder()
+                        .createFunction(
+                                "Say {{$input}}",
+                                "say",
+                                "greetings",
+                                null,
+                                new PromptTemplateConfig.CompletionConfig(
+                                        0.7, 0.5, 0, 0, 100, new ArrayList<>()));
+
+        function.invokeAsync("hi").block();
+
+        assertEquals("", instrumentation.parents.get(Instrumentation.FUNCTION_INVOCATION));
+        assertEquals(
+                Instrumentation.FUNCTION_INVOCATION,
+                instrumentation.parents.get(Instrumentation.TEMPLATE_RENDER));
+        assertEquals(
+                Instrumentation.FUNCTION_INVOCATION,
+                instrumentation.parents.get(Instrumentation.MODEL_REQUEST));
+        assertEquals(Collections.singletonList("greetings.say"), instrumentation.functions);
+    }
+
+    @Test
+    void operationsAreLeftAsIsWhenDisabled() {
+        Mono<String> operation = Mono.just("result");
+
+        assertSame(operation, Instrumentations.observe("operation", operation));
+    }
+}
@@ -0,0 +1,216 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.loadtest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.microsoft.semantickernel.Kernel;
+import com.microsoft.semantickernel.KernelConfig;
+import com.microsoft.semantickernel.builders.SKBuilders;
+import com.microsoft.semantickernel.orchestration.SKContext;
+import com.microsoft.semantickernel.orchestration.SKFunction;
+import com.microsoft.semantickernel.semanticfunctions.PromptTemplateConfig;
+import com.microsoft.semantickernel.skilldefinition.ReadOnlyFunctionCollection;
+import com.microsoft.semantickernel.skilldefinition.annotations.DefineSKFunction;
+import com.microsoft.semantickernel.skilldefinition.annotations.SKFunctionParameters;
+import com.microsoft.semantickernel.textcompletion.CompletionSKFunction;
+import com.microsoft.semantickernel.textcompletion.TextCompletion;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.function.Supplier;
+
+/**
+ * Fails when the bytes allocated per call of the reference pipelines grow past the baseline stored
+ * in {@code allocation-baseline.properties}. The completion is a stub answering synchronously, so
+ * that a whole call runs on the calling thread and its allocations are those of the kernel.
+ *
+ * <p>Allocations differ between JDK releases, so the baseline holds a value per JDK feature
+ * release, and the test is skipped on a JDK without one. When a change reduces the allocations, or
+ * knowingly increases them, update the baseline of each JDK with the values logged by this test.
+ */
+class AllocationRegressionTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AllocationRegressionTest.class);
+    private static final int WARMUP_CALLS = 20_000;
+    private static final int MEASURED_CALLS = 5_000;
+
+    private static com.sun.management.ThreadMXBean threads;
+    private static Properties baseline;
+    private static String jdk;
+
+    @BeforeAll
+    static void loadBaseline() throws IOException {
+        Assumptions.assumeTrue(
+                ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+                "The JVM does not measure the allocations of a thread");
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assumptions.assumeTrue(
+                threads.isThreadAllocatedMemorySupported()
+                        && threads.isThreadAllocatedMemoryEnabled(),
+                "The JVM does not measure the allocations of a thread");
+
+        baseline = new Properties();
+        try (InputStream in =
+                AllocationRegressionTest.class.getResourceAsStream(
+                        "/allocation-baseline.properties")) {
+            assertNotNull(in, "allocation-baseline.properties is missing");
+            baseline.load(in);
+        }
+
+        // 1.8 on Java 8, the feature release afterwards
+        String version = System.getProperty("java.specification.version");
+        jdk = "jdk" + (version.startsWith("1.") ? version.substring(2) : version);
+        Assumptions.assumeTrue(
+                baseline.stringPropertyNames().stream().anyMatch(key -> key.endsWith("." + jdk)),
+                "No allocation baseline for " + jdk);
+    }
+
+    /**
+     * The steps of TextSkill without their memoization, so that every call binds the arguments and
+     * invokes the method, and without regular expressions, whose allocations are not the kernel's.
+     */
+    public static class StripSkill {
+        @DefineSKFunction(description = "Remove spaces to the left of a string.", name = "LStrip")
+        public Mono<String> lStrip(
+                @SKFunctionParameters(
+                                description = "Text to edit",
+                                name = "input",
+                                defaultValue = "",
+                                type = String.class)
+                        String text) {
+            int start = 0;
+            while (start < text.length() && text.charAt(start) == ' ') {
+                start++;
+            }
+            return Mono.just(text.substring(start));
+        }
+
+        @DefineSKFunction(description = "Remove spaces to the right of a string.", name = "RStrip")
+        public Mono<String> rStrip(
+                @SKFunctionParameters(
+                                description = "Text to edit",
+                                name = "input",
+                                defaultValue = "",
+                                type = String.class)
+                        String text) {
+            int end = text.length();
+            while (end > 0 && text.charAt(end - 1) == ' ') {
+                end--;
+            }
+            return Mono.just(text.substring(0, end));
+        }
+
+        @DefineSKFunction(description = "Change all string chars to uppercase.", name = "Uppercase")
+        public Mono<String> uppercase(
+                @SKFunctionParameters(
+                                description = "Text to uppercase",
+                                name = "input",
+                                defaultValue = "",
+                                type = String.class)
+                        String text) {
+            return Mono.just(text.toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private static Kernel kernel() {
+        TextCompletion textCompletion =
+                (text, requestSettings) -> Mono.just(Collections.singletonList("a summary"));
+        KernelConfig kernelConfig =
+                SKBuilders.kernelConfig()
+                        .addTextCompletionService("a-model", kernel -> textCompletion)
+                        .build();
+        return SKBuilders.kernel().setKernelConfig(kernelConfig).build();
+    }
+
+    private static CompletionSKFunction summarize(Kernel kernel) {
+        CompletionSKFunction summarize =
+                SKBuilders.completionFunctions()
+                        .createFunction(
+                                "{{$input}}\nSummarize the content above.",
+                                "summarize",
+                                null,
+                                null,
+                                new PromptTemplateConfig.CompletionConfig(
+                                        0.2, 0.5, 0, 0, 256, new ArrayList<>()));
+        kernel.registerSemanticFunction(summarize);
+        return summarize;
+    }
+
+    /** Bytes allocated by the calling thread per call, once the JIT compiled the calls. */
+    private static long bytesPerCall(Supplier<Mono<? extends SKContext<?>>> call) {
+        Thread caller = Thread.currentThread();
+        for (int i = 0; i < WARMUP_CALLS; i++) {
+            SKContext<?> result = call.get().block();
+            assertNotNull(result);
+        }
+        // Allocations on other threads would not be measured
+        assertSame(caller, call.get().map(result -> Thread.currentThread()).block());
+
+        long before = threads.getThreadAllocatedBytes(caller.getId());
+        for (int i = 0; i < MEASURED_CALLS; i++) {
+            call.get().block();
+        }
+        return (threads.getThreadAllocatedBytes(caller.getId()) - before) / MEASURED_CALLS;
+    }
+
+    private static void assertWithinBaseline(String pipeline, long bytesPerCall) {
+        String key = pipeline + "." + jdk;
+        LOGGER.info("{}={}", key, bytesPerCall);
+        String value = baseline.getProperty(key);
+        assertNotNull(value, "No allocation baseline " + key);
+        long allowed = Long.parseLong(value);
+        double tolerance = Double.parseDouble(baseline.getProperty("tolerance"));
+        assertTrue(
+                bytesPerCall <= allowed * (1 + tolerance),
+                String.format(
+                        "%s allocates %d bytes per call, the baseline is %d bytes",
+                        pipeline, bytesPerCall, allowed));
+    }
+
+    @Test
+    void nativePipelineStaysWithinBaseline() {
+        Kernel kernel = kernel();
+        ReadOnlyFunctionCollection text = kernel.importSkill(new StripSkill(), null);
+        SKFunction<?, ?> lStrip = text.getFunction("LStrip");
+        SKFunction<?, ?> rStrip = text.getFunction("RStrip");
+        SKFunction<?, ?> uppercase = text.getFunction("Uppercase");
+
+        assertWithinBaseline(
+                "native.pipeline",
+                bytesPerCall(
+                        () -> kernel.runAsync("  infinite space  ", lStrip, rStrip, uppercase)));
+    }
+
+    @Test
+    void semanticPipelineStaysWithinBaseline() {
+        Kernel kernel = kernel();
+        SKFunction<?, ?> summarize = summarize(kernel);
+        SKFunction<?, ?> uppercase =
+                kernel.importSkill(new StripSkill(), null).getFunction("Uppercase");
+
+        assertWithinBaseline(
+                "semantic.pipeline",
+                bytesPerCall(() -> kernel.runAsync("A block of text", summarize, uppercase)));
+    }
+
+    @Test
+    void semanticFunctionStaysWithinBaseline() {
+        CompletionSKFunction summarize = summarize(kernel());
+
+        assertWithinBaseline(
+                "semantic.function", bytesPerCall(() -> summarize.invokeAsync("A block of text")));
+    }
+}
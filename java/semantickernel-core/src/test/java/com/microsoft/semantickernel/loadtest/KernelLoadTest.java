@@ -0,0 +1,194 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.loadtest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.microsoft.openai.OpenAIAsyncClient;
+import com.microsoft.openai.OpenAIClientBuilder;
+import com.microsoft.semantickernel.Kernel;
+import com.microsoft.semantickernel.KernelConfig;
+import com.microsoft.semantickernel.ai.embeddings.Embedding;
+import com.microsoft.semantickernel.builders.SKBuilders;
+import com.microsoft.semantickernel.chatcompletion.ChatHistory;
+import com.microsoft.semantickernel.connectors.ai.openai.chatcompletion.OpenAIChatCompletion;
+import com.microsoft.semantickernel.connectors.ai.openai.textcompletion.OpenAITextCompletion;
+import com.microsoft.semantickernel.connectors.ai.openai.textembeddings.OpenAIFloatEmbeddingGeneration;
+import com.microsoft.semantickernel.coreskills.TextSkill;
+import com.microsoft.semantickernel.orchestration.SKContext;
+import com.microsoft.semantickernel.orchestration.SKFunction;
+import com.microsoft.semantickernel.semanticfunctions.PromptTemplateConfig;
+import com.microsoft.semantickernel.textcompletion.CompletionRequestSettings;
+import com.microsoft.semantickernel.textcompletion.CompletionSKContext;
+import com.microsoft.semantickernel.textcompletion.CompletionSKFunction;
+import com.microsoft.semantickernel.textcompletion.TextCompletion;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+class KernelLoadTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(KernelLoadTest.class);
+    private static final String MODEL = "text-davinci-003";
+
+    private static OpenAIAsyncClient client(MockOpenAIServer server) {
+        return new OpenAIClientBuilder().setEndpoint(server.getEndpoint()).setApiKey("key").build();
+    }
+
+    private static Kernel kernel(MockOpenAIServer server) {
+        TextCompletion textCompletion = new OpenAITextCompletion(client(server), MODEL);
+        KernelConfig kernelConfig =
+                SKBuilders.kernelConfig()
+                        .addTextCompletionService(MODEL, kernel -> textCompletion)
+                        .build();
+        return SKBuilders.kernel().setKernelConfig(kernelConfig).build();
+    }
+
+    private static CompletionSKFunction summarize(Kernel kernel) {
+        CompletionSKFunction summarize =
+                SKBuilders.completionFunctions()
+                        .createFunction(
+                                "{{$input}}\nSummarize the content above.",
+                                "summarize",
+                                null,
+                                null,
+                                new PromptTemplateConfig.CompletionConfig(
+                                        0.2, 0.5, 0, 0, 256, new ArrayList<>()));
+        kernel.registerSemanticFunction(summarize);
+        return summarize;
+    }
+
+    private static SKFunction<?, ?>[] summarizeAndUppercase(Kernel kernel) {
+        CompletionSKFunction summarize = summarize(kernel);
+        SKFunction<?, ?> uppercase =
+                kernel.importSkill(new TextSkill(), null).getFunction("Uppercase");
+        return new SKFunction<?, ?>[] {summarize, uppercase};
+    }
+
+    @Test
+    void pipelinesRunAtAFixedRate() {
+        try (MockOpenAIServer server =
+                new MockOpenAIServer.Builder()
+                        .setLatency(MockOpenAIServer.logNormal(Duration.ofMillis(20), 0.5))
+                        .setCompletion("a summary")
+                        .build()) {
+            Kernel kernel = kernel(server);
+            SKFunction<?, ?>[] pipeline = summarizeAndUppercase(kernel);
+
+            LoadDriver.Report report =
+                    new LoadDriver(50, Duration.ofSeconds(1))
+                            .run(() -> kernel.runAsync("A block of text", pipeline));
+            LOGGER.info("runAsync pipelines: {}", report);
+
+            assertEquals(50, report.getRequests());
+            assertEquals(0, report.getErrors());
+            assertEquals(50, server.getCompletionRequests());
+
+            SKContext<?> result = kernel.runAsync("A block of text", pipeline).block();
+            assertNotNull(result);
+            assertEquals("A SUMMARY", result.getResult());
+        }
+    }
+
+    @Test
+    void throttledRequestsAreRetriedThenFail() {
+        try (MockOpenAIServer server =
+                new MockOpenAIServer.Builder().setThrottleRate(1, Duration.ofMillis(10)).build()) {
+            Kernel kernel = kernel(server);
+            SKFunction<?, ?>[] pipeline = summarizeAndUppercase(kernel);
+
+            LoadDriver.Report report =
+                    new LoadDriver(10, Duration.ofMillis(500))
+                            .run(() -> kernel.runAsync("A block of text", pipeline));
+            LOGGER.info("throttled runAsync pipelines: {}", report);
+
+            assertEquals(5, report.getErrors());
+            // The first attempt and the retries of the default retry policy
+            assertEquals(5 * 4, server.getCompletionRequests());
+        }
+    }
+
+    @Test
+    void batchesPackPromptsIntoARequestAndMapChoicesBack() {
+        try (MockOpenAIServer server =
+                new MockOpenAIServer.Builder()
+                        .setLatency(MockOpenAIServer.logNormal(Duration.ofMillis(20), 0.5))
+                        .setCompletion(prompt -> "summary of " + prompt.split("\n")[0])
+                        .build()) {
+            CompletionSKFunction summarize = summarize(kernel(server));
+            List<String> rows =
+                    IntStream.range(0, 45).mapToObj(i -> "row " + i).collect(Collectors.toList());
+
+            List<String> results =
+                    summarize
+                            .invokeBatchAsync(
+                                    Flux.fromIterable(rows)
+                                            .map(row -> SKBuilders.variables().build(row)),
+                                    null,
+                                    20,
+                                    2)
+                            .map(CompletionSKContext::getResult)
+                            .collectList()
+                            .block(Duration.ofSeconds(10));
+
+            assertEquals(
+                    rows.stream().map(row -> "summary of " + row).collect(Collectors.toList()),
+                    results);
+            assertEquals(3, server.getCompletionRequests());
+        }
+    }
+
+    @Test
+    void completionsAreStreamedATokenAtATime() {
+        try (MockOpenAIServer server =
+                new MockOpenAIServer.Builder()
+                        .setCompletion("one two three")
+                        .setTokenInterval(Duration.ofMillis(5))
+                        .build()) {
+            TextCompletion textCompletion = new OpenAITextCompletion(client(server), MODEL);
+
+            List<String> tokens =
+                    textCompletion
+                            .completeStreamAsync("count", new CompletionRequestSettings())
+                            .collectList()
+                            .block(Duration.ofSeconds(10));
+
+            assertEquals(Arrays.asList("one", " two", " three"), tokens);
+        }
+    }
+
+    @Test
+    void chatCompletionsAndEmbeddingsAreAnswered() {
+        try (MockOpenAIServer server =
+                new MockOpenAIServer.Builder()
+                        .setCompletion("Hello")
+                        .setEmbeddingDimensions(16)
+                        .build()) {
+            OpenAIChatCompletion chatCompletion =
+                    new OpenAIChatCompletion(client(server), "gpt-35-turbo");
+            ChatHistory chat = chatCompletion.createNewChat("Be brief").addUserMessage("Hi");
+            assertEquals(
+                    "Hello",
+                    chatCompletion.generateMessageAsync(chat, null).block(Duration.ofSeconds(10)));
+
+            List<Embedding<Float>> embeddings =
+                    new OpenAIFloatEmbeddingGeneration(client(server), "text-embedding-ada-002")
+                            .generateEmbeddingsAsync(Arrays.asList("a", "b", "c"))
+                            .block(Duration.ofSeconds(10));
+            assertNotNull(embeddings);
+            assertEquals(3, embeddings.size());
+            assertEquals(16, embeddings.get(0).getVector().size());
+            assertEquals(1, server.getChatCompletionRequests());
+            assertEquals(1, server.getEmbeddingRequests());
+        }
+    }
+}
@@ -0,0 +1,194 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.loadtest;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Starts operations at a fixed rate, whether or not the previous ones completed, the way
+ * independent clients would, and reports the throughput, latencies and allocations.
+ *
+ * <pre>{@code
+ * LoadDriver.Report report =
+ *         new LoadDriver(50, Duration.ofSeconds(10))
+ *                 .run(() -> kernel.runAsync(variables, summarize, uppercase));
+ * }</pre>
+ */
+public class LoadDriver {
+
+    private final int requestsPerSecond;
+    private final Duration duration;
+
+    /**
+     * @param requestsPerSecond Number of operations started per second
+     * @param duration Time during which operations are started
+     */
+    public LoadDriver(int requestsPerSecond, Duration duration) {
+        this.requestsPerSecond = requestsPerSecond;
+        this.duration = duration;
+    }
+
+    /**
+     * Runs the operations and waits for the last one to complete.
+     *
+     * @param operation Supplies an operation each time one starts
+     * @return The report of the run
+     */
+    public Report run(Supplier<Mono<?>> operation) {
+        int requests = (int) (requestsPerSecond * duration.toMillis() / 1000);
+        long[] latencies = new long[requests];
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        AtomicLong lastCompletion = new AtomicLong();
+
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        Flux.interval(Duration.ZERO, Duration.ofNanos(1_000_000_000L / requestsPerSecond))
+                .take(requests)
+                .flatMap(
+                        tick ->
+                                Mono.defer(
+                                        () -> {
+                                            long started = System.nanoTime();
+                                            return operation
+                                                    .get()
+                                                    .doOnError(error -> errors.incrementAndGet())
+                                                    .onErrorResume(error -> Mono.empty())
+                                                    .doOnTerminate(
+                                                            () -> {
+                                                                long now = System.nanoTime();
+                                                                record(
+                                                                        latencies,
+                                                                        completed,
+                                                                        now - started);
+                                                                lastCompletion.accumulateAndGet(
+                                                                        now, Math::max);
+                                                            });
+                                        }),
+                        Integer.MAX_VALUE)
+                .blockLast();
+        long elapsed = Math.max(1, lastCompletion.get() - start);
+        long allocatedAfter = allocatedBytes();
+
+        long[] sorted = Arrays.copyOf(latencies, completed.get());
+        Arrays.sort(sorted);
+        double allocationRate =
+                allocatedBefore < 0 || allocatedAfter < 0
+                        ? -1
+                        : (allocatedAfter - allocatedBefore) * 1e9 / elapsed;
+        return new Report(
+                sorted.length, errors.get(), sorted.length * 1e9 / elapsed, sorted, allocationRate);
+    }
+
+    private static void record(long[] latencies, AtomicInteger completed, long latency) {
+        synchronized (latencies) {
+            latencies[completed.getAndIncrement()] = latency;
+        }
+    }
+
+    /** Bytes allocated so far by the live threads, -1 when the JVM does not measure them. */
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        if (!allocations.isThreadAllocatedMemorySupported()
+                || !allocations.isThreadAllocatedMemoryEnabled()) {
+            return -1;
+        }
+        long total = 0;
+        for (long allocated : allocations.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            if (allocated > 0) {
+                total += allocated;
+            }
+        }
+        return total;
+    }
+
+    /** Outcome of a run of a {@link LoadDriver}. */
+    public static class Report {
+        private final int requests;
+        private final int errors;
+        private final double throughput;
+        private final long[] latencies;
+        private final double allocationRate;
+
+        private Report(
+                int requests,
+                int errors,
+                double throughput,
+                long[] latencies,
+                double allocationRate) {
+            this.requests = requests;
+            this.errors = errors;
+            this.throughput = throughput;
+            this.latencies = latencies;
+            this.allocationRate = allocationRate;
+        }
+
+        /**
+         * @return Number of completed operations, failed ones included
+         */
+        public int getRequests() {
+            return requests;
+        }
+
+        /**
+         * @return Number of failed operations
+         */
+        public int getErrors() {
+            return errors;
+        }
+
+        /**
+         * @return Operations completed per second
+         */
+        public double getThroughput() {
+            return throughput;
+        }
+
+        /**
+         * @param percentile Percentile in (0, 1]
+         * @return Latency of the operations at the percentile, zero when none completed
+         */
+        public Duration getLatency(double percentile) {
+            if (latencies.length == 0) {
+                return Duration.ZERO;
+            }
+            int index = (int) Math.ceil(percentile * latencies.length) - 1;
+            return Duration.ofNanos(latencies[Math.max(0, Math.min(latencies.length - 1, index))]);
+        }
+
+        /**
+         * @return Bytes allocated per second by the threads alive at the end of the run, those
+         *     which died during the run are not accounted for, -1 when the JVM does not measure
+         *     allocations
+         */
+        public double getAllocationRate() {
+            return allocationRate;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "%d requests, %d errors, %.1f req/s, p50 %d ms, p90 %d ms, p99 %d ms, %.1f"
+                            + " MB/s allocated",
+                    requests,
+                    errors,
+                    throughput,
+                    getLatency(0.5).toMillis(),
+                    getLatency(0.9).toMillis(),
+                    getLatency(0.99).toMillis(),
+                    allocationRate / (1024 * 1024));
+        }
+    }
+}
@@ -0,0 +1,452 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * A local server answering the {@code /completions}, {@code /chat/completions} and {@code
+ * /embeddings} requests of the OpenAI API, with a configurable latency, share of failed and
+ * throttled requests. Requests setting {@code stream} are answered with server-sent events, a token
+ * per event.
+ *
+ * <pre>{@code
+ * try (MockOpenAIServer server =
+ *         new MockOpenAIServer.Builder()
+ *                 .setLatency(MockOpenAIServer.logNormal(Duration.ofMillis(50), 0.5))
+ *                 .setThrottleRate(0.05)
+ *                 .build()) {
+ *     OpenAIAsyncClient client =
+ *             new OpenAIClientBuilder().setEndpoint(server.getEndpoint()).setApiKey("key").build();
+ * }
+ * }</pre>
+ */
+public class MockOpenAIServer implements AutoCloseable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Random random;
+    private final Function<Random, Duration> latency;
+    private final Duration tokenInterval;
+    private final double errorRate;
+    private final double throttleRate;
+    private final Duration retryAfter;
+    private final Function<String, String> completion;
+    private final int embeddingDimensions;
+    private final AtomicLong completionRequests = new AtomicLong();
+    private final AtomicLong chatCompletionRequests = new AtomicLong();
+    private final AtomicLong embeddingRequests = new AtomicLong();
+    private final DisposableServer server;
+
+    private MockOpenAIServer(Builder builder) {
+        this.random = new Random(builder.seed);
+        this.latency = builder.latency;
+        this.tokenInterval = builder.tokenInterval;
+        this.errorRate = builder.errorRate;
+        this.throttleRate = builder.throttleRate;
+        this.retryAfter = builder.retryAfter;
+        this.completion = builder.completion;
+        this.embeddingDimensions = builder.embeddingDimensions;
+        this.server =
+                HttpServer.create()
+                        .host("127.0.0.1")
+                        .port(0)
+                        .route(
+                                routes ->
+                                        routes.post(
+                                                        "/completions",
+                                                        (request, response) ->
+                                                                handle(
+                                                                        request,
+                                                                        response,
+                                                                        completionRequests,
+                                                                        this::completions))
+                                                .post(
+                                                        "/chat/completions",
+                                                        (request, response) ->
+                                                                handle(
+                                                                        request,
+                                                                        response,
+                                                                        chatCompletionRequests,
+                                                                        this::chatCompletions))
+                                                .post(
+                                                        "/embeddings",
+                                                        (request, response) ->
+                                                                handle(
+                                                                        request,
+                                                                        response,
+                                                                        embeddingRequests,
+                                                                        this::embeddings)))
+                        .bindNow();
+    }
+
+    /**
+     * @param latency Latency of every request
+     * @return A latency distribution always returning {@code latency}
+     */
+    public static Function<Random, Duration> fixed(Duration latency) {
+        return random -> latency;
+    }
+
+    /**
+     * @param median Median latency
+     * @param sigma Standard deviation of the logarithm of the latency, the longer the tail the
+     *     larger
+     * @return A log-normal latency distribution, typical of the response times of a service
+     */
+    public static Function<Random, Duration> logNormal(Duration median, double sigma) {
+        double mu = Math.log(median.toNanos());
+        return random -> Duration.ofNanos((long) Math.exp(mu + sigma * random.nextGaussian()));
+    }
+
+    /**
+     * @return Endpoint to set on an OpenAI client
+     */
+    public String getEndpoint() {
+        return "http://127.0.0.1:" + server.port();
+    }
+
+    /**
+     * @return Number of requests received on {@code /completions}, retries included
+     */
+    public long getCompletionRequests() {
+        return completionRequests.get();
+    }
+
+    /**
+     * @return Number of requests received on {@code /chat/completions}, retries included
+     */
+    public long getChatCompletionRequests() {
+        return chatCompletionRequests.get();
+    }
+
+    /**
+     * @return Number of requests received on {@code /embeddings}, retries included
+     */
+    public long getEmbeddingRequests() {
+        return embeddingRequests.get();
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+
+    private Mono<Void> handle(
+            HttpServerRequest request,
+            HttpServerResponse response,
+            AtomicLong counter,
+            Function<JsonNode, Answer> answer) {
+        counter.incrementAndGet();
+        return request.receive()
+                .aggregate()
+                .asString()
+                .flatMap(
+                        body -> {
+                            Duration delay;
+                            double outcome;
+                            synchronized (random) {
+                                delay = latency.apply(random);
+                                outcome = random.nextDouble();
+                            }
+                            Answer content = answer.apply(parse(body));
+                            return Mono.delay(delay)
+                                    .then(Mono.defer(() -> respond(response, outcome, content)));
+                        });
+    }
+
+    private Mono<Void> respond(HttpServerResponse response, double outcome, Answer answer) {
+        if (outcome < throttleRate) {
+            return response.status(HttpResponseStatus.TOO_MANY_REQUESTS)
+                    .header("retry-after-ms", String.valueOf(retryAfter.toMillis()))
+                    .send()
+                    .then();
+        }
+        if (outcome < throttleRate + errorRate) {
+            return response.status(HttpResponseStatus.INTERNAL_SERVER_ERROR).send().then();
+        }
+        if (answer.events != null) {
+            Flux<String> events =
+                    Flux.fromIterable(answer.events)
+                            .delayElements(tokenInterval)
+                            .map(event -> "data: " + event + "\n\n")
+                            .concatWith(Mono.just("data: [DONE]\n\n"));
+            return response.header("content-type", "text/event-stream").sendString(events).then();
+        }
+        return response.header("content-type", "application/json")
+                .sendString(Mono.just(answer.body))
+                .then();
+    }
+
+    private Answer completions(JsonNode request) {
+        // The prompt is a string or an array of prompts, each answered by the choice of its index
+        JsonNode prompt = request.path("prompt");
+        List<String> prompts = new ArrayList<>();
+        if (prompt.isArray()) {
+            prompt.forEach(it -> prompts.add(it.asText()));
+        } else {
+            prompts.add(prompt.asText());
+        }
+
+        if (request.path("stream").asBoolean()) {
+            return Answer.events(
+                    tokens(completion.apply(prompts.get(0))),
+                    token -> choices().add(textChoice(0, token)),
+                    false);
+        }
+        ObjectNode response = envelope();
+        ArrayNode choices = response.putArray("choices");
+        int completionTokens = 0;
+        for (int i = 0; i < prompts.size(); i++) {
+            String text = completion.apply(prompts.get(i));
+            choices.add(textChoice(i, text));
+            completionTokens += tokens(text).size();
+        }
+        response.set("usage", usage(request, completionTokens));
+        return Answer.body(response);
+    }
+
+    private Answer chatCompletions(JsonNode request) {
+        JsonNode messages = request.path("messages");
+        String text = completion.apply(messages.path(messages.size() - 1).path("content").asText());
+        if (request.path("stream").asBoolean()) {
+            return Answer.events(
+                    tokens(text),
+                    token -> {
+                        ObjectNode choice = choice(0);
+                        choice.putObject("delta").put("content", token);
+                        return choices().add(choice);
+                    },
+                    true);
+        }
+        ObjectNode choice = choice(0);
+        choice.putObject("message").put("role", "assistant").put("content", text);
+        ObjectNode response = envelope();
+        response.putArray("choices").add(choice);
+        response.set("usage", usage(request, tokens(text).size()));
+        return Answer.body(response);
+    }
+
+    private Answer embeddings(JsonNode request) {
+        JsonNode input = request.path("input");
+        int count = input.isArray() ? input.size() : 1;
+        ObjectNode response = MAPPER.createObjectNode();
+        ArrayNode data = response.putArray("data");
+        for (int i = 0; i < count; i++) {
+            ObjectNode item = data.addObject().put("index", i);
+            ArrayNode embedding = item.putArray("embedding");
+            for (int d = 0; d < embeddingDimensions; d++) {
+                // Deterministic, so that the same text always gets the same vector
+                embedding.add(Math.sin(input.path(i).asText().hashCode() + d));
+            }
+        }
+        response.putObject("usage").put("prompt_tokens", count).put("total_tokens", count);
+        return Answer.body(response);
+    }
+
+    private static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        String[] words = text.split(" ");
+        for (int i = 0; i < words.length; i++) {
+            tokens.add(i == 0 ? words[i] : " " + words[i]);
+        }
+        return tokens;
+    }
+
+    private static ObjectNode usage(JsonNode request, int completionTokens) {
+        int promptTokens = request.toString().length() / 4;
+        return MAPPER.createObjectNode()
+                .put("prompt_tokens", promptTokens)
+                .put("completion_tokens", completionTokens)
+                .put("total_tokens", promptTokens + completionTokens);
+    }
+
+    private static ObjectNode envelope() {
+        return MAPPER.createObjectNode()
+                .put("id", "mock")
+                .put("created", System.currentTimeMillis() / 1000);
+    }
+
+    private static ArrayNode choices() {
+        return MAPPER.createArrayNode();
+    }
+
+    private static ObjectNode choice(int index) {
+        return MAPPER.createObjectNode().put("index", index).put("finish_reason", "stop");
+    }
+
+    private static ObjectNode textChoice(int index, String text) {
+        ObjectNode choice = choice(index).put("text", text);
+        choice.putNull("logprobs");
+        return choice;
+    }
+
+    private static JsonNode parse(String body) {
+        try {
+            return MAPPER.readTree(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** A response body, or the events of a streamed response. */
+    private static final class Answer {
+        private final String body;
+        private final List<String> events;
+
+        private Answer(String body, List<String> events) {
+            this.body = body;
+            this.events = events;
+        }
+
+        private static Answer body(ObjectNode response) {
+            return new Answer(response.toString(), null);
+        }
+
+        private static Answer events(
+                List<String> tokens, Function<String, ArrayNode> choices, boolean chat) {
+            List<String> events = new ArrayList<>();
+            for (String token : tokens) {
+                ObjectNode event = envelope();
+                if (chat) {
+                    event.put("object", "chat.completion.chunk");
+                }
+                event.set("choices", choices.apply(token));
+                // The usage is not known before the end of the stream
+                event.putNull("usage");
+                events.add(event.toString());
+            }
+            return new Answer(null, events);
+        }
+    }
+
+    /** Builder of {@link MockOpenAIServer}. */
+    public static class Builder {
+        private Function<Random, Duration> latency = fixed(Duration.ZERO);
+        private Duration tokenInterval = Duration.ZERO;
+        private double errorRate = 0;
+        private double throttleRate = 0;
+        private Duration retryAfter = Duration.ofMillis(10);
+        private Function<String, String> completion =
+                prompt -> "The quick brown fox jumps over the lazy dog";
+        private int embeddingDimensions = 8;
+        private long seed = 42;
+
+        /**
+         * @param latency Distribution of the latency before the response, or its first event when
+         *     streaming, see {@link #fixed(Duration)} and {@link #logNormal(Duration, double)}
+         * @return This builder
+         */
+        public Builder setLatency(Function<Random, Duration> latency) {
+            this.latency = latency;
+            return this;
+        }
+
+        /**
+         * @param latency Latency of every request
+         * @return This builder
+         */
+        public Builder setLatency(Duration latency) {
+            return setLatency(fixed(latency));
+        }
+
+        /**
+         * @param tokenInterval Delay between the events of a streamed response
+         * @return This builder
+         */
+        public Builder setTokenInterval(Duration tokenInterval) {
+            this.tokenInterval = tokenInterval;
+            return this;
+        }
+
+        /**
+         * @param errorRate Share of the requests failing with a 500
+         * @return This builder
+         */
+        public Builder setErrorRate(double errorRate) {
+            this.errorRate = errorRate;
+            return this;
+        }
+
+        /**
+         * @param throttleRate Share of the requests throttled with a 429
+         * @param retryAfter Delay advertised in the {@code retry-after-ms} header of the 429
+         * @return This builder
+         */
+        public Builder setThrottleRate(double throttleRate, Duration retryAfter) {
+            this.throttleRate = throttleRate;
+            this.retryAfter = retryAfter;
+            return this;
+        }
+
+        /**
+         * @param throttleRate Share of the requests throttled with a 429, to be retried after 10
+         *     milliseconds
+         * @return This builder
+         */
+        public Builder setThrottleRate(double throttleRate) {
+            this.throttleRate = throttleRate;
+            return this;
+        }
+
+        /**
+         * @param completion Text of every completion, streamed a word at a time
+         * @return This builder
+         */
+        public Builder setCompletion(String completion) {
+            return setCompletion(prompt -> completion);
+        }
+
+        /**
+         * @param completion Completes a prompt, or the last message of a chat, streamed a word at a
+         *     time
+         * @return This builder
+         */
+        public Builder setCompletion(Function<String, String> completion) {
+            this.completion = completion;
+            return this;
+        }
+
+        /**
+         * @param embeddingDimensions Number of dimensions of the embeddings
+         * @return This builder
+         */
+        public Builder setEmbeddingDimensions(int embeddingDimensions) {
+            this.embeddingDimensions = embeddingDimensions;
+            return this;
+        }
+
+        /**
+         * @param seed Seed of the latencies and failures, so that a run can be replayed
+         * @return This builder
+         */
+        public Builder setSeed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public MockOpenAIServer build() {
+            return new MockOpenAIServer(this);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.memory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.microsoft.semantickernel.ai.embeddings.Embedding;
+import com.microsoft.semantickernel.ai.embeddings.EmbeddingGeneration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+class DefaultSemanticTextMemoryTest {
+
+    private static final String COLLECTION = "products";
+
+    private final AtomicInteger embeddingCalls = new AtomicInteger();
+    private EmbeddingGeneration<String, Float> embeddingGeneration;
+    private SemanticTextMemory memory;
+
+    @BeforeEach
+    void setUp() {
+        // Deterministic embedding, counts a few letters of the text
+        embeddingGeneration =
+                data -> {
+                    embeddingCalls.incrementAndGet();
+                    return Mono.just(
+                            data.stream()
+                                    .map(
+                                            text ->
+                                                    new Embedding<>(
+                                                            Arrays.asList(
+                                                                    count(text, 'a') + 1f,
+                                                                    count(text, 'e') + 1f,
+                                                                    count(text, 'o') + 1f)))
+                                    .collect(Collectors.toList()));
+                };
+        memory = new DefaultSemanticTextMemory(new VolatileMemoryStore(), embeddingGeneration);
+
+        memory.saveInformationAsync(
+                        COLLECTION, "Espresso machine with steam wand", "sku-1001", "coffee", null)
+                .block();
+        memory.saveInformationAsync(
+                        COLLECTION, "Burr grinder for espresso", "sku-2002", "coffee", null)
+                .block();
+        memory.saveInformationAsync(
+                        COLLECTION, "Cast iron pan", "sku-3003", "kitchen SKU-3003", null)
+                .block();
+        embeddingCalls.set(0);
+    }
+
+    private static float count(String text, char c) {
+        return (float) text.chars().filter(x -> x == c).count();
+    }
+
+    @Test
+    void lexicalSearchDoesNotEmbedTheQuery() {
+        List<MemoryQueryResult> results =
+                memory.searchAsync(COLLECTION, "SKU-3003", 2, 0, false, MemorySearchMode.LEXICAL)
+                        .block();
+
+        assertNotNull(results);
+        assertFalse(results.isEmpty());
+        assertEquals("sku-3003", results.get(0).getMetadata().getId());
+        assertTrue(results.get(0).getRelevance() > 0);
+        assertTrue(results.get(0).getRelevance() < 1);
+        assertEquals(0, embeddingCalls.get());
+    }
+
+    @Test
+    void lexicalRelevanceIsRelativeToTheQuery() {
+        List<MemoryQueryResult> pan =
+                memory.searchAsync(COLLECTION, "pan", 3, 0, false, MemorySearchMode.LEXICAL)
+                        .block();
+        List<MemoryQueryResult> panOrGrinder =
+                memory.searchAsync(COLLECTION, "pan grinder", 3, 0, false, MemorySearchMode.LEXICAL)
+                        .block();
+        List<MemoryQueryResult> filtered =
+                memory.searchAsync(COLLECTION, "pan", 3, 0.9, false, MemorySearchMode.LEXICAL)
+                        .block();
+
+        assertNotNull(pan);
+        assertNotNull(panOrGrinder);
+        assertEquals(1, pan.size());
+        assertEquals(2, panOrGrinder.size());
+        // The best match of a query does not score 1 when it misses some of its terms
+        assertTrue(panOrGrinder.get(0).getRelevance() < pan.get(0).getRelevance());
+        assertNotNull(filtered);
+        assertTrue(filtered.isEmpty());
+    }
+
+    @Test
+    void hybridSearchAppliesTheThresholdToBothRankings() {
+        List<MemoryQueryResult> results =
+                memory.searchAsync(COLLECTION, "espresso", 3, 1.01, false, MemorySearchMode.HYBRID)
+                        .block();
+
+        assertNotNull(results);
+        assertTrue(results.isEmpty());
+    }
+
+    @Test
+    void lexicalSearchOfACollectionCreatedElsewhereFails() {
+        MemoryStore store = new VolatileMemoryStore();
+        new DefaultSemanticTextMemory(store, embeddingGeneration)
+                .saveInformationAsync(COLLECTION, "Cast iron pan", "sku-3003", "kitchen", null)
+                .block();
+        SemanticTextMemory other = new DefaultSemanticTextMemory(store, embeddingGeneration);
+
+        MemoryException error =
+                assertThrows(
+                        MemoryException.class,
+                        () ->
+                                other.searchAsync(
+                                                COLLECTION,
+                                                "pan",
+                                                2,
+                                                0,
+                                                false,
+                                                MemorySearchMode.LEXICAL)
+                                        .block());
+        assertEquals(MemoryException.ErrorCodes.COLLECTION_NOT_INDEXED, error.getErrorCode());
+        List<MemoryQueryResult> missing =
+                other.searchAsync("missing", "pan", 2, 0, false, MemorySearchMode.LEXICAL).block();
+        assertNotNull(missing);
+        assertTrue(missing.isEmpty());
+    }
+
+    @Test
+    void hybridSearchFusesBothRankings() {
+        List<MemoryQueryResult> results =
+                memory.searchAsync(COLLECTION, "espresso", 3, -1, false, MemorySearchMode.HYBRID)
+                        .block();
+
+        assertNotNull(results);
+        assertEquals(3, results.size());
+        assertEquals(1, embeddingCalls.get());
+        List<String> ids =
+                results.stream().map(r -> r.getMetadata().getId()).collect(Collectors.toList());
+        assertTrue(ids.indexOf("sku-3003") > ids.indexOf("sku-1001"));
+        assertTrue(ids.indexOf("sku-3003") > ids.indexOf("sku-2002"));
+        for (int i = 0; i < results.size() - 1; i++) {
+            assertTrue(results.get(i).getRelevance() >= results.get(i + 1).getRelevance());
+        }
+    }
+
+    @Test
+    void removedMemoriesAreNotFoundLexically() {
+        memory.removeAsync(COLLECTION, "sku-3003").block();
+
+        List<MemoryQueryResult> results =
+                memory.searchAsync(COLLECTION, "pan", 2, 0, false, MemorySearchMode.LEXICAL)
+                        .block();
+
+        assertNotNull(results);
+        assertTrue(results.isEmpty());
+    }
+}
@@ -7,12 +7,16 @@ import com.microsoft.semantickernel.ai.embeddings.Embedding;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import reactor.util.function.Tuple2;
 
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.stream.Collectors;
 
 class VolatileMemoryStoreTests {
     private VolatileMemoryStore _db;
@@ -153,6 +157,198 @@ class VolatileMemoryStoreTests {
         assertNotEquals(testRecord, actualDefault);
         assertEquals(testRecord, actualWithEmbedding);
     }
+
+    @Test
+    void GetNearestMatchAsyncReturnsExpectedAsync() {
+        // Arrange
+        Embedding<Float> compareEmbedding = new Embedding<>(Arrays.asList(1f, 1f, 1f));
+        String collection = "test_collection" + this._collectionNum;
+        this._collectionNum++;
+        this._db.createCollectionAsync(collection).block();
+        List<List<Float>> vectors =
+                Arrays.asList(
+                        Arrays.asList(1f, 1f, 1f),
+                        Arrays.asList(-1f, -1f, -1f),
+                        Arrays.asList(1f, 2f, 3f),
+                        Arrays.asList(-1f, -2f, -3f),
+                        Arrays.asList(1f, -1f, -2f));
+        for (int i = 0; i < vectors.size(); i++) {
+            MemoryRecord testRecord =
+                    MemoryRecord.localRecord(
+                            "test" + i,
+                            "text" + i,
+                            "description" + i,
+                            new Embedding<>(vectors.get(i)),
+                            NULL_ADDITIONAL_METADATA,
+                            NULL_KEY,
+                            NULL_TIMESTAMP);
+            this._db.upsertAsync(collection, testRecord).block();
+        }
+
+        // Act
+        double threshold = 0.75;
+        Tuple2<MemoryRecord, Double> topNResult =
+                this._db
+                        .getNearestMatchAsync(collection, compareEmbedding, threshold, false)
+                        .block();
+        Collection<Tuple2<MemoryRecord, Double>> topNResults =
+                this._db.getNearestMatchesAsync(collection, compareEmbedding, 4, -1, true).block();
+
+        // Assert
+        assertNotNull(topNResult);
+        assertEquals("test0", topNResult.getT1().getMetadata().getId());
+        assertTrue(topNResult.getT2() >= threshold);
+        assertTrue(topNResult.getT1().getEmbedding().getVector().isEmpty());
+        assertNotNull(topNResults);
+        assertEquals(4, topNResults.size());
+        List<Double> scores = topNResults.stream().map(Tuple2::getT2).collect(Collectors.toList());
+        for (int j = 0; j < scores.size() - 1; j++) {
+            assertTrue(scores.get(j) >= scores.get(j + 1));
+        }
+    }
+
+    @Test
+    void GetNearestMatchesOnlyScoresRecordsMatchingTheFilterAsync() {
+        // Arrange
+        Embedding<Float> compareEmbedding = new Embedding<>(Arrays.asList(1f, 1f, 1f));
+        String collection = "test_collection" + this._collectionNum;
+        this._collectionNum++;
+        this._db.createCollectionAsync(collection).block();
+        this._db.upsertBatchAsync(collection, createBatchRecords(10)).block();
+        this._db
+                .upsertAsync(
+                        collection,
+                        MemoryRecord.referenceRecord(
+                                "tagged",
+                                "sourceName5",
+                                "description",
+                                new Embedding<>(Arrays.asList(1f, 1f, 1f)),
+                                "{\"lang\":\"en\",\"stars\":5}",
+                                NULL_KEY,
+                                ZonedDateTime.parse("2023-05-01T00:00:00Z")))
+                .block();
+
+        // Act
+        Collection<Tuple2<MemoryRecord, Double>> references =
+                this._db
+                        .getNearestMatchesAsync(
+                                collection,
+                                compareEmbedding,
+                                20,
+                                -1,
+                                false,
+                                MemoryRecordFilter.isReference(true))
+                        .block();
+        Collection<Tuple2<MemoryRecord, Double>> bySource =
+                this._db
+                        .getNearestMatchesAsync(
+                                collection,
+                                compareEmbedding,
+                                20,
+                                -1,
+                                false,
+                                MemoryRecordFilter.externalSourceName("sourceName5")
+                                        .and(
+                                                MemoryRecordFilter.not(
+                                                        MemoryRecordFilter.additionalMetadata(
+                                                                "lang", "en"))))
+                        .block();
+        Collection<Tuple2<MemoryRecord, Double>> byMetadataAndTime =
+                this._db
+                        .getNearestMatchesAsync(
+                                collection,
+                                compareEmbedding,
+                                20,
+                                -1,
+                                false,
+                                MemoryRecordFilter.allOf(
+                                        MemoryRecordFilter.additionalMetadata("stars", "5"),
+                                        MemoryRecordFilter.timestampBetween(
+                                                ZonedDateTime.parse("2023-01-01T00:00:00Z"), null)))
+                        .block();
+
+        // Assert
+        assertNotNull(references);
+        assertEquals(6, references.size());
+        assertTrue(references.stream().allMatch(t -> t.getT1().getMetadata().isReference()));
+        assertNotNull(bySource);
+        assertEquals(1, bySource.size());
+        assertEquals("test5", bySource.iterator().next().getT1().getMetadata().getId());
+        assertNotNull(byMetadataAndTime);
+        assertEquals(1, byMetadataAndTime.size());
+        assertEquals("tagged", byMetadataAndTime.iterator().next().getT1().getMetadata().getId());
+    }
+
+    @Test
+    void RemovedRecordsAreNotReturnedByFilteredSearchAsync() {
+        // Arrange
+        Embedding<Float> compareEmbedding = new Embedding<>(Arrays.asList(1f, 1f, 1f));
+        String collection = "test_collection" + this._collectionNum;
+        this._collectionNum++;
+        this._db.createCollectionAsync(collection).block();
+        this._db.upsertBatchAsync(collection, createBatchRecords(4)).block();
+
+        // Act
+        this._db.removeAsync(collection, "test3").block();
+        Collection<Tuple2<MemoryRecord, Double>> results =
+                this._db
+                        .getNearestMatchesAsync(
+                                collection,
+                                compareEmbedding,
+                                10,
+                                -1,
+                                false,
+                                MemoryRecordFilter.externalSourceName("sourceName3"))
+                        .block();
+
+        // Assert
+        assertNotNull(results);
+        assertTrue(results.isEmpty());
+    }
+
+    @Test
+    void StoresWithoutFilteringFilterTheUnfilteredMatchesAsync() {
+        // Arrange
+        Embedding<Float> compareEmbedding = new Embedding<>(Arrays.asList(1f, 1f, 1f));
+        String collection = "test_collection" + this._collectionNum;
+        this._collectionNum++;
+        this._db.createCollectionAsync(collection).block();
+        this._db.upsertBatchAsync(collection, createBatchRecords(10)).block();
+        MemoryStore unfiltered = Mockito.mock(MemoryStore.class, Mockito.CALLS_REAL_METHODS);
+        Mockito.doAnswer(
+                        invocation ->
+                                this._db.getNearestMatchesAsync(
+                                        invocation.getArgument(0),
+                                        invocation.getArgument(1),
+                                        invocation.getArgument(2),
+                                        invocation.getArgument(3),
+                                        invocation.getArgument(4)))
+                .when(unfiltered)
+                .getNearestMatchesAsync(
+                        Mockito.anyString(),
+                        Mockito.any(),
+                        Mockito.anyInt(),
+                        Mockito.anyDouble(),
+                        Mockito.anyBoolean());
+
+        // Act
+        Collection<Tuple2<MemoryRecord, Double>> references =
+                unfiltered
+                        .getNearestMatchesAsync(
+                                collection,
+                                compareEmbedding,
+                                3,
+                                -1,
+                                false,
+                                MemoryRecordFilter.isReference(true))
+                        .block();
+
+        // Assert
+        assertNotNull(references);
+        assertEquals(3, references.size());
+        assertTrue(references.stream().allMatch(t -> t.getT1().getMetadata().isReference()));
+    }
+
     /*
         @Test
         void itCanUpsertAndRetrieveARecordWithNoTimestampAsync()
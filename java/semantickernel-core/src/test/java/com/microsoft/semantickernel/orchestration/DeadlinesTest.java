@@ -0,0 +1,123 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.orchestration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.microsoft.semantickernel.Kernel;
+import com.microsoft.semantickernel.KernelException;
+import com.microsoft.semantickernel.builders.SKBuilders;
+import com.microsoft.semantickernel.skilldefinition.annotations.DefineSKFunction;
+import com.microsoft.semantickernel.skilldefinition.annotations.SKFunctionParameters;
+
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+class DeadlinesTest {
+
+    public static class SlowSkill {
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+
+        @DefineSKFunction(description = "Answers after a minute.", name = "slow")
+        public Mono<String> slow(
+                @SKFunctionParameters(
+                                description = "Ignored",
+                                name = "input",
+                                defaultValue = "",
+                                type = String.class)
+                        String input) {
+            return Mono.delay(Duration.ofMinutes(1))
+                    .map(ignored -> "late")
+                    .doOnCancel(() -> cancelled.set(true));
+        }
+    }
+
+    private static KernelException.ErrorCodes errorOf(Mono<?> invocation) {
+        KernelException error =
+                assertThrows(KernelException.class, () -> invocation.block(Duration.ofSeconds(5)));
+        return error.getErrorCode();
+    }
+
+    @Test
+    void anExpiredPipelineIsCancelled() {
+        Kernel kernel =
+                SKBuilders.kernel().setKernelConfig(SKBuilders.kernelConfig().build()).build();
+        SlowSkill skill = new SlowSkill();
+        SKFunction<?, ?> slow = kernel.importSkill(skill, "slow").getFunction("slow");
+
+        Mono<SKContext<?>> run =
+                kernel.runAsync(
+                        SKBuilders.variables().build(), Instant.now().plusMillis(100), slow);
+
+        assertEquals(KernelException.ErrorCodes.DeadlineExceeded, errorOf(run));
+        assertTrue(skill.cancelled.get());
+    }
+
+    @Test
+    void theDeadlineOfTheContextIsCopiedAndHonoured() {
+        Kernel kernel =
+                SKBuilders.kernel().setKernelConfig(SKBuilders.kernelConfig().build()).build();
+        SKFunction slow = kernel.importSkill(new SlowSkill(), "slow").getFunction("slow");
+        Instant deadline = Instant.now().plusMillis(100);
+        SemanticSKContext context =
+                new DefaultSemanticSKContext(SKBuilders.variables().build()).setDeadline(deadline);
+
+        assertEquals(deadline, context.copy().getDeadline());
+        assertEquals(
+                KernelException.ErrorCodes.DeadlineExceeded,
+                errorOf(slow.invokeAsync(context, null)));
+    }
+
+    @Test
+    void anExpiredStreamIsCancelled() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Flux<Long> stream =
+                Flux.interval(Duration.ofMillis(20)).doOnCancel(() -> cancelled.set(true));
+
+        List<Long> received = new ArrayList<>();
+        KernelException error =
+                assertThrows(
+                        KernelException.class,
+                        () ->
+                                Deadlines.apply(stream, Instant.now().plusMillis(200))
+                                        .doOnNext(received::add)
+                                        .blockLast(Duration.ofSeconds(5)));
+
+        assertEquals(KernelException.ErrorCodes.DeadlineExceeded, error.getErrorCode());
+        assertTrue(cancelled.get());
+        assertFalse(received.isEmpty());
+    }
+
+    @Test
+    void streamsInheritTheDeadlineOfTheInvocation() {
+        Flux<Long> stream = Flux.interval(Duration.ofMillis(20));
+        Mono<List<Long>> invocation =
+                Deadlines.apply(
+                        Mono.defer(() -> Deadlines.apply(stream, null).collectList()),
+                        Instant.now().plusMillis(100));
+
+        assertEquals(KernelException.ErrorCodes.DeadlineExceeded, errorOf(invocation));
+        assertEquals(
+                Arrays.asList(1, 2),
+                Deadlines.apply(Flux.just(1, 2), Instant.now().plusSeconds(5))
+                        .collectList()
+                        .block());
+    }
+
+    @Test
+    void aPassedDeadlineFailsBeforeInvoking() {
+        Mono<String> operation = Mono.fromCallable(() -> fail("invoked"));
+
+        assertEquals(
+                KernelException.ErrorCodes.DeadlineExceeded,
+                errorOf(Deadlines.apply(operation, Instant.now().minusSeconds(1))));
+    }
+}
@@ -0,0 +1,74 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.orchestration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.microsoft.semantickernel.builders.SKBuilders;
+import com.microsoft.semantickernel.memory.NullMemory;
+import com.microsoft.semantickernel.memory.SemanticTextMemory;
+import com.microsoft.semantickernel.skilldefinition.DefaultSkillCollection;
+import com.microsoft.semantickernel.skilldefinition.ReadOnlySkillCollection;
+
+import org.junit.jupiter.api.Test;
+
+class DefaultSemanticSKContextTest {
+
+    private static SemanticSKContext context() {
+        return new DefaultSemanticSKContext(
+                SKBuilders.variables().build("input"),
+                NullMemory.getInstance(),
+                new DefaultSkillCollection());
+    }
+
+    @Test
+    void copiesShareTheirStateUntilWritten() {
+        SemanticSKContext context = context().setVariable("key", "value");
+        SemanticSKContext copy = context.copy();
+
+        assertSame(context.getVariables(), copy.getVariables());
+        assertSame(context.getSemanticMemory(), copy.getSemanticMemory());
+        assertSame(context.getSkills(), copy.getSkills());
+
+        copy.setVariable("key", "changed").update("result");
+
+        assertEquals("value", context.getVariables().get("key"));
+        assertEquals("input", context.getResult());
+        assertEquals("changed", copy.getVariables().get("key"));
+        assertEquals("result", copy.getResult());
+    }
+
+    @Test
+    void writesToTheOriginalDoNotReachACopy() {
+        SemanticSKContext context = context();
+        SemanticSKContext copy = context.copy();
+
+        context.appendToVariable(ContextVariables.MAIN_KEY, " appended");
+
+        assertEquals("input appended", context.getResult());
+        assertEquals("input", copy.getResult());
+    }
+
+    @Test
+    void variablesAreASnapshot() {
+        SemanticSKContext context = context();
+        ContextVariables variables = context.getVariables();
+
+        context.update("updated");
+
+        assertEquals("input", variables.get(ContextVariables.MAIN_KEY));
+        assertEquals("updated", context.getResult());
+    }
+
+    @Test
+    void contextsBuiltFromVariablesOfAnotherContextDoNotWriteToThem() {
+        SemanticSKContext context = context();
+        SemanticTextMemory memory = context.getSemanticMemory();
+        ReadOnlySkillCollection skills = context.getSkills();
+        SemanticSKContext other = context.build(context.getVariables(), memory, skills);
+
+        other.update("other");
+
+        assertEquals("input", context.getResult());
+        assertEquals("other", other.getResult());
+    }
+}
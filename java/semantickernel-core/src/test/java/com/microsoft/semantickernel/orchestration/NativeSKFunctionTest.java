@@ -0,0 +1,167 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.orchestration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.microsoft.semantickernel.Kernel;
+import com.microsoft.semantickernel.KernelException;
+import com.microsoft.semantickernel.builders.SKBuilders;
+import com.microsoft.semantickernel.diagnostics.Instrumentation;
+import com.microsoft.semantickernel.diagnostics.Instrumentations;
+import com.microsoft.semantickernel.skilldefinition.annotations.DefineSKFunction;
+import com.microsoft.semantickernel.skilldefinition.annotations.SKFunctionParameters;
+
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nullable;
+
+class NativeSKFunctionTest {
+
+    public static class CountingSkill {
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @DefineSKFunction(description = "Reverses a text.", name = "reverse", deterministic = true)
+        public Mono<String> reverse(
+                @SKFunctionParameters(
+                                description = "Text to reverse",
+                                name = "input",
+                                defaultValue = "",
+                                type = String.class)
+                        String input) {
+            calls.incrementAndGet();
+            return Mono.just(new StringBuilder(input).reverse().toString());
+        }
+
+        @DefineSKFunction(description = "Counts the calls.", name = "count")
+        public Mono<String> count(
+                @SKFunctionParameters(
+                                description = "Ignored",
+                                name = "input",
+                                defaultValue = "",
+                                type = String.class)
+                        String input) {
+            return Mono.just(String.valueOf(calls.incrementAndGet()));
+        }
+    }
+
+    public static class BlockingSkill {
+        @DefineSKFunction(description = "Names the thread.", name = "thread", blocking = true)
+        public String thread() {
+            return Thread.currentThread().getName();
+        }
+
+        @DefineSKFunction(description = "Sleeps.", name = "sleep")
+        public String sleep() throws InterruptedException {
+            Thread.sleep(50);
+            return "slept";
+        }
+    }
+
+    public static class ContextSkill {
+        @DefineSKFunction(description = "Reads the context.", name = "read", deterministic = true)
+        public Mono<String> read(SemanticSKContext context) {
+            return Mono.just(context.getResult());
+        }
+    }
+
+    private static Kernel kernel() {
+        return SKBuilders.kernel().setKernelConfig(SKBuilders.kernelConfig().build()).build();
+    }
+
+    private static String invoke(SKFunction<?, ?> function, String input) {
+        return function.invokeAsync(input).block().getResult();
+    }
+
+    @Test
+    void resultsOfDeterministicFunctionsAreMemoized() {
+        CountingSkill skill = new CountingSkill();
+        SKFunction<?, ?> reverse = kernel().importSkill(skill, "counting").getFunction("reverse");
+
+        assertEquals("cba", invoke(reverse, "abc"));
+        assertEquals("cba", invoke(reverse, "abc"));
+        assertEquals(1, skill.calls.get());
+
+        assertEquals("fed", invoke(reverse, "def"));
+        assertEquals(2, skill.calls.get());
+    }
+
+    @Test
+    void otherFunctionsAreInvokedEachTime() {
+        SKFunction<?, ?> count =
+                kernel().importSkill(new CountingSkill(), "counting").getFunction("count");
+
+        assertEquals("1", invoke(count, "a"));
+        assertEquals("2", invoke(count, "a"));
+    }
+
+    @Test
+    void deterministicFunctionsCannotTakeTheContext() {
+        assertThrows(KernelException.class, () -> kernel().importSkill(new ContextSkill(), "ctx"));
+    }
+
+    @Test
+    void blockingFunctionsAreInvokedOffTheCallingThread() {
+        SKFunction<?, ?> thread =
+                kernel().importSkill(new BlockingSkill(), "blocking").getFunction("thread");
+
+        String name =
+                Mono.defer(() -> thread.invokeAsync(""))
+                        .subscribeOn(Schedulers.parallel())
+                        .block()
+                        .getResult();
+
+        assertFalse(name.startsWith("parallel"), name);
+    }
+
+    @Test
+    void functionsBlockingANonBlockingThreadAreReported() {
+        AtomicInteger blocked = new AtomicInteger();
+        Instrumentations.set(
+                new Instrumentation() {
+                    @Override
+                    public Observation start(
+                            String name, @Nullable Observation parent, String... tags) {
+                        return error -> {};
+                    }
+
+                    @Override
+                    public void increment(String name, long amount, String... tags) {
+                        if (name.equals(NON_BLOCKING_THREAD_BLOCKED)) {
+                            blocked.addAndGet((int) amount);
+                        }
+                    }
+
+                    @Override
+                    public void record(String name, long value, String... tags) {}
+                });
+        try {
+            SKFunction<?, ?> sleep =
+                    kernel().importSkill(new BlockingSkill(), "blocking").getFunction("sleep");
+
+            Mono.defer(() -> sleep.invokeAsync("")).subscribeOn(Schedulers.parallel()).block();
+            assertEquals(1, blocked.get());
+
+            sleep.invokeAsync("").block();
+            assertEquals(1, blocked.get());
+        } finally {
+            Instrumentations.set(null);
+        }
+    }
+
+    @Test
+    void memoizedResultsAreBoundedByTheirSize() {
+        MemoizedResults results = new MemoizedResults(10);
+        results.put(Collections.singletonList("abc"), "cba");
+        results.put(Collections.singletonList("def"), "fed");
+
+        assertEquals(1, results.size());
+        assertNull(results.get(Collections.singletonList("abc")));
+        assertEquals("fed", results.get(Collections.singletonList("def")));
+    }
+}
@@ -0,0 +1,141 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.planner.sequentialplanner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.microsoft.semantickernel.Kernel;
+import com.microsoft.semantickernel.KernelConfig;
+import com.microsoft.semantickernel.ai.embeddings.Embedding;
+import com.microsoft.semantickernel.ai.embeddings.EmbeddingGeneration;
+import com.microsoft.semantickernel.builders.SKBuilders;
+import com.microsoft.semantickernel.orchestration.SKFunction;
+import com.microsoft.semantickernel.planner.SequentialPlannerRequestSettings;
+import com.microsoft.semantickernel.textcompletion.CompletionSKContext;
+import com.microsoft.semantickernel.textcompletion.CompletionSKFunction;
+import com.microsoft.semantickernel.textcompletion.TextCompletion;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.SortedSet;
+import java.util.stream.Collectors;
+
+class FunctionRelevanceIndexTest {
+
+    private static final List<String> VOCABULARY = Arrays.asList("poem", "email", "translate");
+
+    /** Embeds a text as the counts of the words of the vocabulary, recording the requests. */
+    private static class CountingEmbeddings implements EmbeddingGeneration<String, Float> {
+        private final List<List<String>> requests = new ArrayList<>();
+
+        @Override
+        public Mono<List<Embedding<Float>>> generateEmbeddingsAsync(List<String> data) {
+            requests.add(new ArrayList<>(data));
+            return Mono.just(
+                    data.stream().map(CountingEmbeddings::embed).collect(Collectors.toList()));
+        }
+
+        private static Embedding<Float> embed(String text) {
+            List<String> words = Arrays.asList(text.toLowerCase(Locale.ROOT).split("\\W+"));
+            return new Embedding<>(
+                    VOCABULARY.stream()
+                            .map(word -> (float) words.stream().filter(word::equals).count() + 0.1f)
+                            .collect(Collectors.toList()));
+        }
+    }
+
+    private Kernel kernel;
+    private CountingEmbeddings embeddings;
+    private FunctionRelevanceIndex index;
+
+    @BeforeEach
+    void setUp() {
+        TextCompletion textCompletion =
+                (text, requestSettings) -> Mono.just(Collections.singletonList(text));
+        KernelConfig kernelConfig =
+                SKBuilders.kernelConfig()
+                        .addTextCompletionService("a-model", kernel -> textCompletion)
+                        .build();
+        kernel = SKBuilders.kernel().setKernelConfig(kernelConfig).build();
+        embeddings = new CountingEmbeddings();
+        index = new FunctionRelevanceIndex(embeddings);
+    }
+
+    private CompletionSKFunction function(String name, String description) {
+        return kernel.getSemanticFunctionBuilder()
+                .createFunction("{{$input}}", name, "Writer", description);
+    }
+
+    private List<String> rank(String query, SKFunction<?, ?>... functions) {
+        List<Tuple2<SKFunction<?, ?>, Double>> ranked =
+                index.rankAsync(query, Arrays.asList(functions), 10, 0.0).block();
+        assertNotNull(ranked);
+        return ranked.stream().map(it -> it.getT1().getName()).collect(Collectors.toList());
+    }
+
+    @Test
+    void functionsAreEmbeddedOnce() {
+        CompletionSKFunction poem = function("Poem", "Write a poem");
+        CompletionSKFunction email = function("Email", "Write an email");
+
+        assertEquals(Arrays.asList("Poem", "Email"), rank("a poem", poem, email));
+        assertEquals(Arrays.asList("Email", "Poem"), rank("an email", poem, email));
+
+        assertEquals(2, embeddings.requests.size());
+        assertEquals(3, embeddings.requests.get(0).size());
+        assertEquals(Collections.singletonList("an email"), embeddings.requests.get(1));
+    }
+
+    @Test
+    void replacedFunctionsAreEmbeddedAgainWhenTheirDescriptionChanges() {
+        CompletionSKFunction poem = function("Poem", "Write a poem");
+        CompletionSKFunction email = function("Email", "Write an email");
+        rank("a poem", poem, email);
+
+        CompletionSKFunction translate = function("Email", "Translate an email");
+        assertEquals(Arrays.asList("Email", "Poem"), rank("translate", poem, translate));
+
+        assertEquals(2, embeddings.requests.get(1).size());
+        assertEquals(translate.toEmbeddingString(), embeddings.requests.get(1).get(1));
+    }
+
+    @Test
+    void replacedFunctionsKeepTheirEmbeddingWhenTheirDescriptionIsTheSame() {
+        CompletionSKFunction poem = function("Poem", "Write a poem");
+        rank("a poem", poem);
+
+        CompletionSKFunction same = function("Poem", "Write a poem");
+        assertNotSame(poem, same);
+        assertEquals(Collections.singletonList("Poem"), rank("a poem", same));
+
+        assertEquals(Collections.singletonList("a poem"), embeddings.requests.get(1));
+    }
+
+    @Test
+    void functionsAreNotRankedWithoutAThreshold() {
+        CompletionSKFunction poem = function("Poem", "Write a poem");
+        kernel.importSkill(new SequentialPlanExecutorTest.RecordingSkill(), "Test");
+        CompletionSKContext context =
+                poem.buildContext(SKBuilders.variables().build(), null, kernel.getSkills());
+
+        SortedSet<SKFunction<?, ?>> available =
+                new DefaultSequentialPlannerSKContext(context, null, index)
+                        .getAvailableFunctionsAsync(
+                                new SequentialPlannerRequestSettings(), "a poem")
+                        .block();
+
+        assertNotNull(available);
+        assertEquals(
+                Arrays.asList("AppendDay", "Echo", "Upper", "Poem"),
+                available.stream().map(SKFunction::getName).collect(Collectors.toList()));
+        assertTrue(embeddings.requests.isEmpty());
+    }
+}
@@ -0,0 +1,114 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.planner.sequentialplanner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.microsoft.semantickernel.ai.embeddings.Embedding;
+import com.microsoft.semantickernel.ai.embeddings.EmbeddingGeneration;
+import com.microsoft.semantickernel.memory.DefaultSemanticTextMemory;
+import com.microsoft.semantickernel.memory.NullMemory;
+import com.microsoft.semantickernel.memory.SemanticTextMemory;
+import com.microsoft.semantickernel.memory.VolatileMemoryStore;
+
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+class PlanCacheTest {
+
+    private static final String PLAN = "<plan><function.WriterSkill.Poem/></plan>";
+    private static final List<String> VOCABULARY =
+            Arrays.asList("poem", "cats", "about", "write", "compose", "book", "flight", "paris");
+
+    /** Embeds a text as the counts of the words of the vocabulary. */
+    private static SemanticTextMemory memory() {
+        EmbeddingGeneration<String, Float> embeddingGeneration =
+                data ->
+                        Mono.just(
+                                data.stream()
+                                        .map(PlanCacheTest::embed)
+                                        .collect(Collectors.toList()));
+        return new DefaultSemanticTextMemory(new VolatileMemoryStore(), embeddingGeneration);
+    }
+
+    private static Embedding<Float> embed(String text) {
+        List<String> words = Arrays.asList(text.toLowerCase(Locale.ROOT).split("\\W+"));
+        return new Embedding<>(
+                VOCABULARY.stream()
+                        .map(word -> (float) words.stream().filter(word::equals).count())
+                        .collect(Collectors.toList()));
+    }
+
+    @Test
+    void goalsAreNormalised() {
+        assertEquals(
+                "write a poem about cats", PlanCache.normalize("  Write a POEM\tabout   cats!! "));
+
+        PlanCache cache = new PlanCache(10);
+        cache.putAsync("Write a poem about cats.", "fp", PLAN, null).block();
+
+        assertEquals(PLAN, cache.getAsync("write a poem  about cats", "fp", null).block());
+        assertNull(cache.getAsync("write a poem about dogs", "fp", null).block());
+    }
+
+    @Test
+    void plansOfOtherSkillSetsAreEvicted() {
+        PlanCache cache = new PlanCache(10);
+        cache.putAsync("write a poem", "fp-1", PLAN, null).block();
+        cache.putAsync("book a flight", "fp-1", PLAN, null).block();
+
+        assertNull(cache.getAsync("write a poem", "fp-2", null).block());
+        assertEquals(0, cache.size());
+        assertNull(cache.getAsync("write a poem", "fp-1", null).block());
+    }
+
+    @Test
+    void leastRecentlyUsedPlansAreEvicted() {
+        PlanCache cache = new PlanCache(2);
+        cache.putAsync("first", "fp", PLAN, null).block();
+        cache.putAsync("second", "fp", PLAN, null).block();
+        assertNotNull(cache.getAsync("first", "fp", null).block());
+        cache.putAsync("third", "fp", PLAN, null).block();
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.getAsync("first", "fp", null).block());
+        assertNull(cache.getAsync("second", "fp", null).block());
+    }
+
+    @Test
+    void rewordedGoalsHitThroughTheMemory() {
+        SemanticTextMemory memory = memory();
+        PlanCache cache = new PlanCache(10, 0.7);
+        cache.putAsync("write a poem about cats", "fp", PLAN, memory).block();
+
+        assertEquals(PLAN, cache.getAsync("compose a poem about cats", "fp", memory).block());
+    }
+
+    @Test
+    void unrelatedGoalsMissThroughTheMemory() {
+        SemanticTextMemory memory = memory();
+        PlanCache cache = new PlanCache(10, 0.7);
+        cache.putAsync("write a poem about cats", "fp", PLAN, memory).block();
+
+        assertNull(cache.getAsync("book a flight to paris", "fp", memory).block());
+        // Exact matches only, without a minimum similarity or a memory
+        assertNull(new PlanCache(10).getAsync("compose a poem about cats", "fp", memory).block());
+        assertNull(
+                cache.getAsync("compose a poem about cats", "fp", NullMemory.getInstance())
+                        .block());
+    }
+
+    @Test
+    void rewordedGoalsOfOtherSkillSetsMissThroughTheMemory() {
+        SemanticTextMemory memory = memory();
+        PlanCache cache = new PlanCache(10, 0.7);
+        cache.putAsync("write a poem about cats", "fp-1", PLAN, memory).block();
+
+        assertNull(cache.getAsync("compose a poem about cats", "fp-2", memory).block());
+    }
+}
@@ -0,0 +1,239 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.planner.sequentialplanner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.microsoft.semantickernel.Kernel;
+import com.microsoft.semantickernel.KernelConfig;
+import com.microsoft.semantickernel.builders.SKBuilders;
+import com.microsoft.semantickernel.orchestration.ContextVariables;
+import com.microsoft.semantickernel.planner.PlanningException;
+import com.microsoft.semantickernel.semanticfunctions.PromptTemplateConfig;
+import com.microsoft.semantickernel.skilldefinition.annotations.DefineSKFunction;
+import com.microsoft.semantickernel.skilldefinition.annotations.SKFunctionParameters;
+import com.microsoft.semantickernel.textcompletion.CompletionSKContext;
+import com.microsoft.semantickernel.textcompletion.CompletionSKFunction;
+import com.microsoft.semantickernel.textcompletion.TextCompletion;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class SequentialPlanExecutorTest {
+
+    /** Records the steps it runs, and how many run at the same time. */
+    public static class RecordingSkill {
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicInteger maxRunning = new AtomicInteger();
+        private final List<String> started = Collections.synchronizedList(new ArrayList<>());
+
+        @DefineSKFunction(description = "Returns its input after a delay", name = "Echo")
+        public Mono<String> echo(
+                @SKFunctionParameters(
+                                description = "Text to return",
+                                name = "input",
+                                defaultValue = "",
+                                type = String.class)
+                        String input) {
+            return Mono.defer(
+                    () -> {
+                        started.add(input);
+                        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                        // Counted as done before the output is emitted and the next step starts
+                        return Mono.delay(Duration.ofMillis(20))
+                                .doOnNext(ignored -> running.decrementAndGet())
+                                .thenReturn(input);
+                    });
+        }
+
+        @DefineSKFunction(description = "Change all string chars to uppercase", name = "Upper")
+        public Mono<String> upper(
+                @SKFunctionParameters(
+                                description = "Text to uppercase",
+                                name = "input",
+                                defaultValue = "",
+                                type = String.class)
+                        String input) {
+            return Mono.just(input.toUpperCase(Locale.ROOT));
+        }
+
+        @DefineSKFunction(description = "Append the day variable", name = "AppendDay")
+        public Mono<String> appendDay(
+                @SKFunctionParameters(
+                                description = "Text to append to",
+                                name = "input",
+                                defaultValue = "",
+                                type = String.class)
+                        String input,
+                @SKFunctionParameters(
+                                description = "Current day",
+                                name = "day",
+                                defaultValue = "",
+                                type = String.class)
+                        String day) {
+            return Mono.just(input + day);
+        }
+    }
+
+    private RecordingSkill skill;
+    private Kernel kernel;
+    private CompletionSKFunction function;
+
+    @BeforeEach
+    void setUp() {
+        TextCompletion textCompletion =
+                (text, requestSettings) -> Mono.just(Collections.singletonList(text));
+        KernelConfig kernelConfig =
+                SKBuilders.kernelConfig()
+                        .addTextCompletionService("a-model", kernel -> textCompletion)
+                        .build();
+        kernel = SKBuilders.kernel().setKernelConfig(kernelConfig).build();
+        skill = new RecordingSkill();
+        kernel.importSkill(skill, "Test");
+        // Only used to build the contexts the plans run in
+        function =
+                kernel.getSemanticFunctionBuilder()
+                        .createFunction(
+                                "{{$input}}",
+                                "noop",
+                                "Test",
+                                null,
+                                new PromptTemplateConfig.CompletionConfig(
+                                        0, 0, 0, 0, 256, new ArrayList<>()));
+    }
+
+    private CompletionSKContext execute(
+            int maxConcurrency, String xml, ContextVariables variables) {
+        CompletionSKContext context = function.buildContext(variables, null, kernel.getSkills());
+        return new SequentialPlanExecutor(maxConcurrency)
+                .executeAsync(Plan.fromXml(xml), context)
+                .block(Duration.ofSeconds(10));
+    }
+
+    private CompletionSKContext execute(int maxConcurrency, String xml) {
+        return execute(maxConcurrency, xml, SKBuilders.variables().build());
+    }
+
+    @Test
+    void independentStepsRunConcurrentlyUpToTheLimit() {
+        StringBuilder xml = new StringBuilder("<plan>");
+        for (int i = 0; i < 6; i++) {
+            xml.append("<function.Test.Echo input=\"").append(i).append("\"/>");
+        }
+        xml.append("</plan>");
+
+        CompletionSKContext result = execute(2, xml.toString());
+
+        assertNotNull(result);
+        assertEquals("5", result.getResult());
+        assertEquals(6, skill.started.size());
+        assertEquals(2, skill.maxRunning.get());
+    }
+
+    @Test
+    void stepsSettingVariablesRunConcurrentlyUnlessTheyAreRead() {
+        CompletionSKContext result =
+                execute(
+                        4,
+                        "<plan><function.Test.Echo input=\"a\" setContextVariable=\"A\"/>"
+                                + "<function.Test.Echo input=\"b\" setContextVariable=\"B\"/>"
+                                + "<function.Test.Upper input=\"$A and $B\"/></plan>");
+
+        assertNotNull(result);
+        assertEquals("A AND B", result.getResult());
+        assertEquals(2, skill.maxRunning.get());
+    }
+
+    @Test
+    void aLimitOfOneRunsTheStepsInPlanOrder() {
+        CompletionSKContext result =
+                execute(
+                        1,
+                        "<plan><function.Test.Echo input=\"a\"/><function.Test.Echo/>"
+                                + "<function.Test.Echo input=\"c\"/></plan>");
+
+        assertNotNull(result);
+        assertEquals(Arrays.asList("a", "a", "c"), skill.started);
+        assertEquals(1, skill.maxRunning.get());
+    }
+
+    @Test
+    void stepsWithoutInputWaitForThePreviousOutput() {
+        CompletionSKContext result =
+                execute(
+                        4,
+                        "<plan><function.Test.Echo input=\"text\"/><function.Test.Upper/>"
+                                + "</plan>");
+
+        assertNotNull(result);
+        assertEquals("TEXT", result.getResult());
+    }
+
+    @Test
+    void stepsSeeTheVariablesSetByEarlierSteps() {
+        // AppendDay reads the day variable without the plan referencing it
+        CompletionSKContext result =
+                execute(
+                        4,
+                        "<plan><function.Test.Echo input=\"Monday\" setContextVariable=\"day\"/>"
+                                + "<function.Test.AppendDay input=\"Today is \"/></plan>",
+                        SKBuilders.variables().build(Collections.singletonMap("day", "Sunday")));
+
+        assertNotNull(result);
+        assertEquals("Today is Monday", result.getResult());
+        assertEquals("Monday", result.getVariables().get("day"));
+    }
+
+    @Test
+    void referencedVariablesAreExpandedInParameters() {
+        CompletionSKContext result =
+                execute(
+                        4,
+                        "<plan><function.Test.Echo input=\"cats\" setContextVariable=\"TOPIC\"/>"
+                                + "<function.Test.Echo input=\"dogs\"/>"
+                                + "<function.Test.Upper input=\"poem about $TOPIC\"/></plan>");
+
+        assertNotNull(result);
+        assertEquals("POEM ABOUT CATS", result.getResult());
+    }
+
+    @Test
+    void theFinalContextIsThatOfASequentialRun() {
+        CompletionSKContext result =
+                execute(
+                        4,
+                        "<plan><function.Test.Echo input=\"a\" appendToResult=\"RESULT__X\"/>"
+                                + "<function.Test.Echo input=\"b\" appendToResult=\"RESULT__X\"/>"
+                                + "<function.Test.Upper input=\"c\" setContextVariable=\"C\"/>"
+                                + "</plan>");
+
+        assertNotNull(result);
+        assertEquals("a\n\nb", result.getVariables().get("RESULT__X"));
+        assertEquals("C", result.getVariables().get("C"));
+        assertEquals("C", result.getResult());
+    }
+
+    @Test
+    void missingFunctionsFailBeforeAnyStepRuns() {
+        PlanningException error =
+                assertThrows(
+                        PlanningException.class,
+                        () ->
+                                execute(
+                                        4,
+                                        "<plan><function.Test.Echo input=\"a\"/>"
+                                                + "<function.Test.Missing/></plan>"));
+
+        assertEquals(PlanningException.ErrorCodes.INVALID_PLAN, error.getErrorCode());
+        assertTrue(skill.started.isEmpty());
+    }
+}
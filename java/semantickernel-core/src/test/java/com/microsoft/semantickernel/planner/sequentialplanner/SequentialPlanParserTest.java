@@ -0,0 +1,107 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.planner.sequentialplanner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.microsoft.semantickernel.planner.PlanningException;
+import com.microsoft.semantickernel.skilldefinition.ReadOnlySkillCollection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+class SequentialPlanParserTest {
+
+    private static final String PLAN =
+            "Here is the plan:\n"
+                + "<plan>\n"
+                + "  <!-- <function.Ignored.Step/> -->\n"
+                + "  <function.WriterSkill.Poem input=\"a &amp; b\" style='short > long'"
+                + " setContextVariable=\"POEM\"/>\n"
+                + "  <function.Translate language=\"French\" appendToResult=\"RESULT__POEM\"/>\n"
+                + "</plan>\n"
+                + "<function.After.Plan/>";
+
+    private static List<String> describe(List<PlanStep> steps) {
+        return steps.stream()
+                .map(step -> step + " " + step.getOutputVariable() + " " + step.getResultKey())
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    void stepsAreParsedWithTheirAttributes() {
+        List<PlanStep> steps = Plan.fromXml(PLAN).getSteps();
+
+        assertEquals(2, steps.size());
+        PlanStep poem = steps.get(0);
+        assertEquals("WriterSkill", poem.getSkillName());
+        assertEquals("Poem", poem.getFunctionName());
+        Map<String, String> parameters = new LinkedHashMap<>();
+        parameters.put("input", "a & b");
+        parameters.put("style", "short > long");
+        assertEquals(parameters, poem.getParameters());
+        assertEquals("POEM", poem.getOutputVariable());
+        assertNull(poem.getResultKey());
+        assertTrue(poem.hasInput());
+
+        PlanStep translate = steps.get(1);
+        assertEquals(ReadOnlySkillCollection.GlobalSkill, translate.getSkillName());
+        assertEquals("Translate", translate.getFunctionName());
+        assertEquals("RESULT__POEM", translate.getResultKey());
+        assertNull(translate.getOutputVariable());
+        assertFalse(translate.hasInput());
+    }
+
+    @Test
+    void stepsAreParsedAsTheirChunksArrive() {
+        SequentialPlanParser parser = new SequentialPlanParser();
+        List<PlanStep> steps = new ArrayList<>();
+        for (int i = 0; i < PLAN.length(); i++) {
+            steps.addAll(parser.feed(PLAN.substring(i, i + 1)));
+        }
+        parser.complete();
+
+        assertEquals(describe(Plan.fromXml(PLAN).getSteps()), describe(steps));
+    }
+
+    @Test
+    void referencedVariablesAreExpanded() {
+        PlanStep step =
+                Plan.fromXml("<plan><function.Skill.Fn input=\"$POEM and $missing\"/></plan>")
+                        .getSteps()
+                        .get(0);
+        Map<String, String> variables = new LinkedHashMap<>();
+        variables.put("POEM", "roses");
+
+        assertEquals("[POEM, missing]", step.getReferencedVariables().toString());
+        assertEquals("roses and ", PlanStep.expand(step.getParameters().get("input"), variables));
+    }
+
+    @Test
+    void truncatedPlansAreRejected() {
+        SequentialPlanParser parser = new SequentialPlanParser();
+        assertEquals(1, parser.feed("<plan><function.A.B/><function.A.C input=\"x").size());
+
+        PlanningException error = assertThrows(PlanningException.class, parser::complete);
+        assertEquals(PlanningException.ErrorCodes.INVALID_PLAN, error.getErrorCode());
+    }
+
+    @Test
+    void textWithoutAPlanIsRejected() {
+        PlanningException error =
+                assertThrows(
+                        PlanningException.class,
+                        () -> Plan.fromXml("I cannot create a plan for this goal."));
+        assertEquals(PlanningException.ErrorCodes.INVALID_PLAN, error.getErrorCode());
+        assertThrows(PlanningException.class, () -> Plan.fromXml("<plan><function./></plan>"));
+    }
+
+    @Test
+    void emptyPlansAreAccepted() {
+        assertTrue(Plan.fromXml("<plan>\n</plan>").getSteps().isEmpty());
+    }
+}
@@ -0,0 +1,144 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.planner.sequentialplanner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.microsoft.semantickernel.Kernel;
+import com.microsoft.semantickernel.KernelConfig;
+import com.microsoft.semantickernel.builders.SKBuilders;
+import com.microsoft.semantickernel.planner.PlanningException;
+import com.microsoft.semantickernel.textcompletion.CompletionRequestSettings;
+import com.microsoft.semantickernel.textcompletion.CompletionSKContext;
+import com.microsoft.semantickernel.textcompletion.TextCompletion;
+
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nullable;
+
+class SequentialPlannerTest {
+
+    private static final String GOAL = "Shout the day";
+
+    /** Streams a fixed plan in chunks, optionally failing after the last chunk. */
+    private static class StreamingCompletion implements TextCompletion {
+        private final List<String> chunks;
+        @Nullable private final RuntimeException error;
+        private final AtomicInteger requests = new AtomicInteger();
+
+        private StreamingCompletion(@Nullable RuntimeException error, String... chunks) {
+            this.chunks = Arrays.asList(chunks);
+            this.error = error;
+        }
+
+        @Override
+        public Mono<List<String>> completeAsync(
+                String text, CompletionRequestSettings requestSettings) {
+            requests.incrementAndGet();
+            return Mono.just(Collections.singletonList(String.join("", chunks)));
+        }
+
+        @Override
+        public Flux<String> completeStreamAsync(
+                String text, CompletionRequestSettings requestSettings) {
+            requests.incrementAndGet();
+            return Flux.fromIterable(chunks)
+                    .concatWith(error != null ? Flux.error(error) : Flux.empty());
+        }
+    }
+
+    private static SequentialPlanner planner(TextCompletion textCompletion, PlanCache cache) {
+        KernelConfig kernelConfig =
+                SKBuilders.kernelConfig()
+                        .addTextCompletionService("a-model", kernel -> textCompletion)
+                        .build();
+        Kernel kernel = SKBuilders.kernel().setKernelConfig(kernelConfig).build();
+        kernel.importSkill(new SequentialPlanExecutorTest.RecordingSkill(), "Test");
+        return new SequentialPlanner(kernel, null, null, cache);
+    }
+
+    private static Mono<CompletionSKContext> execute(SequentialPlanner planner) {
+        return planner.executePlanAsync(GOAL, new SequentialPlanExecutor());
+    }
+
+    @Test
+    void streamedPlansAreExecutedThenCached() {
+        StreamingCompletion completion =
+                new StreamingCompletion(
+                        null,
+                        "<plan>\n  <function.Test.Echo input=\"mon",
+                        "day\" setContextVariable=\"day\"/>\n",
+                        "  <function.Test.AppendDay input=\"Today is \"/>\n"
+                                + "  <function.Test.Upper/>",
+                        "\n</plan>");
+        PlanCache cache = new PlanCache(10);
+        SequentialPlanner planner = planner(completion, cache);
+
+        CompletionSKContext first = execute(planner).block(Duration.ofSeconds(10));
+        CompletionSKContext second = execute(planner).block(Duration.ofSeconds(10));
+
+        assertNotNull(first);
+        assertEquals("TODAY IS MONDAY", first.getResult());
+        assertNotNull(second);
+        assertEquals("TODAY IS MONDAY", second.getResult());
+        assertEquals(1, completion.requests.get());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void truncatedStreamsAreNotCached() {
+        StreamingCompletion completion =
+                new StreamingCompletion(
+                        null,
+                        "<plan>\n  <function.Test.Echo input=\"a\"/>\n",
+                        "  <function.Test.Up");
+        PlanCache cache = new PlanCache(10);
+
+        PlanningException error =
+                assertThrows(
+                        PlanningException.class,
+                        () -> execute(planner(completion, cache)).block(Duration.ofSeconds(10)));
+
+        assertEquals(PlanningException.ErrorCodes.INVALID_PLAN, error.getErrorCode());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void failedStreamsAreNotCached() {
+        StreamingCompletion completion =
+                new StreamingCompletion(
+                        new IllegalStateException("connection reset"),
+                        "<plan>\n  <function.Test.Echo input=\"a\"/>\n");
+        PlanCache cache = new PlanCache(10);
+
+        assertThrows(
+                IllegalStateException.class,
+                () -> execute(planner(completion, cache)).block(Duration.ofSeconds(10)));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void invalidPlansAreNotCached() {
+        StreamingCompletion completion =
+                new StreamingCompletion(null, "I cannot ", "create a plan for this goal.");
+        PlanCache cache = new PlanCache(10);
+
+        assertThrows(
+                PlanningException.class,
+                () -> execute(planner(completion, cache)).block(Duration.ofSeconds(10)));
+        assertEquals(0, cache.size());
+
+        CompletionSKContext plan =
+                planner(completion, cache).createPlanAsync(GOAL).block(Duration.ofSeconds(10));
+        assertNotNull(plan);
+        assertEquals(0, cache.size());
+    }
+}
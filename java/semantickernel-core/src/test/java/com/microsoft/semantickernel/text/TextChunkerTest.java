@@ -0,0 +1,68 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.text;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.microsoft.semantickernel.ai.tokenizers.ApproximateTokenizer;
+import com.microsoft.semantickernel.ai.tokenizers.WordTokenizer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class TextChunkerTest {
+
+    @Test
+    void splitsAtTheCoarsestBoundaryThatFits() {
+        String text = "one two three\n\nfour five\nsix seven eight nine";
+
+        List<String> chunks = TextChunker.split(text, 3, WordTokenizer.getInstance());
+
+        assertEquals(
+                Arrays.asList("one two three\n\n", "four five\n", "six seven eight ", "nine"),
+                chunks);
+        assertEquals(text, String.join("", chunks));
+    }
+
+    @Test
+    void truncatesToTheBudget() {
+        assertEquals(
+                "one two ",
+                TextChunker.truncate("one two three four", 2, WordTokenizer.getInstance(), false));
+        assertEquals(
+                " three four",
+                TextChunker.truncate("one two three four", 2, WordTokenizer.getInstance(), true));
+        assertEquals(
+                "one two", TextChunker.truncate("one two", 2, WordTokenizer.getInstance(), false));
+    }
+
+    @Test
+    void truncationTokenizesTheTextOnce() {
+        AtomicInteger tokenized = new AtomicInteger();
+        ApproximateTokenizer tokenizer =
+                new ApproximateTokenizer(ApproximateTokenizer.DefaultPattern) {
+                    @Override
+                    public int countTokens(String text) {
+                        tokenized.incrementAndGet();
+                        return super.countTokens(text);
+                    }
+
+                    @Override
+                    public int[] tokenEnds(String text) {
+                        tokenized.incrementAndGet();
+                        return super.tokenEnds(text);
+                    }
+                };
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            text.append(" word");
+        }
+
+        assertEquals(" word word", TextChunker.truncate(text.toString(), 4, tokenizer, false));
+        assertEquals(" word word", TextChunker.truncate(text.toString(), 4, tokenizer, true));
+        // The text, then the part kept
+        assertEquals(4, tokenized.get());
+    }
+}
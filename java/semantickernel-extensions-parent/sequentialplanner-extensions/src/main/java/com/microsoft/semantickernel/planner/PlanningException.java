@@ -0,0 +1,93 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.planner;
+
+import com.microsoft.semantickernel.diagnostics.SKException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/** Exception thrown for errors related to planning. */
+public class PlanningException extends SKException {
+    @Nonnull private final ErrorCodes errorCode;
+
+    /**
+     * Initializes a new instance of the {@code PlanningException} class with a provided error code.
+     *
+     * @param error The error code.
+     */
+    public PlanningException(@Nonnull ErrorCodes error) {
+        this(error, null, null);
+    }
+
+    /**
+     * Initializes a new instance of the {@code PlanningException} class with a provided error code
+     * and message.
+     *
+     * @param errorCode The error code.
+     * @param message A string that describes the error.
+     */
+    public PlanningException(@Nonnull ErrorCodes errorCode, @Nullable String message) {
+        this(errorCode, message, null);
+    }
+
+    /**
+     * Initializes a new instance of the {@code PlanningException} class with a provided error code,
+     * message, and inner exception.
+     *
+     * @param errorCode The error code.
+     * @param message A string that describes the error.
+     * @param innerException The exception that is the cause of the current exception.
+     */
+    public PlanningException(
+            @Nonnull ErrorCodes errorCode,
+            @Nullable String message,
+            @Nullable Throwable innerException) {
+        super(getDefaultMessage(errorCode, message), innerException);
+        this.errorCode = errorCode;
+    }
+
+    /**
+     * Gets the error code for this exception.
+     *
+     * @return The error code for this exception.
+     */
+    public ErrorCodes getErrorCode() {
+        return errorCode;
+    }
+
+    /* Translate the error code into a default message */
+    private static String getDefaultMessage(
+            @Nonnull ErrorCodes errorCode, @Nullable String message) {
+        return String.format("%s: %s", errorCode.getMessage(), message);
+    }
+
+    /** Semantic kernel planning error codes. */
+    public enum ErrorCodes {
+        /** Unknown error. */
+        UNKNOWN_ERROR("Unknown error"),
+
+        /** Invalid goal. */
+        INVALID_GOAL("Invalid goal"),
+
+        /** Invalid plan. */
+        INVALID_PLAN("Invalid plan"),
+
+        /** Invalid configuration. */
+        INVALID_CONFIGURATION("Invalid configuration");
+
+        /**
+         * Gets the error message.
+         *
+         * @return The error message.
+         */
+        public String getMessage() {
+            return message;
+        }
+
+        private ErrorCodes(String message) {
+            this.message = message;
+        }
+
+        private final String message;
+    }
+}
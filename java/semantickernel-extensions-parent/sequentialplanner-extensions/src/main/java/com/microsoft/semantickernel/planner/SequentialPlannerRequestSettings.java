@@ -54,6 +54,15 @@ public class SequentialPlannerRequestSettings {
     /// </summary>
     private int maxTokens = 1024;
 
+    /// <summary>
+    /// The maximum number of tokens of the available functions manual included in the plan
+    /// creation request, or null for no limit.
+    /// </summary>
+    /// <remarks>
+    /// Functions are added to the manual by decreasing relevance until the budget is exhausted.
+    /// </remarks>
+    @Nullable private Integer maxManualTokens = null;
+
     public SequentialPlannerRequestSettings(
             @Nullable Double relevancyThreshold,
             int maxRelevantFunctions,
@@ -61,12 +70,31 @@ public class SequentialPlannerRequestSettings {
             Set<String> excludedFunctions,
             Set<String> includedFunctions,
             int maxTokens) {
+        this(
+                relevancyThreshold,
+                maxRelevantFunctions,
+                excludedSkills,
+                excludedFunctions,
+                includedFunctions,
+                maxTokens,
+                null);
+    }
+
+    public SequentialPlannerRequestSettings(
+            @Nullable Double relevancyThreshold,
+            int maxRelevantFunctions,
+            Set<String> excludedSkills,
+            Set<String> excludedFunctions,
+            Set<String> includedFunctions,
+            int maxTokens,
+            @Nullable Integer maxManualTokens) {
         this.relevancyThreshold = relevancyThreshold;
         this.maxRelevantFunctions = maxRelevantFunctions;
         this.excludedSkills = Collections.unmodifiableSet(excludedSkills);
         this.excludedFunctions = Collections.unmodifiableSet(excludedFunctions);
         this.includedFunctions = Collections.unmodifiableSet(includedFunctions);
         this.maxTokens = maxTokens;
+        this.maxManualTokens = maxManualTokens;
     }
 
     public SequentialPlannerRequestSettings() {}
@@ -96,6 +124,22 @@ public class SequentialPlannerRequestSettings {
         return maxTokens;
     }
 
+    @Nullable
+    public Integer getMaxManualTokens() {
+        return maxManualTokens;
+    }
+
+    public SequentialPlannerRequestSettings withMaxManualTokens(@Nullable Integer maxManualTokens) {
+        return new SequentialPlannerRequestSettings(
+                relevancyThreshold,
+                maxRelevantFunctions,
+                excludedSkills,
+                excludedFunctions,
+                includedFunctions,
+                maxTokens,
+                maxManualTokens);
+    }
+
     public SequentialPlannerRequestSettings addExcludedFunctions(String function) {
         HashSet<String> ex = new HashSet<>(excludedFunctions);
         ex.add(function);
@@ -105,7 +149,8 @@ public class SequentialPlannerRequestSettings {
                 excludedSkills,
                 ex,
                 includedFunctions,
-                maxTokens);
+                maxTokens,
+                maxManualTokens);
     }
 
     public SequentialPlannerRequestSettings addExcludedSkillName(String skillName) {
@@ -117,6 +162,7 @@ public class SequentialPlannerRequestSettings {
                 ex,
                 excludedFunctions,
                 includedFunctions,
-                maxTokens);
+                maxTokens,
+                maxManualTokens);
     }
 }
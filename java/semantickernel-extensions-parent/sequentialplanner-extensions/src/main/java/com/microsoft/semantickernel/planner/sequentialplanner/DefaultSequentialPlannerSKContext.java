@@ -4,16 +4,20 @@ package com.microsoft.semantickernel.planner.sequentialplanner;
 import static com.microsoft.semantickernel.planner.SequentialPlannerSKContext.PlanSKFunctionsAreRemembered;
 import static com.microsoft.semantickernel.planner.SequentialPlannerSKContext.PlannerMemoryCollectionName;
 
+import com.microsoft.semantickernel.ai.tokenizers.ApproximateTokenizer;
+import com.microsoft.semantickernel.ai.tokenizers.Tokenizer;
 import com.microsoft.semantickernel.memory.MemoryQueryResult;
 import com.microsoft.semantickernel.memory.NullMemory;
 import com.microsoft.semantickernel.memory.SemanticTextMemory;
 import com.microsoft.semantickernel.orchestration.SKFunction;
 import com.microsoft.semantickernel.planner.SequentialPlannerRequestSettings;
+import com.microsoft.semantickernel.skilldefinition.FunctionIndex;
 import com.microsoft.semantickernel.skilldefinition.ReadOnlySkillCollection;
 import com.microsoft.semantickernel.textcompletion.CompletionSKContext;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -21,10 +25,68 @@ import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 
 public class DefaultSequentialPlannerSKContext {
+    private static final String ManualSeparator = "\n\n";
+
+    private static final Comparator<SKFunction<?, ?>> ByName =
+            Comparator.<SKFunction<?, ?>, String>comparing(SKFunction::getSkillName)
+                    .thenComparing(SKFunction::getName);
+
     private final CompletionSKContext delegate;
+    @Nullable private final FunctionIndex functionIndex;
+    @Nullable private final FunctionRelevanceIndex relevanceIndex;
+    private final Tokenizer tokenizer;
 
     public DefaultSequentialPlannerSKContext(CompletionSKContext delegate) {
+        this(delegate, null);
+    }
+
+    /**
+     * @param delegate Context of the planner function
+     * @param functionIndex Kernel function index, used to resolve memory search results and to only
+     *     save functions that are not already in memory. If {@code null}, every function is saved
+     *     once per context.
+     */
+    public DefaultSequentialPlannerSKContext(
+            CompletionSKContext delegate, @Nullable FunctionIndex functionIndex) {
+        this(delegate, functionIndex, null);
+    }
+
+    /**
+     * @param delegate Context of the planner function
+     * @param functionIndex Kernel function index, used to resolve memory search results and to only
+     *     save functions that are not already in memory. If {@code null}, every function is saved
+     *     once per context.
+     * @param relevanceIndex In-process index memoizing the function manuals. If it can rank
+     *     functions, it is used to select the functions relevant to the goal instead of the
+     *     semantic memory.
+     */
+    public DefaultSequentialPlannerSKContext(
+            CompletionSKContext delegate,
+            @Nullable FunctionIndex functionIndex,
+            @Nullable FunctionRelevanceIndex relevanceIndex) {
+        this(delegate, functionIndex, relevanceIndex, null);
+    }
+
+    /**
+     * @param delegate Context of the planner function
+     * @param functionIndex Kernel function index, used to resolve memory search results and to only
+     *     save functions that are not already in memory. If {@code null}, every function is saved
+     *     once per context.
+     * @param relevanceIndex In-process index memoizing the function manuals. If it can rank
+     *     functions, it is used to select the functions relevant to the goal instead of the
+     *     semantic memory.
+     * @param tokenizer Tokenizer of the planner model, counting the tokens of the manual. If {@code
+     *     null}, tokens are estimated.
+     */
+    public DefaultSequentialPlannerSKContext(
+            CompletionSKContext delegate,
+            @Nullable FunctionIndex functionIndex,
+            @Nullable FunctionRelevanceIndex relevanceIndex,
+            @Nullable Tokenizer tokenizer) {
         this.delegate = delegate;
+        this.functionIndex = functionIndex;
+        this.relevanceIndex = relevanceIndex;
+        this.tokenizer = tokenizer != null ? tokenizer : ApproximateTokenizer.getInstance();
     }
 
     /// <summary>
@@ -37,18 +99,11 @@ public class DefaultSequentialPlannerSKContext {
     /// <returns>A string containing the manual for all available functions.</returns>
     public Mono<String> getFunctionsManualAsync(
             @Nullable String semanticQuery, @Nullable SequentialPlannerRequestSettings config) {
-        if (config == null) {
-            config = new SequentialPlannerRequestSettings();
-        }
+        SequentialPlannerRequestSettings settings =
+                config != null ? config : new SequentialPlannerRequestSettings();
 
-        Mono<SortedSet<SKFunction<?, ?>>> functions =
-                getAvailableFunctionsAsync(config, semanticQuery);
-
-        return functions.map(
-                funcs ->
-                        funcs.stream()
-                                .map(SKFunction::toManualString)
-                                .collect(Collectors.joining("\n\n")));
+        return getRankedFunctionsAsync(settings, semanticQuery)
+                .map(funcs -> renderManual(funcs, settings.getMaxManualTokens()));
     }
 
     /// <summary>
@@ -63,6 +118,21 @@ public class DefaultSequentialPlannerSKContext {
     // the excluded skills and functions.</returns>
     public Mono<SortedSet<SKFunction<?, ?>>> getAvailableFunctionsAsync(
             SequentialPlannerRequestSettings config, @Nullable String semanticQuery) {
+        return getRankedFunctionsAsync(config, semanticQuery)
+                .map(
+                        funcs -> {
+                            TreeSet<SKFunction<?, ?>> result = new TreeSet<>(ByName);
+                            result.addAll(funcs);
+                            return result;
+                        });
+    }
+
+    /**
+     * Same as {@link #getAvailableFunctionsAsync}, with the included functions first and then the
+     * other functions by decreasing relevance, or by name without a semantic query.
+     */
+    private Mono<List<SKFunction<?, ?>>> getRankedFunctionsAsync(
+            SequentialPlannerRequestSettings config, @Nullable String semanticQuery) {
         Set<String> excludedSkills = config.getExcludedSkills();
         Set<String> excludedFunctions = config.getExcludedFunctions();
         Set<String> includedFunctions = config.getIncludedFunctions();
@@ -93,9 +163,28 @@ public class DefaultSequentialPlannerSKContext {
                                                 && !excludedFunctions.contains(s.getName()))
                         .collect(Collectors.toList());
 
-        Comparator<SKFunction<?, ?>> comparator =
-                Comparator.<SKFunction<?, ?>, String>comparing(SKFunction::getSkillName)
-                        .thenComparing(SKFunction::getName);
+        Double threshold = config.getRelevancyThreshold();
+        if (semanticQuery != null
+                && !semanticQuery.isEmpty()
+                && threshold != null
+                && relevanceIndex != null
+                && relevanceIndex.canRank()) {
+            // Rank the functions in process, without a round trip to the memory store
+            return relevanceIndex
+                    .rankAsync(
+                            semanticQuery,
+                            availableFunctions,
+                            config.getMaxRelevantFunctions(),
+                            threshold)
+                    .map(
+                            ranked ->
+                                    withIncludedFunctions(
+                                            includedFunctions,
+                                            availableFunctions,
+                                            ranked.stream()
+                                                    .map(Tuple2::getT1)
+                                                    .collect(Collectors.toList())));
+        }
 
         if (semanticQuery == null
                 || semanticQuery.isEmpty()
@@ -104,8 +193,8 @@ public class DefaultSequentialPlannerSKContext {
                 || config.getRelevancyThreshold() == null) {
             // If no semantic query is provided, return all available functions.
             // If a Memory provider has not been registered, return all available functions.
-            TreeSet<SKFunction<?, ?>> result = new TreeSet<>(comparator);
-            result.addAll(availableFunctions);
+            List<SKFunction<?, ?>> result = new ArrayList<>(availableFunctions);
+            result.sort(ByName);
             return Mono.just(result);
         } else {
             // Remember functions in memory so that they can be searched.
@@ -132,29 +221,57 @@ public class DefaultSequentialPlannerSKContext {
                                                                 availableFunctions, memories));
                             })
                     .map(
-                            memories -> {
-                                List<String> added =
-                                        memories.stream()
-                                                .map(SKFunction::getName)
-                                                .collect(Collectors.toList());
-
-                                List<SKFunction<?, ?>> missingFunctions =
-                                        getMissingFunctions(
-                                                includedFunctions, availableFunctions, added);
-
-                                ArrayList<SKFunction<?, ?>> res = new ArrayList<>(memories);
-                                res.addAll(missingFunctions);
-                                return res;
-                            })
-                    .map(
-                            res -> {
-                                TreeSet<SKFunction<?, ?>> result = new TreeSet<>(comparator);
-                                result.addAll(availableFunctions);
-                                return result;
-                            });
+                            memories ->
+                                    withIncludedFunctions(
+                                            includedFunctions,
+                                            availableFunctions,
+                                            new ArrayList<>(memories)));
         }
     }
 
+    private static List<SKFunction<?, ?>> withIncludedFunctions(
+            Set<String> includedFunctions,
+            List<SKFunction<?, ?>> availableFunctions,
+            List<SKFunction<?, ?>> relevant) {
+        List<String> added =
+                relevant.stream().map(SKFunction::getName).collect(Collectors.toList());
+
+        // Included functions come first, so that they are kept within the manual token budget
+        List<SKFunction<?, ?>> res =
+                new ArrayList<>(getMissingFunctions(includedFunctions, availableFunctions, added));
+        res.addAll(relevant);
+        return res;
+    }
+
+    /**
+     * Joins the manuals of the functions, sorted by name. With a token budget, functions are taken
+     * in order until the budget is exhausted.
+     */
+    private String renderManual(
+            List<SKFunction<?, ?>> rankedFunctions, @Nullable Integer maxManualTokens) {
+        List<SKFunction<?, ?>> selected = new ArrayList<>(rankedFunctions.size());
+        int tokens = 0;
+        for (SKFunction<?, ?> function : rankedFunctions) {
+            if (maxManualTokens != null) {
+                int cost = tokenizer.countTokens(manualOf(function) + ManualSeparator);
+                if (tokens + cost > maxManualTokens) {
+                    break;
+                }
+                tokens += cost;
+            }
+            selected.add(function);
+        }
+
+        selected.sort(ByName);
+        return selected.stream().map(this::manualOf).collect(Collectors.joining(ManualSeparator));
+    }
+
+    private String manualOf(SKFunction<?, ?> function) {
+        return relevanceIndex != null
+                ? relevanceIndex.getManual(function)
+                : function.toManualString();
+    }
+
     private static List<SKFunction<?, ?>> getMissingFunctions(
             Set<String> includedFunctions,
             List<SKFunction<?, ?>> availableFunctions,
@@ -170,18 +287,12 @@ public class DefaultSequentialPlannerSKContext {
 
     public Mono<? extends List<? extends SKFunction<?, ?>>> getRelevantFunctionsAsync(
             List<SKFunction<?, ?>> availableFunctions, List<MemoryQueryResult> memories) {
+        // Resolve the hits through a hash lookup rather than scanning the functions per hit
+        Map<String, SKFunction<?, ?>> byName = new HashMap<>();
+        availableFunctions.forEach(it -> byName.put(it.toFullyQualifiedName(), it));
+
         return Flux.fromIterable(memories)
-                .map(
-                        memoryEntry ->
-                                availableFunctions.stream()
-                                        .filter(
-                                                it ->
-                                                        Objects.equals(
-                                                                it.toFullyQualifiedName(),
-                                                                memoryEntry.getMetadata().getId()))
-                                        .findFirst()
-                                        .orElse(null))
-                .filter(Objects::nonNull)
+                .mapNotNull(memoryEntry -> byName.get(memoryEntry.getMetadata().getId()))
                 .collectList();
     }
 
@@ -192,7 +303,8 @@ public class DefaultSequentialPlannerSKContext {
     /// <param name="availableFunctions">The available functions to save.</param>
     Mono<CompletionSKContext> rememberFunctionsAsync(List<SKFunction<?, ?>> availableFunctions) {
         // Check if the functions have already been saved to memory.
-        if (delegate.getVariables().asMap().containsKey(PlanSKFunctionsAreRemembered)) {
+        if (functionIndex == null
+                && delegate.getVariables().asMap().containsKey(PlanSKFunctionsAreRemembered)) {
             return Mono.just(delegate);
         }
 
@@ -204,6 +316,11 @@ public class DefaultSequentialPlannerSKContext {
         }
 
         return Flux.fromIterable(availableFunctions)
+                .filter(
+                        function ->
+                                functionIndex == null
+                                        || !functionIndex.isRemembered(
+                                                PlannerMemoryCollectionName, function))
                 .flatMap(
                         function -> {
                             String functionName = function.toFullyQualifiedName();
@@ -215,37 +332,30 @@ public class DefaultSequentialPlannerSKContext {
                                             : function.getDescription();
                             String textToEmbed = function.toEmbeddingString();
 
-                            // It'd be nice if there were a saveIfNotExists method on the memory
-                            // interface
-                            return memory.getAsync(PlannerMemoryCollectionName, key, false)
-                                    .filter(Objects::nonNull)
-                                    .flatMap(
-                                            memoryEntry -> {
-                                                // TODO It'd be nice if the minRelevanceScore could
-                                                // be a parameter for each item that was saved to
-                                                // memory
-                                                // As folks may want to tune their functions to be
-                                                // more or less relevant.
-                                                // Memory now supports these such strategies.
-                                                return memory.saveInformationAsync(
-                                                        PlannerMemoryCollectionName,
-                                                        textToEmbed,
-                                                        key,
-                                                        description,
-                                                        "");
-                                            })
-                                    .flatMap(
-                                            newKey ->
-                                                    memory.getAsync(
-                                                            PlannerMemoryCollectionName,
-                                                            newKey,
-                                                            true));
+                            // TODO It'd be nice if the minRelevanceScore could be a parameter for
+                            // each item that was saved to memory
+                            // As folks may want to tune their functions to be more or less
+                            // relevant.
+                            // Memory now supports these such strategies.
+                            return memory.saveInformationAsync(
+                                            PlannerMemoryCollectionName,
+                                            textToEmbed,
+                                            key,
+                                            description,
+                                            "")
+                                    .doOnNext(
+                                            savedKey -> {
+                                                if (functionIndex != null) {
+                                                    functionIndex.markRemembered(
+                                                            PlannerMemoryCollectionName, function);
+                                                }
+                                            });
                         })
-                .reduce(memory, SemanticTextMemory::merge)
-                .map(
-                        newMemory -> {
-                            delegate.setVariable(PlanSKFunctionsAreRemembered, "true");
-                            return delegate;
-                        });
+                .then(
+                        Mono.fromCallable(
+                                () -> {
+                                    delegate.setVariable(PlanSKFunctionsAreRemembered, "true");
+                                    return delegate;
+                                }));
     }
 }
@@ -0,0 +1,210 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.planner.sequentialplanner;
+
+import com.microsoft.semantickernel.ai.embeddings.Embedding;
+import com.microsoft.semantickernel.ai.embeddings.EmbeddingGeneration;
+import com.microsoft.semantickernel.orchestration.SKFunction;
+import com.microsoft.semantickernel.planner.PlanningException;
+
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nullable;
+
+/**
+ * In-process index of the functions available to the planner.
+ *
+ * <p>The index memoizes the manual of each function, and when an embedding service is provided, the
+ * normalized embedding of each function, so that the functions can be ranked against a goal without
+ * a memory store. Entries are keyed by skill and function name and refreshed when another function
+ * instance is registered under that name; the embedding of the previous instance is kept when its
+ * embedding string is the same. The index is thread safe and is meant to be shared by the planners
+ * of a kernel.
+ */
+public class FunctionRelevanceIndex {
+
+    private static final class Entry {
+        private final SKFunction<?, ?> function;
+        private final String embeddingString;
+        private final String manual;
+        @Nullable private volatile float[] vector;
+
+        private Entry(SKFunction<?, ?> function, @Nullable Entry previous) {
+            this.function = function;
+            this.embeddingString = function.toEmbeddingString();
+            this.manual = function.toManualString();
+            if (previous != null && previous.embeddingString.equals(embeddingString)) {
+                this.vector = previous.vector;
+            }
+        }
+    }
+
+    @Nullable private final EmbeddingGeneration<String, Float> embeddingGeneration;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /** Creates an index memoizing manuals only, functions cannot be ranked. */
+    public FunctionRelevanceIndex() {
+        this(null);
+    }
+
+    /**
+     * @param embeddingGeneration Service embedding the functions and the goals, or {@code null} to
+     *     only memoize manuals
+     */
+    public FunctionRelevanceIndex(
+            @Nullable EmbeddingGeneration<String, Float> embeddingGeneration) {
+        this.embeddingGeneration = embeddingGeneration;
+    }
+
+    /**
+     * @return Whether functions can be ranked, that is an embedding service was provided
+     */
+    public boolean canRank() {
+        return embeddingGeneration != null;
+    }
+
+    /**
+     * Gets the manual of a function, see {@link SKFunction#toManualString()}.
+     *
+     * @param function The function
+     * @return The memoized manual
+     */
+    public String getManual(SKFunction<?, ?> function) {
+        return entryOf(function).manual;
+    }
+
+    /**
+     * Ranks functions by the cosine similarity of their embedding with the query. Functions not
+     * embedded yet are embedded in a single request.
+     *
+     * @param query The query, usually the goal
+     * @param functions The functions to rank
+     * @param limit Maximum number of functions returned
+     * @param minRelevance Minimum similarity of a returned function
+     * @return The most relevant functions with their similarity, most relevant first
+     */
+    public Mono<List<Tuple2<SKFunction<?, ?>, Double>>> rankAsync(
+            String query,
+            Collection<? extends SKFunction<?, ?>> functions,
+            int limit,
+            double minRelevance) {
+        EmbeddingGeneration<String, Float> embeddings = embeddingGeneration;
+        if (embeddings == null) {
+            return Mono.error(
+                    new PlanningException(
+                            PlanningException.ErrorCodes.INVALID_CONFIGURATION,
+                            "No embedding service to rank the functions with"));
+        }
+
+        return Mono.defer(
+                () -> {
+                    List<Entry> candidates = new ArrayList<>(functions.size());
+                    List<Entry> missing = new ArrayList<>();
+                    functions.forEach(
+                            function -> {
+                                Entry entry = entryOf(function);
+                                candidates.add(entry);
+                                if (entry.vector == null) {
+                                    missing.add(entry);
+                                }
+                            });
+
+                    List<String> texts = new ArrayList<>(missing.size() + 1);
+                    texts.add(query);
+                    missing.forEach(entry -> texts.add(entry.embeddingString));
+
+                    return embeddings
+                            .generateEmbeddingsAsync(texts)
+                            .map(
+                                    vectors -> {
+                                        if (vectors.size() != texts.size()) {
+                                            throw new PlanningException(
+                                                    PlanningException.ErrorCodes.UNKNOWN_ERROR,
+                                                    String.format(
+                                                            "Expected %d embeddings, received %d",
+                                                            texts.size(), vectors.size()));
+                                        }
+                                        for (int i = 0; i < missing.size(); i++) {
+                                            missing.get(i).vector = normalize(vectors.get(i + 1));
+                                        }
+                                        return topK(
+                                                normalize(vectors.get(0)),
+                                                candidates,
+                                                limit,
+                                                minRelevance);
+                                    });
+                });
+    }
+
+    private Entry entryOf(SKFunction<?, ?> function) {
+        String key = function.toFullyQualifiedName().toLowerCase(Locale.ROOT);
+        Entry entry = entries.get(key);
+        if (entry != null && entry.function == function) {
+            return entry;
+        }
+        return entries.compute(
+                key,
+                (k, previous) ->
+                        previous != null && previous.function == function
+                                ? previous
+                                : new Entry(function, previous));
+    }
+
+    private static List<Tuple2<SKFunction<?, ?>, Double>> topK(
+            float[] query, List<Entry> candidates, int limit, double minRelevance) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        Comparator<Tuple2<SKFunction<?, ?>, Double>> byScore = Comparator.comparing(Tuple2::getT2);
+        PriorityQueue<Tuple2<SKFunction<?, ?>, Double>> top =
+                new PriorityQueue<>(limit + 1, byScore);
+        for (Entry candidate : candidates) {
+            float[] vector = candidate.vector;
+            if (vector == null || vector.length != query.length) {
+                continue;
+            }
+            double score = 0;
+            for (int i = 0; i < vector.length; i++) {
+                score += vector[i] * query[i];
+            }
+            if (score < minRelevance) {
+                continue;
+            }
+            top.add(Tuples.of(candidate.function, score));
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+
+        List<Tuple2<SKFunction<?, ?>, Double>> result = new ArrayList<>(top);
+        result.sort(byScore.reversed());
+        return result;
+    }
+
+    private static float[] normalize(Embedding<Float> embedding) {
+        float[] vector = embedding.toFloatArray();
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        norm = Math.sqrt(norm);
+        if (norm > 0) {
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] /= norm;
+            }
+        }
+        return vector;
+    }
+}
@@ -0,0 +1,40 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.planner.sequentialplanner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A sequential plan, the steps of the {@code <plan>} generated by the {@link SequentialPlanner}.
+ */
+public class Plan {
+
+    private final List<PlanStep> steps;
+
+    public Plan(@Nonnull List<PlanStep> steps) {
+        this.steps = Collections.unmodifiableList(new ArrayList<>(steps));
+    }
+
+    /**
+     * Parses the XML plan generated by the {@link SequentialPlanner}.
+     *
+     * @param xml The plan, for instance the result of {@link SequentialPlanner#createPlanAsync}
+     * @return The plan
+     */
+    public static Plan fromXml(@Nonnull String xml) {
+        SequentialPlanParser parser = new SequentialPlanParser();
+        List<PlanStep> steps = parser.feed(xml);
+        parser.complete();
+        return new Plan(steps);
+    }
+
+    /**
+     * @return The steps, in plan order
+     */
+    public List<PlanStep> getSteps() {
+        return steps;
+    }
+}
@@ -0,0 +1,209 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.planner.sequentialplanner;
+
+import com.microsoft.semantickernel.memory.MemoryQueryResult;
+import com.microsoft.semantickernel.memory.NullMemory;
+import com.microsoft.semantickernel.memory.SemanticTextMemory;
+import com.microsoft.semantickernel.orchestration.SKFunction;
+
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.annotation.Nullable;
+
+/**
+ * Cache of the plans generated by a {@link SequentialPlanner}.
+ *
+ * <p>Plans are keyed on a hash of the normalised goal and a fingerprint of the functions that were
+ * available to the planner, so a plan is never reused once the skill set changes; entries created
+ * for another skill set are evicted as soon as a different fingerprint is seen.
+ *
+ * <p>When a minimum similarity is configured, goals that miss the exact key are also matched
+ * against previously planned goals through the semantic memory, so that rewordings of a goal can
+ * reuse its plan. Only plans generated for the same skill set are reused.
+ */
+public class PlanCache {
+
+    static final String PlanCacheMemoryCollectionName = "Planning.PlanCache";
+
+    private final int maxEntries;
+    @Nullable private final Double minSimilarity;
+
+    private static class Entry {
+        private final String fingerprint;
+        private final String plan;
+
+        private Entry(String fingerprint, String plan) {
+            this.fingerprint = fingerprint;
+            this.plan = plan;
+        }
+    }
+
+    private final LinkedHashMap<String, Entry> entries;
+    @Nullable private String lastFingerprint;
+
+    /**
+     * Creates a cache matching goals exactly, after normalisation.
+     *
+     * @param maxEntries Maximum number of plans kept, least recently used plans are evicted first
+     */
+    public PlanCache(int maxEntries) {
+        this(maxEntries, null);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param maxEntries Maximum number of plans kept, least recently used plans are evicted first
+     * @param minSimilarity Minimum relevance of a semantic match between goals, from 0 to 1, or
+     *     {@code null} to only match goals exactly
+     */
+    public PlanCache(int maxEntries, @Nullable Double minSimilarity) {
+        this.maxEntries = maxEntries;
+        this.minSimilarity = minSimilarity;
+        this.entries =
+                new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                        return size() > PlanCache.this.maxEntries;
+                    }
+                };
+    }
+
+    /**
+     * Looks up the plan of a goal.
+     *
+     * @param goal The goal
+     * @param fingerprint Fingerprint of the available functions, see {@link #fingerprint}
+     * @param memory Memory used for semantic matches, may be {@code null}
+     * @return The cached plan, or empty on a miss
+     */
+    public Mono<String> getAsync(
+            String goal, String fingerprint, @Nullable SemanticTextMemory memory) {
+        String key = key(goal, fingerprint);
+        String plan = getEntry(key, fingerprint);
+        if (plan != null) {
+            return Mono.just(plan);
+        }
+        if (!isSemanticEnabled(memory)) {
+            return Mono.empty();
+        }
+        return memory.searchAsync(
+                        PlanCacheMemoryCollectionName,
+                        normalize(goal),
+                        1,
+                        Objects.requireNonNull(minSimilarity),
+                        false)
+                .flatMapIterable(results -> results)
+                .map(MemoryQueryResult::getMetadata)
+                .filter(metadata -> fingerprint.equals(metadata.getAdditionalMetadata()))
+                .mapNotNull(metadata -> getEntry(metadata.getId(), fingerprint))
+                .next()
+                // The cache is best effort, a failing memory is a miss
+                .onErrorResume(e -> Mono.empty());
+    }
+
+    /**
+     * Stores the plan of a goal.
+     *
+     * @param goal The goal
+     * @param fingerprint Fingerprint of the available functions, see {@link #fingerprint}
+     * @param plan The plan
+     * @param memory Memory used for semantic matches, may be {@code null}
+     * @return The plan, once stored
+     */
+    public Mono<String> putAsync(
+            String goal, String fingerprint, String plan, @Nullable SemanticTextMemory memory) {
+        String key = key(goal, fingerprint);
+        synchronized (entries) {
+            entries.put(key, new Entry(fingerprint, plan));
+        }
+        if (!isSemanticEnabled(memory)) {
+            return Mono.just(plan);
+        }
+        return memory.saveInformationAsync(
+                        PlanCacheMemoryCollectionName, normalize(goal), key, null, fingerprint)
+                .thenReturn(plan)
+                .onErrorReturn(plan);
+    }
+
+    /** Removes all the cached plans. */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * @return Number of cached plans
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Computes the fingerprint of a set of functions, from their names and manuals.
+     *
+     * @param functions The functions available to the planner
+     * @return The fingerprint
+     */
+    public static String fingerprint(Collection<? extends SKFunction<?, ?>> functions) {
+        StringBuilder manual = new StringBuilder();
+        functions.stream()
+                .map(function -> function.toFullyQualifiedName() + "\n" + function.toManualString())
+                .sorted()
+                .forEach(it -> manual.append(it).append('\n'));
+        return sha256(manual.toString());
+    }
+
+    @Nullable
+    private String getEntry(String key, String fingerprint) {
+        synchronized (entries) {
+            if (!fingerprint.equals(lastFingerprint)) {
+                // The skill set changed, plans made for other skill sets cannot be reused
+                entries.values().removeIf(entry -> !entry.fingerprint.equals(fingerprint));
+                lastFingerprint = fingerprint;
+            }
+            Entry entry = entries.get(key);
+            return entry != null ? entry.plan : null;
+        }
+    }
+
+    private boolean isSemanticEnabled(@Nullable SemanticTextMemory memory) {
+        return minSimilarity != null && memory != null && !(memory instanceof NullMemory);
+    }
+
+    private static String key(String goal, String fingerprint) {
+        return sha256(normalize(goal) + "\n" + fingerprint);
+    }
+
+    /** Lower case, collapses whitespace and drops trailing punctuation. */
+    static String normalize(String goal) {
+        String normalized = goal.toLowerCase(Locale.ROOT).trim().replaceAll("\\s+", " ");
+        return normalized.replaceAll("[\\p{Punct}\\s]+$", "");
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            StringBuilder hex = new StringBuilder(64);
+            for (byte b : digest.digest(value.getBytes(StandardCharsets.UTF_8))) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is required on every Java platform
+            throw new IllegalStateException(e);
+        }
+    }
+}
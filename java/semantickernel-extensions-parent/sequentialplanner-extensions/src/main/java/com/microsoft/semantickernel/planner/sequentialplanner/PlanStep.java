@@ -0,0 +1,136 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.planner.sequentialplanner;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * One {@code <function.Skill.Name .../>} step of a sequential plan.
+ *
+ * <p>Parameter values may reference context variables as {@code $NAME}. A step without an {@code
+ * input} parameter consumes the output of the previous step.
+ */
+public class PlanStep {
+
+    /** Attribute saving the output of a step to a context variable. */
+    public static final String SetContextVariableTag = "setContextVariable";
+
+    /** Attribute appending the output of a step to a result variable. */
+    public static final String AppendToResultTag = "appendToResult";
+
+    static final String InputParameter = "input";
+
+    private static final Pattern VariableReference = Pattern.compile("\\$(\\w+)");
+
+    private final String skillName;
+    private final String functionName;
+    private final Map<String, String> parameters;
+    @Nullable private final String outputVariable;
+    @Nullable private final String resultKey;
+
+    public PlanStep(
+            @Nonnull String skillName,
+            @Nonnull String functionName,
+            @Nonnull Map<String, String> parameters,
+            @Nullable String outputVariable,
+            @Nullable String resultKey) {
+        this.skillName = skillName;
+        this.functionName = functionName;
+        this.parameters = Collections.unmodifiableMap(new LinkedHashMap<>(parameters));
+        this.outputVariable = outputVariable;
+        this.resultKey = resultKey;
+    }
+
+    public String getSkillName() {
+        return skillName;
+    }
+
+    public String getFunctionName() {
+        return functionName;
+    }
+
+    /**
+     * @return The parameters of the function, excluding {@link #SetContextVariableTag} and {@link
+     *     #AppendToResultTag}
+     */
+    public Map<String, String> getParameters() {
+        return parameters;
+    }
+
+    /**
+     * @return Name of the context variable the output is saved to, or {@code null}
+     */
+    @Nullable
+    public String getOutputVariable() {
+        return outputVariable;
+    }
+
+    /**
+     * @return Name of the result variable the output is appended to, or {@code null}
+     */
+    @Nullable
+    public String getResultKey() {
+        return resultKey;
+    }
+
+    public String toFullyQualifiedName() {
+        return skillName + "." + functionName;
+    }
+
+    /**
+     * @return Whether the step declares its input, rather than consuming the output of the previous
+     *     step
+     */
+    public boolean hasInput() {
+        return parameters.containsKey(InputParameter);
+    }
+
+    /**
+     * @return Names of the context variables referenced by the parameters
+     */
+    public Set<String> getReferencedVariables() {
+        Set<String> variables = new LinkedHashSet<>();
+        parameters
+                .values()
+                .forEach(
+                        value -> {
+                            Matcher matcher = VariableReference.matcher(value);
+                            while (matcher.find()) {
+                                variables.add(matcher.group(1));
+                            }
+                        });
+        return variables;
+    }
+
+    /**
+     * Replaces the variable references in a parameter value.
+     *
+     * @param value Parameter value
+     * @param variables Values of the variables, missing variables are replaced by an empty string
+     * @return The expanded value
+     */
+    static String expand(String value, Map<String, String> variables) {
+        Matcher matcher = VariableReference.matcher(value);
+        StringBuffer expanded = new StringBuffer();
+        while (matcher.find()) {
+            String replacement = variables.get(matcher.group(1));
+            matcher.appendReplacement(
+                    expanded, Matcher.quoteReplacement(replacement != null ? replacement : ""));
+        }
+        matcher.appendTail(expanded);
+        return expanded.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "PlanStep{" + toFullyQualifiedName() + " " + parameters + "}";
+    }
+}
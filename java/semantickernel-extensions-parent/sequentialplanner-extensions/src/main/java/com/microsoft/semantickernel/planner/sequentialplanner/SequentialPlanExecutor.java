@@ -0,0 +1,345 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.planner.sequentialplanner;
+
+import com.microsoft.semantickernel.builders.SKBuilders;
+import com.microsoft.semantickernel.memory.NullMemory;
+import com.microsoft.semantickernel.memory.SemanticTextMemory;
+import com.microsoft.semantickernel.orchestration.AbstractSkFunction;
+import com.microsoft.semantickernel.orchestration.Deadlines;
+import com.microsoft.semantickernel.orchestration.SKContext;
+import com.microsoft.semantickernel.orchestration.SKFunction;
+import com.microsoft.semantickernel.planner.PlanningException;
+import com.microsoft.semantickernel.skilldefinition.FunctionNotFound;
+import com.microsoft.semantickernel.skilldefinition.ParameterView;
+import com.microsoft.semantickernel.skilldefinition.ReadOnlySkillCollection;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Executes the plans generated by the {@link SequentialPlanner}.
+ *
+ * <p>Rather than running the steps strictly in sequence, the executor builds a dependency graph of
+ * the steps: a step depends on the previous step when it consumes its output as input, and on the
+ * earlier steps setting, with {@code setContextVariable} or {@code appendToResult}, a variable it
+ * reads. A step reads the variables its parameters reference as {@code $name}, and those named like
+ * the parameters its function declares. Steps whose dependencies have completed run concurrently,
+ * up to the configured maximum. A maximum of 1 runs the steps in plan order.
+ *
+ * <p>Each step sees the variables it reads as a sequential run would: the initial variables updated
+ * by the earlier steps in plan order. Variables set by the other steps are not passed to it. The
+ * final context is the same as that of a sequential run, with the input set to the output of the
+ * last step.
+ */
+public class SequentialPlanExecutor {
+
+    /** Default maximum number of steps running concurrently. */
+    public static final int DefaultMaxConcurrency = 4;
+
+    private static final String ResultSeparator = "\n\n";
+
+    private final int maxConcurrency;
+
+    public SequentialPlanExecutor() {
+        this(DefaultMaxConcurrency);
+    }
+
+    /**
+     * @param maxConcurrency Maximum number of steps running concurrently
+     */
+    public SequentialPlanExecutor(int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new PlanningException(
+                    PlanningException.ErrorCodes.INVALID_CONFIGURATION,
+                    "The maximum concurrency must be at least 1");
+        }
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Executes a plan.
+     *
+     * @param plan The plan
+     * @param context Context providing the skills, the memory and the initial variables
+     * @return A copy of the context holding the result of the plan
+     */
+    public <T extends SKContext<T>> Mono<T> executeAsync(@Nonnull Plan plan, @Nonnull T context) {
+        // Fail before running any step if a function of the plan is missing
+        return Mono.fromRunnable(
+                        () -> plan.getSteps().forEach(step -> resolve(context.getSkills(), step)))
+                .then(executeAsync(Flux.fromIterable(plan.getSteps()), context));
+    }
+
+    private static SKFunction<?, ?> resolve(
+            @Nullable ReadOnlySkillCollection skills, PlanStep step) {
+        SKFunction<?, ?> function = null;
+        if (skills != null) {
+            try {
+                function =
+                        skills.getFunction(
+                                step.getSkillName(), step.getFunctionName(), SKFunction.class);
+            } catch (FunctionNotFound e) {
+                function = null;
+            }
+        }
+        if (function == null) {
+            throw new PlanningException(
+                    PlanningException.ErrorCodes.INVALID_PLAN,
+                    "Failed to find function " + step.toFullyQualifiedName());
+        }
+        return function;
+    }
+
+    /**
+     * Executes a plan as its steps arrive, for instance while the plan is being generated. Each
+     * step is dispatched as soon as it has been received and its dependencies have completed.
+     *
+     * @param steps The steps of the plan, in plan order
+     * @param context Context providing the skills, the memory and the initial variables
+     * @return A copy of the context holding the result of the plan
+     */
+    public <T extends SKContext<T>> Mono<T> executeAsync(
+            @Nonnull Flux<PlanStep> steps, @Nonnull T context) {
+        return Deadlines.apply(executeWithinDeadline(steps, context), context.getDeadline());
+    }
+
+    private <T extends SKContext<T>> Mono<T> executeWithinDeadline(
+            Flux<PlanStep> steps, T context) {
+        return Mono.defer(
+                () -> {
+                    Execution execution = new Execution(context, maxConcurrency == 1);
+
+                    Mono<Void> schedule =
+                            steps.doOnNext(execution::add).doOnComplete(execution::complete).then();
+
+                    Mono<Void> run =
+                            execution
+                                    .ready
+                                    .asFlux()
+                                    .flatMap(
+                                            node ->
+                                                    execution
+                                                            .invokeAsync(node)
+                                                            .doOnNext(
+                                                                    output ->
+                                                                            execution.onDone(
+                                                                                    node, output)),
+                                            maxConcurrency)
+                                    .then();
+
+                    return Mono.when(schedule, run)
+                            .then(Mono.fromCallable(() -> execution.result(context)));
+                });
+    }
+
+    private static final class Node {
+        private final int index;
+        private final PlanStep step;
+        private final SKFunction<?, ?> function;
+        @Nullable private final Node previous;
+        // Variables the step reads, see reads
+        private final Set<String> reads;
+        private final List<Node> dependents = new ArrayList<>();
+        private int pending = 0;
+        @Nullable private String output;
+
+        private Node(int index, PlanStep step, SKFunction<?, ?> function, @Nullable Node previous) {
+            this.index = index;
+            this.step = step;
+            this.function = function;
+            this.previous = previous;
+            this.reads = reads(step, function);
+        }
+
+        private static Set<String> reads(PlanStep step, SKFunction<?, ?> function) {
+            Set<String> reads = new LinkedHashSet<>(step.getReferencedVariables());
+            if (function instanceof AbstractSkFunction) {
+                for (ParameterView parameter :
+                        ((AbstractSkFunction<?, ?>) function).getParameters()) {
+                    reads.add(parameter.getName());
+                }
+            }
+            return reads;
+        }
+
+        private boolean reads(Node producer) {
+            return reads.contains(producer.step.getOutputVariable())
+                    || reads.contains(producer.step.getResultKey());
+        }
+    }
+
+    /** State of one execution of a plan. */
+    private static final class Execution {
+        private final Map<String, String> initialVariables;
+        private final SemanticTextMemory memory;
+        @Nullable private final ReadOnlySkillCollection skills;
+        private final boolean inPlanOrder;
+
+        private final List<Node> nodes = new ArrayList<>();
+        // Steps setting variables, in plan order
+        private final List<Node> producers = new ArrayList<>();
+        private final Sinks.Many<Node> ready = Sinks.many().unicast().onBackpressureBuffer();
+        private int completed = 0;
+        private boolean scheduled = false;
+
+        private Execution(SKContext<?> context, boolean inPlanOrder) {
+            this.initialVariables = new HashMap<>(context.getVariables().asMap());
+            SemanticTextMemory contextMemory = context.getSemanticMemory();
+            this.memory = contextMemory != null ? contextMemory : NullMemory.getInstance();
+            this.skills = context.getSkills();
+            this.inPlanOrder = inPlanOrder;
+        }
+
+        /** Adds a step to the graph, scheduling it if its dependencies have completed. */
+        private synchronized void add(PlanStep step) {
+            Node previous = nodes.isEmpty() ? null : nodes.get(nodes.size() - 1);
+            Node node = new Node(nodes.size(), step, resolve(skills, step), previous);
+
+            Set<Node> dependencies = new LinkedHashSet<>();
+            for (Node producer : producers) {
+                if (node.reads(producer)) {
+                    dependencies.add(producer);
+                }
+            }
+            if ((!step.hasInput() || inPlanOrder) && previous != null) {
+                dependencies.add(previous);
+            }
+            for (Node dependency : dependencies) {
+                if (dependency.output == null) {
+                    dependency.dependents.add(node);
+                    node.pending++;
+                }
+            }
+
+            nodes.add(node);
+            if (step.getOutputVariable() != null || step.getResultKey() != null) {
+                producers.add(node);
+            }
+
+            if (node.pending == 0) {
+                ready.emitNext(node, Sinks.EmitFailureHandler.FAIL_FAST);
+            }
+        }
+
+        /** Signals that all the steps have been added. */
+        private synchronized void complete() {
+            scheduled = true;
+            completeIfDone();
+        }
+
+        private synchronized void onDone(Node node, String output) {
+            node.output = output;
+            completed++;
+            for (Node dependent : node.dependents) {
+                if (--dependent.pending == 0) {
+                    ready.emitNext(dependent, Sinks.EmitFailureHandler.FAIL_FAST);
+                }
+            }
+            completeIfDone();
+        }
+
+        private void completeIfDone() {
+            if (scheduled && completed == nodes.size()) {
+                ready.emitComplete(Sinks.EmitFailureHandler.FAIL_FAST);
+            }
+        }
+
+        private Mono<String> invokeAsync(Node node) {
+            Map<String, String> variables;
+            synchronized (this) {
+                variables = variablesOf(node);
+            }
+            return node.function
+                    .invokeWithCustomInputAsync(
+                            SKBuilders.variables().build(variables),
+                            memory,
+                            skills != null ? skills : SKBuilders.skillCollection().build())
+                    .map(
+                            result -> {
+                                String output = result.getResult();
+                                return output != null ? output : "";
+                            })
+                    .defaultIfEmpty("");
+        }
+
+        /**
+         * Variables passed to the function of a step, once its dependencies have completed. The
+         * earlier steps setting the variables it reads are dependencies, so they have all
+         * completed.
+         */
+        private Map<String, String> variablesOf(Node node) {
+            Map<String, String> variables = new HashMap<>(initialVariables);
+            for (Node producer : producers) {
+                if (producer.index >= node.index) {
+                    break;
+                }
+                if (node.reads(producer)) {
+                    apply(variables, producer, node.reads);
+                }
+            }
+
+            Map<String, String> parameters = new HashMap<>();
+            node.step
+                    .getParameters()
+                    .forEach(
+                            (name, value) ->
+                                    parameters.put(name, PlanStep.expand(value, variables)));
+            variables.putAll(parameters);
+            if (!node.step.hasInput() && node.previous != null) {
+                variables.put(PlanStep.InputParameter, valueOf(node.previous));
+            }
+            return variables;
+        }
+
+        private synchronized <T extends SKContext<T>> T result(T context) {
+            Map<String, String> variables = new LinkedHashMap<>(initialVariables);
+            nodes.forEach(node -> apply(variables, node, null));
+
+            T result = context.copy();
+            for (Map.Entry<String, String> variable : variables.entrySet()) {
+                result = result.setVariable(variable.getKey(), variable.getValue());
+            }
+            if (!nodes.isEmpty()) {
+                result = result.update(valueOf(nodes.get(nodes.size() - 1)));
+            }
+            return result;
+        }
+
+        /**
+         * Applies the output of a completed step to the variables, as a sequential run would. Only
+         * the given variables are set, or all of them when {@code null}.
+         */
+        private void apply(Map<String, String> variables, Node node, @Nullable Set<String> only) {
+            String output = valueOf(node);
+            String outputVariable = node.step.getOutputVariable();
+            if (outputVariable != null && (only == null || only.contains(outputVariable))) {
+                variables.put(outputVariable, output);
+            }
+            String resultKey = node.step.getResultKey();
+            if (resultKey != null && (only == null || only.contains(resultKey))) {
+                String existing = variables.get(resultKey);
+                variables.put(
+                        resultKey,
+                        existing == null || existing.isEmpty()
+                                ? output
+                                : existing + ResultSeparator + output);
+            }
+        }
+
+        private static String valueOf(Node node) {
+            return node.output != null ? node.output : "";
+        }
+    }
+}
@@ -0,0 +1,184 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.planner.sequentialplanner;
+
+import com.microsoft.semantickernel.planner.PlanningException;
+import com.microsoft.semantickernel.skilldefinition.ReadOnlySkillCollection;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.annotation.Nullable;
+
+/**
+ * Incremental parser of the XML plans generated by the {@link SequentialPlanner}.
+ *
+ * <p>The plan text can be fed in chunks as it is generated, each call returning the steps whose tag
+ * has been completed. Text outside of the tags, comments and anything after {@code </plan>} are
+ * ignored. Instances are not thread safe.
+ */
+public class SequentialPlanParser {
+
+    private static final String FunctionTagPrefix = "function.";
+
+    private static final Pattern Attribute =
+            Pattern.compile("([\\w.:-]+)\\s*=\\s*(?:\"([^\"]*)\"|'([^']*)')");
+
+    private final StringBuilder buffer = new StringBuilder();
+    private boolean sawPlan = false;
+    private boolean sawStep = false;
+    private boolean ended = false;
+
+    /**
+     * Parses the next chunk of the plan.
+     *
+     * @param chunk Text following the previously fed chunks
+     * @return The steps completed by this chunk, in plan order
+     */
+    public List<PlanStep> feed(String chunk) {
+        if (ended) {
+            return Collections.emptyList();
+        }
+        buffer.append(chunk);
+
+        List<PlanStep> steps = new ArrayList<>();
+        int position = 0;
+        while (!ended) {
+            int start = buffer.indexOf("<", position);
+            if (start < 0) {
+                position = buffer.length();
+                break;
+            }
+            int end = findTagEnd(start);
+            if (end < 0) {
+                // Incomplete tag, wait for the next chunk
+                position = start;
+                break;
+            }
+            PlanStep step = parseTag(buffer.substring(start + 1, end));
+            if (step != null) {
+                steps.add(step);
+            }
+            position = end + 1;
+        }
+        buffer.delete(0, position);
+        return steps;
+    }
+
+    /**
+     * Signals the end of the plan text.
+     *
+     * @throws PlanningException if the plan is truncated or contains no plan at all
+     */
+    public void complete() {
+        String remainder = buffer.toString().trim();
+        buffer.setLength(0);
+        if (!ended && remainder.startsWith("<" + FunctionTagPrefix)) {
+            throw new PlanningException(
+                    PlanningException.ErrorCodes.INVALID_PLAN,
+                    "The plan ends with an incomplete step: " + remainder);
+        }
+        if (!sawPlan && !sawStep) {
+            throw new PlanningException(
+                    PlanningException.ErrorCodes.INVALID_PLAN, "No plan was found");
+        }
+    }
+
+    /** Index of the {@code >} closing the tag opened at {@code start}, or -1 if not yet fed. */
+    private int findTagEnd(int start) {
+        if (buffer.indexOf("<!--", start) == start) {
+            int end = buffer.indexOf("-->", start + 4);
+            return end < 0 ? -1 : end + 2;
+        }
+        char quote = 0;
+        for (int i = start + 1; i < buffer.length(); i++) {
+            char c = buffer.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == '>') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Nullable
+    private PlanStep parseTag(String tag) {
+        if (tag.startsWith("!--")) {
+            return null;
+        }
+        if (tag.startsWith("/")) {
+            if (tag.substring(1).trim().equals("plan")) {
+                ended = true;
+            }
+            return null;
+        }
+
+        int nameEnd = 0;
+        while (nameEnd < tag.length()
+                && !Character.isWhitespace(tag.charAt(nameEnd))
+                && tag.charAt(nameEnd) != '/') {
+            nameEnd++;
+        }
+        String name = tag.substring(0, nameEnd);
+        if (name.equals("plan")) {
+            sawPlan = true;
+            return null;
+        }
+        if (!name.startsWith(FunctionTagPrefix)) {
+            return null;
+        }
+
+        String functionName = name.substring(FunctionTagPrefix.length());
+        String skillName = ReadOnlySkillCollection.GlobalSkill;
+        int separator = functionName.lastIndexOf('.');
+        if (separator >= 0) {
+            skillName = functionName.substring(0, separator);
+            functionName = functionName.substring(separator + 1);
+        }
+        if (functionName.isEmpty()) {
+            throw new PlanningException(
+                    PlanningException.ErrorCodes.INVALID_PLAN, "Invalid function tag: " + name);
+        }
+
+        Map<String, String> parameters = new LinkedHashMap<>();
+        @Nullable String outputVariable = null;
+        @Nullable String resultKey = null;
+        Matcher matcher = Attribute.matcher(tag.substring(nameEnd));
+        while (matcher.find()) {
+            String value = unescape(matcher.group(2) != null ? matcher.group(2) : matcher.group(3));
+            switch (matcher.group(1)) {
+                case PlanStep.SetContextVariableTag:
+                    outputVariable = value;
+                    break;
+                case PlanStep.AppendToResultTag:
+                    resultKey = value;
+                    break;
+                default:
+                    parameters.put(matcher.group(1), value);
+            }
+        }
+
+        sawStep = true;
+        return new PlanStep(skillName, functionName, parameters, outputVariable, resultKey);
+    }
+
+    private static String unescape(String value) {
+        if (value.indexOf('&') < 0) {
+            return value;
+        }
+        return value.replace("&quot;", "\"")
+                .replace("&apos;", "'")
+                .replace("&lt;", "<")
+                .replace("&gt;", ">")
+                .replace("&amp;", "&");
+    }
+}
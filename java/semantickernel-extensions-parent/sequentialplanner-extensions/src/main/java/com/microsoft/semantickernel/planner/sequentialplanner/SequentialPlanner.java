@@ -3,12 +3,21 @@ package com.microsoft.semantickernel.planner.sequentialplanner; // Copyright (c)
 // rights reserved.
 
 import com.microsoft.semantickernel.Kernel;
+import com.microsoft.semantickernel.KernelException;
+import com.microsoft.semantickernel.ai.tokenizers.ApproximateTokenizer;
+import com.microsoft.semantickernel.ai.tokenizers.Tokenizer;
 import com.microsoft.semantickernel.builders.FunctionBuilders;
+import com.microsoft.semantickernel.builders.SKBuilders;
+import com.microsoft.semantickernel.memory.SemanticTextMemory;
+import com.microsoft.semantickernel.planner.PlanningException;
 import com.microsoft.semantickernel.planner.SequentialPlannerRequestSettings;
 import com.microsoft.semantickernel.semanticfunctions.PromptTemplateConfig;
+import com.microsoft.semantickernel.skilldefinition.FunctionIndex;
 import com.microsoft.semantickernel.textcompletion.CompletionSKContext;
 import com.microsoft.semantickernel.textcompletion.CompletionSKFunction;
+import com.microsoft.semantickernel.textcompletion.TextCompletion;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.ArrayList;
@@ -28,6 +37,10 @@ public class SequentialPlanner {
 
     private final SequentialPlannerRequestSettings config;
     private final CompletionSKContext context;
+    private final FunctionIndex functionIndex;
+    @Nullable private final PlanCache planCache;
+    private final FunctionRelevanceIndex relevanceIndex;
+    private final Tokenizer tokenizer;
 
     /// <summary>
     /// the function flow semantic function, which takes a goal and creates an xml plan that can be
@@ -45,6 +58,42 @@ public class SequentialPlanner {
             Kernel kernel,
             @Nullable SequentialPlannerRequestSettings config,
             @Nullable String prompt) {
+        this(kernel, config, prompt, null);
+    }
+
+    /// <summary>
+    /// Initialize a new instance of the <see cref="SequentialPlanner"/> class.
+    /// </summary>
+    /// <param name="kernel">The semantic kernel instance.</param>
+    /// <param name="config">The planner configuration.</param>
+    /// <param name="prompt">Optional prompt override</param>
+    /// <param name="planCache">Optional cache of the generated plans, a cached plan is returned
+    // without calling the completion service</param>
+    public SequentialPlanner(
+            Kernel kernel,
+            @Nullable SequentialPlannerRequestSettings config,
+            @Nullable String prompt,
+            @Nullable PlanCache planCache) {
+        this(kernel, config, prompt, planCache, null);
+    }
+
+    /// <summary>
+    /// Initialize a new instance of the <see cref="SequentialPlanner"/> class.
+    /// </summary>
+    /// <param name="kernel">The semantic kernel instance.</param>
+    /// <param name="config">The planner configuration.</param>
+    /// <param name="prompt">Optional prompt override</param>
+    /// <param name="planCache">Optional cache of the generated plans, a cached plan is returned
+    // without calling the completion service</param>
+    /// <param name="relevanceIndex">Optional in-process index of the functions, used to select the
+    // functions relevant to the goal when it has an embedding service. It can be shared between
+    // planners</param>
+    public SequentialPlanner(
+            Kernel kernel,
+            @Nullable SequentialPlannerRequestSettings config,
+            @Nullable String prompt,
+            @Nullable PlanCache planCache,
+            @Nullable FunctionRelevanceIndex relevanceIndex) {
         // Verify.NotNull(kernel);
 
         if (config == null) {
@@ -78,6 +127,19 @@ public class SequentialPlanner {
                                         new ArrayList<>()));
 
         this.context = functionFlowFunction.buildContext();
+        this.functionIndex = kernel.getFunctionIndex();
+        this.planCache = planCache;
+        this.relevanceIndex =
+                relevanceIndex != null ? relevanceIndex : new FunctionRelevanceIndex();
+        this.tokenizer = tokenizerOf(kernel);
+    }
+
+    private static Tokenizer tokenizerOf(Kernel kernel) {
+        try {
+            return kernel.getService(null, TextCompletion.class).getTokenizer();
+        } catch (KernelException e) {
+            return ApproximateTokenizer.getInstance();
+        }
     }
 
     /// <summary>
@@ -86,22 +148,155 @@ public class SequentialPlanner {
     /// <param name="goal">The goal to create a plan for.</param>
     /// <returns>The plan.</returns>
     public Mono<CompletionSKContext> createPlanAsync(String goal) {
+        verifyGoal(goal);
+
+        if (planCache == null) {
+            return generatePlanAsync(goal);
+        }
+
+        PlanCache cache = planCache;
+        SemanticTextMemory memory = context.getSemanticMemory();
+        return fingerprintAsync()
+                .flatMap(fingerprint -> createPlanAsync(goal, fingerprint, cache, memory));
+    }
+
+    /**
+     * Creates a plan for a goal and executes it.
+     *
+     * <p>The plan is streamed from the completion service and each step is dispatched as soon as
+     * its tag is complete and its inputs are ready, so that the plan is executed while it is still
+     * being generated.
+     *
+     * @param goal The goal to create a plan for, also the initial input of the plan
+     * @param executor Executor of the plan
+     * @return The context holding the result of the plan
+     */
+    public Mono<CompletionSKContext> executePlanAsync(
+            String goal, SequentialPlanExecutor executor) {
+        verifyGoal(goal);
+
+        CompletionSKContext executionContext =
+                functionFlowFunction.buildContext(
+                        SKBuilders.variables().build(goal),
+                        context.getSemanticMemory(),
+                        context.getSkills());
+
+        Flux<PlanStep> steps =
+                Flux.defer(
+                        () -> {
+                            SequentialPlanParser parser = new SequentialPlanParser();
+                            return streamPlanAsync(goal)
+                                    .concatMapIterable(parser::feed)
+                                    .concatWith(Mono.<PlanStep>fromRunnable(parser::complete));
+                        });
+
+        return executor.executeAsync(steps, executionContext);
+    }
+
+    private static void verifyGoal(@Nullable String goal) {
         if (goal == null || goal.isEmpty()) {
-            // throw new PlanningException(PlanningException.ErrorCodes.InvalidGoal, "The goal
-            // specified is empty");
-            throw new RuntimeException();
+            throw new PlanningException(
+                    PlanningException.ErrorCodes.INVALID_GOAL, "The goal specified is empty");
+        }
+    }
+
+    private Mono<String> fingerprintAsync() {
+        return new DefaultSequentialPlannerSKContext(
+                        context, functionIndex, relevanceIndex, tokenizer)
+                .getAvailableFunctionsAsync(this.config, null)
+                .map(PlanCache::fingerprint);
+    }
+
+    private Mono<CompletionSKContext> createPlanAsync(
+            String goal, String fingerprint, PlanCache cache, @Nullable SemanticTextMemory memory) {
+        Mono<CompletionSKContext> generated =
+                Mono.defer(() -> generatePlanAsync(goal))
+                        .flatMap(
+                                planContext -> {
+                                    String plan = planContext.getResult();
+                                    if (plan == null || !isValid(plan)) {
+                                        return Mono.just(planContext);
+                                    }
+                                    return cache.putAsync(goal, fingerprint, plan, memory)
+                                            .thenReturn(planContext);
+                                });
+
+        // On a hit the completion is skipped, the plan is returned in a copy of the context
+        return cache.getAsync(goal, fingerprint, memory)
+                .map(plan -> context.copy().update(plan))
+                .switchIfEmpty(generated);
+    }
+
+    /** Streams the text of the plan, from the cache if possible. */
+    private Flux<String> streamPlanAsync(String goal) {
+        if (planCache == null) {
+            return generatePlanStreamAsync(goal);
+        }
+
+        PlanCache cache = planCache;
+        SemanticTextMemory memory = context.getSemanticMemory();
+        return fingerprintAsync()
+                .flatMapMany(
+                        fingerprint ->
+                                cache.getAsync(goal, fingerprint, memory)
+                                        .flux()
+                                        .switchIfEmpty(
+                                                Flux.defer(
+                                                        () ->
+                                                                generateAndCachePlanStreamAsync(
+                                                                        goal,
+                                                                        fingerprint,
+                                                                        cache,
+                                                                        memory))));
+    }
+
+    /**
+     * Streams the generated plan, and caches it once the stream completes. Truncated and invalid
+     * plans are not cached, the consumer of the stream reports them.
+     */
+    private Flux<String> generateAndCachePlanStreamAsync(
+            String goal, String fingerprint, PlanCache cache, @Nullable SemanticTextMemory memory) {
+        StringBuilder plan = new StringBuilder();
+        Mono<String> store =
+                Mono.defer(
+                        () ->
+                                isValid(plan.toString())
+                                        ? cache.putAsync(goal, fingerprint, plan.toString(), memory)
+                                        : Mono.empty());
+        return generatePlanStreamAsync(goal)
+                .doOnNext(plan::append)
+                .concatWith(store.then(Mono.empty()));
+    }
+
+    /** Whether the plan parses completely, the only plans worth caching. */
+    private static boolean isValid(String plan) {
+        try {
+            Plan.fromXml(plan);
+            return true;
+        } catch (PlanningException e) {
+            return false;
         }
+    }
+
+    private Mono<CompletionSKContext> generatePlanAsync(String goal) {
+        return preparePlanContextAsync(goal)
+                .flatMap(updatedContext -> functionFlowFunction.invokeAsync(updatedContext, null));
+    }
 
-        return new DefaultSequentialPlannerSKContext(context)
+    private Flux<String> generatePlanStreamAsync(String goal) {
+        return preparePlanContextAsync(goal)
+                .flatMapMany(
+                        updatedContext ->
+                                functionFlowFunction.invokeStreamAsync(updatedContext, null));
+    }
+
+    private Mono<CompletionSKContext> preparePlanContextAsync(String goal) {
+        return new DefaultSequentialPlannerSKContext(
+                        context, functionIndex, relevanceIndex, tokenizer)
                 .getFunctionsManualAsync(goal, this.config)
-                .flatMap(
-                        relevantFunctionsManual -> {
-                            CompletionSKContext updatedContext =
-                                    context.setVariable(
-                                                    "available_functions", relevantFunctionsManual)
-                                            .update(goal);
-
-                            return functionFlowFunction.invokeAsync(updatedContext, null);
-                        });
+                .map(
+                        relevantFunctionsManual ->
+                                context.setVariable("available_functions", relevantFunctionsManual)
+                                        .update(goal));
     }
 }